@@ -0,0 +1,78 @@
+package com.ultimatevm;
+
+import java.util.Random;
+
+public class BenchmarkGame {
+    //Deterministic pre-reset game fed to the predicter in the same order the plugin uses
+    public enum TimelineShape {
+        STEADY,
+        ESTIMATED_MOVES,
+        LATE_IDENTIFICATIONS,
+        EARTHQUAKES
+    }
+    public static final int NUM_TICKS = VentStatusTimeline.VM_GAME_RESET_TIME - 50;
+    private static final int EARTHQUAKE_TICK_TIME = 50;
+    private static final long SEED = 3011;
+
+    private final int u = VentStatus.STARTING_VENT_VALUE;
+    private final SyntheticGame game;
+    private int lastMoveBitState;
+
+    public BenchmarkGame(TimelineShape shape, int numPlayers) {
+        //Team size decides the rng mods
+        Random random = new Random(SEED + shape.ordinal());
+        int[] values = new int[StatusState.NUM_VENTS];
+        int[] identifyTicks = new int[]{5, 100, SyntheticGame.NOT_IDENTIFIED};
+        int[] earthquakeTicks = new int[0];
+        for(int i = 0; i < values.length; ++i)
+            values[i] = VentStatus.MIN_STARTING_VENT_VALUE + random.nextInt(VentStatus.MAX_STARTING_VENT_VALUE - VentStatus.MIN_STARTING_VENT_VALUE + 1);
+        int chamberBits = random.nextInt(8);
+        switch(shape) {
+            case ESTIMATED_MOVES:
+                //A sits at 0 so no movement is ever seen and every move is estimated
+                values[0] = VentStatus.MIN_VENT_VALUE;
+                chamberBits &= ~1;
+                identifyTicks[1] = SyntheticGame.NOT_IDENTIFIED;
+                break;
+            case LATE_IDENTIFICATIONS:
+                identifyTicks[0] = 250;
+                identifyTicks[1] = 400;
+                break;
+            case EARTHQUAKES:
+                earthquakeTicks = new int[(NUM_TICKS - 1) / EARTHQUAKE_TICK_TIME];
+                for(int i = 0; i < earthquakeTicks.length; ++i) earthquakeTicks[i] = (i + 1) * EARTHQUAKE_TICK_TIME;
+                break;
+            default:
+                break;
+        }
+        game = SyntheticGame.generate(SEED + shape.ordinal(), numPlayers,
+                new SyntheticGame.Script(values, chamberBits, identifyTicks, earthquakeTicks));
+
+        int[] previousVisible = new int[]{u, u, u}, visible = new int[StatusState.NUM_VENTS];
+        for(int tick = 0; tick < NUM_TICKS; ++tick) {
+            if(!VentStatusPredicter.isMovementUpdateTick(tick)) continue;
+            game.getVisibleValues(tick, visible);
+            lastMoveBitState = makeMoveBitState(previousVisible, visible);
+            System.arraycopy(visible, 0, previousVisible, 0, visible.length);
+        }
+    }
+
+    public VentStatusPredicter play() {
+        VentStatusPredicter predicter = new VentStatusPredicter();
+        game.playUntil(predicter, NUM_TICKS, null);
+        return predicter;
+    }
+    public int getLastMoveBitState() { return lastMoveBitState; }
+
+    //Helpers
+    private int makeMoveBitState(int[] previous, int[] current) {
+        //Unseen moves are marked as 3
+        int bitState = 0;
+        for(int i = 0; i < current.length; ++i) {
+            int move = 3;
+            if(previous[i] != u && current[i] != u) move = Math.min(3, Math.abs(current[i] - previous[i]));
+            bitState |= move << (i * 2);
+        }
+        return bitState;
+    }
+}
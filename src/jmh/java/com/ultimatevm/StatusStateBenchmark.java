@@ -0,0 +1,81 @@
+package com.ultimatevm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusStateBenchmark {
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int numPlayers;
+    @Param({"STEADY", "ESTIMATED_MOVES", "LATE_IDENTIFICATIONS", "EARTHQUAKES"})
+    public BenchmarkGame.TimelineShape shape;
+
+    //Inputs are copied into the work objects first so every call starts from the same state
+    private StatusState displayState, stabilityUpdateState;
+    private final StatusState workState = new StatusState();
+    private VentStatus unknownVent;
+    private final VentStatus workVent = new VentStatus('C');
+    private final int[] outsideVentInfluence = new int[2];
+    private StabilityUpdateInfo stabilityInfo;
+    private int moveBitState, pointsChange;
+
+    @Setup
+    public void setup() {
+        BenchmarkGame game = new BenchmarkGame(shape, numPlayers);
+        VentStatusPredicter predicter = game.play();
+        displayState = new StatusState(predicter.getDisplayState());
+        moveBitState = game.getLastMoveBitState();
+
+        //Newest stability update the timeline kept
+        int newestTick = VentStatusTimeline.VM_GAME_FULL_TIME - 1;
+        while(predicter.getTimeline().getStabilityUpdateInfo(newestTick) == null) --newestTick;
+        stabilityInfo = predicter.getTimeline().getStabilityUpdateInfo(newestTick);
+        stabilityUpdateState = stabilityInfo.getStabilityUpdateState();
+        pointsChange = stabilityInfo.getInitialChange() - stabilityInfo.getRNGUpdateMod();
+
+        unknownVent = displayState.getVents()[StatusState.NUM_VENTS - 1];
+        for(VentStatus vent : displayState.getVents()) {
+            if(!vent.isIdentified()) unknownVent = vent;
+        }
+    }
+
+    @Benchmark
+    public boolean doFreezeClipping() {
+        workState.setEqualTo(displayState);
+        return workState.doFreezeClipping(moveBitState);
+    }
+    @Benchmark
+    public boolean calcPredictedVentValues() {
+        workState.setEqualTo(stabilityUpdateState);
+        return workState.calcPredictedVentValues(pointsChange);
+    }
+    @Benchmark
+    public VentStatus updateMovement() {
+        //The vents above could either slow this one or not
+        workVent.setEqualTo(unknownVent);
+        outsideVentInfluence[0] = -1;
+        outsideVentInfluence[1] = 0;
+        workVent.updateMovement(outsideVentInfluence);
+        return workVent;
+    }
+    @Benchmark
+    public StatusState getAllPossiblePredictedValuesState() {
+        return stabilityInfo.getAllPossiblePredictedValuesState();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ultimatevm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineBenchmark {
+    @Param({"1", "2", "3", "4", "5", "6", "7", "8", "9"})
+    public int numPlayers;
+    @Param({"STEADY", "ESTIMATED_MOVES", "LATE_IDENTIFICATIONS", "EARTHQUAKES"})
+    public BenchmarkGame.TimelineShape shape;
+
+    private VentStatusTimeline timeline;
+
+    @Setup
+    public void setup() {
+        timeline = new BenchmarkGame(shape, numPlayers).play().getTimeline();
+    }
+
+    @Benchmark
+    public StatusState replayPrediction() {
+        //Every tick replayed from the starting state
+        timeline.invalidateCache(timeline.getCurrentStartingTick());
+        return timeline.getTimelinePredictionState();
+    }
+    @Benchmark
+    public StatusState cachedPrediction() {
+        //A quiet tick with nothing new to replay
+        return timeline.getTimelinePredictionState();
+    }
+    @Benchmark
+    public StatusState currentPrediction() {
+        //Every rng mod hypothesis the display state can fall back to
+        timeline.invalidateCache(timeline.getCurrentStartingTick());
+        return timeline.getCurrentPredictionState();
+    }
+}
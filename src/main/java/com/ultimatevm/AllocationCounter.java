@@ -0,0 +1,65 @@
+package com.ultimatevm;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class AllocationCounter {
+    //Bytes the calling thread allocated while a handler or predictor phase ran, kept per index
+    public static final long NOT_MEASURED = -1;
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = makeThreadBean();
+
+    private final AtomicLongArray totalBytes, maxBytes, numSamples;
+
+    private static com.sun.management.ThreadMXBean makeThreadBean() {
+        //Only HotSpot style jvms expose per thread allocation counters
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)bean;
+        if(!threadBean.isThreadAllocatedMemorySupported()) return null;
+        try {
+            if(!threadBean.isThreadAllocatedMemoryEnabled()) threadBean.setThreadAllocatedMemoryEnabled(true);
+        } catch(UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+        return threadBean;
+    }
+
+    public AllocationCounter(int size) {
+        totalBytes = new AtomicLongArray(size);
+        maxBytes = new AtomicLongArray(size);
+        numSamples = new AtomicLongArray(size);
+    }
+
+    public static boolean isSupported() { return THREAD_BEAN != null; }
+    public static long getAllocatedBytes() {
+        //Running total for the calling thread, only ever compared against an earlier read on the same thread
+        if(THREAD_BEAN == null) return NOT_MEASURED;
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public void record(int index, long startBytes) {
+        if(startBytes == NOT_MEASURED) return;
+        long bytes = Math.max(0, getAllocatedBytes() - startBytes);
+        totalBytes.addAndGet(index, bytes);
+        numSamples.incrementAndGet(index);
+        long max = maxBytes.get(index);
+        while(bytes > max && !maxBytes.compareAndSet(index, max, bytes)) max = maxBytes.get(index);
+    }
+    public void reset() {
+        for(int i = 0; i < totalBytes.length(); ++i) {
+            totalBytes.set(i, 0);
+            maxBytes.set(i, 0);
+            numSamples.set(i, 0);
+        }
+    }
+    public long getMeanBytes(int index) {
+        long samples = numSamples.get(index);
+        return samples == 0 ? 0 : totalBytes.get(index) / samples;
+    }
+
+    //Accessors
+    public int getSize() { return totalBytes.length(); }
+    public long getTotalBytes(int index) { return totalBytes.get(index); }
+    public long getMaxBytes(int index) { return maxBytes.get(index); }
+    public long getNumSamples(int index) { return numSamples.get(index); }
+}
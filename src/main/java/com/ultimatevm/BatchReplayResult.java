@@ -0,0 +1,63 @@
+package com.ultimatevm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BatchReplayResult {
+    //Every session of a batch along with their ticks grouped by team size
+    private static final double NANOS_PER_SECOND = 1000000000.0;
+
+    private final List<ReplayResult> results;
+    private final TreeMap<Integer, ReplayResult> teamResults = new TreeMap<>();
+    private final TreeMap<Integer, Integer> teamSessions = new TreeMap<>();
+    private final long wallNanos;
+    private final int numTicks;
+
+    BatchReplayResult(List<ReplayResult> results, long wallNanos) {
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+        this.wallNanos = wallNanos;
+        TreeMap<Integer, List<ReplayResult>> teams = new TreeMap<>();
+        int ticks = 0;
+        for(ReplayResult result : results) {
+            teams.computeIfAbsent(result.getNumPlayers(), players -> new ArrayList<>()).add(result);
+            ticks += result.getNumTicks();
+        }
+        numTicks = ticks;
+        for(Map.Entry<Integer, List<ReplayResult>> team : teams.entrySet()) {
+            int players = team.getKey();
+            teamResults.put(players, ReplayResult.merge("team", players, team.getValue()));
+            teamSessions.put(players, team.getValue().size());
+        }
+    }
+
+    public double getTicksPerSecond() {
+        //Wall clock so it shows how well the batch used every core
+        return wallNanos == 0 ? 0 : numTicks * NANOS_PER_SECOND / wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("sessions=%d ticks=%d wall=%.2fs throughput=%.0f ticks/s",
+                results.size(), numTicks, wallNanos / NANOS_PER_SECOND, getTicksPerSecond()));
+        for(ReplayResult team : teamResults.values()) {
+            //Core throughput is what a single thread gets out of the prediction core alone
+            long coreNanos = team.getTotalNanos();
+            double coreTicksPerSecond = coreNanos == 0 ? 0 : team.getNumTicks() * NANOS_PER_SECOND / coreNanos;
+            builder.append('\n').append(team).append(String.format(" sessions=%d core=%.0f ticks/s",
+                    teamSessions.get(team.getNumPlayers()), coreTicksPerSecond));
+        }
+        return builder.toString();
+    }
+
+    //Accessors
+    public final List<ReplayResult> getResults() { return results; }
+    public final ReplayResult getTeamResult(int numPlayers) { return teamResults.get(numPlayers); }
+    public int getNumTeamSessions(int numPlayers) { return teamSessions.getOrDefault(numPlayers, 0); }
+    public final List<Integer> getTeamSizes() { return new ArrayList<>(teamResults.keySet()); }
+    public int getNumTicks() { return numTicks; }
+    public long getWallNanos() { return wallNanos; }
+}
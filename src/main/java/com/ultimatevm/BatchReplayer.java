@@ -0,0 +1,72 @@
+package com.ultimatevm;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatchReplayer {
+    //Replays many sessions at once - every worker thread owns its own replayer so games never share state
+    private final UltimateVolcanicMineConfig config;
+    private final int numThreads;
+    private boolean isAllocationAccounting;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        //Each argument is a session file or a folder of them
+        if(args.length == 0) args = new String[]{SessionRecorder.DEFAULT_SESSION_DIR.getPath()};
+        BatchReplayer batch = new BatchReplayer(new UltimateVolcanicMineConfig() {}, Runtime.getRuntime().availableProcessors());
+        batch.setAllocationAccounting(Boolean.getBoolean(SessionReplayer.ALLOCATIONS_PROPERTY));
+        System.out.println(batch.replay(SessionReplayer.listSessions(args)));
+    }
+
+    public BatchReplayer(UltimateVolcanicMineConfig config, int numThreads) {
+        this.config = config;
+        this.numThreads = Math.max(1, numThreads);
+    }
+
+    public BatchReplayResult replay(List<File> sessions) throws IOException, InterruptedException {
+        //Allocations are counted per thread so every worker only sees its own sessions
+        ThreadLocal<SessionReplayer> replayers = ThreadLocal.withInitial(() -> {
+            SessionReplayer replayer = new SessionReplayer(config);
+            replayer.setAllocationAccounting(isAllocationAccounting);
+            return replayer;
+        });
+        ExecutorService workers = Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ultimate-vm-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long start = System.nanoTime();
+            List<Future<ReplayResult>> futures = new ArrayList<>(sessions.size());
+            for(File session : sessions) futures.add(workers.submit(() -> replayers.get().replay(session)));
+            //Results are kept in session order no matter which worker finished first
+            List<ReplayResult> results = new ArrayList<>(sessions.size());
+            for(Future<ReplayResult> future : futures) results.add(getResult(future));
+            return new BatchReplayResult(results, System.nanoTime() - start);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    //Helpers
+    private static ReplayResult getResult(Future<ReplayResult> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException) throw (IOException)e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void setAllocationAccounting(boolean isAllocationAccounting) {
+        this.isAllocationAccounting = isAllocationAccounting;
+    }
+
+    //Accessors
+    public int getNumThreads() { return numThreads; }
+}
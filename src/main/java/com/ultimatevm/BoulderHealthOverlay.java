@@ -4,6 +4,8 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.List;
 import javax.inject.Inject;
 import net.runelite.api.Client;
 import net.runelite.api.GameObject;
@@ -44,6 +46,12 @@ public class BoulderHealthOverlay extends Overlay
 	private WorldPoint boulderWorldLocation;
 	private int currentHealth;
 	private int currentBoulderNumber = 1;
+	private HandlerLatencies latencies;
+	//Every boulder in the scene kept up to date from spawn events so ticks never search for one
+	private final List<NPC> boulderNpcs = new ArrayList<>();
+	private final List<GameObject> boulderObjects = new ArrayList<>();
+	//Entities already in the scene when it loaded have no spawn event so the scene is searched once
+	private boolean needsSceneScan = true;
 
 	@Inject
 	BoulderHealthOverlay(Client client, UltimateVolcanicMineConfig config)
@@ -54,6 +62,11 @@ public class BoulderHealthOverlay extends Overlay
 		this.config = config;
 	}
 
+	void setLatencies(HandlerLatencies latencies)
+	{
+		this.latencies = latencies;
+	}
+
 	void startBoulder(LocalPoint localLocation, WorldPoint worldLocation, int maxHealth)
 	{
 		boulderLocalLocation = localLocation;
@@ -84,20 +97,57 @@ public class BoulderHealthOverlay extends Overlay
 
 	void onGameTick()
 	{
+		if (needsSceneScan)
+		{
+			indexScene();
+		}
 		ensureActiveBoulderTracked();
 		refreshTrackedBoulderLocation();
 	}
 
 	void onNpcSpawned(NPC npc)
 	{
+		indexNpc(npc);
 		trackActiveBoulderFromNpc(npc);
 	}
 
 	void onNpcChanged(NPC npc)
 	{
+		indexNpc(npc);
 		trackActiveBoulderFromNpc(npc);
 	}
 
+	void onNpcDespawned(NPC npc)
+	{
+		boulderNpcs.remove(npc);
+	}
+
+	void onGameObjectSpawned(GameObject gameObject)
+	{
+		if (isMineableBoulderGameObject(gameObject) && !boulderObjects.contains(gameObject))
+		{
+			boulderObjects.add(gameObject);
+		}
+	}
+
+	void onGameObjectDespawned(GameObject gameObject)
+	{
+		boulderObjects.remove(gameObject);
+	}
+
+	void onSceneLoading()
+	{
+		//Nothing from the old scene survives a load
+		clearIndex();
+	}
+
+	void clearIndex()
+	{
+		boulderNpcs.clear();
+		boulderObjects.clear();
+		needsSceneScan = true;
+	}
+
 	boolean handleBreakStageNpc(int npcId)
 	{
 		if (!isBreakStageNpcId(npcId))
@@ -149,6 +199,19 @@ public class BoulderHealthOverlay extends Overlay
 
 	@Override
 	public Dimension render(Graphics2D graphics)
+	{
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try
+		{
+			return renderHealth(graphics);
+		}
+		finally
+		{
+			latencies.record(HandlerLatencies.Handler.BOULDER_HEALTH_RENDER, start, startBytes);
+		}
+	}
+
+	private Dimension renderHealth(Graphics2D graphics)
 	{
 		if (!config.showBoulderHealth() || boulderLocalLocation == null || currentBoulderNumber > 5)
 		{
@@ -188,17 +251,16 @@ public class BoulderHealthOverlay extends Overlay
 			return;
 		}
 
-		for (NPC npc : client.getNpcs())
+		if (!boulderNpcs.isEmpty())
 		{
-			if (!isMineableBoulderNpc(npc))
-			{
-				continue;
-			}
-			trackActiveBoulderFromNpc(npc);
+			trackActiveBoulderFromNpc(boulderNpcs.get(0));
 			return;
 		}
 
-		scanSceneForBoulder();
+		if (!boulderObjects.isEmpty())
+		{
+			trackActiveBoulderFromGameObject(boulderObjects.get(0));
+		}
 	}
 
 	private void refreshTrackedBoulderLocation()
@@ -211,9 +273,9 @@ public class BoulderHealthOverlay extends Overlay
 
 		NPC candidateNpc = null;
 		int bestNpcDistance = Integer.MAX_VALUE;
-		for (NPC npc : client.getNpcs())
+		for (NPC npc : boulderNpcs)
 		{
-			if (!isMineableBoulderNpc(npc) || npc.getWorldLocation() == null)
+			if (npc.getWorldLocation() == null)
 			{
 				continue;
 			}
@@ -251,7 +313,24 @@ public class BoulderHealthOverlay extends Overlay
 		}
 	}
 
-	private void scanSceneForBoulder()
+	private void indexNpc(NPC npc)
+	{
+		//Changed NPCs can stop being a mineable boulder by turning into a break stage
+		boolean isIndexed = boulderNpcs.contains(npc);
+		if (isMineableBoulderNpc(npc))
+		{
+			if (!isIndexed)
+			{
+				boulderNpcs.add(npc);
+			}
+		}
+		else if (isIndexed)
+		{
+			boulderNpcs.remove(npc);
+		}
+	}
+
+	private void indexScene()
 	{
 		Scene scene = client.getScene();
 		if (scene == null || client.getPlane() < 0)
@@ -266,6 +345,12 @@ public class BoulderHealthOverlay extends Overlay
 			return;
 		}
 
+		needsSceneScan = false;
+		for (NPC npc : client.getNpcs())
+		{
+			indexNpc(npc);
+		}
+
 		for (Tile[] column : tiles[plane])
 		{
 			if (column == null)
@@ -282,12 +367,7 @@ public class BoulderHealthOverlay extends Overlay
 
 				for (GameObject gameObject : tile.getGameObjects())
 				{
-					if (gameObject == null || !isMineableBoulderGameObject(gameObject))
-					{
-						continue;
-					}
-					trackActiveBoulderFromGameObject(gameObject);
-					return;
+					onGameObjectSpawned(gameObject);
 				}
 			}
 		}
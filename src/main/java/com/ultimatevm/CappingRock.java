@@ -4,26 +4,26 @@ import java.awt.Color;
 import net.runelite.api.coords.WorldPoint;
 
 public class CappingRock extends TimedObject {
-    private final double TICK_RESPAWN_TIME = 25;
+    private static final int TICK_RESPAWN_TIME = 25;
 
-    CappingRock(WorldPoint worldLocation) {
-        super(worldLocation, ObjectType.ROCK);
+    CappingRock(WorldPoint worldLocation, int spawnTick) {
+        super(worldLocation, ObjectType.ROCK, spawnTick);
     }
 
     @Override
-    public Color getStateColor() {
-        double ratio = ticksPassed / TICK_RESPAWN_TIME;
+    protected int getLifetime() { return TICK_RESPAWN_TIME; }
+    @Override
+    public Color getStateColor(int currentTick) {
+        double ratio = getTicksPassed(currentTick) / TICK_RESPAWN_TIME;
         if(ratio < 0.4) return new Color(255, 50, 0);
         else if(ratio < 0.8) return new Color(255, 187, 0);
         return new Color(0, 217, 0);
     }
 
     @Override
-    public double getTimeLeft() { return TICK_RESPAWN_TIME - ticksPassed; }
+    public double getTimeLeft(int currentTick) { return TICK_RESPAWN_TIME - getTicksPassed(currentTick); }
     @Override
-    public double getTimeRemaining()  {
-        return Math.min(1, ticksPassed / TICK_RESPAWN_TIME);
+    public double getTimeRemaining(int currentTick)  {
+        return Math.min(1, getTicksPassed(currentTick) / TICK_RESPAWN_TIME);
     }
-    @Override
-    public boolean isTimeExpired() { return ticksPassed >= TICK_RESPAWN_TIME; }
 }
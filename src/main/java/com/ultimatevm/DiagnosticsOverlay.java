@@ -0,0 +1,100 @@
+package com.ultimatevm;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+public class DiagnosticsOverlay extends OverlayPanel
+{
+	private static final double NANOS_TO_MICROS = 1.0 / 1000.0;
+	private static final HandlerLatencies.Handler[] HANDLERS = HandlerLatencies.getHandlers();
+	private static final VentStatusPredicter.Phase[] PHASES = VentStatusPredicter.Phase.values();
+
+	private HandlerLatencies latencies;
+	private VentPredictionPipeline ventPredictionPipeline;
+
+	@Inject
+	DiagnosticsOverlay()
+	{
+		setPosition(OverlayPosition.TOP_LEFT);
+	}
+
+	public void setSources(HandlerLatencies latencies, VentPredictionPipeline ventPredictionPipeline)
+	{
+		this.latencies = latencies;
+		this.ventPredictionPipeline = ventPredictionPipeline;
+	}
+
+	@Override
+	public Dimension render(Graphics2D graphics)
+	{
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try
+		{
+			panelComponent.getChildren().add(TitleComponent.builder().text("p50 / p99 / max (us)").build());
+			for (HandlerLatencies.Handler handler : HANDLERS)
+			{
+				LatencyHistogram histogram = latencies.getHistogram(handler);
+				if (histogram.getNumSamples() == 0)
+				{
+					continue;
+				}
+				panelComponent.getChildren().add(LineComponent.builder()
+					.left(handler.getDisplayName())
+					.right(String.format("%.0f / %.0f / %.0f",
+						histogram.getPercentile(50) * NANOS_TO_MICROS,
+						histogram.getPercentile(99) * NANOS_TO_MICROS,
+						histogram.getMaxNanos() * NANOS_TO_MICROS))
+					.build());
+			}
+			panelComponent.getChildren().add(LineComponent.builder()
+				.left("Replayed ticks")
+				.right(Integer.toString(ventPredictionPipeline.getNumReplayedTicks()))
+				.build());
+			panelComponent.getChildren().add(LineComponent.builder()
+				.left("Possibilities")
+				.right(Integer.toString(ventPredictionPipeline.getNumPossibleStates()))
+				.build());
+			if (latencies.isAllocationAccounting())
+			{
+				renderAllocations();
+			}
+			return super.render(graphics);
+		}
+		finally
+		{
+			latencies.record(HandlerLatencies.Handler.DIAGNOSTICS_RENDER, start, startBytes);
+		}
+	}
+
+	private void renderAllocations()
+	{
+		panelComponent.getChildren().add(TitleComponent.builder().text("mean / max allocated (B)").build());
+		AllocationCounter allocations = latencies.getAllocations();
+		for (HandlerLatencies.Handler handler : HANDLERS)
+		{
+			addAllocationLine(handler.getDisplayName(), allocations, handler.ordinal());
+		}
+		AllocationCounter phaseAllocations = latencies.getPhaseAllocations();
+		for (VentStatusPredicter.Phase phase : PHASES)
+		{
+			addAllocationLine(phase.name(), phaseAllocations, phase.ordinal());
+		}
+	}
+
+	private void addAllocationLine(String name, AllocationCounter allocations, int index)
+	{
+		if (allocations.getNumSamples(index) == 0)
+		{
+			return;
+		}
+		panelComponent.getChildren().add(LineComponent.builder()
+			.left(name)
+			.right(allocations.getMeanBytes(index) + " / " + allocations.getMaxBytes(index))
+			.build());
+	}
+}
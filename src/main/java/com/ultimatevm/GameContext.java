@@ -0,0 +1,28 @@
+package com.ultimatevm;
+
+public class GameContext {
+    //Team state of one game - every predicter owns its own so games never see each other
+    private int numPlayers = 1;
+
+    public GameContext() {}
+    public GameContext(int numPlayers) {
+        setNumPlayers(numPlayers);
+    }
+
+    public void resetPlayers() { numPlayers = 1; }
+    public void setNumPlayers(int players) {
+        //Players can only leave once the game starts so the largest count seen is the team size
+        numPlayers = Math.max(numPlayers, players);
+    }
+
+    //Stability updates have a max rng mod of +1
+    //and a min mod of -numPlayers / 3 for team sizes less than 6
+    //team sizes 6 and up I am unsure
+    public int getMinRNGVariation() { return -numPlayers / 3; }
+    public int getMaxRNGVariation() { return 1; }
+    public int getMaxRNGPossibleSize() { return (numPlayers / 3) + 2; }
+
+    //Accessors
+    public int getNumPlayers() { return numPlayers; }
+    public boolean isSolo() { return numPlayers == 1; }
+}
@@ -0,0 +1,157 @@
+package com.ultimatevm;
+
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+public class GameTickHandler {
+    //Per tick varbit handling and notification decisions shared by the plugin and the session replayer
+    public static final int VARBIT_POINTS = 5934;
+    public static final int VARBIT_CHAMBER_STATUS = 5936;
+    public static final int VARBIT_PLAYER_COUNT = 5937;
+    public static final int VARBIT_STABILITY = 5938;
+    public static final int VARBIT_VENT_STATUS_A = 5939;
+    public static final int VARBIT_VENT_STATUS_B = 5940;
+    public static final int VARBIT_GAME_STATE = 5941;
+    public static final int VARBIT_VENT_STATUS_C = 5942;
+    public static final int VARBIT_TIME_REMAINING = 5944;
+    public static final int VM_GAME_STATE_NONE = 0;
+    public static final int VM_GAME_STATE_IN_LOBBY = 1;
+    public static final int VM_GAME_STATE_IN_GAME = 2;
+    public static final int VM_EXIT_TIME = 50;
+    public static final int VM_LOBBY_TIME = 50;
+    public static final float SECONDS_TO_TICKS = 1.666f;
+    //Vent fix notifications look this far ahead in the stability forecast
+    public static final int FORECAST_LOOKAHEAD_TICKS = VentStatusTimeline.STABILITY_UPDATE_TICK_TIME * 4;
+
+    private final UltimateVolcanicMineConfig config;
+    private final VentPredictionPipeline pipeline;
+    //Where varbits are read from - the plugin also records each read
+    private final IntUnaryOperator varbits;
+    private final Consumer<VMNotifier.NotificationEvents> notifications;
+    private final StabilityTracker stabilityTracker = new StabilityTracker();
+    private final StabilityTracker futureStabilityTracker = new StabilityTracker();
+    private final int[] ventStatus = new int[StatusState.NUM_VENTS];
+    private int vmGameState = VM_GAME_STATE_NONE;
+    private int timeRemainingFromServer, estimatedTimeRemaining, maxPlayerCount;
+    private int eruptionTime, ventWarningTime;
+
+    public GameTickHandler(UltimateVolcanicMineConfig config, VentPredictionPipeline pipeline, IntUnaryOperator varbits,
+                           Consumer<VMNotifier.NotificationEvents> notifications) {
+        this.config = config;
+        this.pipeline = pipeline;
+        this.varbits = varbits;
+        this.notifications = notifications;
+        configure();
+    }
+    public void configure() {
+        eruptionTime = (int)(config.eruptionWarningTime() * SECONDS_TO_TICKS);
+        ventWarningTime = (int)(config.ventWarningTime() * SECONDS_TO_TICKS);
+        stabilityTracker.setDisplayCount(config.stabilityUpdateHistoryCount());
+        futureStabilityTracker.setDisplayCount(config.predictedStabilityChangeHistoryCount());
+    }
+    public void initialize() {
+        stabilityTracker.initialize();
+        futureStabilityTracker.initialize();
+        configure();
+    }
+    public void reset() {
+        estimatedTimeRemaining = timeRemainingFromServer = maxPlayerCount = 0;
+    }
+
+    public void onVarbitChanged(int varbitId, int value) {
+        if(varbitId != VARBIT_PLAYER_COUNT) return;
+        //Set our starting player count
+        maxPlayerCount = Math.max(maxPlayerCount, value);
+        //Check if a player leaves/dies - player count can only move down in game
+        //Skip this check if its time to exit the mine
+        if(hasGameStarted() && estimatedTimeRemaining > VM_EXIT_TIME)
+            notify(VMNotifier.NotificationEvents.VM_PLAYER_LEAVE);
+    }
+    public void startTick() {
+        if(maxPlayerCount > config.expectedTeamSize()) notify(VMNotifier.NotificationEvents.VM_EXTRA_PLAYER);
+        int newTimeRemaining = read(VARBIT_TIME_REMAINING);
+        if(newTimeRemaining != timeRemainingFromServer) {
+            estimatedTimeRemaining = timeRemainingFromServer = newTimeRemaining;
+        } else --estimatedTimeRemaining;
+    }
+    public void updateVentStatus() {
+        pipeline.setNumPlayers(read(VARBIT_PLAYER_COUNT));
+        ventStatus[0] = read(VARBIT_VENT_STATUS_A);
+        ventStatus[1] = read(VARBIT_VENT_STATUS_B);
+        ventStatus[2] = read(VARBIT_VENT_STATUS_C);
+        pipeline.updateVentStatus(ventStatus, read(VARBIT_CHAMBER_STATUS));
+        //Update our predicted stability change on the same exact tick the vent status changes
+        if(pipeline.isMovementUpdateTick()) checkPredictedVentFix();
+    }
+    public boolean updateStability() {
+        int currentStability = read(VARBIT_STABILITY);
+        pipeline.setStability(currentStability);
+        if(!stabilityTracker.updateStability(currentStability)) return false;
+        pipeline.makeStatusState(stabilityTracker.getCurrentChange());
+
+        //Check if we have to fix vents now
+        if(stabilityTracker.getCurrentChange() < 0 && estimatedTimeRemaining > 595)
+            notify(VMNotifier.NotificationEvents.VM_PRE_RESET_VENT_FIX);
+
+        //Check if we should have all 3 vents fixed (post-reset)
+        boolean isPostResetTime = (estimatedTimeRemaining <= (VentStatusTimeline.VM_GAME_RESET_TIME-15) && estimatedTimeRemaining > 305);
+        if(isPostResetTime && isEruptionForecast(currentStability))
+            notify(VMNotifier.NotificationEvents.VM_POST_RESET_VENT_FIX);
+        return true;
+    }
+    public void finishTick() {
+        //Ensure reset will not happen at the very start before the server sends the new game time
+        //Reset around 5:00 when the server sends new unidentified vent
+        if(pipeline.getCurrentTick() > VMNotifier.NOTIFICATION_START_COOLDOWN_TICKS &&
+                timeRemainingFromServer <= VentStatusTimeline.VM_GAME_RESET_TIME) {
+            stabilityTracker.resetStabilityHistory();
+            futureStabilityTracker.resetStabilityHistory();
+        }
+        if(estimatedTimeRemaining <= (VentStatusTimeline.VM_GAME_RESET_TIME + ventWarningTime))
+            notify(VMNotifier.NotificationEvents.VM_RESET);
+        if(estimatedTimeRemaining <= eruptionTime) notify(VMNotifier.NotificationEvents.VM_ERUPTION);
+        pipeline.finishTick();
+    }
+
+    //Helpers
+    private void checkPredictedVentFix() {
+        //Check if we have to fix vents in the future
+        int futureChange = pipeline.getFutureStabilityChange(config.predictedVentFixScenario());
+        if(futureChange != VentStatus.STARTING_VENT_VALUE) futureStabilityTracker.addChange(futureChange);
+        int startTime = 900 - (int)(config.predictedventWarningStartTime() * SECONDS_TO_TICKS);
+        int endTime = 600 + (int)(config.predictedventWarningEndTime() * SECONDS_TO_TICKS);
+        if(estimatedTimeRemaining >= startTime || estimatedTimeRemaining <= endTime) return;
+
+        //Play the vents forward through the rest of the warning window when possible
+        StabilityForecast forecast = pipeline.getStabilityForecast();
+        boolean isFixNeeded = futureChange != VentStatus.STARTING_VENT_VALUE &&
+                futureStabilityTracker.isFutureStabilityBad(config.predictedStabilityChange());
+        if(forecast.isAvailable()) {
+            int untilTick = pipeline.getCurrentTick() + Math.min(estimatedTimeRemaining - endTime, FORECAST_LOOKAHEAD_TICKS);
+            int lowestChange = forecast.getLowestStabilityChange(config.predictedVentFixScenario(), untilTick);
+            isFixNeeded = lowestChange != StabilityForecast.NO_FORECAST && lowestChange <= config.predictedStabilityChange();
+        }
+        if(isFixNeeded) notify(VMNotifier.NotificationEvents.VM_PREDICTED_VENT_FIX);
+    }
+    private boolean isEruptionForecast(int currentStability) {
+        StabilityForecast forecast = pipeline.getStabilityForecast();
+        if(!forecast.isAvailable())
+            return currentStability + (stabilityTracker.getCurrentChange() * 4) <= 0;
+        int untilTick = pipeline.getCurrentTick() + FORECAST_LOOKAHEAD_TICKS;
+        int lowestStability = forecast.getLowestStability(config.predictedVentFixScenario(), untilTick);
+        return lowestStability != StabilityForecast.NO_FORECAST && lowestStability <= 0;
+    }
+    private void notify(VMNotifier.NotificationEvents event) { notifications.accept(event); }
+    private int read(int varbitId) { return varbits.applyAsInt(varbitId); }
+
+    //Accessors
+    public boolean hasGameStarted() {
+        if(vmGameState >= VM_GAME_STATE_IN_GAME) return true;
+        //Both Lobby and exit time are 30 seconds
+        return estimatedTimeRemaining > VM_LOBBY_TIME;
+    }
+    public void setGameState(int vmGameState) { this.vmGameState = vmGameState; }
+    public int getEstimatedTimeRemaining() { return estimatedTimeRemaining; }
+    public final StabilityTracker getStabilityTracker() { return stabilityTracker; }
+    public final StabilityTracker getFutureStabilityTracker() { return futureStabilityTracker; }
+}
@@ -0,0 +1,64 @@
+package com.ultimatevm;
+
+public class HandlerLatencies {
+    //One histogram per event handler and overlay so the diagnostics show what the plugin costs each tick
+    public enum Handler {
+        GAME_TICK("onGameTick"),
+        VARBIT_CHANGED("onVarbitChanged"),
+        SCRIPT_POST_FIRED("onScriptPostFired"),
+        CHAT_MESSAGE("onChatMessage"),
+        GAME_OBJECT_SPAWNED("onGameObjectSpawned"),
+        NPC_SPAWNED("onNpcSpawned"),
+        BEFORE_RENDER("onBeforeRender"),
+        TIMED_OBJECT_RENDER("TimedObjectOverlay"),
+        BOULDER_HEALTH_RENDER("BoulderHealthOverlay"),
+        DIAGNOSTICS_RENDER("DiagnosticsOverlay");
+
+        private final String displayName;
+
+        Handler(String displayName) {
+            this.displayName = displayName;
+        }
+        public String getDisplayName() { return displayName; }
+    }
+    private static final Handler[] HANDLERS = Handler.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[HANDLERS.length];
+    //Bytes each handler allocated plus what the predicter allocated in each phase on whatever thread runs it
+    private final AllocationCounter allocations = new AllocationCounter(HANDLERS.length);
+    private final AllocationCounter phaseAllocations = new AllocationCounter(VentStatusPredicter.NUM_PHASES);
+    private volatile boolean isAllocationAccounting;
+
+    public HandlerLatencies() {
+        for(int i = 0; i < histograms.length; ++i) histograms[i] = new LatencyHistogram();
+    }
+
+    public void record(Handler handler, long startNanos) {
+        //Takes the start time so callers only read the clock once themselves
+        histograms[handler.ordinal()].record(System.nanoTime() - startNanos);
+    }
+    public void record(Handler handler, long startNanos, long startBytes) {
+        record(handler, startNanos);
+        allocations.record(handler.ordinal(), startBytes);
+    }
+    public long startAllocations() {
+        //Reading the allocation counter costs more than the clock so it is skipped unless asked for
+        return isAllocationAccounting ? AllocationCounter.getAllocatedBytes() : AllocationCounter.NOT_MEASURED;
+    }
+    public void reset() {
+        for(LatencyHistogram histogram : histograms) histogram.reset();
+        allocations.reset();
+        phaseAllocations.reset();
+    }
+    public void setAllocationAccounting(boolean isAllocationAccounting) {
+        this.isAllocationAccounting = isAllocationAccounting && AllocationCounter.isSupported();
+    }
+
+    //Accessors
+    public final LatencyHistogram getHistogram(Handler handler) { return histograms[handler.ordinal()]; }
+    public final AllocationCounter getAllocations() { return allocations; }
+    //Handed to the predicter while accounting is on
+    public final AllocationCounter getPhaseAllocations() { return phaseAllocations; }
+    public boolean isAllocationAccounting() { return isAllocationAccounting; }
+    public static Handler[] getHandlers() { return HANDLERS.clone(); }
+}
@@ -0,0 +1,46 @@
+package com.ultimatevm;
+
+import static com.ultimatevm.VentStatus.*;
+
+public final class HudLabels {
+    //Every number the HUD can show is formatted once at startup so composing its text never formats numbers
+    public static final int MIN_STABILITY_CHANGE = -28;
+    public static final int MAX_STABILITY_CHANGE = 24;
+    private static final String POSITIVE_COLOR_TAG = "<col=00ff00>";
+    private static final String NEGATIVE_COLOR_TAG = "<col=ff0000>";
+    private static final String END_COLOR_TAG = "</col>";
+
+    private static final String[] VENT_VALUES = new String[MAX_VENT_VALUE + 1];
+    private static final String[] VENT_PERCENTS = new String[MAX_VENT_VALUE + 1];
+    private static final String[] STABILITY_CHANGES = new String[MAX_STABILITY_CHANGE - MIN_STABILITY_CHANGE + 1];
+    static {
+        for(int value = MIN_VENT_VALUE; value <= MAX_VENT_VALUE; ++value) {
+            VENT_VALUES[value] = Integer.toString(value).intern();
+            VENT_PERCENTS[value] = (value + "%").intern();
+        }
+        for(int change = MIN_STABILITY_CHANGE; change <= MAX_STABILITY_CHANGE; ++change) {
+            STABILITY_CHANGES[change - MIN_STABILITY_CHANGE] = makeStabilityChange(change).intern();
+        }
+    }
+
+    private HudLabels() {}
+
+    public static String getVentValue(int value) {
+        return isVentValue(value) ? VENT_VALUES[value] : Integer.toString(value);
+    }
+    public static String getVentPercent(int value) {
+        return isVentValue(value) ? VENT_PERCENTS[value] : value + "%";
+    }
+    public static String getStabilityChange(int change) {
+        //Forecast changes can fall outside what a real update can be so those are still built
+        if(change < MIN_STABILITY_CHANGE || change > MAX_STABILITY_CHANGE) return makeStabilityChange(change);
+        return STABILITY_CHANGES[change - MIN_STABILITY_CHANGE];
+    }
+
+    //Helpers
+    private static boolean isVentValue(int value) { return value >= MIN_VENT_VALUE && value <= MAX_VENT_VALUE; }
+    private static String makeStabilityChange(int change) {
+        if(change >= 0) return POSITIVE_COLOR_TAG + change + END_COLOR_TAG;
+        return NEGATIVE_COLOR_TAG + Math.abs(change) + END_COLOR_TAG;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ultimatevm;
+
+import java.util.Arrays;
+
+public class IntHashSet {
+    //Open addressing with linear probing so int keys are never boxed
+    public static final int EMPTY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public IntHashSet() {
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public boolean add(int key) {
+        if(key == EMPTY) throw new IllegalArgumentException("Key reserved for empty slots " + key);
+        //Kept at most half full so probes stay short
+        if((size + 1) * 2 > keys.length) grow();
+        int mask = keys.length - 1;
+        for(int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if(keys[i] == key) return false;
+            if(keys[i] != EMPTY) continue;
+            keys[i] = key;
+            ++size;
+            return true;
+        }
+    }
+    public boolean remove(int key) {
+        int slot = indexOf(key);
+        if(slot < 0) return false;
+
+        //Shift later keys of the same probe run back so lookups never stop at the hole
+        int mask = keys.length - 1;
+        keys[slot] = EMPTY;
+        for(int i = (slot + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            boolean isBetween = slot <= i ? (home > slot && home <= i) : (home > slot || home <= i);
+            if(isBetween) continue;
+            keys[slot] = keys[i];
+            keys[i] = EMPTY;
+            slot = i;
+        }
+        --size;
+        return true;
+    }
+    public boolean contains(int key) { return key != EMPTY && indexOf(key) >= 0; }
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    //Helpers
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        for(int i = hash(key) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if(keys[i] == key) return i;
+        }
+        return -1;
+    }
+    private void grow() {
+        int[] oldKeys = keys;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        for(int key : oldKeys) {
+            if(key != EMPTY) add(key);
+        }
+    }
+    private static int hash(int key) {
+        //Position codes differ mostly in their high half so mix it into the low bits
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //Accessors
+    public int size() { return size; }
+}
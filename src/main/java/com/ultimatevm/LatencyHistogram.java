@@ -0,0 +1,72 @@
+package com.ultimatevm;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+    //Fixed log buckets - every power of two is split into 4 so a bucket is never off by more than 25%
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    //Recording only ever bumps counters so any thread can record without locking or allocating
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong numSamples = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if(nanos < 0) nanos = 0;
+        counts.incrementAndGet(getBucket(nanos));
+        numSamples.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while(nanos > max && !maxNanos.compareAndSet(max, nanos)) max = maxNanos.get();
+    }
+    public void reset() {
+        //Samples recorded during a reset may land on either side of it
+        for(int i = 0; i < NUM_BUCKETS; ++i) counts.set(i, 0);
+        numSamples.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    public long getPercentile(double percentile) {
+        //Upper bound of the bucket holding the percentile, never more than the slowest sample
+        long samples = numSamples.get();
+        if(samples == 0) return 0;
+        long rank = Math.max(1, (long)Math.ceil(samples * percentile / 100.0));
+        long seen = 0;
+        for(int i = 0; i < NUM_BUCKETS; ++i) {
+            seen += counts.get(i);
+            if(seen >= rank) return Math.min(getBucketUpperBound(i), getMaxNanos());
+        }
+        return getMaxNanos();
+    }
+    public long getMeanNanos() {
+        long samples = numSamples.get();
+        return samples == 0 ? 0 : totalNanos.get() / samples;
+    }
+
+    //Helpers
+    static int getBucket(long nanos) {
+        //Small values get a bucket each, larger ones share a bucket with everything of the same top bits
+        if(nanos < SUB_BUCKETS) return (int)nanos;
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int)(nanos >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+    static long getBucketUpperBound(int bucket) {
+        if(bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        //The top bucket ends right at Long.MAX_VALUE
+        return ((SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    //Accessors
+    public long getNumSamples() { return numSamples.get(); }
+    public long getMaxNanos() { return maxNanos.get(); }
+    public long getTotalNanos() { return totalNanos.get(); }
+}
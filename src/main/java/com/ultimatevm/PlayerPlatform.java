@@ -4,26 +4,26 @@ import net.runelite.api.coords.WorldPoint;
 import java.awt.Color;
 
 public class PlayerPlatform extends TimedObject {
-    private final double TICK_DESPAWN_TIME = 150;
+    private static final int TICK_DESPAWN_TIME = 150;
 
-    PlayerPlatform(WorldPoint worldLocation) {
-        super(worldLocation, ObjectType.PLATFORM);
+    PlayerPlatform(WorldPoint worldLocation, int spawnTick) {
+        super(worldLocation, ObjectType.PLATFORM, spawnTick);
     }
 
     @Override
-    public Color getStateColor() {
-        double ticksLeft = getTimeLeft();
+    protected int getLifetime() { return TICK_DESPAWN_TIME; }
+    @Override
+    public Color getStateColor(int currentTick) {
+        double ticksLeft = getTimeLeft(currentTick);
         if(ticksLeft < 10) return new Color(255, 50, 0);
         else if(ticksLeft < 75) return new Color(255, 187, 0);
         return new Color(0, 217, 0);
     }
 
     @Override
-    public double getTimeLeft() { return TICK_DESPAWN_TIME - ticksPassed; }
+    public double getTimeLeft(int currentTick) { return TICK_DESPAWN_TIME - getTicksPassed(currentTick); }
     @Override
-    public double getTimeRemaining()  {
-        return Math.min(1, 1 - ticksPassed / TICK_DESPAWN_TIME);
+    public double getTimeRemaining(int currentTick)  {
+        return Math.min(1, 1 - getTicksPassed(currentTick) / TICK_DESPAWN_TIME);
     }
-    @Override
-    public boolean isTimeExpired() { return ticksPassed >= TICK_DESPAWN_TIME; }
 }
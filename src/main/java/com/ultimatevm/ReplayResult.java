@@ -0,0 +1,116 @@
+package com.ultimatevm;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ReplayResult {
+    //How fast and how accurate the prediction core was over one replayed session
+    public static final int NOT_NOTIFIED = -1;
+    //Allocated bytes are kept per predicter phase followed by the whole tick
+    public static final int ALLOCATION_TICK = VentStatusPredicter.NUM_PHASES;
+    private static final double NANOS_TO_MICROS = 1.0 / 1000.0;
+
+    private final String name;
+    private final long[] tickNanos;
+    private final int numPlayers, numIdentified, numGraded, numCorrect;
+    private final long totalError;
+    private final int[] notificationTicks;
+    //Bytes allocated by the whole core and by each predicter phase, null when allocations were not measured
+    private final long[] allocatedBytes;
+
+    ReplayResult(String name, long[] tickNanos, int numTicks, int numPlayers, int numIdentified, int numGraded, int numCorrect,
+                 long totalError, int[] notificationTicks) {
+        this(name, tickNanos, numTicks, numPlayers, numIdentified, numGraded, numCorrect, totalError, notificationTicks, null);
+    }
+    ReplayResult(String name, long[] tickNanos, int numTicks, int numPlayers, int numIdentified, int numGraded, int numCorrect,
+                 long totalError, int[] notificationTicks, long[] allocatedBytes) {
+        this.name = name;
+        this.tickNanos = Arrays.copyOf(tickNanos, numTicks);
+        Arrays.sort(this.tickNanos);
+        this.numPlayers = numPlayers;
+        this.numIdentified = numIdentified;
+        this.numGraded = numGraded;
+        this.numCorrect = numCorrect;
+        this.totalError = totalError;
+        this.notificationTicks = notificationTicks.clone();
+        this.allocatedBytes = allocatedBytes == null ? null : allocatedBytes.clone();
+    }
+
+    static ReplayResult merge(String name, int numPlayers, List<ReplayResult> results) {
+        //Every tick of every session in one distribution - notifications are per session so none are kept
+        int numTicks = 0;
+        for(ReplayResult result : results) numTicks += result.getNumTicks();
+        long[] tickNanos = new long[numTicks];
+        int numIdentified = 0, numGraded = 0, numCorrect = 0;
+        long totalError = 0;
+        //Allocations are only kept when every session measured them
+        long[] allocatedBytes = new long[ALLOCATION_TICK + 1];
+        numTicks = 0;
+        for(ReplayResult result : results) {
+            if(result.allocatedBytes == null) allocatedBytes = null;
+            for(int i = 0; allocatedBytes != null && i < allocatedBytes.length; ++i) allocatedBytes[i] += result.allocatedBytes[i];
+            System.arraycopy(result.tickNanos, 0, tickNanos, numTicks, result.getNumTicks());
+            numTicks += result.getNumTicks();
+            numIdentified += result.numIdentified;
+            numGraded += result.numGraded;
+            numCorrect += result.numCorrect;
+            totalError += result.totalError;
+        }
+        int[] notificationTicks = new int[VMNotifier.NotificationEvents.values().length];
+        Arrays.fill(notificationTicks, NOT_NOTIFIED);
+        return new ReplayResult(name, tickNanos, numTicks, numPlayers, numIdentified, numGraded, numCorrect, totalError,
+                notificationTicks, allocatedBytes);
+    }
+
+    public long getLatencyPercentile(double percentile) {
+        //Nearest rank so every percentile is a tick that actually happened
+        if(tickNanos.length == 0) return 0;
+        int rank = (int)Math.ceil((percentile / 100.0) * tickNanos.length);
+        return tickNanos[Math.min(tickNanos.length - 1, Math.max(0, rank - 1))];
+    }
+    public double getAccuracy() {
+        return numGraded == 0 ? 0 : (double)numCorrect / numGraded;
+    }
+    public double getMeanError() {
+        return numGraded == 0 ? 0 : (double)totalError / numGraded;
+    }
+    public long getAllocatedBytesPerTick(int index) {
+        if(allocatedBytes == null || tickNanos.length == 0) return AllocationCounter.NOT_MEASURED;
+        return allocatedBytes[index] / tickNanos.length;
+    }
+    public long getTotalNanos() {
+        long total = 0;
+        for(long nanos : tickNanos) total += nanos;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name);
+        builder.append(String.format(" players=%d ticks=%d p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus",
+                numPlayers, getNumTicks(), getLatencyPercentile(50) * NANOS_TO_MICROS, getLatencyPercentile(90) * NANOS_TO_MICROS,
+                getLatencyPercentile(99) * NANOS_TO_MICROS, getLatencyPercentile(100) * NANOS_TO_MICROS));
+        builder.append(String.format(" identified=%d graded=%d accuracy=%.1f%% meanError=%.2f",
+                numIdentified, numGraded, getAccuracy() * 100, getMeanError()));
+        if(allocatedBytes != null) {
+            builder.append(String.format(" alloc=%dB/tick", getAllocatedBytesPerTick(ALLOCATION_TICK)));
+            for(VentStatusPredicter.Phase phase : VentStatusPredicter.Phase.values())
+                builder.append(' ').append(phase).append('=').append(getAllocatedBytesPerTick(phase.ordinal())).append("B/tick");
+        }
+        for(VMNotifier.NotificationEvents event : VMNotifier.NotificationEvents.values()) {
+            if(notificationTicks[event.ordinal()] == NOT_NOTIFIED) continue;
+            builder.append(' ').append(event).append('@').append(notificationTicks[event.ordinal()]);
+        }
+        return builder.toString();
+    }
+
+    //Accessors
+    public final String getName() { return name; }
+    public int getNumTicks() { return tickNanos.length; }
+    public int getNumPlayers() { return numPlayers; }
+    public int getNumIdentified() { return numIdentified; }
+    public int getNumGraded() { return numGraded; }
+    public int getNumCorrect() { return numCorrect; }
+    public boolean hasAllocations() { return allocatedBytes != null; }
+    public int getNotificationTick(VMNotifier.NotificationEvents event) { return notificationTicks[event.ordinal()]; }
+}
@@ -0,0 +1,66 @@
+package com.ultimatevm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.ultimatevm.SessionRecorder.*;
+
+public class SessionReader {
+    //Streams the records of a session file back in the order they were written
+    private static final RecordType[] RECORD_TYPES = RecordType.values();
+
+    private final MappedByteBuffer buffer;
+    private final int numRecords, numDropped;
+    private int index = -1;
+    private int tick, id, value, extra;
+    private RecordType type;
+
+    public static SessionReader open(File file) throws IOException {
+        MappedByteBuffer buffer;
+        try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        buffer.order(BYTE_ORDER);
+        if(buffer.capacity() < RECORD_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a session file " + file);
+        if(buffer.getShort(VERSION_OFFSET) != VERSION || buffer.getShort(RECORD_SIZE_OFFSET) != RECORD_SIZE)
+            throw new IOException("Unsupported session file version " + file);
+        return new SessionReader(buffer);
+    }
+
+    private SessionReader(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        //Never read past the end of the mapping even if the header disagrees
+        numRecords = Math.min(buffer.getInt(COUNT_OFFSET), (buffer.capacity() / RECORD_SIZE) - 1);
+        numDropped = buffer.getInt(DROPPED_OFFSET);
+    }
+
+    public boolean next() {
+        if(index + 1 >= numRecords) return false;
+        int position = (++index + 1) * RECORD_SIZE;
+        tick = buffer.getInt(position + TICK_OFFSET);
+        type = RECORD_TYPES[buffer.getShort(position + TYPE_OFFSET)];
+        id = buffer.getChar(position + ID_OFFSET);
+        value = buffer.getInt(position + VALUE_OFFSET);
+        extra = buffer.getInt(position + EXTRA_OFFSET);
+        return true;
+    }
+    public void rewind() {
+        index = -1;
+    }
+
+    //Accessors
+    public int getNumRecords() { return numRecords; }
+    public int getNumDropped() { return numDropped; }
+    public int getTick() { return tick; }
+    public final RecordType getType() { return type; }
+    public int getId() { return id; }
+    public int getValue() { return value; }
+    public int getExtra() { return extra; }
+    public int getX() { return unpackX(value); }
+    public int getY() { return unpackY(value); }
+    public int getPlane() { return extra; }
+}
@@ -0,0 +1,231 @@
+package com.ultimatevm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import net.runelite.client.RuneLite;
+
+public class SessionRecorder {
+    //Appends fixed width records of everything the plugin reads during a game to a memory mapped file
+    public enum RecordType {
+        TICK,
+        VARBIT_READ,
+        VARBIT_CHANGED,
+        EARTHQUAKE,
+        OBJECT_SPAWNED,
+        OBJECT_DESPAWNED,
+        PLAYER_MOVED
+    }
+    //Record layout - tick, type, id, value, extra
+    public static final int RECORD_SIZE = 16;
+    static final int TICK_OFFSET = 0, TYPE_OFFSET = 4, ID_OFFSET = 6, VALUE_OFFSET = 8, EXTRA_OFFSET = 12;
+    //The header takes the space of one record - magic, version, record size, record count, dropped records
+    static final int MAGIC = 0x55564d53;
+    static final short VERSION = 1;
+    static final int VERSION_OFFSET = 4, RECORD_SIZE_OFFSET = 6, COUNT_OFFSET = 8, DROPPED_OFFSET = 12;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final int DEFAULT_MAX_RECORDS = 1 << 16;
+    //Files grow one mapped chunk at a time so short games stay small without ever truncating a mapped file
+    static final int RECORDS_PER_CHUNK = 1 << 12;
+    private static final long CHUNK_SIZE = (long)RECORDS_PER_CHUNK * RECORD_SIZE;
+    public static final String FILE_EXTENSION = ".uvm";
+    //Older sessions are deleted as new ones start
+    public static final int DEFAULT_MAX_SESSIONS = 20;
+    //Where the plugin records and the replayers look by default
+    public static final File DEFAULT_SESSION_DIR = new File(new File(RuneLite.RUNELITE_DIR, "ultimate-vm"), "sessions");
+    private static final int MAX_TRACKED_VARBITS = 16;
+
+    private final int maxRecords, maxSessions;
+    private RandomAccessFile raf;
+    //The first chunk holds the header and stays mapped until the session stops
+    private MappedByteBuffer header, chunk;
+    private int chunkStart;
+    private boolean isOutOfSpace;
+    private File file;
+    private int tick, numRecords, numDropped;
+    //Last value written for each varbit so unchanged reads are skipped
+    private final int[] varbitIds = new int[MAX_TRACKED_VARBITS];
+    private final int[] varbitValues = new int[MAX_TRACKED_VARBITS];
+    private int numVarbits;
+    private int playerPosition, playerPlane;
+
+    public static int packPosition(int x, int y) { return (x << 16) | (y & 0xFFFF); }
+    public static int unpackX(int position) { return position >>> 16; }
+    public static int unpackY(int position) { return position & 0xFFFF; }
+
+    public static final class Session {
+        //A session file with its header chunk mapped that has not been handed to a recorder yet
+        private final File file;
+        private final RandomAccessFile raf;
+        private final MappedByteBuffer header;
+
+        private Session(File file, RandomAccessFile raf, MappedByteBuffer header) {
+            this.file = file;
+            this.raf = raf;
+            this.header = header;
+        }
+        public void discard() throws IOException {
+            //Left behind as an empty session for pruning - a mapped file can not be deleted on every platform
+            raf.close();
+        }
+        public final File getFile() { return file; }
+    }
+
+    public SessionRecorder() {
+        this(DEFAULT_MAX_RECORDS, DEFAULT_MAX_SESSIONS);
+    }
+    public SessionRecorder(int maxRecords, int maxSessions) {
+        this.maxRecords = maxRecords;
+        this.maxSessions = maxSessions;
+    }
+
+    public Session open(File directory) throws IOException {
+        //All the disk work of starting a session - safe to call off the client thread as it never touches the recorder
+        if(!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Unable to create " + directory);
+        deleteOldSessions(directory, maxSessions - 1);
+        String name = "session-" + System.currentTimeMillis();
+        File sessionFile = new File(directory, name + FILE_EXTENSION);
+        for(int i = 1; sessionFile.exists(); ++i) sessionFile = new File(directory, name + "-" + i + FILE_EXTENSION);
+        RandomAccessFile sessionRaf = new RandomAccessFile(sessionFile, "rw");
+        MappedByteBuffer sessionHeader;
+        try {
+            sessionHeader = mapChunk(sessionRaf, 0);
+        } catch(IOException e) {
+            sessionRaf.close();
+            throw e;
+        }
+        sessionHeader.putInt(0, MAGIC);
+        sessionHeader.putShort(VERSION_OFFSET, VERSION);
+        sessionHeader.putShort(RECORD_SIZE_OFFSET, (short)RECORD_SIZE);
+        sessionHeader.putInt(COUNT_OFFSET, 0);
+        sessionHeader.putInt(DROPPED_OFFSET, 0);
+        return new Session(sessionFile, sessionRaf, sessionHeader);
+    }
+    public void start(Session session) throws IOException {
+        //Only every RECORDS_PER_CHUNK appends map more of the file
+        stop();
+        raf = session.raf;
+        header = chunk = session.header;
+        chunkStart = 0;
+        isOutOfSpace = false;
+        file = session.file;
+        tick = numRecords = numDropped = numVarbits = 0;
+        playerPosition = playerPlane = -1;
+    }
+    public void start(File directory) throws IOException { start(open(directory)); }
+    public void stop() throws IOException {
+        if(!isRecording()) return;
+        //Dirty pages are left for the OS to flush and readers only trust the header count
+        RandomAccessFile sessionRaf = raf;
+        raf = null;
+        header = chunk = null;
+        file = null;
+        sessionRaf.close();
+    }
+    public static void deleteOldSessions(File directory, int numKept) {
+        //Newest sessions are kept - ones still mapped by this client may refuse and are tried again next time
+        File[] sessions = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+        if(sessions == null || sessions.length <= numKept) return;
+        Arrays.sort(sessions, Comparator.comparingLong(File::lastModified).reversed());
+        for(int i = Math.max(0, numKept); i < sessions.length; ++i) sessions[i].delete();
+    }
+
+    public void recordTick() {
+        if(!isRecording()) return;
+        ++tick;
+        append(RecordType.TICK, 0, tick, 0);
+    }
+    public void recordVarbitRead(int varbitId, int value) {
+        if(!isRecording() || !updateVarbit(varbitId, value)) return;
+        append(RecordType.VARBIT_READ, varbitId, value, 0);
+    }
+    public void recordVarbitChanged(int varbitId, int value) {
+        if(!isRecording()) return;
+        updateVarbit(varbitId, value);
+        append(RecordType.VARBIT_CHANGED, varbitId, value, 0);
+    }
+    public void recordEarthquake() {
+        if(!isRecording()) return;
+        append(RecordType.EARTHQUAKE, 0, 0, 0);
+    }
+    public void recordObjectSpawned(int objectId, int x, int y, int plane) {
+        if(!isRecording()) return;
+        append(RecordType.OBJECT_SPAWNED, objectId, packPosition(x, y), plane);
+    }
+    public void recordObjectDespawned(int objectId, int x, int y, int plane) {
+        if(!isRecording()) return;
+        append(RecordType.OBJECT_DESPAWNED, objectId, packPosition(x, y), plane);
+    }
+    public void recordPlayerPosition(int x, int y, int plane) {
+        if(!isRecording()) return;
+        int position = packPosition(x, y);
+        if(position == playerPosition && plane == playerPlane) return;
+        playerPosition = position;
+        playerPlane = plane;
+        append(RecordType.PLAYER_MOVED, 0, position, plane);
+    }
+
+    //Helpers
+    private static MappedByteBuffer mapChunk(RandomAccessFile raf, int chunkIndex) throws IOException {
+        //Mapping past the end grows the file
+        MappedByteBuffer mapped = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, chunkIndex * CHUNK_SIZE, CHUNK_SIZE);
+        mapped.order(BYTE_ORDER);
+        return mapped;
+    }
+    private void append(RecordType type, int id, int value, int extra) {
+        int slot = numRecords + 1;
+        if(numRecords == maxRecords || isOutOfSpace || (slot - chunkStart == RECORDS_PER_CHUNK && !nextChunk())) {
+            ++numDropped;
+            writeCounts();
+            return;
+        }
+        int position = (slot - chunkStart) * RECORD_SIZE;
+        chunk.putInt(position + TICK_OFFSET, tick);
+        chunk.putShort(position + TYPE_OFFSET, (short)type.ordinal());
+        chunk.putChar(position + ID_OFFSET, (char)id);
+        chunk.putInt(position + VALUE_OFFSET, value);
+        chunk.putInt(position + EXTRA_OFFSET, extra);
+        ++numRecords;
+        //The count is written last so a reader never sees a partial record
+        writeCounts();
+    }
+    private boolean nextChunk() {
+        try {
+            chunk = mapChunk(raf, (chunkStart / RECORDS_PER_CHUNK) + 1);
+        } catch(IOException e) {
+            //Out of disk space - the rest of the game is counted as dropped
+            isOutOfSpace = true;
+            return false;
+        }
+        chunkStart += RECORDS_PER_CHUNK;
+        return true;
+    }
+    private void writeCounts() {
+        header.putInt(COUNT_OFFSET, numRecords);
+        header.putInt(DROPPED_OFFSET, numDropped);
+    }
+    private boolean updateVarbit(int varbitId, int value) {
+        for(int i = 0; i < numVarbits; ++i) {
+            if(varbitIds[i] != varbitId) continue;
+            if(varbitValues[i] == value) return false;
+            varbitValues[i] = value;
+            return true;
+        }
+        if(numVarbits < MAX_TRACKED_VARBITS) {
+            varbitIds[numVarbits] = varbitId;
+            varbitValues[numVarbits++] = value;
+        }
+        return true;
+    }
+
+    //Accessors
+    public boolean isRecording() { return header != null; }
+    public final File getFile() { return file; }
+    public int getNumRecords() { return numRecords; }
+    public int getNumDropped() { return numDropped; }
+}
@@ -0,0 +1,162 @@
+package com.ultimatevm;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.ultimatevm.SessionRecorder.RecordType;
+
+public class SessionReplayer {
+    //Plays recorded sessions through the same game tick handling as the plugin without a client
+    static final String ALLOCATIONS_PROPERTY = "ultimatevm.allocations";
+    private static final int[] VENT_STATUS_VARBITS = {GameTickHandler.VARBIT_VENT_STATUS_A,
+            GameTickHandler.VARBIT_VENT_STATUS_B, GameTickHandler.VARBIT_VENT_STATUS_C};
+
+    private final UltimateVolcanicMineConfig config;
+    private final VarbitSnapshot varbits = new VarbitSnapshot();
+    private final VentDomain predictedValues = new VentDomain();
+    private final int[] notificationTicks = new int[VMNotifier.NotificationEvents.values().length];
+    private final Consumer<String> notificationSink;
+    private VentPredictionPipeline pipeline;
+    private VentStatusPredicter predicter;
+    private GameTickHandler gameTickHandler;
+    private VMNotifier vmNotifier;
+    private VMNotifier.NotificationEvents notifiedEvent;
+    private long[] tickNanos;
+    //Only measured when asked for since reading the allocation counter adds to every timed tick
+    private boolean isAllocationAccounting;
+    private AllocationCounter phaseAllocations;
+    private long tickBytes;
+    private int numTicks, numIdentified, numGraded, numCorrect;
+    private long totalError;
+
+    public static void main(String[] args) throws IOException {
+        //Each argument is a session file or a folder of them
+        SessionReplayer replayer = new SessionReplayer(new UltimateVolcanicMineConfig() {});
+        replayer.setAllocationAccounting(Boolean.getBoolean(ALLOCATIONS_PROPERTY));
+        if(args.length == 0) args = new String[]{SessionRecorder.DEFAULT_SESSION_DIR.getPath()};
+        for(File file : listSessions(args)) System.out.println(replayer.replay(file));
+    }
+    public static List<File> listSessions(String[] paths) {
+        List<File> sessions = new ArrayList<>();
+        for(String path : paths) {
+            File file = new File(path);
+            File[] files = file.isDirectory() ? file.listFiles((dir, name) -> name.endsWith(SessionRecorder.FILE_EXTENSION)) : new File[]{file};
+            if(files == null) continue;
+            Arrays.sort(files);
+            sessions.addAll(Arrays.asList(files));
+        }
+        return sessions;
+    }
+
+    public SessionReplayer(UltimateVolcanicMineConfig config) {
+        this.config = config;
+        //Only the first tick each notification goes off is kept
+        notificationSink = message -> {
+            if(notificationTicks[notifiedEvent.ordinal()] == ReplayResult.NOT_NOTIFIED)
+                notificationTicks[notifiedEvent.ordinal()] = predicter.getCurrentTick();
+        };
+    }
+
+    public ReplayResult replay(File file) throws IOException {
+        return replay(file.getName(), SessionReader.open(file));
+    }
+    public ReplayResult replay(String name, SessionReader reader) {
+        initialize(reader.getNumRecords());
+        //Reads belong to the tick before them so a tick only runs once something else is seen
+        boolean isTickPending = false;
+        while(reader.next()) {
+            RecordType type = reader.getType();
+            if(type == RecordType.VARBIT_READ) {
+                setVarbit(reader.getId(), reader.getValue());
+                continue;
+            }
+            if(type == RecordType.PLAYER_MOVED || type == RecordType.OBJECT_SPAWNED || type == RecordType.OBJECT_DESPAWNED)
+                continue;
+            if(isTickPending) doGameTick();
+            isTickPending = type == RecordType.TICK;
+            if(type == RecordType.VARBIT_CHANGED) onVarbitChanged(reader.getId(), reader.getValue());
+            else if(type == RecordType.EARTHQUAKE) pipeline.markEarthquakeEvent();
+        }
+        if(isTickPending) doGameTick();
+        return new ReplayResult(name, tickNanos, numTicks, predicter.getContext().getNumPlayers(), numIdentified, numGraded, numCorrect,
+                totalError, notificationTicks, getAllocatedBytes());
+    }
+    public void setAllocationAccounting(boolean isAllocationAccounting) {
+        this.isAllocationAccounting = isAllocationAccounting && AllocationCounter.isSupported();
+    }
+
+    //Helpers
+    private void initialize(int maxTicks) {
+        pipeline = new VentPredictionPipeline();
+        pipeline.configure(config.ventDomainEngine(), config.ventPredictionMode(), false);
+        predicter = pipeline.getVentStatusPredicter();
+        phaseAllocations = isAllocationAccounting ? new AllocationCounter(VentStatusPredicter.NUM_PHASES) : null;
+        pipeline.setPhaseAllocations(phaseAllocations);
+        tickBytes = 0;
+        gameTickHandler = new GameTickHandler(config, pipeline, varbits::get, this::notify);
+        vmNotifier = new VMNotifier(config);
+        varbits.clear();
+        Arrays.fill(notificationTicks, ReplayResult.NOT_NOTIFIED);
+        tickNanos = new long[maxTicks];
+        numTicks = numIdentified = numGraded = numCorrect = 0;
+        totalError = 0;
+    }
+    private void onVarbitChanged(int varbitId, int value) {
+        setVarbit(varbitId, value);
+        gameTickHandler.onVarbitChanged(varbitId, value);
+    }
+    private void doGameTick() {
+        gameTickHandler.startTick();
+        if(!gameTickHandler.hasGameStarted()) return;
+
+        //Only the prediction core and notification checks are timed
+        long startBytes = isAllocationAccounting ? AllocationCounter.getAllocatedBytes() : 0;
+        long start = System.nanoTime();
+        gradeIdentifiedVents();
+        gameTickHandler.updateVentStatus();
+        gameTickHandler.updateStability();
+        gameTickHandler.finishTick();
+        tickNanos[numTicks++] = System.nanoTime() - start;
+        if(isAllocationAccounting) tickBytes += AllocationCounter.getAllocatedBytes() - startBytes;
+    }
+    private long[] getAllocatedBytes() {
+        if(!isAllocationAccounting) return null;
+        long[] bytes = new long[ReplayResult.ALLOCATION_TICK + 1];
+        for(int i = 0; i < VentStatusPredicter.NUM_PHASES; ++i) bytes[i] = phaseAllocations.getTotalBytes(i);
+        bytes[ReplayResult.ALLOCATION_TICK] = tickBytes;
+        return bytes;
+    }
+    private void gradeIdentifiedVents() {
+        //Graded against the range shown on the tick before the vent was seen
+        StatusState displayState = predicter.getDisplayState();
+        for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+            VentStatus vent = displayState.getVents()[i];
+            int value = getVarbit(VENT_STATUS_VARBITS[i]);
+            if(vent.isIdentified() || value == VentStatus.STARTING_VENT_VALUE) continue;
+            ++numIdentified;
+            if(!vent.isRangeDefined()) continue;
+            vent.readDomainInto(predictedValues);
+            if(predictedValues.isEmpty()) continue;
+            ++numGraded;
+            if(predictedValues.contains(value)) {
+                ++numCorrect;
+                continue;
+            }
+            int error = Integer.MAX_VALUE;
+            int next = predictedValues.getNextValue(value), previous = predictedValues.getPreviousValue(value);
+            if(next != VentDomain.NO_VALUE) error = next - value;
+            if(previous != VentDomain.NO_VALUE) error = Math.min(error, value - previous);
+            totalError += error;
+        }
+    }
+    private void notify(VMNotifier.NotificationEvents event) {
+        notifiedEvent = event;
+        vmNotifier.notify(notificationSink, event, predicter.getCurrentTick());
+    }
+    private void setVarbit(int varbitId, int value) { varbits.update(varbitId, value); }
+    private int getVarbit(int varbitId) { return varbits.get(varbitId); }
+}
@@ -0,0 +1,89 @@
+package com.ultimatevm;
+
+public class StabilityForecast {
+    //Stability after every remaining update until reset or the end of the game assuming no vent is fixed
+    static final int MAX_UPDATES = (VentStatusTimeline.VM_GAME_FULL_TIME / VentStatusTimeline.STABILITY_UPDATE_TICK_TIME) + 1;
+    public static final int NO_FORECAST = VentStatus.STARTING_VENT_VALUE;
+
+    private final int[] updateTicks = new int[MAX_UPDATES];
+    private final int[] lowestStability = new int[MAX_UPDATES];
+    private final int[] expectedStability = new int[MAX_UPDATES];
+    private final int[] highestStability = new int[MAX_UPDATES];
+    private final int[] lowestChange = new int[MAX_UPDATES];
+    private final int[] expectedChange = new int[MAX_UPDATES];
+    private final int[] highestChange = new int[MAX_UPDATES];
+    private int numUpdates;
+    private boolean isAvailable;
+
+    public StabilityForecast() {}
+    public StabilityForecast(StabilityForecast forecast) {
+        setEqualTo(forecast);
+    }
+
+    public void setEqualTo(StabilityForecast forecast) {
+        numUpdates = forecast.numUpdates;
+        isAvailable = forecast.isAvailable;
+        System.arraycopy(forecast.updateTicks, 0, updateTicks, 0, numUpdates);
+        System.arraycopy(forecast.lowestStability, 0, lowestStability, 0, numUpdates);
+        System.arraycopy(forecast.expectedStability, 0, expectedStability, 0, numUpdates);
+        System.arraycopy(forecast.highestStability, 0, highestStability, 0, numUpdates);
+        System.arraycopy(forecast.lowestChange, 0, lowestChange, 0, numUpdates);
+        System.arraycopy(forecast.expectedChange, 0, expectedChange, 0, numUpdates);
+        System.arraycopy(forecast.highestChange, 0, highestChange, 0, numUpdates);
+    }
+    public void clear() {
+        numUpdates = 0;
+        isAvailable = false;
+    }
+
+    public int getLowestStability(UltimateVolcanicMineConfig.PredictionScenario scenario, int untilTick) {
+        //Lowest stability reached by any update on or before the tick
+        int lowest = NO_FORECAST;
+        for(int i = 0; i < numUpdates && updateTicks[i] <= untilTick; ++i)
+            lowest = lowest == NO_FORECAST ? getStability(scenario, i) : Math.min(lowest, getStability(scenario, i));
+        return lowest;
+    }
+    public int getLowestStabilityChange(UltimateVolcanicMineConfig.PredictionScenario scenario, int untilTick) {
+        int lowest = NO_FORECAST;
+        for(int i = 0; i < numUpdates && updateTicks[i] <= untilTick; ++i)
+            lowest = lowest == NO_FORECAST ? getStabilityChange(scenario, i) : Math.min(lowest, getStabilityChange(scenario, i));
+        return lowest;
+    }
+    public int getStability(UltimateVolcanicMineConfig.PredictionScenario scenario, int update) {
+        switch(scenario) {
+            case WORST_CASE: return lowestStability[update];
+            case BEST_CASE: return highestStability[update];
+            default: return expectedStability[update];
+        }
+    }
+    public int getStabilityChange(UltimateVolcanicMineConfig.PredictionScenario scenario, int update) {
+        switch(scenario) {
+            case WORST_CASE: return lowestChange[update];
+            case BEST_CASE: return highestChange[update];
+            default: return expectedChange[update];
+        }
+    }
+
+    //Written by the forecaster
+    void setAvailable(boolean isAvailable) {
+        this.isAvailable = isAvailable;
+        if(!isAvailable) numUpdates = 0;
+    }
+    void setNumUpdates(int numUpdates) { this.numUpdates = numUpdates; }
+    void setUpdate(int update, int tick, int lowest, int expected, int highest) {
+        updateTicks[update] = tick;
+        lowestStability[update] = lowest;
+        expectedStability[update] = expected;
+        highestStability[update] = highest;
+    }
+    void setUpdateChange(int update, int lowest, int expected, int highest) {
+        lowestChange[update] = lowest;
+        expectedChange[update] = expected;
+        highestChange[update] = highest;
+    }
+
+    //Accessors
+    public boolean isAvailable() { return isAvailable; }
+    public int getNumUpdates() { return numUpdates; }
+    public int getUpdateTick(int update) { return updateTicks[update]; }
+}
@@ -0,0 +1,235 @@
+package com.ultimatevm;
+
+import static com.ultimatevm.StatusState.*;
+import static com.ultimatevm.VentStatus.*;
+import static com.ultimatevm.VentStatusTimeline.*;
+
+public class StabilityForecaster {
+    //Plays every vent combination the state allows forward so vents keep slowing each other exactly
+    public static final int MAX_COMBINATIONS = 1024;
+    private static final int MAX_UPDATES = StabilityForecast.MAX_UPDATES;
+    private static final int[] POINTS_BY_VALUE = makePointsTable();
+
+    private final StabilityForecast forecast = new StabilityForecast();
+    //Vent values of every combination as of the base tick followed by the points it gives on each simulated update
+    private final int[] comboValues = new int[MAX_COMBINATIONS * NUM_VENTS];
+    private final int[] comboPoints = new int[MAX_COMBINATIONS * MAX_UPDATES];
+    private final int[] directions = new int[NUM_VENTS];
+    private final int[] values = new int[NUM_VENTS];
+    //Possible values of each vent now and what the state allowed on the base tick
+    private final VentDomain[] domains = new VentDomain[NUM_VENTS];
+    private final VentDomain[] baseDomains = new VentDomain[NUM_VENTS];
+    //Curve scratch - indexed by remaining update
+    private final int[] lowestStability = new int[MAX_UPDATES];
+    private final int[] highestStability = new int[MAX_UPDATES];
+    private final int[] totalStability = new int[MAX_UPDATES];
+    private final int[] lowestPoints = new int[MAX_UPDATES];
+    private final int[] highestPoints = new int[MAX_UPDATES];
+    private final int[] totalPoints = new int[MAX_UPDATES];
+    private int numCombinations, numSimulatedUpdates;
+    private int baseTick, nextMovementTick, firstUpdateTick, endTick;
+    //Inputs the current curves were built from
+    private int curveStability, curvePassedUpdates, curveMinMod;
+    private boolean isSimulated, isCurveDirty;
+    private final GameContext context;
+
+    private static int[] makePointsTable() {
+        int[] points = new int[MAX_VENT_VALUE + 1];
+        for(int value = MIN_VENT_VALUE; value <= MAX_VENT_VALUE; ++value)
+            points[value] = getStabilityInfluence(value);
+        return points;
+    }
+    private static int applyChange(int stability, int change) {
+        //The mine has erupted once stability hits zero
+        if(stability <= 0) return 0;
+        return Math.min(StabilityTracker.MAX_STABILITY, Math.max(0, stability + change));
+    }
+
+    public StabilityForecaster(GameContext context) {
+        this.context = context;
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            domains[i] = new VentDomain();
+            baseDomains[i] = new VentDomain();
+        }
+    }
+
+    public void clear() {
+        isSimulated = false;
+        forecast.clear();
+    }
+    public void update(StatusState state, int stability, int currentTick, int nextMovementTick, int nextUpdateTick, int endTick) {
+        //Ticks are the first movement and stability update after the current tick
+        if(!readDomains(state)) {
+            clear();
+            return;
+        }
+        if(!canReuseSimulation(state, currentTick, nextMovementTick, nextUpdateTick, endTick)) {
+            if(!simulate(state, nextMovementTick, nextUpdateTick, endTick)) {
+                clear();
+                return;
+            }
+        }
+        baseTick = currentTick;
+        this.nextMovementTick = nextMovementTick;
+        for(int i = 0; i < NUM_VENTS; ++i) baseDomains[i].setEqualTo(domains[i]);
+        buildCurves(stability, currentTick);
+    }
+
+    //Helpers
+    private boolean readDomains(StatusState state) {
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            VentStatus vent = state.getVents()[i];
+            if(vent.isIdentified()) {
+                domains[i].clear();
+                domains[i].add(vent.getActualValue());
+                continue;
+            }
+            if(!vent.isRangeDefined()) return false;
+            vent.readDomainInto(domains[i]);
+            if(domains[i].isEmpty()) return false;
+        }
+        return true;
+    }
+    private boolean canReuseSimulation(StatusState state, int currentTick, int nextMovementTick, int nextUpdateTick, int endTick) {
+        if(!isSimulated || currentTick < baseTick || endTick != this.endTick) return false;
+        //Both schedules must line up with the ones simulated
+        if(nextMovementTick < this.nextMovementTick || (nextMovementTick - this.nextMovementTick) % VENT_MOVE_TICK_TIME != 0) return false;
+        if(nextUpdateTick < firstUpdateTick || (nextUpdateTick - firstUpdateTick) % STABILITY_UPDATE_TICK_TIME != 0) return false;
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            if(state.getVents()[i].getDirection() != directions[i]) return false;
+        }
+
+        //Values the base domains cannot move into mean something other than movement changed the state
+        int numMoves = (nextMovementTick - this.nextMovementTick) / VENT_MOVE_TICK_TIME;
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            for(int move = 0; move < numMoves; ++move)
+                baseDomains[i].move(directions[i], BASE_MOVE_RATE - i, BASE_MOVE_RATE);
+            if(!domains[i].isSubsetOf(baseDomains[i])) return false;
+        }
+
+        //Move every combination along and drop the ones the state has ruled out
+        int numKept = 0;
+        for(int combo = 0; combo < numCombinations; ++combo) {
+            readCombination(combo);
+            for(int move = 0; move < numMoves; ++move) VentDomain.moveValues(values, directions);
+            if(!isCombinationPossible()) continue;
+            writeCombination(numKept, values);
+            if(numKept != combo)
+                System.arraycopy(comboPoints, combo * MAX_UPDATES, comboPoints, numKept * MAX_UPDATES, numSimulatedUpdates);
+            ++numKept;
+        }
+        if(numKept == 0) return false;
+        if(numKept != numCombinations) isCurveDirty = true;
+        numCombinations = numKept;
+        return true;
+    }
+    private boolean simulate(StatusState state, int nextMovementTick, int nextUpdateTick, int endTick) {
+        int combinations = 1;
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            combinations *= domains[i].getSize();
+            if(combinations > MAX_COMBINATIONS) return false;
+        }
+        numCombinations = combinations;
+        firstUpdateTick = nextUpdateTick;
+        this.endTick = endTick;
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            directions[i] = state.getVents()[i].getDirection();
+            values[i] = domains[i].getFirstValue();
+        }
+
+        //Write every combination in order before playing them forward
+        for(int combo = 0; combo < numCombinations; ++combo) {
+            writeCombination(combo, values);
+            for(int i = NUM_VENTS - 1; i >= 0; --i) {
+                int next = domains[i].getNextValue(values[i] + 1);
+                if(next != VentDomain.NO_VALUE) {
+                    values[i] = next;
+                    break;
+                }
+                values[i] = domains[i].getFirstValue();
+            }
+        }
+        for(int combo = 0; combo < numCombinations; ++combo) {
+            readCombination(combo);
+            //Movement happens before the stability update on shared ticks
+            int moveTick = nextMovementTick, updateTick = nextUpdateTick, update = 0;
+            int pointsOffset = combo * MAX_UPDATES;
+            while(true) {
+                if(moveTick <= updateTick && moveTick < endTick) {
+                    VentDomain.moveValues(values, directions);
+                    moveTick += VENT_MOVE_TICK_TIME;
+                } else if(updateTick < endTick) {
+                    comboPoints[pointsOffset + update++] = getPoints(values);
+                    updateTick += STABILITY_UPDATE_TICK_TIME;
+                } else break;
+            }
+            numSimulatedUpdates = update;
+        }
+        isSimulated = isCurveDirty = true;
+        return true;
+    }
+    private void buildCurves(int stability, int currentTick) {
+        int passedUpdates = currentTick < firstUpdateTick ? 0 : ((currentTick - firstUpdateTick) / STABILITY_UPDATE_TICK_TIME) + 1;
+        int minMod = context.getMinRNGVariation(), maxMod = context.getMaxRNGVariation();
+        if(!isCurveDirty && stability == curveStability && passedUpdates == curvePassedUpdates && minMod == curveMinMod) return;
+        isCurveDirty = false;
+        curveStability = stability;
+        curvePassedUpdates = passedUpdates;
+        curveMinMod = minMod;
+
+        int numUpdates = Math.max(0, numSimulatedUpdates - passedUpdates);
+        for(int update = 0; update < numUpdates; ++update) {
+            lowestStability[update] = lowestPoints[update] = Integer.MAX_VALUE;
+            highestStability[update] = highestPoints[update] = Integer.MIN_VALUE;
+            totalStability[update] = totalPoints[update] = 0;
+        }
+        for(int combo = 0; combo < numCombinations; ++combo) {
+            //The most common mod doubles as the expected one
+            int low = stability, high = stability;
+            int pointsOffset = (combo * MAX_UPDATES) + passedUpdates;
+            for(int update = 0; update < numUpdates; ++update) {
+                int points = comboPoints[pointsOffset + update];
+                int change = STABILITY_CHANGE_CONSTANT + points;
+                low = applyChange(low, change + minMod);
+                high = applyChange(high, change + maxMod);
+                lowestStability[update] = Math.min(lowestStability[update], low);
+                highestStability[update] = Math.max(highestStability[update], high);
+                totalStability[update] += low;
+                lowestPoints[update] = Math.min(lowestPoints[update], points);
+                highestPoints[update] = Math.max(highestPoints[update], points);
+                totalPoints[update] += points;
+            }
+        }
+        for(int update = 0; update < numUpdates; ++update) {
+            int tick = firstUpdateTick + ((passedUpdates + update) * STABILITY_UPDATE_TICK_TIME);
+            forecast.setUpdate(update, tick, lowestStability[update],
+                    Math.floorDiv(totalStability[update], numCombinations), highestStability[update]);
+            forecast.setUpdateChange(update, STABILITY_CHANGE_CONSTANT + lowestPoints[update] + minMod,
+                    STABILITY_CHANGE_CONSTANT + Math.floorDiv(totalPoints[update], numCombinations) + minMod,
+                    STABILITY_CHANGE_CONSTANT + highestPoints[update] + maxMod);
+        }
+        forecast.setAvailable(true);
+        forecast.setNumUpdates(numUpdates);
+    }
+    private int getPoints(int[] ventValues) {
+        int points = 0;
+        for(int i = 0; i < NUM_VENTS; ++i) points += POINTS_BY_VALUE[ventValues[i]];
+        return points;
+    }
+    private boolean isCombinationPossible() {
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            if(!domains[i].contains(values[i])) return false;
+        }
+        return true;
+    }
+    private void readCombination(int combo) {
+        System.arraycopy(comboValues, combo * NUM_VENTS, values, 0, NUM_VENTS);
+    }
+    private void writeCombination(int combo, int[] ventValues) {
+        System.arraycopy(ventValues, 0, comboValues, combo * NUM_VENTS, NUM_VENTS);
+    }
+
+    //Accessors
+    public final StabilityForecast getForecast() { return forecast; }
+    public int getNumCombinations() { return isSimulated ? numCombinations : 0; }
+}
@@ -7,15 +7,19 @@ public class StabilityTracker {
 
     //Constants
     public static final int STARTING_STABILITY = 50;
-    private static final int MAX_STABILITY = 100;
+    public static final int MAX_STABILITY = 100;
     private static final int MAX_STABILITY_UPDATES = 3;
-    private static final int MIN_STABILITY_CHANGE = -28;
-    private static final int MAX_STABILITY_CHANGE = 24;
+    private static final int MIN_STABILITY_CHANGE = HudLabels.MIN_STABILITY_CHANGE;
+    private static final int MAX_STABILITY_CHANGE = HudLabels.MAX_STABILITY_CHANGE;
 
     private boolean hasResetHistory = false;
     private int currentStability;
     private int numDisplay;
     private LinkedList<Integer> stabilityHistory = new LinkedList<>();
+    //Composed history text - cleared whenever the history or display count changes
+    private String stabilityText;
+    //Last prefixed label and what it was composed from
+    private String label, labelPrefix, labelText;
 
     public StabilityTracker() {
         initialize();
@@ -26,12 +30,14 @@ public class StabilityTracker {
         currentStability = STARTING_STABILITY;
         stabilityHistory.clear();
         hasResetHistory = false;
+        stabilityText = null;
     }
 
     public void resetStabilityHistory() {
         if(hasResetHistory) return;
         stabilityHistory.clear();
         hasResetHistory = true;
+        stabilityText = null;
     }
 
     public boolean updateStability(int newStability) {
@@ -67,25 +73,18 @@ public class StabilityTracker {
         return getCurrentChange() + trend <= stabilityThreshold;
     }
     public String getStabilityText() {
-        if(stabilityHistory.isEmpty()) return "";
-
-        StringBuilder builder = new StringBuilder();
-        Iterator<Integer> it = stabilityHistory.iterator();
-        int numIterations = 0;
-        while(it.hasNext()) {
-            if(numIterations == numDisplay)
-                return " (" + builder.toString() + ")";
-
-            if(++numIterations > 1) builder.append(",");
-
-            int change = (Integer)it.next();
-            if (change >= 0) {
-                builder.append("<col=00ff00>").append(change).append("</col>");
-            } else {
-                builder.append("<col=ff0000>").append(Math.abs(change)).append("</col>");
-            }
+        if(stabilityText == null) stabilityText = makeStabilityText();
+        return stabilityText;
+    }
+    public String getStabilityText(String prefix) {
+        //The label is only composed again when the prefix or the history text changes
+        String text = getStabilityText();
+        if(label == null || text != labelText || !prefix.equals(labelPrefix)) {
+            label = prefix + text;
+            labelPrefix = prefix;
+            labelText = text;
         }
-        return " (" + builder.toString() + ")";
+        return label;
     }
     public int getCurrentStability() { return currentStability; }
     public int getCurrentChange() {
@@ -95,6 +94,24 @@ public class StabilityTracker {
     public void addChange(int change) {
         stabilityHistory.addFirst(change);
         while(stabilityHistory.size() > MAX_STABILITY_UPDATES) stabilityHistory.removeLast();
+        stabilityText = null;
+    }
+    public void setDisplayCount(int count) {
+        if(numDisplay == count) return;
+        numDisplay = count;
+        stabilityText = null;
+    }
+
+    //Helpers
+    private String makeStabilityText() {
+        if(stabilityHistory.isEmpty()) return "";
+
+        StringBuilder builder = new StringBuilder(" (");
+        Iterator<Integer> it = stabilityHistory.iterator();
+        for(int numIterations = 0; it.hasNext() && numIterations < numDisplay; ++numIterations) {
+            if(numIterations > 0) builder.append(",");
+            builder.append(HudLabels.getStabilityChange(it.next()));
+        }
+        return builder.append(")").toString();
     }
-    public void setDisplayCount(int count) { numDisplay = count;}
 }
@@ -1,54 +1,55 @@
 package com.ultimatevm;
 
 public class StabilityUpdateInfo {
-    static private int numPlayers = 1;
-    static public void resetPlayers() { numPlayers = 1;}
-    static public int getNumPlayers() { return numPlayers; }
-    static public boolean isSolo() { return numPlayers == 1;}
-    static public void setNumPlayers(int players) {
-        numPlayers = Math.max(numPlayers, players);
-    }
-    static public int getMinRNGVariation() {
-        return -numPlayers / 3;
-    }
-    static public int getMaxRNGPossibleSize() { return (numPlayers / 3) + 2;}
-
     static public StatusState getPredictionState(StabilityUpdateInfo initialStabUpdate, VentStatusTimeline timeline) {
         if(initialStabUpdate == null) return timeline.getTimelinePredictionState();
-        StatusState predictionState = new StatusState();
-        //Iterate until we get a valid uncut range prediction
-        int startingRNGMod = initialStabUpdate.RNGUpdateMod;
-        for(int i = getMaxRNGPossibleSize() - 1; i >= 0; --i) {
-            //Start with more common mods first
-            initialStabUpdate.RNGUpdateMod = 1 - i;
-            initialStabUpdate.calcStabilityChange();
-            //Run a prediction with this new mod to see if we get a valid result
-            predictionState = timeline.getTimelinePredictionState();
+        //Start with the most common mod since it is usually valid
+        GameContext context = timeline.getContext();
+        int numMods = context.getMaxRNGPossibleSize();
+        StatusState predictionState = timeline.getTimelinePredictionState(context.getMinRNGVariation());
+        if(predictionState.areRangesDefined() || numMods < 2) return predictionState;
+
+        //Every other mod is its own hypothesis so run them all at once
+        int[] remainingMods = new int[numMods - 1];
+        for(int i = 0; i < remainingMods.length; ++i) remainingMods[i] = context.getMinRNGVariation() + 1 + i;
+        initialStabUpdate.prepareHypothesisStates();
+        timeline.speculatePredictionStates(remainingMods);
+        //Take the first valid uncut range prediction in priority order
+        for(int rngMod : remainingMods) {
+            predictionState = timeline.getTimelinePredictionState(rngMod);
             if(predictionState.areRangesDefined()) break;
         }
-        initialStabUpdate.RNGUpdateMod = startingRNGMod;
-        initialStabUpdate.calcStabilityChange();
+        timeline.clearSpeculation();
         return predictionState;
     }
-    //Stability updates have a max rng mod of +1
-    //and a min mod of -numPlayers / 3 for team sizes less than 6
-    //team sizes 6 and up I am unsure
+    //Possible rng mods come from the team size of the game this update belongs to
+    private final GameContext context;
     private byte possibleRNGMods;
     private StatusState stabilityUpdateState;
+    //Stability update state as each rng mod sees it - rebuilt in place only when the update changes
+    private StatusState[] hypothesisStates;
+    private boolean isHypothesisStale;
     private int RNGUpdateMod;
     private final int tickTimeStamp, initialChange;
     private boolean isVerified;
-    StabilityUpdateInfo(StatusState stabilityUpdate, int currentTick, int change) {
+    //States this update keeps come from the timeline's arena for the half-game
+    private final StatusStateArena arena;
+    StabilityUpdateInfo(StatusState stabilityUpdate, int currentTick, int change, GameContext context) {
+        this(stabilityUpdate, currentTick, change, context, new StatusStateArena());
+    }
+    StabilityUpdateInfo(StatusState stabilityUpdate, int currentTick, int change, GameContext context, StatusStateArena arena) {
+        this.context = context;
+        this.arena = arena;
         possibleRNGMods = 0;
         tickTimeStamp = currentTick;
         isVerified = false;
-        for(int i = 0; i < getMaxRNGPossibleSize(); ++i)
+        for(int i = 0; i < context.getMaxRNGPossibleSize(); ++i)
             possibleRNGMods |= (1 << i);
 
         //By default we assume the most common rng mod
-        this.stabilityUpdateState = new StatusState(stabilityUpdate);
+        this.stabilityUpdateState = arena.acquireCopy(stabilityUpdate);
         this.initialChange = change;
-        this.RNGUpdateMod = getMinRNGVariation();
+        this.RNGUpdateMod = context.getMinRNGVariation();
         verifyByInvalidPoints();
         calcStabilityChange();
     }
@@ -57,7 +58,7 @@ public class StabilityUpdateInfo {
         if(!isValid()) return;
         if(isVerified()) return;
 
-        for(int i = 0; i < getMaxRNGPossibleSize(); ++i) {
+        for(int i = 0; i < context.getMaxRNGPossibleSize(); ++i) {
             int currentRNGMod = 1 - i;
             //check if this mod is possible
             if(!stabilityUpdateState.calcPredictedVentValues(initialChange - currentRNGMod)) {
@@ -84,37 +85,64 @@ public class StabilityUpdateInfo {
 
     public void calcStabilityChange() {
         stabilityUpdateState.calcPredictedVentValues(initialChange - RNGUpdateMod);
+        isHypothesisStale = true;
+    }
+    public void prepareHypothesisStates() {
+        int numMods = context.getMaxRNGPossibleSize();
+        boolean isSameSize = hypothesisStates != null && hypothesisStates.length == numMods;
+        if(isSameSize && !isHypothesisStale) return;
+        if(!isSameSize) {
+            hypothesisStates = new StatusState[numMods];
+            for(int i = 0; i < numMods; ++i) hypothesisStates[i] = arena.acquire();
+        }
+        //Each mod builds on the one before it in the order they are tried
+        StatusState prevState = stabilityUpdateState;
+        for(int i = numMods - 1; i >= 0; --i) {
+            hypothesisStates[i].setEqualTo(prevState);
+            hypothesisStates[i].calcPredictedVentValues(initialChange - (1 - i));
+            prevState = hypothesisStates[i];
+        }
+        isHypothesisStale = false;
     }
     public void updateVentValues(StatusState updatedState) {
         stabilityUpdateState.setVentsEqualTo(updatedState);
         verifyByInvalidPoints();
         calcStabilityChange();
     }
-    public void updatePredictedState(StatusState predictedState, StabilityUpdateInfo prevStabInfo, int initalRNGMod) {
+    public void updatePredictedState(StatusState predictedState, StabilityUpdateInfo prevStabInfo, int initalRNGMod, StatusStateArena tempArena) {
+        //Temporaries come from the replaying cache's arena since caches can replay on other threads
+        int mark = tempArena.mark();
         if(predictedState.getVents()[0].isFreezeClipAccurate()) updateVentValues(predictedState);
         if(prevStabInfo == null || stabilityUpdateState.getNumIdentifiedVents() == prevStabInfo.getStabilityUpdateState().getNumIdentifiedVents()) {
-            predictedState.setOverlappingRangesWith(getAllPossiblePredictedValuesState());
-            trimDoubleVentRanges(predictedState);
+            predictedState.setOverlappingRangesWith(getAllPossiblePredictedValuesState(tempArena));
+            trimDoubleVentRanges(predictedState, tempArena);
         }
-        else predictedState.setOverlappingRangesWith(getPossiblePredictedValuesState(initalRNGMod));
+        else predictedState.setOverlappingRangesWith(getPossiblePredictedValuesState(initalRNGMod, tempArena));
+        tempArena.release(mark);
     }
     public StatusState getAllPossiblePredictedValuesState() {
-        StatusState mergedPossiblities = new StatusState(stabilityUpdateState);
-        for(int i = 0; i < getMaxRNGPossibleSize(); ++i) {
-            StatusState testState = getPossiblePredictedValuesState(1 - i);
+        return getAllPossiblePredictedValuesState(new StatusStateArena());
+    }
+    public StatusState getAllPossiblePredictedValuesState(StatusStateArena tempArena) {
+        StatusState mergedPossiblities = tempArena.acquireCopy(stabilityUpdateState);
+        for(int i = 0; i < context.getMaxRNGPossibleSize(); ++i) {
+            StatusState testState = getPossiblePredictedValuesState(1 - i, tempArena);
             mergedPossiblities.mergePredictedRangesWith(testState);
         }
         return mergedPossiblities;
     }
     public StatusState getPossiblePredictedValuesState(int rngMod) {
-        StatusState possibleState = new StatusState(stabilityUpdateState);
+        return getPossiblePredictedValuesState(rngMod, new StatusStateArena());
+    }
+    public StatusState getPossiblePredictedValuesState(int rngMod, StatusStateArena tempArena) {
+        StatusState possibleState = tempArena.acquireCopy(stabilityUpdateState);
         possibleState.calcPredictedVentValues(initialChange - rngMod);
         return possibleState;
     }
 
     private void checkVerification() {
         int numBitsOn = 0;
-        for(int i = 0; i < getMaxRNGPossibleSize(); ++i) {
+        for(int i = 0; i < context.getMaxRNGPossibleSize(); ++i) {
             int currentRNGMod = 1 - i;
             //set our rngMod to the lowest possible value (since it would be more common)
             if((possibleRNGMods & (1 << i)) != 0) {
@@ -126,12 +154,12 @@ public class StabilityUpdateInfo {
             isVerified = true;
         }
     }
-    private void trimDoubleVentRanges(StatusState predictedState) {
+    private void trimDoubleVentRanges(StatusState predictedState, StatusStateArena tempArena) {
         if(predictedState.getNumKnownVents() != 1) return;
-        StatusState mergedTrimmings = new StatusState();
+        StatusState mergedTrimmings = tempArena.acquire();
         mergedTrimmings.clearAllRanges();
-        for(int i = 0; i < getMaxRNGPossibleSize(); ++i) {
-            StatusState testState = new StatusState(predictedState);
+        for(int i = 0; i < context.getMaxRNGPossibleSize(); ++i) {
+            StatusState testState = tempArena.acquireCopy(predictedState);
             testState.trimDoubleVentRanges(initialChange - (1 - i));
             mergedTrimmings.mergePredictedRangesWith(testState);
         }
@@ -140,6 +168,10 @@ public class StabilityUpdateInfo {
 
     //Accessors
     public final StatusState getStabilityUpdateState() { return stabilityUpdateState; }
+    public final StatusState getHypothesisState(int rngMod) {
+        prepareHypothesisStates();
+        return hypothesisStates[1 - rngMod];
+    }
     public boolean isValid() {
         if(stabilityUpdateState.isAllVentsIdentified()) return false;
         return stabilityUpdateState.isEnoughVentsIdentified();
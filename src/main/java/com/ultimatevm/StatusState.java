@@ -1,6 +1,7 @@
 package com.ultimatevm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static com.ultimatevm.VentStatus.*;
 
@@ -11,10 +12,18 @@ public class StatusState {
 
     public static final int TRUNCATION_POSSIBILITIES = NUM_VENTS;
 
-    private VentStatus[] vents = new VentStatus[NUM_VENTS];
-    private int numIdentifiedVents;
-    private int stabilityChange;
-    private boolean hasReset;
+    //State fields followed by every vent packed into one slab; copies are a single arraycopy
+    private static final int NUM_IDENTIFIED_VENTS = 0, STABILITY_CHANGE = 1, HAS_RESET = 2;
+    private static final int FIRST_VENT_OFFSET = 3;
+    public static final int PACKED_SIZE = FIRST_VENT_OFFSET + (NUM_VENTS * VentStatus.PACKED_SIZE);
+
+    //Predicted vent ranges only depend on the points the unknown vents must provide
+    private static final int LOWER_START = 0, LOWER_END = 1, UPPER_START = 2, UPPER_END = 3;
+    private static final int[][] SINGLE_VENT_BOUNDS = makeSingleVentBoundsTable();
+    private static final int[][] DOUBLE_VENT_BOUNDS = makeDoubleVentBoundsTable();
+
+    private final int[] slab = new int[PACKED_SIZE];
+    private final VentStatus[] vents = new VentStatus[NUM_VENTS];
 
     public static int getTotalVentUpdate(int change) {
         return (change - STABILITY_CHANGE_CONSTANT);
@@ -38,25 +47,77 @@ public class StatusState {
         return bitState << 6;
     }
 
-    public StatusState() {
-        hasReset = false;
-        numIdentifiedVents = 0;
-        for(int i = 0; i < vents.length; ++i) {
-            vents[i] = new VentStatus(VENT_TAGS[i]);
+    private static int[][] makeSingleVentBoundsTable() {
+        int[][] table = new int[(int)VENT_STABILITY_WEIGHT + 1][];
+        for(int pointsNeeded = 0; pointsNeeded < table.length; ++pointsNeeded) {
+            float missingInversePercent = 1.0f - (pointsNeeded / VENT_STABILITY_WEIGHT);
+            int missingVentUpdate = (int)Math.ceil(PERFECT_VENT_VALUE * missingInversePercent);
+            table[pointsNeeded] = calcBoundsGivingPoints(pointsNeeded, missingVentUpdate, missingVentUpdate);
+        }
+        return table;
+    }
+    private static int[][] makeDoubleVentBoundsTable() {
+        int[][] table = new int[((int)VENT_STABILITY_WEIGHT * 2) + 1][];
+        for(int pointsNeeded = 0; pointsNeeded < table.length; ++pointsNeeded) {
+            int[] totalBounds = null;
+            //Try all of the possible double vent combos
+            for(int takenPoints = 0; takenPoints <= (int)VENT_STABILITY_WEIGHT; ++takenPoints) {
+                int remainingPoints = pointsNeeded - takenPoints;
+                if(remainingPoints < 0 || remainingPoints > (int)VENT_STABILITY_WEIGHT) continue;
+                float missingInversePercent = 1.0f - (takenPoints / VENT_STABILITY_WEIGHT);
+                int missingVentUpdate = (int)Math.ceil(PERFECT_VENT_VALUE * missingInversePercent);
+                int maxDistance = Math.min(MAX_VENT_VALUE - PERFECT_VENT_VALUE, missingVentUpdate);
+                int minDistance = Math.max(0, missingVentUpdate - PERFECT_VENT_VALUE);
+                int[] bounds = calcBoundsGivingPoints(takenPoints, maxDistance, minDistance);
+
+                //Update our total bounds
+                if(totalBounds == null) totalBounds = bounds;
+                else {
+                    totalBounds[LOWER_START] = Math.min(totalBounds[LOWER_START], bounds[LOWER_START]);
+                    totalBounds[LOWER_END] = Math.max(totalBounds[LOWER_END], bounds[LOWER_END]);
+                    totalBounds[UPPER_START] = Math.min(totalBounds[UPPER_START], bounds[UPPER_START]);
+                    totalBounds[UPPER_END] = Math.max(totalBounds[UPPER_END], bounds[UPPER_END]);
+                }
+            }
+            table[pointsNeeded] = totalBounds;
         }
+        return table;
+    }
+    private static int[] calcBoundsGivingPoints(int points, int maxDistance, int minDistance) {
+        int lowerBoundStart = (PERFECT_VENT_VALUE - TRUNCATION_POSSIBILITIES) - maxDistance;
+        int lowerBoundEnd = (PERFECT_VENT_VALUE + TRUNCATION_POSSIBILITIES) - minDistance;
+        int upperBoundStart = (PERFECT_VENT_VALUE - TRUNCATION_POSSIBILITIES) + minDistance;
+        int upperBoundEnd = (PERFECT_VENT_VALUE + TRUNCATION_POSSIBILITIES) + maxDistance;
+        //Shrink towards the values that give exactly these points
+        while(lowerBoundStart < lowerBoundEnd) {
+            boolean isStartValid = getStabilityInfluence(lowerBoundStart) == points;
+            boolean isEndValid = getStabilityInfluence(lowerBoundEnd) == points;
+            if(isStartValid && isEndValid) break;
+
+            if(!isStartValid) {
+                ++lowerBoundStart; --upperBoundEnd;
+            }
+            if(!isEndValid) {
+                --lowerBoundEnd; ++upperBoundStart;
+            }
+        }
+        return new int[]{lowerBoundStart, lowerBoundEnd, upperBoundStart, upperBoundEnd};
+    }
+
+    public StatusState() {
+        makeVentViews();
+        setStartingState();
     }
     public StatusState(StatusState state) {
-        for(int i = 0; i < vents.length; ++i) {
-            vents[i] = new VentStatus(VENT_TAGS[i]);
-        }
+        makeVentViews();
         setEqualTo(state);
     }
     public void setVentEqualTo(StatusState state, int ventIndex) {
         //Update number of vents we have identified
         if(vents[ventIndex].isIdentified() && !state.vents[ventIndex].isIdentified())
-            --numIdentifiedVents;
+            --slab[NUM_IDENTIFIED_VENTS];
         if(!vents[ventIndex].isIdentified() && state.vents[ventIndex].isIdentified())
-            ++numIdentifiedVents;
+            ++slab[NUM_IDENTIFIED_VENTS];
 
         vents[ventIndex].setEqualTo(state.vents[ventIndex]);
     }
@@ -65,10 +126,26 @@ public class StatusState {
             setVentEqualTo(state, i);
         }
     }
+    public void setStartingState() {
+        //Same as a newly built state so a reused state never carries anything over
+        Arrays.fill(slab, 0);
+        for(int i = 0; i < vents.length; ++i) {
+            vents[i].setStartingState();
+        }
+    }
+    public void setDomainEngine(UltimateVolcanicMineConfig.VentDomainEngine engine) {
+        for(int i = 0; i < vents.length; ++i) {
+            vents[i].setDomainEngine(engine);
+        }
+    }
     public void setEqualTo(StatusState state) {
-        this.hasReset = state.hasReset;
-        this.stabilityChange = state.stabilityChange;
-        setVentsEqualTo(state);
+        System.arraycopy(state.slab, 0, slab, 0, PACKED_SIZE);
+    }
+    public void writeTo(int[] packedStates, int packedOffset) {
+        System.arraycopy(slab, 0, packedStates, packedOffset, PACKED_SIZE);
+    }
+    public void readFrom(int[] packedStates, int packedOffset) {
+        System.arraycopy(packedStates, packedOffset, slab, 0, PACKED_SIZE);
     }
     public void clearAllRanges() {
         for(int i = 0; i < vents.length; ++i) {
@@ -78,11 +155,11 @@ public class StatusState {
     }
 
     public int[] updateVentStatus(int[] ventStatus, int chambers) {
-        numIdentifiedVents = 0;
+        slab[NUM_IDENTIFIED_VENTS] = 0;
         int[] changeStates = new int[NUM_VENTS];
         for(int i = 0; i < ventStatus.length; ++i) {
             changeStates[i] = vents[i].update(ventStatus[i], getDirectionFromChambers(i, chambers));
-            if(vents[i].isIdentified()) ++numIdentifiedVents;
+            if(vents[i].isIdentified()) ++slab[NUM_IDENTIFIED_VENTS];
         }
         return changeStates;
     }
@@ -234,16 +311,16 @@ public class StatusState {
 
         return clippedValueState != 0;
     }
-    public void forceReset() {
-        numIdentifiedVents = 0;
+    public void forceReset(GameContext context) {
+        slab[NUM_IDENTIFIED_VENTS] = 0;
         for(int i = 0; i < vents.length; ++i) {
-            vents[i].doVMReset();
+            vents[i].doVMReset(context);
         }
     }
-    public void doVMReset() {
-        if(hasReset) return;
-        forceReset();
-        hasReset = true;
+    public void doVMReset(GameContext context) {
+        if(hasDoneVMReset()) return;
+        forceReset(context);
+        slab[HAS_RESET] = 1;
     }
     public void doHalfSpaceClipping(int ventsToClip, int clipInfo) {
         for(int i = 0; i < NUM_VENTS; ++i) {
@@ -268,7 +345,7 @@ public class StatusState {
     }
     public int[] getUnidentifiedVentIndices() {
         int curIndex = 0;
-        int[] indices = new int[NUM_VENTS - numIdentifiedVents];
+        int[] indices = new int[NUM_VENTS - slab[NUM_IDENTIFIED_VENTS]];
         for(int i = 0; i < vents.length; ++i) {
             if(this.vents[i].isIdentified()) continue;
             indices[curIndex++] = i;
@@ -286,7 +363,7 @@ public class StatusState {
         return indices;
     }
     public boolean calcPredictedVentValues(int change) {
-        stabilityChange = change;
+        slab[STABILITY_CHANGE] = change;
         if(isAllVentsKnown()) return false;
         if(!isEnoughVentsKnown()) return false;
         int[] indices = getUnknownVentIndices();
@@ -309,54 +386,59 @@ public class StatusState {
         trimRangesBasedOn(pointsNeeded, vents[ventIndices[1]], vents[ventIndices[0]]);
         trimRangesBasedOn(pointsNeeded, vents[ventIndices[0]], vents[ventIndices[1]]);
     }
-    public void clipPredictedStabilityMismatch(int stabilityAmount) {
-        if(numIdentifiedVents != 2) return;
+    public boolean clipPredictedStabilityMismatch(int stabilityAmount) {
+        if(slab[NUM_IDENTIFIED_VENTS] != 2) return false;
         int ventIndex = getUnidentifiedVentIndices()[0];
-        if(!vents[ventIndex].isTwoSeperateValues()) return;
+        if(!vents[ventIndex].isTwoSeperateValues()) return false;
         int partialVentUpdate = getIdentifiedVentTotalValue();
 
         //Exit if both changes are equal the stability amount or are equal
-        int lowerBoundStart = vents[ventIndex].getLowerBoundStart();
+        VentStatus vent = vents[ventIndex];
+        int lowerBoundStart = vent.getLowerBoundStart();
         int lowerBoundStability = calcStabilityChange(partialVentUpdate + getStabilityInfluence(lowerBoundStart));
-        int upperBoundEnd = vents[ventIndex].getUpperBoundEnd();
+        int upperBoundEnd = vent.getUpperBoundEnd();
         int upperBoundStability = calcStabilityChange(partialVentUpdate + getStabilityInfluence(upperBoundEnd));
-        if(lowerBoundStability >= stabilityAmount && upperBoundStability >= stabilityAmount) return;
-        if(lowerBoundStability == upperBoundStability) return;
+        if(lowerBoundStability >= stabilityAmount && upperBoundStability >= stabilityAmount) return false;
+        if(lowerBoundStability == upperBoundStability) return false;
 
         //Check and clip the range with the lowest stability value
+        int lowerBoundEnd = vent.getLowerBoundEnd(), upperBoundStart = vent.getUpperBoundStart();
         boolean clipLowerBound = lowerBoundStability < upperBoundStability;
         int boundStart, boundEnd;
         if(clipLowerBound) {
             boundStart = lowerBoundStart;
-            boundEnd = vents[ventIndex].getLowerBoundEnd();
+            boundEnd = lowerBoundEnd;
             for(; boundStart <= boundEnd; ++boundStart) {
                 int change = calcStabilityChange(partialVentUpdate + getStabilityInfluence(boundStart));
                 if(change >= stabilityAmount) break;
             }
-            if(boundStart > boundEnd) {
-                int upperBoundStart = vents[ventIndex].getUpperBoundStart();
-                vents[ventIndex].clearRanges();
-                vents[ventIndex].setLowerBoundRange(upperBoundStart, upperBoundEnd);
-                vents[ventIndex].setUpperBoundRange(upperBoundStart, upperBoundEnd);
+            //Bit sets drop the failing values and keep any gaps in what is left
+            if(vent.isBitSetDomainEngine()) vent.doOuterBoundsClipping(lowerBoundStart, boundStart-1);
+            else if(boundStart > boundEnd) {
+                vent.clearRanges();
+                vent.setLowerBoundRange(upperBoundStart, upperBoundEnd);
+                vent.setUpperBoundRange(upperBoundStart, upperBoundEnd);
             }
-            else vents[ventIndex].setLowerBoundRange(boundStart, boundEnd);
+            else vent.setLowerBoundRange(boundStart, boundEnd);
         } else {
-            boundStart = vents[ventIndex].getUpperBoundStart();
+            boundStart = upperBoundStart;
             boundEnd = upperBoundEnd;
             for(; boundStart <= boundEnd; --boundEnd) {
                 int change = calcStabilityChange(partialVentUpdate + getStabilityInfluence(boundEnd));
                 if(change >= stabilityAmount) break;
             }
-            if(boundStart > boundEnd) {
-                int lowerBoundEnd = vents[ventIndex].getLowerBoundEnd();
-                vents[ventIndex].clearRanges();
-                vents[ventIndex].setLowerBoundRange(lowerBoundStart, lowerBoundEnd);
-                vents[ventIndex].setUpperBoundRange(lowerBoundStart, lowerBoundEnd);
+            if(vent.isBitSetDomainEngine()) vent.doOuterBoundsClipping(boundEnd+1, upperBoundEnd);
+            else if(boundStart > boundEnd) {
+                vent.clearRanges();
+                vent.setLowerBoundRange(lowerBoundStart, lowerBoundEnd);
+                vent.setUpperBoundRange(lowerBoundStart, lowerBoundEnd);
             }
-            else vents[ventIndex].setUpperBoundRange(boundStart, boundEnd);
+            else vent.setUpperBoundRange(boundStart, boundEnd);
         }
+        return vent.getLowerBoundStart() != lowerBoundStart || vent.getLowerBoundEnd() != lowerBoundEnd ||
+                vent.getUpperBoundStart() != upperBoundStart || vent.getUpperBoundEnd() != upperBoundEnd;
     }
-    public int getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario scenario) {
+    public int getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario scenario, GameContext context) {
         //Check if our estimates are precise enough for predicted stability changes
         if(!isEnoughVentsIdentified()) return STARTING_VENT_VALUE;
         int[] unknownIndices = getUnknownVentIndices();
@@ -413,100 +495,37 @@ public class StatusState {
 
         if(estimatedVentValue != Integer.MAX_VALUE)
             totalVentValue += estimatedVentValue;
-        return calcStabilityChange(totalVentValue) + StabilityUpdateInfo.getMinRNGVariation();
+        return calcStabilityChange(totalVentValue) + context.getMinRNGVariation();
     }
 
     //Helpers
+    private void makeVentViews() {
+        for(int i = 0; i < vents.length; ++i) {
+            vents[i] = new VentStatus(VENT_TAGS[i], slab, FIRST_VENT_OFFSET + (i * VentStatus.PACKED_SIZE));
+        }
+    }
     private boolean calcSingleVentValue(VentStatus vent, int change) {
-        int partialVentUpdate = getIdentifiedVentTotalValue();
-        int pointsNeeded = getTotalVentUpdate(change) - partialVentUpdate;
+        int pointsNeeded = getTotalVentUpdate(change) - getIdentifiedVentTotalValue();
         //Exit if the value we need is out of range - stability change is invalid
-        if(pointsNeeded < 0 || pointsNeeded > (int)VENT_STABILITY_WEIGHT) return false;
-
-        float missingInversePercent = 1.0f - (pointsNeeded / VENT_STABILITY_WEIGHT);
-        int missingVentUpdate = (int)Math.ceil(PERFECT_VENT_VALUE * missingInversePercent);
-
-        int lowerBoundStart = (PERFECT_VENT_VALUE - TRUNCATION_POSSIBILITIES) - missingVentUpdate;
-        int lowerBoundEnd = (PERFECT_VENT_VALUE + TRUNCATION_POSSIBILITIES) - missingVentUpdate;
-        int upperBoundStart = (PERFECT_VENT_VALUE - TRUNCATION_POSSIBILITIES) + missingVentUpdate;
-        int upperBoundEnd = (PERFECT_VENT_VALUE + TRUNCATION_POSSIBILITIES) + missingVentUpdate;
-        while(lowerBoundStart < lowerBoundEnd) {
-            int newChange1 = calcStabilityChange(partialVentUpdate + getStabilityInfluence(lowerBoundStart));
-            int newChange2 = calcStabilityChange(partialVentUpdate + getStabilityInfluence(lowerBoundEnd));
-            if(newChange1 == change && newChange2 == change) break;
-
-            if(newChange1 != change) {
-                ++lowerBoundStart; --upperBoundEnd;
-            }
-            if(newChange2 != change) {
-                --lowerBoundEnd; ++upperBoundStart;
-            }
-        }
+        if(pointsNeeded < 0 || pointsNeeded >= SINGLE_VENT_BOUNDS.length) return false;
 
+        int[] bounds = SINGLE_VENT_BOUNDS[pointsNeeded];
         vent.clearRanges();
-        vent.setLowerBoundRange(lowerBoundStart, lowerBoundEnd);
-        vent.setUpperBoundRange(upperBoundStart, upperBoundEnd);
+        vent.setLowerBoundRange(bounds[LOWER_START], bounds[LOWER_END]);
+        vent.setUpperBoundRange(bounds[UPPER_START], bounds[UPPER_END]);
         return true;
     }
     private boolean calcDoubleVentValue(VentStatus[] vents, int change) {
-        int partialVentUpdate = getIdentifiedVentTotalValue();
-        int pointsNeeded = getTotalVentUpdate(change) - partialVentUpdate;
+        int pointsNeeded = getTotalVentUpdate(change) - getIdentifiedVentTotalValue();
         //Exit if the value we need is out of range - stability change is invalid
-        if(pointsNeeded < 0 || pointsNeeded > (int)VENT_STABILITY_WEIGHT * 2) return false;
-
-        int totalLowerBoundStart = STARTING_VENT_VALUE;
-        int totalLowerBoundEnd = STARTING_VENT_VALUE;
-        int totalUpperBoundStart = STARTING_VENT_VALUE;
-        int totalUpperBoundEnd = STARTING_VENT_VALUE;
-
-        //Try all of the possible double vent combos
-        for(int takenPoints = 0; takenPoints <= (int)VENT_STABILITY_WEIGHT; ++takenPoints) {
-            int remainingPoints = pointsNeeded - takenPoints;
-            if(remainingPoints < 0 || remainingPoints > (int)VENT_STABILITY_WEIGHT) continue;
-            float missingInversePercent = 1.0f - (takenPoints / VENT_STABILITY_WEIGHT);
-            int missingVentUpdate = (int)Math.ceil(PERFECT_VENT_VALUE * missingInversePercent);
-
-            int maxDistance = Math.min(MAX_VENT_VALUE - PERFECT_VENT_VALUE, missingVentUpdate);
-            int minDistance = Math.max(0, missingVentUpdate - PERFECT_VENT_VALUE);
-
-            int lowerBoundStart = (PERFECT_VENT_VALUE - TRUNCATION_POSSIBILITIES) - maxDistance;
-            int lowerBoundEnd = (PERFECT_VENT_VALUE + TRUNCATION_POSSIBILITIES) - minDistance;
-            int upperBoundStart = (PERFECT_VENT_VALUE - TRUNCATION_POSSIBILITIES) + minDistance;
-            int upperBoundEnd = (PERFECT_VENT_VALUE + TRUNCATION_POSSIBILITIES) + maxDistance;
-
-            //Get full possible range values
-            while(lowerBoundStart < lowerBoundEnd) {
-                int newChange1 = calcStabilityChange(partialVentUpdate + remainingPoints + getStabilityInfluence(lowerBoundStart));
-                int newChange2 = calcStabilityChange(partialVentUpdate + remainingPoints + getStabilityInfluence(lowerBoundEnd));
-                if(newChange1 == change && newChange2 == change) break;
-
-                if(newChange1 != change) {
-                    ++lowerBoundStart; --upperBoundEnd;
-                }
-                if(newChange2 != change) {
-                    --lowerBoundEnd; ++upperBoundStart;
-                }
-            }
-
-            //Update our total bounds
-            if(totalLowerBoundStart == STARTING_VENT_VALUE) totalLowerBoundStart = lowerBoundStart;
-            else totalLowerBoundStart = Math.min(totalLowerBoundStart, lowerBoundStart);
-
-            if(totalLowerBoundEnd == STARTING_VENT_VALUE) totalLowerBoundEnd = lowerBoundEnd;
-            else totalLowerBoundEnd = Math.max(totalLowerBoundEnd, lowerBoundEnd);
-
-            if(totalUpperBoundStart == STARTING_VENT_VALUE) totalUpperBoundStart = upperBoundStart;
-            else totalUpperBoundStart = Math.min(totalUpperBoundStart, upperBoundStart);
-
-            if(totalUpperBoundEnd == STARTING_VENT_VALUE) totalUpperBoundEnd = upperBoundEnd;
-            else totalUpperBoundEnd = Math.max(totalUpperBoundEnd, upperBoundEnd);
-        }
+        if(pointsNeeded < 0 || pointsNeeded >= DOUBLE_VENT_BOUNDS.length) return false;
 
         //Set both vents accordingly
+        int[] bounds = DOUBLE_VENT_BOUNDS[pointsNeeded];
         for(int i = 0; i < vents.length; ++i) {
             vents[i].clearRanges();
-            vents[i].setLowerBoundRange(totalLowerBoundStart, totalLowerBoundEnd);
-            vents[i].setUpperBoundRange(totalUpperBoundStart, totalUpperBoundEnd);
+            vents[i].setLowerBoundRange(bounds[LOWER_START], bounds[LOWER_END]);
+            vents[i].setUpperBoundRange(bounds[UPPER_START], bounds[UPPER_END]);
         }
         return true;
     }
@@ -519,6 +538,10 @@ public class StatusState {
         return totalVentUpdate;
     }
     private void mergeVentWith(int index, VentStatus toMergeWith) {
+        if(vents[index].isBitSetDomainEngine()) {
+            vents[index].mergeDomainWith(toMergeWith);
+            return;
+        }
         if(vents[index].isRangeDefined()) {
             vents[index].mergeLowerBoundRanges(toMergeWith.getLowerBoundStart(),
                     toMergeWith.getLowerBoundEnd());
@@ -535,6 +558,10 @@ public class StatusState {
         }
     }
     private void overlapVentWith(int index, VentStatus toOverlapWith) {
+        if(vents[index].isBitSetDomainEngine()) {
+            vents[index].overlapDomainWith(toOverlapWith);
+            return;
+        }
         //Get all possible range combinations
         int[] lowerLower = vents[index].getOverlappedLowerBoundRange(toOverlapWith.getLowerBoundStart(),
                 toOverlapWith.getLowerBoundEnd());
@@ -591,6 +618,10 @@ public class StatusState {
     //Double Vent range trimming
     private void trimRangesBasedOn(int pointsNeeded, VentStatus toTrim, VentStatus trimSource) {
         if(!toTrim.isRangeDefined()) return;
+        if(toTrim.isBitSetDomainEngine()) {
+            toTrim.trimDomainBasedOn(pointsNeeded, trimSource);
+            return;
+        }
         if(toTrim.isTwoSeperateValues()) {
             int[] lowerResult = trimSingleSeperateRange(pointsNeeded, trimSource,
                     new int[]{toTrim.getLowerBoundStart(), toTrim.getLowerBoundEnd()});
@@ -687,17 +718,17 @@ public class StatusState {
     }
 
     //Accessors
-    public boolean hasDoneVMReset() { return hasReset; }
-    public boolean isEnoughVentsIdentified() { return numIdentifiedVents > 0; }
+    public boolean hasDoneVMReset() { return slab[HAS_RESET] != 0; }
+    public boolean isEnoughVentsIdentified() { return slab[NUM_IDENTIFIED_VENTS] > 0; }
     public boolean isEnoughVentsKnown() { return getNumKnownVents() > 0; }
-    public boolean isAllVentsIdentified() { return numIdentifiedVents == NUM_VENTS; }
+    public boolean isAllVentsIdentified() { return slab[NUM_IDENTIFIED_VENTS] == NUM_VENTS; }
     public boolean isAllVentsKnown() { return getNumKnownVents() == NUM_VENTS; }
     public final VentStatus[] getVents() { return vents; }
-    public int getStabilityChange() { return stabilityChange; }
-    public int getNumIdentifiedVents() { return numIdentifiedVents; }
+    public int getStabilityChange() { return slab[STABILITY_CHANGE]; }
+    public int getNumIdentifiedVents() { return slab[NUM_IDENTIFIED_VENTS]; }
     public int getNumKnownVents() {
         int knownCount = vents[0].isFreezeClipAccurate() ? 1 : 0;
-        return knownCount + numIdentifiedVents;
+        return knownCount + slab[NUM_IDENTIFIED_VENTS];
     }
     public boolean areRangesDefined() {
         //All ranges must be defined for this
@@ -0,0 +1,49 @@
+package com.ultimatevm;
+
+public class StatusStateArena {
+    //States handed out since the last rewind; rewinding makes every one of them reusable at once
+    //Never shared between threads - speculative replays get an arena of their own
+    private static final int INITIAL_CAPACITY = 16;
+
+    private StatusState[] states = new StatusState[INITIAL_CAPACITY];
+    private int size, numCreated;
+
+    public StatusState acquire() {
+        //Reused states look exactly like a newly built one
+        boolean isReused = states.length > size && states[size] != null;
+        StatusState state = next();
+        if(isReused) state.setStartingState();
+        return state;
+    }
+    public StatusState acquireCopy(StatusState source) {
+        StatusState state = next();
+        state.setEqualTo(source);
+        return state;
+    }
+    public int mark() { return size; }
+    public void release(int mark) {
+        //Give back temporaries acquired since the mark - nothing acquired after it may still be in use
+        if(mark < 0 || mark > size) throw new IllegalArgumentException("Invalid arena mark " + mark);
+        size = mark;
+    }
+    public void rewind() { size = 0; }
+
+    //Helpers
+    private StatusState next() {
+        if(size == states.length) {
+            StatusState[] grown = new StatusState[states.length * 2];
+            System.arraycopy(states, 0, grown, 0, size);
+            states = grown;
+        }
+        if(states[size] == null) {
+            states[size] = new StatusState();
+            ++numCreated;
+        }
+        return states[size++];
+    }
+
+    //Accessors
+    public int getSize() { return size; }
+    //States ever built by this arena - stays flat once play reaches a steady state
+    public int getNumCreated() { return numCreated; }
+}
@@ -0,0 +1,184 @@
+package com.ultimatevm;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static com.ultimatevm.StatusState.NUM_VENTS;
+import static com.ultimatevm.VentStatus.*;
+
+public class SyntheticGame {
+    //A full seeded game along with the true value of every vent on every tick
+    public static final int NUM_TICKS = VentStatusTimeline.VM_GAME_FULL_TIME;
+    //Vents are rolled again on the first tick the predicter treats as post reset
+    public static final int RESET_TICK = VentStatusTimeline.VM_GAME_RESET_TIME + 1;
+    public static final int NO_CHANGE = Integer.MIN_VALUE;
+    public static final int NOT_IDENTIFIED = Integer.MAX_VALUE;
+    //Odds out of 1000 - rolled once per vent per half and once per tick
+    private static final int IDENTIFY_CHANCE = 650;
+    private static final int DIRECTION_CHANGE_CHANCE = 15;
+    private static final int EARTHQUAKE_CHANCE = 12;
+    private static final int MIN_MOD_CHANCE = 667;
+
+    private final long seed;
+    private final GameContext context;
+    private final int[] trueValues = new int[NUM_TICKS * NUM_VENTS];
+    private final int[] identifyTicks = new int[2 * NUM_VENTS];
+    private final int[] chambers = new int[NUM_TICKS];
+    private final int[] stabilityChanges = new int[NUM_TICKS];
+    private final int[] stability = new int[NUM_TICKS];
+    private final BitSet movements = new BitSet(NUM_TICKS);
+    private final BitSet earthquakes = new BitSet(NUM_TICKS);
+    //Scratch so playing a game allocates nothing per tick
+    private final int[] visibleValues = new int[NUM_VENTS];
+    private final VentDomain predictedValues = new VentDomain();
+
+    public static final class Script {
+        //Pins what is otherwise rolled so benchmarks and fixtures get a game of a known shape
+        private final int[] startingValues;
+        private final int chamberBits;
+        private final int[] identifyTicks;
+        private final int[] earthquakeTicks;
+
+        public Script(int[] startingValues, int chamberBits, int[] identifyTicks, int[] earthquakeTicks) {
+            //Directions never change and vents are only identified before the reset
+            this.startingValues = startingValues.clone();
+            this.chamberBits = chamberBits;
+            this.identifyTicks = identifyTicks.clone();
+            this.earthquakeTicks = earthquakeTicks.clone();
+        }
+    }
+
+    public static SyntheticGame generate(long seed, int numPlayers) {
+        return new SyntheticGame(seed, numPlayers, null);
+    }
+    public static SyntheticGame generate(long seed, int numPlayers, Script script) {
+        return new SyntheticGame(seed, numPlayers, script);
+    }
+
+    private SyntheticGame(long seed, int numPlayers, Script script) {
+        this.seed = seed;
+        context = new GameContext(numPlayers);
+        Random random = new Random(seed);
+        int[] values = new int[NUM_VENTS];
+        int[] directions = new int[NUM_VENTS];
+        int chamberBits;
+        if(script == null) {
+            for(int i = 0; i < NUM_VENTS; ++i)
+                values[i] = rollValue(random, MIN_STARTING_VENT_VALUE, MAX_STARTING_VENT_VALUE);
+            rollIdentifyTicks(random, 0, 0, RESET_TICK);
+            rollIdentifyTicks(random, NUM_VENTS, RESET_TICK, NUM_TICKS);
+            chamberBits = random.nextInt(1 << NUM_VENTS);
+        } else {
+            System.arraycopy(script.startingValues, 0, values, 0, NUM_VENTS);
+            System.arraycopy(script.identifyTicks, 0, identifyTicks, 0, NUM_VENTS);
+            for(int i = 0; i < NUM_VENTS; ++i) identifyTicks[NUM_VENTS + i] = NOT_IDENTIFIED;
+            chamberBits = script.chamberBits;
+            for(int tick : script.earthquakeTicks) earthquakes.set(tick);
+        }
+        int currentStability = StabilityTracker.STARTING_STABILITY;
+
+        for(int tick = 0; tick < NUM_TICKS; ++tick) {
+            //Directions are kept through the reset
+            if(tick == RESET_TICK) {
+                int min = context.isSolo() ? MIN_RESET_SOLO_VENT_VALUE : MIN_VENT_VALUE;
+                int max = context.isSolo() ? MAX_RESET_SOLO_VENT_VALUE : MAX_VENT_VALUE;
+                for(int i = 0; i < NUM_VENTS; ++i) values[i] = rollValue(random, min, max);
+            }
+            if(script == null) {
+                if(random.nextInt(1000) < DIRECTION_CHANGE_CHANCE) chamberBits ^= 1 << random.nextInt(NUM_VENTS);
+                if(random.nextInt(1000) < EARTHQUAKE_CHANCE) earthquakes.set(tick);
+            }
+            chambers[tick] = chamberBits;
+
+            //An earthquake on a movement tick holds every vent in place for that update
+            if(VentStatusPredicter.isMovementUpdateTick(tick) && !earthquakes.get(tick)) {
+                VentDomain.moveValues(values, VentDomain.getChamberDirections(chamberBits, directions));
+                movements.set(tick);
+            }
+            stabilityChanges[tick] = NO_CHANGE;
+            if(tick % VentStatusTimeline.STABILITY_UPDATE_TICK_TIME == VentStatusTimeline.STABILITY_UPDATE_TICK_TIME - 1) {
+                stabilityChanges[tick] = StatusState.calcStabilityChange(getTotalInfluence(values)) + rollRNGMod(random);
+                currentStability = Math.max(0, Math.min(StabilityTracker.MAX_STABILITY, currentStability + stabilityChanges[tick]));
+            }
+            stability[tick] = currentStability;
+            System.arraycopy(values, 0, trueValues, tick * NUM_VENTS, NUM_VENTS);
+        }
+    }
+
+    public int play(VentStatusPredicter predicter) {
+        return play(predicter, null);
+    }
+    public int play(VentStatusPredicter predicter, long[] tickNanos) {
+        return playUntil(predicter, NUM_TICKS, tickNanos);
+    }
+    public int playUntil(VentStatusPredicter predicter, int endTick, long[] tickNanos) {
+        //Fed in the same order the plugin uses - returns how many ticks showed a range missing the true value
+        predicter.getContext().setNumPlayers(context.getNumPlayers());
+        int numMisses = 0;
+        for(int tick = 0; tick < endTick; ++tick) {
+            long start = tickNanos != null ? System.nanoTime() : 0;
+            predicter.updateVentStatus(getVisibleValues(tick, visibleValues), chambers[tick]);
+            if(stabilityChanges[tick] != NO_CHANGE) predicter.makeStatusState(stabilityChanges[tick]);
+            if(earthquakes.get(tick)) predicter.markEarthquakeEvent();
+            predicter.updateDisplayState();
+            //Grading is left out of the timed part
+            if(tickNanos != null) tickNanos[tick] = System.nanoTime() - start;
+            numMisses += countMisses(predicter.getDisplayState(), tick);
+            if(tickNanos != null) start = System.nanoTime();
+            predicter.updateForecast(stability[tick]);
+            predicter.finishTick();
+            if(tickNanos != null) tickNanos[tick] += System.nanoTime() - start;
+        }
+        return numMisses;
+    }
+    public int countMisses(StatusState displayState, int tick) {
+        int numMisses = 0;
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            VentStatus vent = displayState.getVents()[i];
+            if(vent.isIdentified() || !vent.isRangeDefined()) continue;
+            vent.readDomainInto(predictedValues);
+            if(!predictedValues.isEmpty() && !predictedValues.contains(getTrueValue(tick, i))) ++numMisses;
+        }
+        return numMisses;
+    }
+    public int[] getVisibleValues(int tick, int[] values) {
+        //Vents show the starting value until they are identified in their half of the game
+        int half = tick < RESET_TICK ? 0 : NUM_VENTS;
+        for(int i = 0; i < NUM_VENTS; ++i)
+            values[i] = tick >= identifyTicks[half + i] ? getTrueValue(tick, i) : STARTING_VENT_VALUE;
+        return values;
+    }
+
+    //Helpers
+    private static int rollValue(Random random, int min, int max) {
+        return min + random.nextInt(max - min + 1);
+    }
+    private static int getTotalInfluence(int[] values) {
+        int points = 0;
+        for(int value : values) points += getStabilityInfluence(value);
+        return points;
+    }
+    private void rollIdentifyTicks(Random random, int offset, int startTick, int endTick) {
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            boolean isIdentified = random.nextInt(1000) < IDENTIFY_CHANCE;
+            identifyTicks[offset + i] = isIdentified ? rollValue(random, startTick, endTick - 1) : NOT_IDENTIFIED;
+        }
+    }
+    private int rollRNGMod(Random random) {
+        //The lowest mod is the most common one
+        int minMod = context.getMinRNGVariation(), maxMod = context.getMaxRNGVariation();
+        if(random.nextInt(1000) < MIN_MOD_CHANCE) return minMod;
+        return rollValue(random, minMod, maxMod);
+    }
+
+    //Accessors
+    public long getSeed() { return seed; }
+    public int getNumPlayers() { return context.getNumPlayers(); }
+    public int getTrueValue(int tick, int vent) { return trueValues[tick * NUM_VENTS + vent]; }
+    public int getIdentifyTick(int vent, boolean isPostReset) { return identifyTicks[(isPostReset ? NUM_VENTS : 0) + vent]; }
+    public int getChambers(int tick) { return chambers[tick]; }
+    public int getStabilityChange(int tick) { return stabilityChanges[tick]; }
+    public int getStability(int tick) { return stability[tick]; }
+    public boolean isMovementTick(int tick) { return movements.get(tick); }
+    public boolean isEarthquakeTick(int tick) { return earthquakes.get(tick); }
+}
@@ -0,0 +1,141 @@
+package com.ultimatevm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SyntheticGameFuzzer {
+    //Plays seeded synthetic games through fresh predicters on every core and keeps the seeds worth replaying
+    public static final int MAX_FUZZ_PLAYERS = VentStatusPredicter.HIGHEST_STABLE_RNG_PLAYER_COUNT;
+    private static final int MAX_MISSED_SEEDS = 8;
+    private static final double NANOS_TO_MICROS = 1.0 / 1000.0;
+
+    private final UltimateVolcanicMineConfig.VentPredictionMode predictionMode;
+    private final int numThreads;
+
+    public static final class TeamStats {
+        //Everything the fuzzer learned about one team size
+        private final int numPlayers;
+        private int numGames, numMissedGames;
+        private long numMisses, totalNanos;
+        private long worstTickNanos = -1, worstTickSeed;
+        private final List<Long> missedSeeds = new ArrayList<>();
+
+        private TeamStats(int numPlayers) {
+            this.numPlayers = numPlayers;
+        }
+        private void add(SyntheticGame game, int misses, long[] tickNanos) {
+            ++numGames;
+            numMisses += misses;
+            if(misses > 0 && ++numMissedGames <= MAX_MISSED_SEEDS) missedSeeds.add(game.getSeed());
+            for(long nanos : tickNanos) {
+                totalNanos += nanos;
+                if(nanos <= worstTickNanos) continue;
+                worstTickNanos = nanos;
+                worstTickSeed = game.getSeed();
+            }
+        }
+        private void merge(TeamStats stats) {
+            numGames += stats.numGames;
+            numMisses += stats.numMisses;
+            totalNanos += stats.totalNanos;
+            for(long seed : stats.missedSeeds) {
+                if(missedSeeds.size() < MAX_MISSED_SEEDS) missedSeeds.add(seed);
+            }
+            numMissedGames += stats.numMissedGames;
+            if(stats.worstTickNanos > worstTickNanos) {
+                worstTickNanos = stats.worstTickNanos;
+                worstTickSeed = stats.worstTickSeed;
+            }
+        }
+
+        @Override
+        public String toString() {
+            double meanTickMicros = numGames == 0 ? 0 : totalNanos * NANOS_TO_MICROS / ((long)numGames * SyntheticGame.NUM_TICKS);
+            return String.format("players=%d games=%d missedGames=%d misses=%d meanTick=%.1fus worstTick=%.1fus@seed%d missedSeeds=%s",
+                    numPlayers, numGames, numMissedGames, numMisses, meanTickMicros,
+                    Math.max(0, worstTickNanos) * NANOS_TO_MICROS, worstTickSeed, missedSeeds);
+        }
+
+        //Accessors
+        public int getNumPlayers() { return numPlayers; }
+        public int getNumGames() { return numGames; }
+        public int getNumMissedGames() { return numMissedGames; }
+        public long getNumMisses() { return numMisses; }
+        public long getWorstTickNanos() { return worstTickNanos; }
+        public long getWorstTickSeed() { return worstTickSeed; }
+        public final List<Long> getMissedSeeds() { return missedSeeds; }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        //Arguments are the number of games followed by the first seed
+        int numGames = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        long firstSeed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        SyntheticGameFuzzer fuzzer = new SyntheticGameFuzzer(UltimateVolcanicMineConfig.VentPredictionMode.TIMELINE,
+                Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        TeamStats[] stats = fuzzer.fuzz(numGames, firstSeed);
+        double seconds = (System.nanoTime() - start) / 1000000000.0;
+        System.out.println(String.format("games=%d seconds=%.2f games/s=%.0f", numGames, seconds, numGames / seconds));
+        for(TeamStats team : stats) System.out.println(team);
+    }
+
+    public SyntheticGameFuzzer(UltimateVolcanicMineConfig.VentPredictionMode predictionMode, int numThreads) {
+        this.predictionMode = predictionMode;
+        this.numThreads = Math.max(1, numThreads);
+    }
+
+    public TeamStats[] fuzz(int numGames, long firstSeed) throws InterruptedException {
+        //Team sizes take turns so every size sees the same number of games
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(numThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ultimate-vm-fuzz");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<TeamStats[]>> futures = new ArrayList<>(numThreads);
+            for(int i = 0; i < numThreads; ++i)
+                futures.add(workers.submit(() -> playGames(nextGame, numGames, firstSeed)));
+            TeamStats[] stats = makeTeamStats();
+            for(Future<TeamStats[]> future : futures) {
+                TeamStats[] workerStats = getResult(future);
+                for(int i = 0; i < stats.length; ++i) stats[i].merge(workerStats[i]);
+            }
+            return stats;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    //Helpers
+    private TeamStats[] playGames(AtomicInteger nextGame, int numGames, long firstSeed) {
+        TeamStats[] stats = makeTeamStats();
+        long[] tickNanos = new long[SyntheticGame.NUM_TICKS];
+        for(int index = nextGame.getAndIncrement(); index < numGames; index = nextGame.getAndIncrement()) {
+            int numPlayers = (index % MAX_FUZZ_PLAYERS) + 1;
+            SyntheticGame game = SyntheticGame.generate(firstSeed + index, numPlayers);
+            VentStatusPredicter predicter = new VentStatusPredicter();
+            predicter.setPredictionMode(predictionMode);
+            int misses = game.play(predicter, tickNanos);
+            stats[numPlayers - 1].add(game, misses, tickNanos);
+        }
+        return stats;
+    }
+    private static TeamStats[] makeTeamStats() {
+        TeamStats[] stats = new TeamStats[MAX_FUZZ_PLAYERS];
+        for(int i = 0; i < stats.length; ++i) stats[i] = new TeamStats(i + 1);
+        return stats;
+    }
+    private static TeamStats[] getResult(Future<TeamStats[]> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -9,27 +9,36 @@ public abstract class TimedObject {
         PLATFORM
     }
 
-    protected double ticksPassed;
+    //Age is derived from the tracker tick so nothing has to be updated while an object waits to expire
+    private final int spawnTick;
     private final WorldPoint worldLocation;
     private final ObjectType type;
+    //Slot in the tracker's object list
+    private int trackerIndex;
 
-    TimedObject(WorldPoint worldLocation, ObjectType type) {
+    TimedObject(WorldPoint worldLocation, ObjectType type, int spawnTick) {
         this.worldLocation = worldLocation;
         this.type = type;
+        this.spawnTick = spawnTick;
     }
 
-    public Color getStateColor() {
+    //Ticks the object lives for - always at least one
+    protected abstract int getLifetime();
+
+    public Color getStateColor(int currentTick) {
         return new Color(0, 0, 0);
     }
-    public void updateTimeRemaining() {
-        ++ticksPassed;
-    }
 
-    public double getTimeLeft() { return ticksPassed; }
-    public double getTimeRemaining()  {
-        return ticksPassed;
+    public double getTicksPassed(int currentTick) { return currentTick - spawnTick; }
+    public double getTimeLeft(int currentTick) { return getTicksPassed(currentTick); }
+    public double getTimeRemaining(int currentTick)  {
+        return getTicksPassed(currentTick);
     }
+    public int getExpiryTick() { return spawnTick + getLifetime(); }
+    public boolean isTimeExpired(int currentTick) { return currentTick >= getExpiryTick(); }
     public WorldPoint getWorldLocation() { return worldLocation; }
+    public int getPositionCode() { return TimedObjectTracker.getPositionCode(worldLocation); }
     public ObjectType getObjectType() { return type; }
-    public boolean isTimeExpired() { return true; }
+    int getTrackerIndex() { return trackerIndex; }
+    void setTrackerIndex(int trackerIndex) { this.trackerIndex = trackerIndex; }
 }
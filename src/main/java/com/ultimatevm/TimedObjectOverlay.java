@@ -17,6 +17,7 @@ public class TimedObjectOverlay extends Overlay {
     private final Client client;
     private final UltimateVolcanicMineConfig config;
     private TimedObjectTracker objTracker;
+    private HandlerLatencies latencies;
 
     @Inject
     TimedObjectOverlay(Client client, UltimateVolcanicMineConfig config)
@@ -30,41 +31,54 @@ public class TimedObjectOverlay extends Overlay {
     public void setRockTracker(TimedObjectTracker rockTracker) {
         this.objTracker = rockTracker;
     }
+    public void setLatencies(HandlerLatencies latencies) {
+        this.latencies = latencies;
+    }
 
-    private void renderProgressPie(Graphics2D graphics, final Point canvasLocation, final TimedObject obj) {
+    private void renderProgressPie(Graphics2D graphics, final Point canvasLocation, final TimedObject obj, int currentTick) {
         final ProgressPieComponent progressPieComponent = new ProgressPieComponent();
         progressPieComponent.setPosition(canvasLocation);
-        progressPieComponent.setProgress(obj.getTimeRemaining());
-        Color stateColor = obj.getStateColor();
+        progressPieComponent.setProgress(obj.getTimeRemaining(currentTick));
+        Color stateColor = obj.getStateColor(currentTick);
 
         progressPieComponent.setBorderColor(stateColor);
         progressPieComponent.setFill(ColorUtil.colorWithAlpha(stateColor, (int) (stateColor.getAlpha() / 2.5)));
         progressPieComponent.render(graphics);
     }
-    private void renderNumber(Graphics2D graphics, final Point canvasLocation, final TimedObject obj) {
-        int currentTicks = (int)obj.getTimeLeft();
+    private void renderNumber(Graphics2D graphics, final Point canvasLocation, final TimedObject obj, int currentTick) {
+        int currentTicks = (int)obj.getTimeLeft(currentTick);
         if(currentTicks > config.numberThreshold()) return;
         final TextComponent textComponent = new TextComponent();
         textComponent.setText(Integer.toString(currentTicks));
         textComponent.setFont(new Font("Arial Bold", Font.BOLD, 16));
         textComponent.setPosition(new java.awt.Point(canvasLocation.getX()-10, canvasLocation.getY()));
-        textComponent.setColor(obj.getStateColor());
+        textComponent.setColor(obj.getStateColor(currentTick));
         textComponent.render(graphics);
     }
-    private void renderBasedOnMode(UltimateVolcanicMineConfig.TimingRenderMode mode, Graphics2D graphics, final Point canvasLocation, final TimedObject obj) {
+    private void renderBasedOnMode(UltimateVolcanicMineConfig.TimingRenderMode mode, Graphics2D graphics, final Point canvasLocation, final TimedObject obj, int currentTick) {
         switch(mode) {
             case PROGRESS_PIE:
-                renderProgressPie(graphics, canvasLocation, obj);
+                renderProgressPie(graphics, canvasLocation, obj, currentTick);
                 break;
 
             case NUMBER:
-                renderNumber(graphics, canvasLocation, obj);
+                renderNumber(graphics, canvasLocation, obj, currentTick);
                 break;
         }
     }
     @Override
     public Dimension render(Graphics2D graphics)
     {
+        long start = System.nanoTime(), startBytes = latencies.startAllocations();
+        try {
+            renderObjects(graphics);
+        } finally {
+            latencies.record(HandlerLatencies.Handler.TIMED_OBJECT_RENDER, start, startBytes);
+        }
+        return null;
+    }
+    private void renderObjects(Graphics2D graphics) {
+        int currentTick = objTracker.getCurrentTick();
         for (TimedObject obj : objTracker.getObjects()) {
             final LocalPoint localLocation = LocalPoint.fromWorld(client, obj.getWorldLocation());
             if (localLocation == null) continue;
@@ -75,15 +89,14 @@ public class TimedObjectOverlay extends Overlay {
             switch(obj.getObjectType()) {
                 case ROCK:
                     if(!config.rockTimer()) continue;
-                    renderBasedOnMode(config.rockRenderMode(), graphics, canvasLocation, obj);
+                    renderBasedOnMode(config.rockRenderMode(), graphics, canvasLocation, obj, currentTick);
                     break;
 
                 case PLATFORM:
                     if(!config.platformTimer()) continue;
-                    renderBasedOnMode(config.platformRenderMode(), graphics, canvasLocation, obj);
+                    renderBasedOnMode(config.platformRenderMode(), graphics, canvasLocation, obj, currentTick);
                     break;
             }
         }
-        return null;
     }
 }
@@ -1,52 +1,79 @@
 package com.ultimatevm;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 import net.runelite.api.coords.WorldPoint;
 
 public class TimedObjectTracker {
-    HashSet<Integer> positionCodes;
-    LinkedList<TimedObject> timedObjects;
+    //Objects are filed in a hashed timer wheel by the tick they expire on so a tick only visits what expires then
+    //Every lifetime is shorter than the wheel so a slot never holds objects from a later lap
+    private static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final IntHashSet positionCodes = new IntHashSet();
+    private final ArrayList<TimedObject> timedObjects = new ArrayList<>();
+    private final List<List<TimedObject>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private int currentTick;
+
     public TimedObjectTracker() {
-        timedObjects = new LinkedList<>();
-        positionCodes = new HashSet<>();
+        for(int i = 0; i < WHEEL_SIZE; ++i) wheel.add(new ArrayList<>());
     }
 
     public void addObject(WorldPoint worldLocation, TimedObject.ObjectType type) {
-        int positionCode = (worldLocation.getX() << 16) | worldLocation.getY();
-        if(positionCodes.contains(positionCode)) return;
-        positionCodes.add(positionCode);
+        if(!positionCodes.add(getPositionCode(worldLocation))) return;
+        TimedObject obj = null;
         switch(type) {
             case ROCK:
-                timedObjects.addLast(new CappingRock(worldLocation));
+                obj = new CappingRock(worldLocation, currentTick);
                 break;
 
             case PLATFORM:
-                timedObjects.addLast(new PlayerPlatform(worldLocation));
+                obj = new PlayerPlatform(worldLocation, currentTick);
                 break;
         }
+        obj.setTrackerIndex(timedObjects.size());
+        timedObjects.add(obj);
+        wheel.get(obj.getExpiryTick() & WHEEL_MASK).add(obj);
     }
     public void clearRocks() {
         timedObjects.clear();
         positionCodes.clear();
+        for(List<TimedObject> slot : wheel) slot.clear();
     }
     public void updateRockTimers() {
-        for (TimedObject obj : timedObjects) {
-            obj.updateTimeRemaining();
-        }
+        ++currentTick;
         removeExpiredRocks();
     }
     private void removeExpiredRocks() {
-        Iterator<TimedObject> it = timedObjects.iterator();
-        while(it.hasNext()) {
-            TimedObject obj = it.next();
-            if(!obj.isTimeExpired()) continue;
-            int positionCode = (obj.getWorldLocation().getX() << 16) | obj.getWorldLocation().getY();
-            positionCodes.remove(positionCode);
-            it.remove();
+        List<TimedObject> slot = wheel.get(currentTick & WHEEL_MASK);
+        for(int i = slot.size() - 1; i >= 0; --i) {
+            TimedObject obj = slot.get(i);
+            if(!obj.isTimeExpired(currentTick)) continue;
+            removeAt(slot, i);
+            removeObject(obj);
+        }
+    }
+
+    //Helpers
+    private void removeObject(TimedObject obj) {
+        //The last object fills the hole so removal never shifts the list
+        TimedObject last = timedObjects.remove(timedObjects.size() - 1);
+        if(last != obj) {
+            timedObjects.set(obj.getTrackerIndex(), last);
+            last.setTrackerIndex(obj.getTrackerIndex());
         }
+        positionCodes.remove(obj.getPositionCode());
+    }
+    private static void removeAt(List<TimedObject> list, int index) {
+        int lastIndex = list.size() - 1;
+        list.set(index, list.get(lastIndex));
+        list.remove(lastIndex);
+    }
+    static int getPositionCode(WorldPoint worldLocation) {
+        return (worldLocation.getX() << 16) | worldLocation.getY();
     }
 
-    public final LinkedList<TimedObject> getObjects() { return timedObjects; }
+    //Accessors
+    public final List<TimedObject> getObjects() { return timedObjects; }
+    public int getCurrentTick() { return currentTick; }
 }
@@ -3,23 +3,154 @@ package com.ultimatevm;
 import java.util.LinkedList;
 
 public class TimelineCache {
+    //Snapshots are taken every stability update worth of replayed ticks
+    public static final int CHECKPOINT_TICK_INTERVAL = VentStatusTimeline.STABILITY_UPDATE_TICK_TIME;
+    private static final int MAX_CHECKPOINTS = (VentStatusTimeline.VM_GAME_FULL_TIME / CHECKPOINT_TICK_INTERVAL) + 1;
+
     public LinkedList<StatusState> possibleStates;
     public StabilityUpdateInfo prevStabInfo;
     public StatusState predictedState;
     public int startingTick, i;
     public int previousMovementTick, numTicksNegativePredictedStability;
     public int mostRecentIdentifyTick;
+    //Rng mod this cache replays stability updates with
+    public final int rngMod;
+    //Speculative copies are replayed off the main thread and stop before touching shared state
+    boolean isSpeculative, isBlocked;
+    //Timeline version and team size the prediction settled at
+    private int settledVersion = -1, settledNumPlayers;
+    //Only the live cache owns checkpoints; snapshots leave this null
+    private TimelineCache[] checkpoints;
+    //Snapshots hold their possibilities packed into one array instead
+    private int[] packedStates;
+    private int numPackedStates, packedPredictedIndex;
+    //Every possibility comes from here and is given back whenever the cache starts over
+    final StatusStateArena arena;
 
-    TimelineCache() {
-
+    TimelineCache(int rngMod, StatusStateArena arena) {
+        this.rngMod = rngMod;
+        this.arena = arena;
+    }
+    private TimelineCache(TimelineCache cache) {
+        rngMod = cache.rngMod;
+        arena = null;
+        packFrom(cache);
     }
     void initalize(StatusState initialState, int startTick) {
+        arena.rewind();
         possibleStates = new LinkedList<>();
         prevStabInfo = null;
-        predictedState = new StatusState(initialState);
+        predictedState = arena.acquireCopy(initialState);
         i = startingTick = previousMovementTick = startTick;
         mostRecentIdentifyTick = startTick;
         numTicksNegativePredictedStability = 0;
         possibleStates.push(predictedState);
+        checkpoints = new TimelineCache[MAX_CHECKPOINTS];
+    }
+    boolean isInitialized() { return possibleStates != null; }
+    TimelineCache makeSpeculativeCopy(StatusStateArena arena) {
+        //Copy every possibility into the copy's own arena so no state is shared with this cache
+        TimelineCache copy = new TimelineCache(rngMod, arena);
+        copy.copyStatesFrom(this);
+        copy.checkpoints = checkpoints.clone();
+        copy.isSpeculative = true;
+        return copy;
+    }
+    void acceptSpeculation() { isSpeculative = false; }
+    void settle(int version, GameContext context) {
+        //Replaying empty ticks only clips a prediction whose worst case change is below the lowest rng mod minus one
+        //This is the same threshold the replay uses to count negative stability ticks
+        int predictedChange = predictedState.getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario.WORST_CASE, context);
+        boolean isSettled = predictedChange >= context.getMinRNGVariation()-1;
+        settledVersion = isSettled ? version : -1;
+        settledNumPlayers = context.getNumPlayers();
+    }
+    boolean isSettled(int version, int numPlayers) {
+        return settledVersion == version && settledNumPlayers == numPlayers;
+    }
+    int getNextCheckpointTick() {
+        int ticksReplayed = i - startingTick;
+        return startingTick + ((ticksReplayed / CHECKPOINT_TICK_INTERVAL) + 1) * CHECKPOINT_TICK_INTERVAL;
+    }
+    void saveCheckpoint() {
+        //Checkpoints hold the replay state before tick i is processed
+        int ticksReplayed = i - startingTick;
+        if(ticksReplayed <= 0 || ticksReplayed % CHECKPOINT_TICK_INTERVAL != 0) return;
+        int index = ticksReplayed / CHECKPOINT_TICK_INTERVAL;
+        if(index >= MAX_CHECKPOINTS || checkpoints[index] != null) return;
+        checkpoints[index] = new TimelineCache(this);
+    }
+    void rollback(int tick, StatusState initialState) {
+        //Nothing at or after this tick has been replayed yet
+        if(i <= tick) return;
+
+        //Discard every checkpoint that has replayed the changed tick
+        TimelineCache newestValid = null;
+        for(int index = 0; index < MAX_CHECKPOINTS; ++index) {
+            if(checkpoints[index] == null) continue;
+            if(checkpoints[index].i <= tick) newestValid = checkpoints[index];
+            else checkpoints[index] = null;
+        }
+
+        if(newestValid == null) {
+            TimelineCache[] validCheckpoints = checkpoints;
+            initalize(initialState, startingTick);
+            checkpoints = validCheckpoints;
+            return;
+        }
+        unpackFrom(newestValid);
+    }
+
+    //Helpers
+    private void packFrom(TimelineCache cache) {
+        //Predicted state gets its own slot at the end if it is not a possibility
+        numPackedStates = cache.possibleStates.size();
+        packedStates = new int[(numPackedStates + 1) * StatusState.PACKED_SIZE];
+        packedPredictedIndex = numPackedStates;
+        int index = 0;
+        for(StatusState state : cache.possibleStates) {
+            if(state == cache.predictedState) packedPredictedIndex = index;
+            state.writeTo(packedStates, (index++) * StatusState.PACKED_SIZE);
+        }
+        if(packedPredictedIndex == numPackedStates)
+            cache.predictedState.writeTo(packedStates, numPackedStates * StatusState.PACKED_SIZE);
+        copyCountersFrom(cache);
+    }
+    private void unpackFrom(TimelineCache cache) {
+        //Rebuild our possibilities keeping track of which one is predicted
+        arena.rewind();
+        possibleStates = new LinkedList<>();
+        predictedState = null;
+        for(int index = 0; index < cache.numPackedStates; ++index) {
+            StatusState state = arena.acquire();
+            state.readFrom(cache.packedStates, index * StatusState.PACKED_SIZE);
+            if(index == cache.packedPredictedIndex) predictedState = state;
+            possibleStates.addLast(state);
+        }
+        if(predictedState == null) {
+            predictedState = arena.acquire();
+            predictedState.readFrom(cache.packedStates, cache.numPackedStates * StatusState.PACKED_SIZE);
+        }
+        copyCountersFrom(cache);
+    }
+    private void copyStatesFrom(TimelineCache cache) {
+        arena.rewind();
+        possibleStates = new LinkedList<>();
+        predictedState = null;
+        for(StatusState state : cache.possibleStates) {
+            StatusState copy = arena.acquireCopy(state);
+            if(state == cache.predictedState) predictedState = copy;
+            possibleStates.addLast(copy);
+        }
+        if(predictedState == null) predictedState = arena.acquireCopy(cache.predictedState);
+        copyCountersFrom(cache);
+    }
+    private void copyCountersFrom(TimelineCache cache) {
+        prevStabInfo = cache.prevStabInfo;
+        startingTick = cache.startingTick;
+        i = cache.i;
+        previousMovementTick = cache.previousMovementTick;
+        numTicksNegativePredictedStability = cache.numTicksNegativePredictedStability;
+        mostRecentIdentifyTick = cache.mostRecentIdentifyTick;
     }
 }
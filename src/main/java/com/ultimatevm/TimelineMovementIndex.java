@@ -0,0 +1,57 @@
+package com.ultimatevm;
+
+import static com.ultimatevm.VentStatusTimeline.*;
+
+public class TimelineMovementIndex {
+    //Running totals over the event timeline so any tick range is answered in O(1)
+    //Entries at and after an edited tick are rebuilt the next time they are read
+    private final int[] timeline;
+    //Movement updates and per vent direction changes on ticks before the index
+    private final int[] numMovements;
+    private final int[][] numDirectionChanges;
+    //Newest movement update tick before the index or -1
+    private final int[] lastMovementTick;
+    private int numValidTicks;
+
+    TimelineMovementIndex(int[] timeline) {
+        this.timeline = timeline;
+        numMovements = new int[timeline.length + 1];
+        numDirectionChanges = new int[StatusState.NUM_VENTS][timeline.length + 1];
+        lastMovementTick = new int[timeline.length + 1];
+        lastMovementTick[0] = -1;
+    }
+
+    void invalidate(int tick) {
+        //Entry 0 is always valid since nothing comes before the first tick
+        numValidTicks = Math.min(numValidTicks, tick);
+    }
+    public int getNumMovements(int startTick, int endTick) {
+        extendTo(endTick);
+        return numMovements[endTick + 1] - numMovements[startTick];
+    }
+    public boolean hasDirectionChanged(int ventIndex, int startTick, int endTick) {
+        extendTo(endTick);
+        return numDirectionChanges[ventIndex][endTick + 1] != numDirectionChanges[ventIndex][startTick];
+    }
+    public int getLastMovementTick(int startTick, int endTick) {
+        //-1 if no movement update happened in the range
+        extendTo(endTick);
+        int tick = lastMovementTick[endTick + 1];
+        return tick >= startTick ? tick : -1;
+    }
+
+    //Helpers
+    private void extendTo(int tick) {
+        //Events are added on the current tick so this usually only covers a few new ticks
+        for(; numValidTicks <= tick; ++numValidTicks) {
+            int events = timeline[numValidTicks], next = numValidTicks + 1;
+            boolean isMovement = (events & (1 << MOVEMENT_UPDATE_FLAG)) != 0;
+            numMovements[next] = numMovements[numValidTicks] + (isMovement ? 1 : 0);
+            lastMovementTick[next] = isMovement ? numValidTicks : lastMovementTick[numValidTicks];
+            int directionFlags = (events & (1 << DIRECTION_CHANGED_FLAG)) != 0 ? (events & DIRECTION_CHANGED_BIT_MASK) >> 3 : 0;
+            for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+                numDirectionChanges[i][next] = numDirectionChanges[i][numValidTicks] + ((directionFlags >> i) & 1);
+            }
+        }
+    }
+}
@@ -16,6 +16,18 @@ public interface UltimateVolcanicMineConfig extends Config
 		NUMBER
 	}
 
+	enum VentDomainEngine
+	{
+		INTERVAL,
+		BIT_SET
+	}
+
+	enum VentPredictionMode
+	{
+		TIMELINE,
+		CANDIDATE_SET
+	}
+
 	@ConfigSection(
 			name = "Display",
 			description = "All the options for how your interface to look",
@@ -491,4 +503,78 @@ public interface UltimateVolcanicMineConfig extends Config
 	{
 		return false;
 	}
+
+	@ConfigSection(
+			name = "Developer",
+			description = "Prediction engine switches and tools for measuring and replaying games",
+			position = 7,
+			closedByDefault = true
+	)
+	String developer = "developer";
+	@ConfigItem(
+			position = 0,
+			keyName = "ventDomainEngine",
+			name = "Vent prediction engine",
+			description = "Track unknown vents as two ranges or as an exact set of values",
+			section = developer
+	)
+	default VentDomainEngine ventDomainEngine()
+	{
+		return VentDomainEngine.INTERVAL;
+	}
+	@ConfigItem(
+			position = 1,
+			keyName = "ventPredictionMode",
+			name = "Vent prediction mode",
+			description = "Narrow timeline predictions down to vent value combinations that are still possible, applied at the start of the next game",
+			section = developer
+	)
+	default VentPredictionMode ventPredictionMode()
+	{
+		return VentPredictionMode.TIMELINE;
+	}
+	@ConfigItem(
+			position = 2,
+			keyName = "asyncVentPrediction",
+			name = "Background vent prediction",
+			description = "Run vent predictions on a background thread so slow predictions never stall the client, applied at the start of the next game",
+			section = developer
+	)
+	default boolean asyncVentPrediction()
+	{
+		return false;
+	}
+	@ConfigItem(
+			position = 3,
+			keyName = "recordSessions",
+			name = "Record sessions",
+			description = "Save the raw game inputs of each game to the ultimate-vm folder for replaying later, applied at the start of the next game",
+			section = developer
+	)
+	default boolean recordSessions()
+	{
+		return false;
+	}
+	@ConfigItem(
+			position = 4,
+			keyName = "showDiagnostics",
+			name = "Show diagnostics",
+			description = "Displays how long each event handler and overlay takes along with the size of the current vent prediction",
+			section = developer
+	)
+	default boolean showDiagnostics()
+	{
+		return false;
+	}
+	@ConfigItem(
+			position = 5,
+			keyName = "allocationAccounting",
+			name = "Diagnose allocations",
+			description = "Adds the bytes each event handler and vent prediction phase allocates to the diagnostics",
+			section = developer
+	)
+	default boolean allocationAccounting()
+	{
+		return false;
+	}
 }
@@ -1,6 +1,8 @@
 package com.ultimatevm;
 
 import com.google.inject.Provides;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,6 +25,8 @@ import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.Text;
 import net.runelite.api.widgets.Widget;
 
+import static com.ultimatevm.GameTickHandler.*;
+
 @Slf4j
 @PluginDescriptor(
 	name = "Ultimate Volcanic Mine"
@@ -38,6 +42,9 @@ public class UltimateVolcanicMinePlugin extends Plugin
 	@Inject
 	private ClientThread clientThread;
 
+	@Inject
+	private ScheduledExecutorService executor;
+
 	@Inject
 	private UltimateVolcanicMineConfig config;
 
@@ -66,50 +73,42 @@ public class UltimateVolcanicMinePlugin extends Plugin
 	@Inject
 	private BoulderHealthOverlay boulderHealthOverlay;
 
+	@Inject
+	private DiagnosticsOverlay diagnosticsOverlay;
+
 	//Constants
 	private static final int PROC_VOLCANIC_MINE_SET_OTHERINFO = 2022;
-	private static final int VARBIT_STABILITY = 5938;
-	private static final int VARBIT_GAME_STATE = 5941;
-	private static final int VARBIT_TIME_REMAINING = 5944;
-	private static final int VARBIT_VENT_STATUS_A = 5939;
-	private static final int VARBIT_VENT_STATUS_B = 5940;
-	private static final int VARBIT_VENT_STATUS_C = 5942;
-	private static final int VARBIT_CHAMBER_STATUS = 5936;
-	private static final int VARBIT_POINTS = 5934;
-	private static final int VARBIT_PLAYER_COUNT = 5937;
 	private static final int HUD_STABILITY_COMPONENT = 11;
 	private static final int HUD_VENT_A_PERCENTAGE = 17;
 	private static final int HUD_VENT_B_PERCENTAGE = 18;
 	private static final int HUD_VENT_C_PERCENTAGE = 19;
-	private static final int VM_GAME_STATE_NONE = 0;
-	private static final int VM_GAME_STATE_IN_LOBBY = 1;
-	private static final int VM_GAME_STATE_IN_GAME = 2;
+	private static final int HUD_STABILITY_WIDGET = (InterfaceID.VOLCANIC_MINE << 16) | HUD_STABILITY_COMPONENT;
+	private static final int HUD_STABILITY_LABEL_WIDGET = (InterfaceID.VOLCANIC_MINE << 16) | (HUD_STABILITY_COMPONENT - 1);
 	private static final int VM_REGION_NORTH = 15263;
 	private static final int VM_REGION_SOUTH = 15262;
 	private static final int GAME_OBJ_CHAMBER_BLOCKED = 31044;
 	private static final int GAME_OBJ_CHAMBER_UNBLOCKED = 31043;
 	private static final int GAME_OBJ_TAKEN_ROCK = 31046;
 	private static final int GAME_OBJ_ROCK = 31045;
-	private static final int VM_EXIT_TIME = 50;
-	private static final int VM_LOBBY_TIME = 50;
-
-	private static final float SECONDS_TO_TICKS = 1.666f;
 
 
-	private VentStatusPredicter ventStatusPredicter = new VentStatusPredicter();
-	private StabilityTracker stabilityTracker = new StabilityTracker();
-	private StabilityTracker futureStabilityTracker = new StabilityTracker();
+	private VentPredictionPipeline ventPredictionPipeline = new VentPredictionPipeline();
+	private GameTickHandler gameTickHandler;
 	private VMNotifier VM_notifier;
 	private CapCounter capCounter = new CapCounter();
 	private TimedObjectTracker timedObjectTracker = new TimedObjectTracker();
 	private CapCounterInfoBox capInfoBox;
     private PickaxeProtector pickaxeProtector;
-	private int vmGameState = VM_GAME_STATE_NONE;
-	private int timeRemainingFromServer, estimatedTimeRemaining;
-	private int eruptionTime, ventWarningTime;
-	private int maxPlayerCount, ticksSinceLobbyStart;
+	private int ticksSinceLobbyStart;
 	private PlayerCountInfoBox playerCountBox;
 	private VentStatusOverlayOverride ventStatusOverlayOverride;
+	//Varbits are read once per tick and HUD text is written once per frame
+	private final VarbitSnapshot varbits = new VarbitSnapshot();
+	private WidgetTextWriter widgetWriter;
+	private SessionRecorder sessionRecorder = new SessionRecorder();
+	//Bumped on every start and stop so a session opened in the background after its game ended is discarded
+	private int sessionRequest;
+	private final HandlerLatencies latencies = new HandlerLatencies();
 
 
 
@@ -122,11 +121,7 @@ public class UltimateVolcanicMinePlugin extends Plugin
 	@Subscribe
 	public void onConfigChanged(ConfigChanged event)
 	{
-		eruptionTime = (int) (config.eruptionWarningTime() * SECONDS_TO_TICKS);
-		ventWarningTime = (int) (config.ventWarningTime() * SECONDS_TO_TICKS);
-
-		stabilityTracker.setDisplayCount(config.stabilityUpdateHistoryCount());
-		futureStabilityTracker.setDisplayCount(config.predictedStabilityChangeHistoryCount());
+		gameTickHandler.configure();
 
 		infoBoxManager.removeInfoBox(capInfoBox);
 		if(config.capCounter() && capCounter.getTimesCapped() >= 1) infoBoxManager.addInfoBox(capInfoBox);
@@ -137,83 +132,103 @@ public class UltimateVolcanicMinePlugin extends Plugin
 		overlayManager.remove(boulderHealthOverlay);
 		if(config.showBoulderHealth()) overlayManager.add(boulderHealthOverlay);
 
+		overlayManager.remove(diagnosticsOverlay);
+		if(config.showDiagnostics()) overlayManager.add(diagnosticsOverlay);
+		configureAllocationAccounting();
+
 		if (ventStatusOverlayOverride != null)
 		{
-			clientThread.invokeLater(() ->
-			{
-				if (config.ventStatusPrediction())
-				{
-					ventStatusOverlayOverride.overrideVentStatusWidgetsFromVarbits();
-				}
-				ventStatusOverlayOverride.updateChamberStatusWidgetColors(config.chamberStatusPredictionColors());
-				return true;
-			});
+			clientThread.invokeLater(ventStatusOverlayOverride::requestUpdate);
 		}
 	}
 
 	@Override
 	protected void startUp() throws Exception {
 		VM_notifier = new VMNotifier(config);
+		gameTickHandler = new GameTickHandler(config, ventPredictionPipeline, this::readVarbit,
+			event -> VM_notifier.notify(notifier, event, ventPredictionPipeline.getCurrentTick()));
         pickaxeProtector = new PickaxeProtector(client);
+		widgetWriter = new WidgetTextWriter(client);
 		ventStatusOverlayOverride = new VentStatusOverlayOverride(
-			client,
-			ventStatusPredicter,
+			ventPredictionPipeline,
+			varbits,
+			widgetWriter,
 			VARBIT_VENT_STATUS_A,
 			VARBIT_VENT_STATUS_B,
 			VARBIT_VENT_STATUS_C
 		);
-		stabilityTracker.setDisplayCount(config.stabilityUpdateHistoryCount());
-		futureStabilityTracker.setDisplayCount(config.predictedStabilityChangeHistoryCount());
 		capInfoBox = new CapCounterInfoBox(capCounter, this);
 		timedObjectOverlay.setRockTracker(timedObjectTracker);
+		timedObjectOverlay.setLatencies(latencies);
+		boulderHealthOverlay.setLatencies(latencies);
+		diagnosticsOverlay.setSources(latencies, ventPredictionPipeline);
 		overlayManager.add(timedObjectOverlay);
 		if(config.showBoulderHealth()) overlayManager.add(boulderHealthOverlay);
-		eruptionTime = (int) (config.eruptionWarningTime() * SECONDS_TO_TICKS);
-		ventWarningTime = (int) (config.ventWarningTime() * SECONDS_TO_TICKS);
+		if(config.showDiagnostics()) overlayManager.add(diagnosticsOverlay);
+		configureAllocationAccounting();
+		configurePredictionPipeline();
 	}
 
 	@Override
 	protected void shutDown() throws Exception
 	{
 		ventStatusOverlayOverride = null;
+		widgetWriter = null;
+		varbits.clear();
 		overlayManager.remove(timedObjectOverlay);
 		overlayManager.remove(boulderHealthOverlay);
+		overlayManager.remove(diagnosticsOverlay);
 		infoBoxManager.removeInfoBox(capInfoBox);
 		boulderHealthOverlay.resetTracking();
+		boulderHealthOverlay.clearIndex();
+		ventPredictionPipeline.shutdown();
+		stopSessionRecording();
 	}
 
 	@Subscribe
 	public void onGameStateChanged(GameStateChanged gameStateChanged)
 	{
+		if(gameStateChanged.getGameState() == GameState.LOADING) boulderHealthOverlay.onSceneLoading();
 		if(!isInVM()) return;
-		vmGameState = client.getVarbitValue(VARBIT_GAME_STATE);
+		int vmGameState = client.getVarbitValue(VARBIT_GAME_STATE);
+		gameTickHandler.setGameState(vmGameState);
 		if (vmGameState == VM_GAME_STATE_IN_LOBBY) {
-			stabilityTracker.initialize();
-			ventStatusPredicter.initialize();
-			futureStabilityTracker.initialize();
-			stabilityTracker.setDisplayCount(config.stabilityUpdateHistoryCount());
-			futureStabilityTracker.setDisplayCount(config.predictedStabilityChangeHistoryCount());
+			configurePredictionPipeline();
+			ventPredictionPipeline.initialize();
+			gameTickHandler.initialize();
 			resetGameVariables();
+			startSessionRecording();
+			//Timings start over with each game so they match the prediction shown next to them
+			latencies.reset();
 		}
 	}
 
 	@Subscribe
 	public void onGameTick(GameTick tick) {
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try {
+			handleGameTick(tick);
+		} finally {
+			latencies.record(HandlerLatencies.Handler.GAME_TICK, start, startBytes);
+		}
+	}
+	private void handleGameTick(GameTick tick) {
 		if(!isInVM()) {
-			vmGameState = VM_GAME_STATE_NONE;
-			StabilityUpdateInfo.resetPlayers();
+			gameTickHandler.setGameState(VM_GAME_STATE_NONE);
+			ventPredictionPipeline.resetPlayers();
 			infoBoxManager.removeInfoBox(capInfoBox);
 			resetGameVariables();
+			stopSessionRecording();
 			return;
 		}
+		varbits.capture(client::getVarbitValue);
+		if(sessionRecorder.isRecording()) {
+			sessionRecorder.recordTick();
+			WorldPoint location = client.getLocalPlayer().getWorldLocation();
+			sessionRecorder.recordPlayerPosition(location.getX(), location.getY(), location.getPlane());
+		}
 
-		if(maxPlayerCount > config.expectedTeamSize())
-			VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_EXTRA_PLAYER, ventStatusPredicter.getCurrentTick());
-
-		int newTimeRemaining = client.getVarbitValue(VARBIT_TIME_REMAINING);
-		if(newTimeRemaining != timeRemainingFromServer) {
-			estimatedTimeRemaining = timeRemainingFromServer = newTimeRemaining;
-		} else --estimatedTimeRemaining;
+		gameTickHandler.startTick();
 
         pickaxeProtector.getStartingPickaxes();
         if(pickaxeProtector.isPickaxeDropped()) pickaxeProtector.incrementTicksDropped();
@@ -227,73 +242,33 @@ public class UltimateVolcanicMinePlugin extends Plugin
 
 		boulderHealthOverlay.onGameTick();
 
-        if(!hasGameStarted()) return;
+        if(!gameTickHandler.hasGameStarted()) return;
 
-		StabilityUpdateInfo.setNumPlayers(client.getVarbitValue(VARBIT_PLAYER_COUNT));
 		timedObjectTracker.updateRockTimers();
+		gameTickHandler.updateVentStatus();
 
-		updateVentStatus(client.getVarbitValue(VARBIT_VENT_STATUS_A),
-				client.getVarbitValue(VARBIT_VENT_STATUS_B),
-				client.getVarbitValue(VARBIT_VENT_STATUS_C),
-				client.getVarbitValue(VARBIT_CHAMBER_STATUS));
-		//Update our predicted stability change on the same exact tick the vent status changes
-		if(ventStatusPredicter.isMovementUpdateTick()) {
-			//Check if we have to fix vents in the future
-			int futureChange = ventStatusPredicter.getFutureStabilityChange(config.predictedVentFixScenario());
-			if(futureChange != VentStatus.STARTING_VENT_VALUE) {
-				futureStabilityTracker.addChange(futureChange);
-				if (futureStabilityTracker.isFutureStabilityBad(config.predictedStabilityChange())) {
-					int startTime = 900 - (int)(config.predictedventWarningStartTime() * SECONDS_TO_TICKS);
-					int endTime = 600 + (int)(config.predictedventWarningEndTime() * SECONDS_TO_TICKS);
-					if(estimatedTimeRemaining < startTime && estimatedTimeRemaining > endTime)
-						VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_PREDICTED_VENT_FIX, ventStatusPredicter.getCurrentTick());
-				}
-			}
+		if(config.lowStabilityPickaxeLeaveProtection()) {
+			if (varbits.get(VARBIT_STABILITY) <= config.pickaxeLeaveStabilityAmount() && pickaxeProtector.isPickaxeDropped())
+				VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_PICKAXE_LOW_STABILITY, ventPredictionPipeline.getCurrentTick());
 		}
-
-		int currentStability = client.getVarbitValue(VARBIT_STABILITY);
-		if(updateStability(currentStability)) {
+		if(gameTickHandler.updateStability()) {
 			if(config.ventStatusUpdateHistory()) {
 				Widget widget = client.getWidget(ComponentID.VOLCANIC_MINE_VENT_A_PERCENTAGE+1);
-				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", ventStatusPredicter.getVentStatusText(0, widget.getText()), null);
+				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", ventPredictionPipeline.getVentStatusText(0, widget.getText()), null);
 				widget = client.getWidget(ComponentID.VOLCANIC_MINE_VENT_B_PERCENTAGE+1);
-				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", ventStatusPredicter.getVentStatusText(1, widget.getText()), null);
+				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", ventPredictionPipeline.getVentStatusText(1, widget.getText()), null);
 				widget = client.getWidget(ComponentID.VOLCANIC_MINE_VENT_C_PERCENTAGE+1);
-				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", ventStatusPredicter.getVentStatusText(2, widget.getText()), null);
-				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", "Stability Update: " + stabilityTracker.getCurrentChange(), null);
-				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", "Time: " + estimatedTimeRemaining, null);
+				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", ventPredictionPipeline.getVentStatusText(2, widget.getText()), null);
+				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", "Stability Update: " + gameTickHandler.getStabilityTracker().getCurrentChange(), null);
+				client.addChatMessage(ChatMessageType.GAMEMESSAGE, "CyanWarrior4: ", "Time: " + gameTickHandler.getEstimatedTimeRemaining(), null);
 			}
-
-			//Check if we have to fix vents now
-			if(stabilityTracker.getCurrentChange() < 0 && estimatedTimeRemaining > 595)
-				VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_PRE_RESET_VENT_FIX, ventStatusPredicter.getCurrentTick());
-
-			//Check if we should have all 3 vents fixed (post-reset)
-			boolean isPostResetTime = (estimatedTimeRemaining <= (VentStatusTimeline.VM_GAME_RESET_TIME-15) && estimatedTimeRemaining > 305);
-			if(currentStability + (stabilityTracker.getCurrentChange() * 4) <= 0 && isPostResetTime)
-				VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_POST_RESET_VENT_FIX, ventStatusPredicter.getCurrentTick());
 		}
 
-		//Ensure reset will not happen at the very start before the server sends the new game time
-		//Reset around 5:00 when the server sends new unidentified vent
-		if(ventStatusPredicter.getCurrentTick() > VMNotifier.NOTIFICATION_START_COOLDOWN_TICKS &&
-				timeRemainingFromServer <= VentStatusTimeline.VM_GAME_RESET_TIME) {
-			stabilityTracker.resetStabilityHistory();
-			futureStabilityTracker.resetStabilityHistory();
-		}
-
-		int currentTick = ventStatusPredicter.getCurrentTick();
-		if (estimatedTimeRemaining <= (VentStatusTimeline.VM_GAME_RESET_TIME + ventWarningTime))
-			VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_RESET, currentTick);
-
-		if (estimatedTimeRemaining <= eruptionTime) {
-			VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_ERUPTION, currentTick);
-		}
+		gameTickHandler.finishTick();
 
-		ventStatusPredicter.updateDisplayState();
 		if (ventStatusOverlayOverride != null)
 		{
-			ventStatusOverlayOverride.updateChamberStatusWidgetColors(config.chamberStatusPredictionColors());
+			ventStatusOverlayOverride.requestUpdate();
 		}
 		if(config.ventStatusPrediction()) {
 //			Widget widget = client.getWidget(WidgetID.VOLCANIC_MINE_GROUP_ID, HUD_VENT_A_PERCENTAGE);
@@ -304,12 +279,7 @@ public class UltimateVolcanicMinePlugin extends Plugin
 //			if (widget != null) widget.setText(ventStatusPredicter.getVentStatusText(2, widget.getText()));
 		}
 
-		ventStatusPredicter.getTimeline().updateTick();
-		if(ventStatusPredicter.getCurrentTick() > VentStatusTimeline.VM_GAME_RESET_TIME) {
-			ventStatusPredicter.reset();
-		}
-
-		if (config.showPlayerCount() && hasGameStarted())
+		if (config.showPlayerCount() && gameTickHandler.hasGameStarted())
 			{
 			if (playerCountBox == null)
 			{
@@ -327,6 +297,19 @@ public class UltimateVolcanicMinePlugin extends Plugin
 
 	@Subscribe
 	public void onChatMessage(ChatMessage event)
+	{
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try
+		{
+			handleChatMessage(event);
+		}
+		finally
+		{
+			latencies.record(HandlerLatencies.Handler.CHAT_MESSAGE, start, startBytes);
+		}
+	}
+
+	private void handleChatMessage(ChatMessage event)
 	{
 		if (event.getType() != ChatMessageType.GAMEMESSAGE && event.getType() != ChatMessageType.SPAM)
 			return;
@@ -336,7 +319,8 @@ public class UltimateVolcanicMinePlugin extends Plugin
 
 		// Mark when an earthquake occurs
 		if (chatMsg.equals("A sudden earthquake strikes the cavern!")) {
-			ventStatusPredicter.markEarthquakeEvent();
+			ventPredictionPipeline.markEarthquakeEvent();
+			sessionRecorder.recordEarthquake();
 		}
 
 		boolean inVm = isInVM();
@@ -346,57 +330,38 @@ public class UltimateVolcanicMinePlugin extends Plugin
 			boulderHealthOverlay.decrementHealth();
 		}
 	}
-	//Helper functions for testing
-	public boolean updateStability(int newStability) {
-		if(config.lowStabilityPickaxeLeaveProtection()) {
-			if (newStability <= config.pickaxeLeaveStabilityAmount() && pickaxeProtector.isPickaxeDropped())
-				VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_PICKAXE_LOW_STABILITY, ventStatusPredicter.getCurrentTick());
-		}
-
-		if(stabilityTracker.updateStability(newStability)) {
-			ventStatusPredicter.makeStatusState(stabilityTracker.getCurrentChange());
-			return true;
-		}
-		return false;
-	}
-	public void updateVentStatus(int ventA, int ventB, int ventC, int chamberStatus) {
-		ventStatusPredicter.updateVentStatus(new int[]{ventA, ventB, ventC}, chamberStatus);
-	}
-	public final VentStatusPredicter getVentStatusPredicter() { return ventStatusPredicter; }
+	public final VentStatusPredicter getVentStatusPredicter() { return ventPredictionPipeline.getVentStatusPredicter(); }
+	public final VentPredictionPipeline getVentPredictionPipeline() { return ventPredictionPipeline; }
 
 	@Subscribe
 	public void onVarbitChanged(VarbitChanged event) {
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try {
+			handleVarbitChanged(event);
+		} finally {
+			latencies.record(HandlerLatencies.Handler.VARBIT_CHANGED, start, startBytes);
+		}
+	}
+	private void handleVarbitChanged(VarbitChanged event) {
+		varbits.update(event.getVarbitId(), event.getValue());
 		if(!isInVM()) return;
+		if(isRecordedVarbit(event.getVarbitId()))
+			sessionRecorder.recordVarbitChanged(event.getVarbitId(), event.getValue());
 
 		if(ventStatusOverlayOverride != null
 			&& (ventStatusOverlayOverride.isVentStatusVarbit(event.getVarbitId())
 			|| event.getVarbitId() == VARBIT_CHAMBER_STATUS)) {
-			if (config.ventStatusPrediction())
-			{
-				ventStatusOverlayOverride.overrideVentStatusWidgetsFromVarbits();
-			}
-			ventStatusOverlayOverride.updateChamberStatusWidgetColors(config.chamberStatusPredictionColors());
-		}
-
-		//Set our starting player count
-		if(event.getVarbitId() == VARBIT_PLAYER_COUNT) {
-			maxPlayerCount = Math.max(maxPlayerCount, client.getVarbitValue(VARBIT_PLAYER_COUNT));
+			ventStatusOverlayOverride.requestUpdate();
 		}
 
-		if(!hasGameStarted()) return;
-
-		//Check if a player leaves/dies - player count can only move down in game
-		if(event.getVarbitId() == VARBIT_PLAYER_COUNT) {
-			//Skip this check if its time to exit the mine
-			if (estimatedTimeRemaining <= VM_EXIT_TIME) return;
-			VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_PLAYER_LEAVE, ventStatusPredicter.getCurrentTick());
-		}
+		gameTickHandler.onVarbitChanged(event.getVarbitId(), event.getValue());
+		if(!gameTickHandler.hasGameStarted()) return;
 
 		//Keep track of points for our cap counter
 		if(event.getVarbitId() == VARBIT_POINTS) {
 			int playerX = client.getLocalPlayer().getWorldLocation().getX();
 			int playerY = client.getLocalPlayer().getWorldLocation().getY();
-			if(capCounter.updateScore(client.getVarbitValue(VARBIT_POINTS), playerX, playerY)) {
+			if(capCounter.updateScore(varbits.get(VARBIT_POINTS), playerX, playerY)) {
 				//Only add the info box once the player caps for the first time
 				if (capCounter.getTimesCapped() == 1) infoBoxManager.addInfoBox(capInfoBox);
 			}
@@ -405,38 +370,62 @@ public class UltimateVolcanicMinePlugin extends Plugin
 
 	@Subscribe
 	public void onScriptPostFired(ScriptPostFired event) {
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try {
+			handleScriptPostFired(event);
+		} finally {
+			latencies.record(HandlerLatencies.Handler.SCRIPT_POST_FIRED, start, startBytes);
+		}
+	}
+	private void handleScriptPostFired(ScriptPostFired event) {
 		if (event.getScriptId() != PROC_VOLCANIC_MINE_SET_OTHERINFO) {
 			return;
 		}
 
-		//Stability Trackers
+		if (widgetWriter == null) {
+			return;
+		}
+
+		//Stability Trackers - the script just rewrote the stability value so append to what it wrote
 		Widget widget = client.getWidget(InterfaceID.VOLCANIC_MINE, HUD_STABILITY_COMPONENT);
 		if(config.stabilityUpdateHistoryCount() > 0 && widget != null)
-			widget.setText(widget.getText() + stabilityTracker.getStabilityText());
+			widgetWriter.setText(HUD_STABILITY_WIDGET, gameTickHandler.getStabilityTracker().getStabilityText(widget.getText()));
 
-		widget = client.getWidget(InterfaceID.VOLCANIC_MINE, HUD_STABILITY_COMPONENT-1);
-		if(widget != null) {
-			if (config.predictedStabilityChangeHistoryCount() > 0)
-				widget.setText("Stab." + futureStabilityTracker.getStabilityText());
-			else
-				widget.setText("Stability");
-		}
+		if (config.predictedStabilityChangeHistoryCount() > 0)
+			widgetWriter.setText(HUD_STABILITY_LABEL_WIDGET, gameTickHandler.getFutureStabilityTracker().getStabilityText("Stab."));
+		else
+			widgetWriter.setText(HUD_STABILITY_LABEL_WIDGET, "Stability");
 
 		//Vent Status
-		if (ventStatusOverlayOverride != null)
-		{
-			if(config.ventStatusPrediction())
-			{
-				ventStatusOverlayOverride.overrideVentStatusWidgetsFromVarbits();
-			}
-			ventStatusOverlayOverride.updateChamberStatusWidgetColors(config.chamberStatusPredictionColors());
+		ventStatusOverlayOverride.requestUpdate();
+	}
+
+	@Subscribe
+	public void onBeforeRender(BeforeRender event) {
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try {
+			handleBeforeRender();
+		} finally {
+			latencies.record(HandlerLatencies.Handler.BEFORE_RENDER, start, startBytes);
 		}
 	}
+	private void handleBeforeRender() {
+		if (ventStatusOverlayOverride == null) {
+			return;
+		}
+		//Plugin started mid game so nothing has been read yet
+		if (!varbits.isCaptured()) varbits.capture(client::getVarbitValue);
+		ventStatusOverlayOverride.applyUpdate(config.ventStatusPrediction(), config.chamberStatusPredictionColors());
+		widgetWriter.flush();
+	}
 
 	@Subscribe
 	void onGameObjectDespawned(GameObjectDespawned event) {
+		boulderHealthOverlay.onGameObjectDespawned(event.getGameObject());
 		int gameObjectId = event.getGameObject().getId();
 		if(gameObjectId == GAME_OBJ_ROCK) {
+			WorldPoint location = event.getGameObject().getWorldLocation();
+			sessionRecorder.recordObjectDespawned(gameObjectId, location.getX(), location.getY(), location.getPlane());
 			timedObjectTracker.addObject(event.getGameObject().getWorldLocation(), TimedObject.ObjectType.ROCK);
 		}
 	}
@@ -447,20 +436,77 @@ public class UltimateVolcanicMinePlugin extends Plugin
 		timedObjectTracker.clearRocks();
 		boulderHealthOverlay.resetTracking();
         pickaxeProtector.resetStartingPickaxes();
-		estimatedTimeRemaining = timeRemainingFromServer = 0;
-		ticksSinceLobbyStart = maxPlayerCount = 0;
+		gameTickHandler.reset();
+		ticksSinceLobbyStart = 0;
 		if (playerCountBox != null)
 		{
 			infoBoxManager.removeInfoBox(playerCountBox);
 			playerCountBox = null;
 		}
 	}
-	private boolean hasGameStarted() {
-		if(vmGameState >= VM_GAME_STATE_IN_GAME) return true;
-		//Both Lobby and exit time are 30 seconds
-		return estimatedTimeRemaining > VM_LOBBY_TIME;
+	private void startSessionRecording() {
+		stopSessionRecording();
+		if(!config.recordSessions()) return;
+		//Creating and mapping the file stays off the client thread - the first ticks of the lobby go unrecorded
+		int request = sessionRequest;
+		executor.execute(() -> {
+			try {
+				SessionRecorder.Session session = sessionRecorder.open(SessionRecorder.DEFAULT_SESSION_DIR);
+				clientThread.invokeLater(() -> beginSessionRecording(request, session));
+			} catch(IOException e) {
+				log.warn("Unable to start session recording", e);
+			}
+		});
+	}
+	private void beginSessionRecording(int request, SessionRecorder.Session session) {
+		try {
+			if(request == sessionRequest) sessionRecorder.start(session);
+			else session.discard();
+		} catch(IOException e) {
+			log.warn("Unable to start session recording", e);
+		}
+	}
+	private void stopSessionRecording() {
+		++sessionRequest;
+		if(!sessionRecorder.isRecording()) return;
+		try {
+			sessionRecorder.stop();
+		} catch(IOException e) {
+			log.warn("Unable to close session recording", e);
+		}
+	}
+	private int readVarbit(int varbitId) {
+		int value = varbits.get(varbitId);
+		sessionRecorder.recordVarbitRead(varbitId, value);
+		return value;
+	}
+	private static boolean isRecordedVarbit(int varbitId) {
+		switch(varbitId) {
+			case VARBIT_STABILITY:
+			case VARBIT_GAME_STATE:
+			case VARBIT_TIME_REMAINING:
+			case VARBIT_VENT_STATUS_A:
+			case VARBIT_VENT_STATUS_B:
+			case VARBIT_VENT_STATUS_C:
+			case VARBIT_CHAMBER_STATUS:
+			case VARBIT_POINTS:
+			case VARBIT_PLAYER_COUNT:
+				return true;
+			default:
+				return false;
+		}
+	}
+	private static boolean isRecordedObject(int gameObjectId) {
+		return gameObjectId == GAME_OBJ_CHAMBER_BLOCKED || gameObjectId == GAME_OBJ_CHAMBER_UNBLOCKED ||
+				gameObjectId == PLATFORM_STAGE_1_ID || gameObjectId == PLATFORM_STAGE_3_ID;
+	}
+	private void configurePredictionPipeline() {
+		ventPredictionPipeline.configure(config.ventDomainEngine(), config.ventPredictionMode(), config.asyncVentPrediction());
+	}
+	private void configureAllocationAccounting() {
+		latencies.setAllocationAccounting(config.showDiagnostics() && config.allocationAccounting());
+		ventPredictionPipeline.setPhaseAllocations(latencies.isAllocationAccounting() ? latencies.getPhaseAllocations() : null);
 	}
-
 
 	//Function(s) taken from Hipipis Plugin hub VMPlugin
 	private static final String PLATFORM_WARNING_MESSAGE = "The platform beneath you will disappear soon!";
@@ -470,13 +516,24 @@ public class UltimateVolcanicMinePlugin extends Plugin
 	private static final int PLATFORM_STAGE_1_ID = 30998;
 	@Subscribe
 	public void onGameObjectSpawned(GameObjectSpawned event) {
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try {
+			handleGameObjectSpawned(event);
+		} finally {
+			latencies.record(HandlerLatencies.Handler.GAME_OBJECT_SPAWNED, start, startBytes);
+		}
+	}
+	private void handleGameObjectSpawned(GameObjectSpawned event) {
 		if (!isInVM()) return;
 
+		boulderHealthOverlay.onGameObjectSpawned(event.getGameObject());
 		int gameObjectId = event.getGameObject().getId();
 		int playerX = client.getLocalPlayer().getWorldLocation().getX();
 		int playerY = client.getLocalPlayer().getWorldLocation().getY();
 		int objectX = event.getGameObject().getWorldLocation().getX();
 		int objectY = event.getGameObject().getWorldLocation().getY();
+		if(isRecordedObject(gameObjectId))
+			sessionRecorder.recordObjectSpawned(gameObjectId, objectX, objectY, event.getGameObject().getWorldLocation().getPlane());
 
 		//Get initial positions the player must be on to cap
 		if(gameObjectId == GAME_OBJ_CHAMBER_BLOCKED || gameObjectId == GAME_OBJ_CHAMBER_UNBLOCKED) {
@@ -502,6 +559,19 @@ public class UltimateVolcanicMinePlugin extends Plugin
 	}
 	@Subscribe
 	public void onNpcSpawned(NpcSpawned npcSpawned)
+	{
+		long start = System.nanoTime(), startBytes = latencies.startAllocations();
+		try
+		{
+			handleNpcSpawned(npcSpawned);
+		}
+		finally
+		{
+			latencies.record(HandlerLatencies.Handler.NPC_SPAWNED, start, startBytes);
+		}
+	}
+
+	private void handleNpcSpawned(NpcSpawned npcSpawned)
 	{
 		// Return if not in VM
 		if (!isInVM())
@@ -516,7 +586,7 @@ public class UltimateVolcanicMinePlugin extends Plugin
 		{
 			if (config.boulderFinishPickaxeLeaveProtection() && pickaxeProtector.isPickaxeDropped())
 			{
-				VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_PICKAXE_BOULDER_COMPLETE, ventStatusPredicter.getCurrentTick());
+				VM_notifier.notify(notifier, VMNotifier.NotificationEvents.VM_PICKAXE_BOULDER_COMPLETE, ventPredictionPipeline.getCurrentTick());
 			}
 			VM_notifier.removeEvent(VMNotifier.NotificationEvents.VM_PLAYER_LEAVE);
 		}
@@ -540,6 +610,12 @@ public class UltimateVolcanicMinePlugin extends Plugin
 		boulderHealthOverlay.onNpcChanged(npc);
 	}
 
+	@Subscribe
+	public void onNpcDespawned(NpcDespawned npcDespawned)
+	{
+		boulderHealthOverlay.onNpcDespawned(npcDespawned.getNpc());
+	}
+
 	private boolean isSuccessfulBoulderMineMessage(String chatMsg)
 	{
 		String msg = chatMsg.toLowerCase();
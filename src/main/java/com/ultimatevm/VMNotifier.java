@@ -2,6 +2,7 @@ package com.ultimatevm;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.function.Consumer;
 import net.runelite.client.Notifier;
 
 import javax.inject.Inject;
@@ -53,11 +54,15 @@ public class VMNotifier {
         oneTimeEvents.remove(event);
     }
     public void notify(Notifier notifier, NotificationEvents event, int ticksPassed) {
+        notify(notifier::notify, event, ticksPassed);
+    }
+    public void notify(Consumer<String> notifier, NotificationEvents event, int ticksPassed) {
+        //Messages go to any sink so notifications can be checked without a client
         if(!oneTimeEvents.contains(event)) return;
         //Special case for extra player since we want notif to go off asap
         if(event == NotificationEvents.VM_EXTRA_PLAYER) {
             if(!config.extraPlayerNotifier()) return;
-            notifier.notify("An extra player has joined your team!");
+            notifier.accept("An extra player has joined your team!");
             oneTimeEvents.remove(event);
         }
 
@@ -67,55 +72,55 @@ public class VMNotifier {
             case VM_PLAYER_LEAVE:
                 oneTimeEvents.remove(event);
                 if(!config.playerLeaveNotifier()) return;
-                notifier.notify("A player has left the mine!");
+                notifier.accept("A player has left the mine!");
                 break;
 
             case VM_RESET:
                 oneTimeEvents.remove(event);
                 if(!config.showVentWarning()) return;
-                notifier.notify("The vents will shift in " + config.ventWarningTime() + " seconds!");
+                notifier.accept("The vents will shift in " + config.ventWarningTime() + " seconds!");
                 break;
 
             case VM_ERUPTION:
                 oneTimeEvents.remove(event);
                 if(!config.showEruptionWarning()) return;
-                notifier.notify("The volcano will erupt in " + config.eruptionWarningTime() + " seconds!");
+                notifier.accept("The volcano will erupt in " + config.eruptionWarningTime() + " seconds!");
                 break;
 
             case VM_PRE_RESET_VENT_FIX:
                 oneTimeEvents.remove(event);
                 if(!config.ventFixNotifier()) return;
-                notifier.notify("Fix your vent!");
+                notifier.accept("Fix your vent!");
                 break;
 
             case VM_POST_RESET_VENT_FIX:
                 oneTimeEvents.remove(event);
                 if(!config.postResetVentFixNotifier()) return;
-                notifier.notify("Consider fixing all 3 vents; the mine can collapse with bad RNG!");
+                notifier.accept("Consider fixing all 3 vents; the mine can collapse with bad RNG!");
                 break;
 
             case VM_PREDICTED_VENT_FIX:
                 oneTimeEvents.remove(event);
                 if(!config.predictedVentFixNotifier()) return;
-                notifier.notify("Be alert you might have to fix your vent soon!");
+                notifier.accept("Be alert you might have to fix your vent soon!");
                 break;
 
             case VM_PICKAXE_DESPAWN:
                 int lastEventTime = continousEvents.get(NotificationEvents.VM_PICKAXE_DESPAWN);
                 if(lastEventTime + NOTIFICATION_START_COOLDOWN_TICKS < ticksPassed) {
-                    notifier.notify("Be careful your pickaxe will despawn soon!");
+                    notifier.accept("Be careful your pickaxe will despawn soon!");
                     continousEvents.put(NotificationEvents.VM_PICKAXE_DESPAWN, ticksPassed);
                 }
                 break;
 
             case VM_PICKAXE_LOW_STABILITY:
                 oneTimeEvents.remove(event);
-                notifier.notify("Mine Stability is low don't forget your pickaxe!");
+                notifier.accept("Mine Stability is low don't forget your pickaxe!");
                 break;
 
             case VM_PICKAXE_BOULDER_COMPLETE:
                 oneTimeEvents.remove(event);
-                notifier.notify("You finished the boulder, pick up your pickaxe!");
+                notifier.accept("You finished the boulder, pick up your pickaxe!");
                 break;
 
             default:
@@ -0,0 +1,34 @@
+package com.ultimatevm;
+
+import java.util.function.IntUnaryOperator;
+
+public class VarbitSnapshot {
+    //Every volcanic mine varbit read once per tick so handlers never go back to the client for them
+    public static final int FIRST_VARBIT = 5934;
+    public static final int LAST_VARBIT = 5944;
+    private static final int NUM_VARBITS = LAST_VARBIT - FIRST_VARBIT + 1;
+
+    private final int[] values = new int[NUM_VARBITS];
+    private boolean isCaptured;
+
+    public static boolean contains(int varbitId) {
+        return varbitId >= FIRST_VARBIT && varbitId <= LAST_VARBIT;
+    }
+
+    public void capture(IntUnaryOperator reader) {
+        for(int i = 0; i < NUM_VARBITS; ++i) values[i] = reader.applyAsInt(FIRST_VARBIT + i);
+        isCaptured = true;
+    }
+    public void update(int varbitId, int value) {
+        //Changes between ticks carry their new value so the snapshot never goes stale
+        if(contains(varbitId)) values[varbitId - FIRST_VARBIT] = value;
+    }
+    public void clear() {
+        for(int i = 0; i < NUM_VARBITS; ++i) values[i] = 0;
+        isCaptured = false;
+    }
+
+    //Accessors
+    public int get(int varbitId) { return values[varbitId - FIRST_VARBIT]; }
+    public boolean isCaptured() { return isCaptured; }
+}
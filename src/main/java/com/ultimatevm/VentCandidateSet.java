@@ -0,0 +1,282 @@
+package com.ultimatevm;
+
+import java.util.Arrays;
+
+import static com.ultimatevm.VentStatus.*;
+
+public class VentCandidateSet {
+    //Every (A, B, C) triple is one bit; each (A, B) pair owns a slice of contiguous C values
+    private static final int NUM_VALUES = MAX_VENT_VALUE + 1;
+    private static final int NUM_SLICES = NUM_VALUES * NUM_VALUES;
+    //One spare word so slices at the end can always read two words
+    private static final int NUM_WORDS = ((NUM_SLICES * NUM_VALUES) / Long.SIZE) + 2;
+    private static final int MAX_TOTAL_POINTS = (int)VENT_STABILITY_WEIGHT * StatusState.NUM_VENTS;
+    private static final int POINTS_BIT_MASK = (1 << ((int)VENT_STABILITY_WEIGHT + 1)) - 1;
+    //Two bits of move amount per vent where 3 means the move is not known
+    private static final int UNKNOWN_MOVE = 3;
+    private static final int UNKNOWN_MOVE_BIT_STATE = (1 << (StatusState.NUM_VENTS * 2)) - 1;
+    private static final int[] valueToPoints = makePointsTable();
+
+    private long[] candidates = new long[NUM_WORDS];
+    private long[] nextCandidates = new long[NUM_WORDS];
+    //Slices that may hold bits in each word array - every other slice is known to be empty
+    private int[] liveSlices = new int[NUM_SLICES];
+    private int[] nextLiveSlices = new int[NUM_SLICES];
+    private int numLiveSlices, numNextLiveSlices;
+    private final int[] ventDirections = new int[StatusState.NUM_VENTS];
+    //Scratch for each movement so ticks never allocate
+    private final int[] newDirections = new int[StatusState.NUM_VENTS];
+    private final int[] moveDirections = new int[StatusState.NUM_VENTS];
+    private final VentDomain sliceValues = new VentDomain();
+    private boolean isInitialized;
+    private final GameContext context;
+
+    private static int[] makePointsTable() {
+        int[] points = new int[NUM_VALUES];
+        for(int value = MIN_VENT_VALUE; value <= MAX_VENT_VALUE; ++value)
+            points[value] = getStabilityInfluence(value);
+        return points;
+    }
+
+    public VentCandidateSet(GameContext context) {
+        this.context = context;
+        clear();
+    }
+
+    public void clear() {
+        isInitialized = false;
+        Arrays.fill(candidates, 0);
+        Arrays.fill(nextCandidates, 0);
+        numLiveSlices = numNextLiveSlices = 0;
+    }
+    public void initialize(StatusState state) {
+        clear();
+        VentStatus[] vents = state.getVents();
+        int[][] bounds = new int[StatusState.NUM_VENTS][];
+        for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+            //Unknown vents can be anywhere within their total bounds
+            if(vents[i].isIdentified()) bounds[i] = new int[]{vents[i].getActualValue(), vents[i].getActualValue()};
+            else bounds[i] = new int[]{vents[i].getTotalBoundStart(), vents[i].getTotalBoundEnd()};
+            ventDirections[i] = vents[i].getDirection();
+        }
+        sliceValues.clear();
+        sliceValues.addRange(bounds[2][0], bounds[2][1]);
+        for(int a = bounds[0][0]; a <= bounds[0][1] && !sliceValues.isEmpty(); ++a) {
+            for(int b = bounds[1][0]; b <= bounds[1][1]; ++b) {
+                int slice = getSliceIndex(a, b);
+                orSlice(candidates, slice, sliceValues);
+                liveSlices[numLiveSlices++] = slice;
+            }
+        }
+        isInitialized = true;
+    }
+    public void updateVentStatus(StatusState state) {
+        if(!isInitialized) return;
+        //Identified vents pin their value for every candidate
+        VentStatus[] vents = state.getVents();
+        for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+            if(vents[i].isIdentified()) keepVentValue(i, vents[i].getActualValue());
+            ventDirections[i] = vents[i].getDirection();
+        }
+    }
+    public void doMovement(StatusState state) {
+        doMovement(state, UNKNOWN_MOVE_BIT_STATE);
+    }
+    public void doMovement(StatusState state, int moveBitState) {
+        if(!isInitialized) return;
+        keepFreezeClippedMovement(state, moveBitState);
+        moveCandidates(state);
+        swapCandidates();
+    }
+    public void addPossibleMovement(StatusState state) {
+        if(!isInitialized) return;
+        //Movement may or may not have happened so keep both
+        moveCandidates(state);
+        for(int i = 0; i < numLiveSlices; ++i) {
+            readSlice(candidates, liveSlices[i], sliceValues);
+            orNextSlice(liveSlices[i], sliceValues);
+        }
+        swapCandidates();
+    }
+    public void addStabilityChange(int change) {
+        if(!isInitialized) return;
+        keepStabilityChange(change);
+    }
+    public void getPossibleValues(int ventIndex, VentDomain possibleValues) {
+        possibleValues.clear();
+        for(int i = 0; i < numLiveSlices; ++i) {
+            int slice = liveSlices[i];
+            if(ventIndex == 0) possibleValues.add(getSliceA(slice));
+            else if(ventIndex == 1) possibleValues.add(getSliceB(slice));
+            else if(readSlice(candidates, slice, sliceValues)) possibleValues.merge(sliceValues);
+        }
+    }
+
+    public boolean isInitialized() { return isInitialized; }
+    public boolean isEmpty() { return numLiveSlices == 0; }
+    public int getSize() {
+        int size = 0;
+        for(int i = 0; i < numLiveSlices; ++i) {
+            readSlice(candidates, liveSlices[i], sliceValues);
+            size += Long.bitCount(sliceValues.getLowBits()) + Long.bitCount(sliceValues.getHighBits());
+        }
+        return size;
+    }
+
+    //Helpers
+    private void keepVentValue(int ventIndex, int value) {
+        int numKept = 0;
+        for(int i = 0; i < numLiveSlices; ++i) {
+            int slice = liveSlices[i];
+            readSlice(candidates, slice, sliceValues);
+            if(ventIndex == 0 && getSliceA(slice) != value) sliceValues.clear();
+            else if(ventIndex == 1 && getSliceB(slice) != value) sliceValues.clear();
+            else if(ventIndex == 2) sliceValues.keepRange(value, value);
+            writeSlice(candidates, slice, sliceValues);
+            if(!sliceValues.isEmpty()) liveSlices[numKept++] = slice;
+        }
+        numLiveSlices = numKept;
+    }
+    private void keepStabilityChange(int change) {
+        //Every total of vent points that any rng mod allows
+        long possibleTotals = 0;
+        for(int rngMod = context.getMinRNGVariation(); rngMod <= 1; ++rngMod) {
+            int totalPoints = StatusState.getTotalVentUpdate(change - rngMod);
+            if(totalPoints < 0 || totalPoints > MAX_TOTAL_POINTS) continue;
+            possibleTotals |= 1L << totalPoints;
+        }
+        int numKept = 0;
+        for(int i = 0; i < numLiveSlices; ++i) {
+            int slice = liveSlices[i];
+            readSlice(candidates, slice, sliceValues);
+            //Shift the totals down to the points C must provide
+            int abPoints = valueToPoints[getSliceA(slice)] + valueToPoints[getSliceB(slice)];
+            int pointsBitState = (int)(possibleTotals >>> abPoints) & POINTS_BIT_MASK;
+            sliceValues.keepPoints(pointsBitState);
+            writeSlice(candidates, slice, sliceValues);
+            if(!sliceValues.isEmpty()) liveSlices[numKept++] = slice;
+        }
+        numLiveSlices = numKept;
+    }
+    private void keepFreezeClippedMovement(StatusState state, int moveBitState) {
+        //Known moves of B and C tell us which of the vents before them were 41-59
+        VentStatus[] vents = state.getVents();
+        int moveB = getKnownMove(vents[1], moveBitState, 1), moveC = getKnownMove(vents[2], moveBitState, 2);
+        if(moveB == UNKNOWN_MOVE && moveC == UNKNOWN_MOVE) return;
+        int numKept = 0;
+        for(int i = 0; i < numLiveSlices; ++i) {
+            int slice = liveSlices[i];
+            readSlice(candidates, slice, sliceValues);
+            int influenceAB = getMovementInfluenceOfValue(getSliceA(slice)) + getMovementInfluenceOfValue(getSliceB(slice));
+            if(moveB != UNKNOWN_MOVE && Math.max(0, BASE_MOVE_RATE + influenceAB) != moveB) sliceValues.clear();
+            else if(moveC != UNKNOWN_MOVE) {
+                //C values of 41-59 slow themselves down as well
+                if(Math.max(0, BASE_MOVE_RATE + influenceAB - 1) != moveC) sliceValues.removeRange(41, 59);
+                if(Math.max(0, BASE_MOVE_RATE + influenceAB) != moveC) {
+                    sliceValues.removeRange(MIN_VENT_VALUE, 40);
+                    sliceValues.removeRange(60, MAX_VENT_VALUE);
+                }
+            }
+            writeSlice(candidates, slice, sliceValues);
+            if(!sliceValues.isEmpty()) liveSlices[numKept++] = slice;
+        }
+        numLiveSlices = numKept;
+    }
+    private static int getKnownMove(VentStatus vent, int moveBitState, int ventIndex) {
+        //Moves next to a bound may have been cut short
+        if(!vent.isIdentified()) return UNKNOWN_MOVE;
+        int value = vent.getActualValue();
+        if(value <= MIN_VENT_VALUE + 1 || value >= MAX_VENT_VALUE - 1) return UNKNOWN_MOVE;
+        return (moveBitState >> (ventIndex * 2)) & 3;
+    }
+    private void moveCandidates(StatusState state) {
+        //Only slices written since the last swap can hold bits
+        for(int i = 0; i < numNextLiveSlices; ++i) clearSlice(nextCandidates, nextLiveSlices[i]);
+        numNextLiveSlices = 0;
+        VentStatus[] vents = state.getVents();
+        for(int i = 0; i < StatusState.NUM_VENTS; ++i) newDirections[i] = vents[i].getDirection();
+
+        //A direction change on a movement tick can happen before or after the move
+        for(int combo = 0; combo < (1 << StatusState.NUM_VENTS); ++combo) {
+            boolean isValidCombo = true;
+            for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+                boolean useNewDirection = (combo & (1 << i)) != 0;
+                if(useNewDirection && newDirections[i] == ventDirections[i]) isValidCombo = false;
+                moveDirections[i] = useNewDirection ? newDirections[i] : ventDirections[i];
+            }
+            if(isValidCombo) moveCandidates(moveDirections);
+        }
+    }
+    private void moveCandidates(int[] directions) {
+        for(int i = 0; i < numLiveSlices; ++i) {
+            int slice = liveSlices[i], a = getSliceA(slice), b = getSliceB(slice);
+            readSlice(candidates, slice, sliceValues);
+            //Vent values before moving slow down every vent after them
+            int influenceA = getMovementInfluenceOfValue(a);
+            int influenceAB = influenceA + getMovementInfluenceOfValue(b);
+            int movedA = VentDomain.getMoveDestination(a, BASE_MOVE_RATE, directions[0]);
+            int movedB = VentDomain.getMoveDestination(b, BASE_MOVE_RATE + influenceA, directions[1]);
+            sliceValues.move(directions[2], BASE_MOVE_RATE + influenceAB, BASE_MOVE_RATE + influenceAB);
+            orNextSlice(getSliceIndex(movedA, movedB), sliceValues);
+        }
+    }
+    private void orNextSlice(int slice, VentDomain values) {
+        if(values.isEmpty()) return;
+        if(isSliceEmpty(nextCandidates, slice)) nextLiveSlices[numNextLiveSlices++] = slice;
+        orSlice(nextCandidates, slice, values);
+    }
+    private void swapCandidates() {
+        long[] previousCandidates = candidates;
+        candidates = nextCandidates;
+        nextCandidates = previousCandidates;
+        int[] previousLiveSlices = liveSlices;
+        liveSlices = nextLiveSlices;
+        nextLiveSlices = previousLiveSlices;
+        int previousNumLiveSlices = numLiveSlices;
+        numLiveSlices = numNextLiveSlices;
+        numNextLiveSlices = previousNumLiveSlices;
+    }
+    private static int getSliceIndex(int a, int b) { return (a * NUM_VALUES) + b; }
+    private static int getSliceA(int slice) { return slice / NUM_VALUES; }
+    private static int getSliceB(int slice) { return slice % NUM_VALUES; }
+    private static boolean isSliceEmpty(long[] words, int slice) {
+        int bitIndex = slice * NUM_VALUES;
+        return readBits(words, bitIndex) == 0 && (readBits(words, bitIndex + Long.SIZE) & VentDomain.HIGH_VALUE_MASK) == 0;
+    }
+    private static void clearSlice(long[] words, int slice) {
+        int bitIndex = slice * NUM_VALUES;
+        clearBits(words, bitIndex, -1L);
+        clearBits(words, bitIndex + Long.SIZE, VentDomain.HIGH_VALUE_MASK);
+    }
+    private static boolean readSlice(long[] words, int slice, VentDomain values) {
+        int bitIndex = slice * NUM_VALUES;
+        long low = readBits(words, bitIndex);
+        long high = readBits(words, bitIndex + Long.SIZE) & VentDomain.HIGH_VALUE_MASK;
+        values.setBits(low, high);
+        return low != 0 || high != 0;
+    }
+    private static void orSlice(long[] words, int slice, VentDomain values) {
+        int bitIndex = slice * NUM_VALUES;
+        orBits(words, bitIndex, values.getLowBits());
+        orBits(words, bitIndex + Long.SIZE, values.getHighBits());
+    }
+    private static void writeSlice(long[] words, int slice, VentDomain values) {
+        clearSlice(words, slice);
+        orSlice(words, slice, values);
+    }
+    private static long readBits(long[] words, int bitIndex) {
+        int word = bitIndex >>> 6, shift = bitIndex & 63;
+        if(shift == 0) return words[word];
+        return (words[word] >>> shift) | (words[word+1] << (Long.SIZE - shift));
+    }
+    private static void orBits(long[] words, int bitIndex, long bits) {
+        int word = bitIndex >>> 6, shift = bitIndex & 63;
+        words[word] |= bits << shift;
+        if(shift != 0) words[word+1] |= bits >>> (Long.SIZE - shift);
+    }
+    private static void clearBits(long[] words, int bitIndex, long bits) {
+        int word = bitIndex >>> 6, shift = bitIndex & 63;
+        words[word] &= ~(bits << shift);
+        if(shift != 0) words[word+1] &= ~(bits >>> (Long.SIZE - shift));
+    }
+}
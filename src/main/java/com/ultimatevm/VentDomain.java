@@ -0,0 +1,243 @@
+package com.ultimatevm;
+
+public class VentDomain {
+    //Values 0-63 are held in low and 64-100 are held in high
+    private static final int HIGH_VALUE_OFFSET = Long.SIZE;
+    private static final int NUM_VALUES = VentStatus.MAX_VENT_VALUE + 1;
+    static final long HIGH_VALUE_MASK = -1L >>> (HIGH_VALUE_OFFSET * 2 - NUM_VALUES);
+    public static final int NO_VALUE = -1;
+    //Built at class load so games on different threads never see a half built table
+    private static final VentDomain[] pointsToValues = makePointsTable();
+    private static final int[][][] moveTable = makeMoveTable();
+
+    private long low, high;
+
+    private static VentDomain[] makePointsTable() {
+        //Every value grouped by the stability points it provides
+        VentDomain[] points = new VentDomain[(int)VentStatus.VENT_STABILITY_WEIGHT+1];
+        for(int i = 0; i < points.length; ++i) points[i] = new VentDomain(0, 0);
+        for(int value = VentStatus.MIN_VENT_VALUE; value <= VentStatus.MAX_VENT_VALUE; ++value)
+            points[VentStatus.getStabilityInfluence(value)].add(value);
+        return points;
+    }
+    private static int[][][] makeMoveTable() {
+        //Destination of every value for each direction and move rate
+        int[][][] moves = new int[2][VentStatus.BASE_MOVE_RATE+1][NUM_VALUES];
+        for(int dir = 0; dir < moves.length; ++dir) {
+            for(int rate = 0; rate < moves[dir].length; ++rate) {
+                for(int value = VentStatus.MIN_VENT_VALUE; value <= VentStatus.MAX_VENT_VALUE; ++value)
+                    moves[dir][rate][value] = calcMoveDestination(value, rate, dir == 0 ? -1 : 1);
+            }
+        }
+        return moves;
+    }
+    static int getMoveDestination(int value, int moveRate, int direction) {
+        int[][] dirTable = moveTable[direction > 0 ? 1 : 0];
+        if(direction == 0 || moveRate < 0 || moveRate >= dirTable.length) return calcMoveDestination(value, moveRate, direction);
+        return dirTable[moveRate][value];
+    }
+    static void moveValues(int[] values, int[] directions) {
+        //Each vent is slowed by the vents above it as they were before moving
+        int outsideInfluence = 0;
+        for(int i = 0; i < values.length; ++i) {
+            int value = values[i];
+            values[i] = getMoveDestination(value, VentStatus.BASE_MOVE_RATE + outsideInfluence, directions[i]);
+            outsideInfluence += VentStatus.getMovementInfluenceOfValue(value);
+        }
+    }
+    static int[] getChamberDirections(int chamberBits, int[] directions) {
+        //A set chamber bit moves its vent up
+        for(int i = 0; i < directions.length; ++i) directions[i] = (chamberBits & (1 << i)) != 0 ? 1 : -1;
+        return directions;
+    }
+    private static int calcMoveDestination(int value, int moveRate, int direction) {
+        int move = Math.max(0, moveRate + VentStatus.getMovementInfluenceOfValue(value)) * direction;
+        return Math.min(VentStatus.MAX_VENT_VALUE, Math.max(VentStatus.MIN_VENT_VALUE, value + move));
+    }
+    private static long getBitsBetween(int start, int end) {
+        //Bits start through end of a single long
+        return (-1L >>> (Long.SIZE - 1 - end)) & (-1L << start);
+    }
+
+    public VentDomain() {}
+    public VentDomain(VentDomain domain) {
+        setEqualTo(domain);
+    }
+    private VentDomain(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    public void setEqualTo(VentDomain domain) {
+        low = domain.low;
+        high = domain.high;
+    }
+    public void clear() {
+        low = high = 0;
+    }
+    public void add(int value) {
+        if(value < VentStatus.MIN_VENT_VALUE || value > VentStatus.MAX_VENT_VALUE) return;
+        if(value < HIGH_VALUE_OFFSET) low |= 1L << value;
+        else high |= 1L << (value - HIGH_VALUE_OFFSET);
+    }
+    public void addRange(int start, int end) {
+        start = Math.max(VentStatus.MIN_VENT_VALUE, start);
+        end = Math.min(VentStatus.MAX_VENT_VALUE, end);
+        if(start > end) return;
+        low |= getLowRangeMask(start, end);
+        high |= getHighRangeMask(start, end);
+    }
+    public void merge(VentDomain domain) {
+        low |= domain.low;
+        high |= domain.high;
+    }
+    public void overlap(VentDomain domain) {
+        low &= domain.low;
+        high &= domain.high;
+    }
+    public void keepRange(int start, int end) {
+        low &= getLowRangeMask(start, end);
+        high &= getHighRangeMask(start, end);
+    }
+    public void removeRange(int start, int end) {
+        low &= ~getLowRangeMask(start, end);
+        high &= ~getHighRangeMask(start, end);
+    }
+    public void move(int direction, int minMoveRate, int maxMoveRate) {
+        if(isEmpty() || direction == 0) return;
+        long movedLow = 0, movedHigh = 0;
+        int[][] dirTable = moveTable[direction > 0 ? 1 : 0];
+        for(int rate = Math.max(0, minMoveRate); rate <= Math.max(0, maxMoveRate); ++rate) {
+            //Rates outside of the table are only possible if the base rate changed
+            int[] destinations = rate < dirTable.length ? dirTable[rate] : null;
+            for(int value = getFirstValue(); value != NO_VALUE; value = getNextValue(value+1)) {
+                int dest = destinations != null ? destinations[value] : calcMoveDestination(value, rate, direction);
+                if(dest < HIGH_VALUE_OFFSET) movedLow |= 1L << dest;
+                else movedHigh |= 1L << (dest - HIGH_VALUE_OFFSET);
+            }
+        }
+        low = movedLow;
+        high = movedHigh;
+    }
+    public void reverseMove(int move) {
+        //Values sitting on a bound stay put since we cant know how long they were there
+        if(isEmpty() || move == 0) return;
+        long movedLow = 0, movedHigh = 0;
+        for(int value = getFirstValue(); value != NO_VALUE; value = getNextValue(value+1)) {
+            int dest = value;
+            if(value != VentStatus.MIN_VENT_VALUE && value != VentStatus.MAX_VENT_VALUE)
+                dest = Math.min(VentStatus.MAX_VENT_VALUE, Math.max(VentStatus.MIN_VENT_VALUE, value - move));
+            if(dest < HIGH_VALUE_OFFSET) movedLow |= 1L << dest;
+            else movedHigh |= 1L << (dest - HIGH_VALUE_OFFSET);
+        }
+        low = movedLow;
+        high = movedHigh;
+    }
+    public void keepPoints(int pointsBitState) {
+        //Keep values that give any of the stability points flagged
+        long allowedLow = 0, allowedHigh = 0;
+        for(int points = 0; points < pointsToValues.length; ++points) {
+            if((pointsBitState & (1 << points)) == 0) continue;
+            allowedLow |= pointsToValues[points].low;
+            allowedHigh |= pointsToValues[points].high;
+        }
+        low &= allowedLow;
+        high &= allowedHigh;
+    }
+    public void trimBasedOn(int pointsNeeded, VentDomain trimSource) {
+        //Keep values that can be paired with a source value to reach the points needed
+        long allowedLow = 0, allowedHigh = 0;
+        for(int points = 0; points < pointsToValues.length; ++points) {
+            int missingPoints = pointsNeeded - points;
+            if(missingPoints < 0 || missingPoints >= pointsToValues.length) continue;
+            if(!trimSource.intersects(pointsToValues[missingPoints])) continue;
+            allowedLow |= pointsToValues[points].low;
+            allowedHigh |= pointsToValues[points].high;
+        }
+        low &= allowedLow;
+        high &= allowedHigh;
+    }
+
+    public boolean isEmpty() { return low == 0 && high == 0; }
+    public boolean contains(int value) {
+        if(value < VentStatus.MIN_VENT_VALUE || value > VentStatus.MAX_VENT_VALUE) return false;
+        if(value < HIGH_VALUE_OFFSET) return (low & (1L << value)) != 0;
+        return (high & (1L << (value - HIGH_VALUE_OFFSET))) != 0;
+    }
+    public boolean intersects(int start, int end) {
+        return (low & getLowRangeMask(start, end)) != 0 || (high & getHighRangeMask(start, end)) != 0;
+    }
+    public boolean intersects(VentDomain domain) {
+        return (low & domain.low) != 0 || (high & domain.high) != 0;
+    }
+    public boolean isEqualTo(VentDomain domain) { return low == domain.low && high == domain.high; }
+    public boolean isSubsetOf(VentDomain domain) { return (low & ~domain.low) == 0 && (high & ~domain.high) == 0; }
+    public int getSize() { return Long.bitCount(low) + Long.bitCount(high); }
+    public int getFirstValue() { return getNextValue(VentStatus.MIN_VENT_VALUE); }
+    public int getLastValue() {
+        if(high != 0) return HIGH_VALUE_OFFSET + (Long.SIZE - 1 - Long.numberOfLeadingZeros(high));
+        if(low != 0) return Long.SIZE - 1 - Long.numberOfLeadingZeros(low);
+        return NO_VALUE;
+    }
+    public int getNextValue(int from) {
+        if(from < HIGH_VALUE_OFFSET) {
+            long bits = low & (-1L << Math.max(0, from));
+            if(bits != 0) return Long.numberOfTrailingZeros(bits);
+            from = HIGH_VALUE_OFFSET;
+        }
+        if(from > VentStatus.MAX_VENT_VALUE) return NO_VALUE;
+        long bits = high & (-1L << (from - HIGH_VALUE_OFFSET));
+        if(bits != 0) return HIGH_VALUE_OFFSET + Long.numberOfTrailingZeros(bits);
+        return NO_VALUE;
+    }
+    public int getPreviousValue(int from) {
+        if(from >= HIGH_VALUE_OFFSET) {
+            int shift = Math.min(from, VentStatus.MAX_VENT_VALUE) - HIGH_VALUE_OFFSET;
+            long bits = high & (-1L >>> (Long.SIZE - 1 - shift));
+            if(bits != 0) return HIGH_VALUE_OFFSET + (Long.SIZE - 1 - Long.numberOfLeadingZeros(bits));
+            from = HIGH_VALUE_OFFSET - 1;
+        }
+        if(from < 0) return NO_VALUE;
+        long bits = low & (-1L >>> (Long.SIZE - 1 - from));
+        if(bits != 0) return Long.SIZE - 1 - Long.numberOfLeadingZeros(bits);
+        return NO_VALUE;
+    }
+    public int getNextMissingValue(int from) {
+        if(from < HIGH_VALUE_OFFSET) {
+            long bits = ~low & (-1L << Math.max(0, from));
+            if(bits != 0) return Long.numberOfTrailingZeros(bits);
+            from = HIGH_VALUE_OFFSET;
+        }
+        if(from > VentStatus.MAX_VENT_VALUE) return NUM_VALUES;
+        long bits = ~high & HIGH_VALUE_MASK & (-1L << (from - HIGH_VALUE_OFFSET));
+        if(bits != 0) return HIGH_VALUE_OFFSET + Long.numberOfTrailingZeros(bits);
+        return NUM_VALUES;
+    }
+
+    //Raw bits for packed storage
+    static long getRangeLowBits(int start, int end) { return getLowRangeMask(start, end); }
+    static long getRangeHighBits(int start, int end) { return getHighRangeMask(start, end); }
+    static boolean intersects(long low, long high, int start, int end) {
+        return (low & getLowRangeMask(start, end)) != 0 || (high & getHighRangeMask(start, end)) != 0;
+    }
+    long getLowBits() { return low; }
+    long getHighBits() { return high; }
+    void setBits(long low, long high) {
+        this.low = low;
+        this.high = high & HIGH_VALUE_MASK;
+    }
+
+    //Helpers
+    private static long getLowRangeMask(int start, int end) {
+        start = Math.max(VentStatus.MIN_VENT_VALUE, start);
+        end = Math.min(HIGH_VALUE_OFFSET - 1, end);
+        if(start > end) return 0;
+        return getBitsBetween(start, end);
+    }
+    private static long getHighRangeMask(int start, int end) {
+        start = Math.max(HIGH_VALUE_OFFSET, start);
+        end = Math.min(VentStatus.MAX_VENT_VALUE, end);
+        if(start > end) return 0;
+        return getBitsBetween(start - HIGH_VALUE_OFFSET, end - HIGH_VALUE_OFFSET);
+    }
+}
@@ -0,0 +1,206 @@
+package com.ultimatevm;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class VentPredictionPipeline {
+    //Runs the predicter inline on the caller thread or hands each tick to a single background worker
+    private static final long WORKER_TERMINATION_POLL_MS = 1000;
+
+    private final VentStatusPredicter predicter = new VentStatusPredicter();
+    private ExecutorService worker;
+    //Newest display state the worker has finished
+    private volatile VentStatusSnapshot snapshot;
+    //Everything below is only touched by the caller thread
+    private final VentTextCache ventTexts = new VentTextCache();
+    private int currentTick;
+    private int numPlayers = 1;
+    private int stability = StabilityTracker.STARTING_STABILITY;
+    private int[] ventStatus;
+    private int chambers;
+    private int stabilityChange;
+    private boolean hasVentStatus, hasStabilityChange;
+
+    private static final class TickEvent {
+        //Everything the predicter saw during one game tick
+        private final int numPlayers, stability;
+        private final int[] ventStatus;
+        private final int chambers, stabilityChange;
+        private final boolean hasStabilityChange;
+
+        private TickEvent(int numPlayers, int stability, int[] ventStatus, int chambers, int stabilityChange, boolean hasStabilityChange) {
+            this.numPlayers = numPlayers;
+            this.stability = stability;
+            this.ventStatus = ventStatus;
+            this.chambers = chambers;
+            this.stabilityChange = stabilityChange;
+            this.hasStabilityChange = hasStabilityChange;
+        }
+    }
+
+    public void configure(UltimateVolcanicMineConfig.VentDomainEngine engine,
+                          UltimateVolcanicMineConfig.VentPredictionMode mode, boolean isAsync) {
+        if(isAsync && worker == null) {
+            //Nothing has been queued yet so the predicter can still be read from here
+            currentTick = predicter.getCurrentTick();
+            snapshot = makeSnapshot(currentTick);
+            worker = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ultimate-vm-predicter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        else if(!isAsync && worker != null) shutdown();
+        run(() -> {
+            predicter.setDomainEngine(engine);
+            predicter.setPredictionMode(mode);
+        });
+    }
+    public void setPhaseAllocations(AllocationCounter phaseAllocations) {
+        //Recorded on whichever thread runs the predicter
+        run(() -> predicter.setPhaseAllocations(phaseAllocations));
+    }
+    public void initialize() {
+        currentTick = 0;
+        stability = StabilityTracker.STARTING_STABILITY;
+        clearPendingTick();
+        ventTexts.clear();
+        if(isAsync()) snapshot = new VentStatusSnapshot(0, new StatusState(), new StabilityForecast(), new GameContext());
+        run(predicter::initialize);
+    }
+    public void shutdown() {
+        if(worker == null) return;
+        //Queued ticks finish before going inline so the predicter is never shared between threads
+        worker.shutdown();
+        boolean isInterrupted = false;
+        while(true) {
+            try {
+                if(worker.awaitTermination(WORKER_TERMINATION_POLL_MS, TimeUnit.MILLISECONDS)) break;
+            } catch(InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if(isInterrupted) Thread.currentThread().interrupt();
+        worker = null;
+        snapshot = null;
+    }
+
+    public void flush() {
+        //Blocks until every queued tick has been published
+        if(!isAsync()) return;
+        try {
+            worker.submit(() -> {}).get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public void setNumPlayers(int players) {
+        if(!isAsync()) predicter.getContext().setNumPlayers(players);
+        else numPlayers = players;
+    }
+    public void resetPlayers() {
+        numPlayers = 1;
+        run(predicter.getContext()::resetPlayers);
+    }
+    public void updateVentStatus(int[] ventStatus, int chambers) {
+        if(!isAsync()) {
+            predicter.updateVentStatus(ventStatus, chambers);
+            return;
+        }
+        //Copied here so every queued tick owns its own values
+        this.ventStatus = ventStatus.clone();
+        this.chambers = chambers;
+        hasVentStatus = true;
+    }
+    public void makeStatusState(int change) {
+        if(!isAsync()) {
+            predicter.makeStatusState(change);
+            return;
+        }
+        stabilityChange = change;
+        hasStabilityChange = true;
+    }
+    public void setStability(int stability) {
+        //Only read when the tick finishes so it is passed along with the tick
+        this.stability = stability;
+    }
+    public void markEarthquakeEvent() {
+        run(predicter::markEarthquakeEvent);
+    }
+    public void finishTick() {
+        if(!isAsync()) {
+            predicter.updateDisplayState();
+            predicter.updateForecast(stability);
+            predicter.finishTick();
+            return;
+        }
+        //Hand the whole tick over in one piece so the worker always replays complete ticks
+        TickEvent event = new TickEvent(numPlayers, stability, hasVentStatus ? ventStatus : null,
+                chambers, stabilityChange, hasStabilityChange);
+        clearPendingTick();
+        ++currentTick;
+        worker.execute(() -> processTick(event));
+    }
+
+    public String getVentStatusText(int index, String startingText) {
+        return ventTexts.getVentStatusText(index, getDisplayedVent(index), startingText);
+    }
+    public VentStatus getDisplayedVent(int index) {
+        //Read only - the HUD builds its text from these bounds
+        if(!isAsync()) return predicter.getDisplayState().getVents()[index];
+        return snapshot.getVent(index);
+    }
+    public int getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario scenario) {
+        if(!isAsync()) return predicter.getFutureStabilityChange(scenario);
+        return snapshot.getFutureStabilityChange(scenario);
+    }
+    public StabilityForecast getStabilityForecast() {
+        if(!isAsync()) return predicter.getStabilityForecast();
+        return snapshot.getStabilityForecast();
+    }
+    public int getCurrentTick() {
+        if(!isAsync()) return predicter.getCurrentTick();
+        return currentTick;
+    }
+    public int getNumReplayedTicks() {
+        if(!isAsync()) return predicter.getNumReplayedTicks();
+        return snapshot.getNumReplayedTicks();
+    }
+    public int getNumPossibleStates() {
+        if(!isAsync()) return predicter.getNumPossibleStates();
+        return snapshot.getNumPossibleStates();
+    }
+    public boolean isMovementUpdateTick() { return VentStatusPredicter.isMovementUpdateTick(getCurrentTick()); }
+    public boolean isAsync() { return worker != null; }
+    public final VentStatusSnapshot getSnapshot() { return snapshot; }
+    //Only safe to use from the worker or when running inline
+    public final VentStatusPredicter getVentStatusPredicter() { return predicter; }
+
+    //Helpers
+    private void run(Runnable task) {
+        if(isAsync()) worker.execute(task);
+        else task.run();
+    }
+    private void clearPendingTick() {
+        hasVentStatus = hasStabilityChange = false;
+    }
+    private VentStatusSnapshot makeSnapshot(int tick) {
+        return new VentStatusSnapshot(tick, predicter.getDisplayState(), predicter.getStabilityForecast(), predicter.getContext(),
+                predicter.getNumReplayedTicks(), predicter.getNumPossibleStates());
+    }
+    private void processTick(TickEvent event) {
+        //Same order the client thread uses when running inline
+        predicter.getContext().setNumPlayers(event.numPlayers);
+        if(event.ventStatus != null) predicter.updateVentStatus(event.ventStatus, event.chambers);
+        if(event.hasStabilityChange) predicter.makeStatusState(event.stabilityChange);
+        predicter.updateDisplayState();
+        predicter.updateForecast(event.stability);
+        snapshot = makeSnapshot(predicter.getCurrentTick());
+        predicter.finishTick();
+    }
+}
@@ -11,8 +11,8 @@ public class VentStatus {
     public static final int MIN_RESET_SOLO_VENT_VALUE = 25;
     public static final float VENT_STABILITY_WEIGHT = 16.0f;
     public static int BASE_MOVE_RATE = 2;
-    public static int[][] pointsToLowerRanges = null, pointsToUpperRanges = null;
-
+    public static final int[][] pointsToLowerRanges = new int[(int)VENT_STABILITY_WEIGHT+1][2];
+    public static final int[][] pointsToUpperRanges = new int[(int)VENT_STABILITY_WEIGHT+1][2];
 
     public enum VentChangeStateFlag {
         IDENTIFIED (1),
@@ -28,21 +28,27 @@ public class VentStatus {
         }
         int bitFlag() {return bitFlag;}
     }
-    private char ventName;
-    private int actualValue;
-    private int movementDirection;
-
-    //Estimated Bounds
-    private boolean isFreezeClipAccurate;
-    private int lowerBoundStart, lowerBoundEnd;
-    private int upperBoundStart, upperBoundEnd;
-    private int totalBoundStart, totalBoundEnd;
+    //Every field lives in an int slab so whole states are copied with one arraycopy
+    private static final int ACTUAL_VALUE = 0;
+    private static final int MOVEMENT_DIRECTION = 1;
+    private static final int FREEZE_CLIP_ACCURATE = 2;
+    private static final int LOWER_BOUND_START = 3, LOWER_BOUND_END = 4;
+    private static final int UPPER_BOUND_START = 5, UPPER_BOUND_END = 6;
+    private static final int TOTAL_BOUND_START = 7, TOTAL_BOUND_END = 8;
+    //Domain bits are stored as four ints; only kept by the bit set engine
+    private static final int DOMAIN_BITS = 9, DOMAIN_SYNCED = 13;
+    //Engine travels with the vent so copies keep working the way their game was set up
+    private static final int BIT_SET_ENGINE = 14;
+    public static final int PACKED_SIZE = 15;
 
-    private static void makePointsToRangeTable() {
-        if(pointsToLowerRanges != null && pointsToUpperRanges != null) return;
-        pointsToLowerRanges = new int[(int)VENT_STABILITY_WEIGHT+1][2];
-        pointsToUpperRanges = new int[(int)VENT_STABILITY_WEIGHT+1][2];
+    private char ventName;
+    private final int[] slab;
+    private final int offset;
+    //Scratch copies of our domain and of domains read from other vents
+    private VentDomain scratchDomain, sourceDomain;
 
+    static {
+        //Filled once when the class loads so threads only ever read it
         //Mid values
         pointsToLowerRanges[16][0] = pointsToUpperRanges[16][0] = 47;
         pointsToLowerRanges[16][1] = pointsToUpperRanges[16][1] = 53;
@@ -91,79 +97,90 @@ public class VentStatus {
         return 0;
     }
     public static int[] pointsToLowerRange(int points) {
-        if(pointsToLowerRanges == null) return new int[]{-1, -1};
         if(points < 0 || points > (int)VENT_STABILITY_WEIGHT) return new int[]{-1, -1};
         return pointsToLowerRanges[points];
     }
     public static int[] pointsToUpperRange(int points) {
-        if(pointsToUpperRanges == null) return new int[]{-1, -1};
         if(points < 0 || points > (int)VENT_STABILITY_WEIGHT) return new int[]{-1, -1};
         return pointsToUpperRanges[points];
     }
 
     public VentStatus(char name) {
-        makePointsToRangeTable();
-        ventName = name;
-        this.movementDirection = 0;
-        actualValue = STARTING_VENT_VALUE;
-        totalBoundStart = MIN_STARTING_VENT_VALUE;
-        totalBoundEnd = MAX_STARTING_VENT_VALUE;
-        setStartingRanges();
+        this(name, new int[PACKED_SIZE], 0);
+        setStartingState();
     }
     public VentStatus(VentStatus vent) {
+        this(vent.ventName, new int[PACKED_SIZE], 0);
         setEqualTo(vent);
     }
+    VentStatus(char name, int[] slab, int offset) {
+        //Views into a slab owned by a status state
+        ventName = name;
+        this.slab = slab;
+        this.offset = offset;
+    }
 
-    public void doVMReset() {
+    void setStartingState() {
+        setDirection(0);
+        setActualValue(STARTING_VENT_VALUE);
+        setTotalBoundStart(MIN_STARTING_VENT_VALUE);
+        setTotalBoundEnd(MAX_STARTING_VENT_VALUE);
+        setStartingRanges();
+    }
+
+    public void doVMReset(GameContext context) {
         //Direction state will remain the same as before
-        actualValue = STARTING_VENT_VALUE;
-        totalBoundStart = MIN_VENT_VALUE;
-        totalBoundEnd = MAX_VENT_VALUE;
-        if(StabilityUpdateInfo.isSolo()) {
-            totalBoundStart = MIN_RESET_SOLO_VENT_VALUE;
-            totalBoundEnd = MAX_RESET_SOLO_VENT_VALUE;
+        setActualValue(STARTING_VENT_VALUE);
+        setTotalBoundStart(MIN_VENT_VALUE);
+        setTotalBoundEnd(MAX_VENT_VALUE);
+        if(context.isSolo()) {
+            setTotalBoundStart(MIN_RESET_SOLO_VENT_VALUE);
+            setTotalBoundEnd(MAX_RESET_SOLO_VENT_VALUE);
         }
         setStartingRanges();
     }
+    public void setDomainEngine(UltimateVolcanicMineConfig.VentDomainEngine engine) {
+        boolean isBitSet = (engine == UltimateVolcanicMineConfig.VentDomainEngine.BIT_SET);
+        if(isBitSet == isBitSetDomainEngine()) return;
+        slab[offset + BIT_SET_ENGINE] = isBitSet ? 1 : 0;
+        //Bit sets start from our current ranges and intervals read theirs straight from the ranges
+        if(isBitSet) syncDomainToRanges();
+        else slab[offset + DOMAIN_SYNCED] = 0;
+    }
     public void setEqualTo(VentStatus vent) {
         this.ventName = vent.ventName;
-        this.actualValue = vent.actualValue;
-        this.movementDirection = vent.movementDirection;
-        //Bounds
-        this.lowerBoundStart = vent.lowerBoundStart;
-        this.lowerBoundEnd = vent.lowerBoundEnd;
-        this.upperBoundStart = vent.upperBoundStart;
-        this.upperBoundEnd = vent.upperBoundEnd;
-        this.totalBoundStart = vent.totalBoundStart;
-        this.totalBoundEnd = vent.totalBoundEnd;
-        this.isFreezeClipAccurate = vent.isFreezeClipAccurate;
+        System.arraycopy(vent.slab, vent.offset, slab, offset, PACKED_SIZE);
     }
     public int update(int actualValue, int direction) {
         int bitState = 0;
-        int prevValue = this.actualValue;
-        this.actualValue = actualValue;
+        int prevValue = getActualValue();
+        setActualValue(actualValue);
         if(!isIdentified() && prevValue != STARTING_VENT_VALUE)
             bitState |= VentChangeStateFlag.RESET.bitFlag;
-        if(this.movementDirection != 0 && this.movementDirection != direction)
+        if(getDirection() != 0 && getDirection() != direction)
             bitState |= VentChangeStateFlag.DIRECTION_CHANGE.bitFlag;
-        this.movementDirection = direction;
+        setDirection(direction);
 
         if(isIdentified() || (bitState & VentChangeStateFlag.RESET.bitFlag) != 0) {
-            lowerBoundStart = lowerBoundEnd = actualValue;
-            upperBoundStart = upperBoundEnd = actualValue;
-            isFreezeClipAccurate = false;
+            setLowerBoundStart(getActualValue());
+            setLowerBoundEnd(getActualValue());
+            setUpperBoundStart(getActualValue());
+            setUpperBoundEnd(getActualValue());
+            setFreezeClipAccurate(false);
+            //A single known value is exact so the domain can be taken from it
+            if(isBitSetDomainEngine()) syncDomainToRanges();
         }
         if(!isIdentified()) return bitState;
 
-        int diff = Math.abs(this.actualValue - prevValue);
+        int diff = Math.abs(getActualValue() - prevValue);
         if(diff == 1) return bitState | VentChangeStateFlag.ONE_CHANGE.bitFlag;
         else if(diff == 2) return bitState |  VentChangeStateFlag.TWO_CHANGE.bitFlag;
         else if(diff > 2) return bitState | VentChangeStateFlag.IDENTIFIED.bitFlag;
 
-        if(this.actualValue == MIN_VENT_VALUE && this.movementDirection == -1)
+        if(getActualValue() == MIN_VENT_VALUE && getDirection() == -1)
             return bitState;
 
-        if(this.actualValue == MAX_VENT_VALUE && this.movementDirection == 1)
+        if(getActualValue() == MAX_VENT_VALUE && getDirection() == 1)
             return bitState;
 
         return bitState | VentChangeStateFlag.NO_CHANGE.bitFlag;
@@ -186,33 +203,43 @@ public class VentStatus {
             endRangeMoveRate = currentMinMoveRate;
         }
         //Update total bounds even if range is not defined
-        int totalBoundStartMove = Math.max(0, (startRangeMoveRate + getMovementInfluenceOfValue(totalBoundStart))) * movementDirection;
-        totalBoundStart = capVentValue(totalBoundStart + totalBoundStartMove);
+        int totalBoundStartMove = Math.max(0, (startRangeMoveRate + getMovementInfluenceOfValue(getTotalBoundStart()))) * getDirection();
+        setTotalBoundStart(capVentValue(getTotalBoundStart() + totalBoundStartMove));
 
-        int totalBoundEndMove = Math.max(0, (endRangeMoveRate + getMovementInfluenceOfValue(totalBoundEnd))) * movementDirection;
-        totalBoundEnd = capVentValue(totalBoundEnd + totalBoundEndMove);
+        int totalBoundEndMove = Math.max(0, (endRangeMoveRate + getMovementInfluenceOfValue(getTotalBoundEnd()))) * getDirection();
+        setTotalBoundEnd(capVentValue(getTotalBoundEnd() + totalBoundEndMove));
 
         if(!isRangeDefined()) return;
+        if(isBitSetDomainEngine()) {
+            //Every value is moved by its own rate
+            VentDomain domain = getDomain();
+            domain.move(getDirection(), currentMinMoveRate, currentMaxMoveRate);
+            applyDomainToRanges(domain);
+            return;
+        }
         //Update our current ranges
         int lowerStart = getLowerBoundStart();
-        int lowerStartMove = Math.max(0, (startRangeMoveRate + getMovementInfluenceOfValue(lowerStart))) * movementDirection;
+        int lowerStartMove = Math.max(0, (startRangeMoveRate + getMovementInfluenceOfValue(lowerStart))) * getDirection();
 
         int upperEnd = getUpperBoundEnd();
-        int upperEndMove = Math.max(0, (endRangeMoveRate + getMovementInfluenceOfValue(upperEnd))) * movementDirection;
+        int upperEndMove = Math.max(0, (endRangeMoveRate + getMovementInfluenceOfValue(upperEnd))) * getDirection();
 
         int lowerEnd = getLowerBoundEnd();
-        int lowerEndMove = Math.max(0, (endRangeMoveRate + getMovementInfluenceOfValue(lowerEnd))) * movementDirection;
+        int lowerEndMove = Math.max(0, (endRangeMoveRate + getMovementInfluenceOfValue(lowerEnd))) * getDirection();
 
         int upperStart = getUpperBoundStart();
-        int upperStartMove = Math.max(0, (startRangeMoveRate + getMovementInfluenceOfValue(upperStart))) * movementDirection;
+        int upperStartMove = Math.max(0, (startRangeMoveRate + getMovementInfluenceOfValue(upperStart))) * getDirection();
 
         clearRanges();
         setLowerBoundRange(lowerStart + lowerStartMove, lowerEnd + lowerEndMove);
         setUpperBoundRange(upperStart + upperStartMove, upperEnd + upperEndMove);
     }
     public void clearRanges() {
-        lowerBoundStart = lowerBoundEnd = STARTING_VENT_VALUE;
-        upperBoundStart = upperBoundEnd = STARTING_VENT_VALUE;
+        setLowerBoundStart(STARTING_VENT_VALUE);
+        setLowerBoundEnd(STARTING_VENT_VALUE);
+        setUpperBoundStart(STARTING_VENT_VALUE);
+        setUpperBoundEnd(STARTING_VENT_VALUE);
+        if(isBitSetDomainEngine()) syncDomainToRanges();
     }
     public boolean canLowerBoundMergeWith(int start, int end) {
         return isLowerBoundWithinRange(start-1, end+1);
@@ -221,34 +248,58 @@ public class VentStatus {
         return isUpperBoundWithinRange(start-1, end+1);
     }
     public void mergeLowerBoundRanges(int start, int end) {
-        lowerBoundStart = Math.min(lowerBoundStart, capVentValue(start));
-        lowerBoundEnd = Math.max(lowerBoundEnd, capVentValue(end));
+        if(isBitSetDomainEngine()) {
+            //Bit sets keep any gap left between the merged values
+            addDomainRange(start, end);
+            return;
+        }
+        setLowerBoundStart(Math.min(getLowerBoundStart(), capVentValue(start)));
+        setLowerBoundEnd(Math.max(getLowerBoundEnd(), capVentValue(end)));
     }
     public void mergeUpperBoundRanges(int start, int end) {
-        upperBoundStart = Math.min(upperBoundStart, capVentValue(start));
-        upperBoundEnd = Math.max(upperBoundEnd, capVentValue(end));
+        if(isBitSetDomainEngine()) {
+            addDomainRange(start, end);
+            return;
+        }
+        setUpperBoundStart(Math.min(getUpperBoundStart(), capVentValue(start)));
+        setUpperBoundEnd(Math.max(getUpperBoundEnd(), capVentValue(end)));
     }
     public void setLowerBoundRange(int start, int end) {
-        lowerBoundStart = capVentValue(start);
-        lowerBoundEnd = capVentValue(end);
+        if(isBitSetDomainEngine()) {
+            //Bit set ranges are only set after clearing so each one adds its values
+            addDomainRange(start, end);
+            return;
+        }
+        setLowerBoundStart(capVentValue(start));
+        setLowerBoundEnd(capVentValue(end));
         //Merge ranges if they are both within bounds
-        if(canUpperBoundMergeWith(lowerBoundStart, lowerBoundEnd)) {
-            mergeUpperBoundRanges(lowerBoundStart, lowerBoundEnd);
-            mergeLowerBoundRanges(upperBoundStart, upperBoundEnd);
+        if(canUpperBoundMergeWith(getLowerBoundStart(), getLowerBoundEnd())) {
+            mergeUpperBoundRanges(getLowerBoundStart(), getLowerBoundEnd());
+            mergeLowerBoundRanges(getUpperBoundStart(), getUpperBoundEnd());
         }
     }
     public void setUpperBoundRange(int start, int end) {
-        upperBoundStart = capVentValue(start);
-        upperBoundEnd = capVentValue(end);
+        if(isBitSetDomainEngine()) {
+            addDomainRange(start, end);
+            return;
+        }
+        setUpperBoundStart(capVentValue(start));
+        setUpperBoundEnd(capVentValue(end));
         //Merge ranges if they are both within bounds
-        if(canLowerBoundMergeWith(upperBoundStart, upperBoundEnd)) {
-            mergeUpperBoundRanges(lowerBoundStart, lowerBoundEnd);
-            mergeLowerBoundRanges(upperBoundStart, upperBoundEnd);
+        if(canLowerBoundMergeWith(getUpperBoundStart(), getUpperBoundEnd())) {
+            mergeUpperBoundRanges(getLowerBoundStart(), getLowerBoundEnd());
+            mergeLowerBoundRanges(getUpperBoundStart(), getUpperBoundEnd());
         }
     }
     public void doInnerBoundsClipping(int start, int end) {
         if(isIdentified()) return;
         if(!isRangeDefined()) return;
+        if(isBitSetDomainEngine()) {
+            VentDomain domain = getDomain();
+            domain.keepRange(start, end);
+            applyDomainToRanges(domain);
+            return;
+        }
         int[] lower = getOverlappedLowerBoundRange(start, end);
         int[] upper = getOverlappedUpperBoundRange(start, end);
         boolean isLowerBoundClipped = (lower[0] == -1 && lower[1] == -1);
@@ -273,6 +324,12 @@ public class VentStatus {
     public void doOuterBoundsClipping(int start, int end) {
         if(isIdentified()) return;
         if(!isRangeDefined()) return;
+        if(isBitSetDomainEngine()) {
+            VentDomain domain = getDomain();
+            domain.removeRange(start, end);
+            applyDomainToRanges(domain);
+            return;
+        }
         if(doOuterBoundsSingleRangeClipping(start, end)) return;
 
         int[] lower = getOutsideLowerBoundRange(start, end);
@@ -332,26 +389,57 @@ public class VentStatus {
         }
         return true;
     }
+    public void overlapPossibleValues(VentDomain values) {
+        if(values.isEmpty()) return;
+        //Values from outside the timeline take over when it has no range or one they contradict
+        VentDomain domain = getDomain();
+        if(isRangeDefined() && domain.intersects(values)) domain.overlap(values);
+        else domain.setEqualTo(values);
+        applyDomainToRanges(domain);
+    }
+    public void mergeDomainWith(VentStatus vent) {
+        VentDomain domain = getDomain();
+        domain.merge(vent.readDomainInto(getSourceDomain()));
+        applyDomainToRanges(domain);
+    }
+    public void overlapDomainWith(VentStatus vent) {
+        VentDomain domain = getDomain();
+        domain.overlap(vent.readDomainInto(getSourceDomain()));
+        applyDomainToRanges(domain);
+    }
+    public void trimDomainBasedOn(int pointsNeeded, VentStatus trimSource) {
+        VentDomain domain = getDomain();
+        domain.trimBasedOn(pointsNeeded, trimSource.readDomainInto(getSourceDomain()));
+        applyDomainToRanges(domain);
+    }
     public void flipDirection() {
-        movementDirection *= -1;
+        setDirection(-getDirection());
     }
 
-    public boolean isIdentified() { return actualValue != STARTING_VENT_VALUE; }
+    public boolean isIdentified() { return getActualValue() != STARTING_VENT_VALUE; }
     public boolean isRangeDefined() {
-        if(lowerBoundStart == STARTING_VENT_VALUE || lowerBoundEnd == STARTING_VENT_VALUE) return false;
-        if(upperBoundStart == STARTING_VENT_VALUE || upperBoundEnd == STARTING_VENT_VALUE) return false;
+        if(getLowerBoundStart() == STARTING_VENT_VALUE || getLowerBoundEnd() == STARTING_VENT_VALUE) return false;
+        if(getUpperBoundStart() == STARTING_VENT_VALUE || getUpperBoundEnd() == STARTING_VENT_VALUE) return false;
         return true;
     }
-    public boolean isTwoSeperateValues() { return !(lowerBoundStart == upperBoundStart && lowerBoundEnd == upperBoundEnd); }
-    public boolean isLowerBoundSingleValue() { return (lowerBoundStart == lowerBoundEnd); }
-    public boolean isUpperBoundSingleValue() { return (upperBoundStart == upperBoundEnd); }
+    public boolean isRangeEqualTo(VentStatus vent) {
+        if(isBitSetDomainEngine()) {
+            return getDomainLowBits() == vent.getDomainLowBits() && getDomainHighBits() == vent.getDomainHighBits();
+        }
+        return getLowerBoundStart() == vent.getLowerBoundStart() && getLowerBoundEnd() == vent.getLowerBoundEnd() &&
+                getUpperBoundStart() == vent.getUpperBoundStart() && getUpperBoundEnd() == vent.getUpperBoundEnd();
+    }
+    public boolean isTwoSeperateValues() { return !(getLowerBoundStart() == getUpperBoundStart() && getLowerBoundEnd() == getUpperBoundEnd()); }
+    public boolean isLowerBoundSingleValue() { return (getLowerBoundStart() == getLowerBoundEnd()); }
+    public boolean isUpperBoundSingleValue() { return (getUpperBoundStart() == getUpperBoundEnd()); }
     public boolean isLowerBoundWithinRange(int start, int end) {
-        return !(start > lowerBoundEnd || end < lowerBoundStart);
+        return !(start > getLowerBoundEnd() || end < getLowerBoundStart());
     }
     public boolean isUpperBoundWithinRange(int start, int end) {
-        return !(start > upperBoundEnd || end < upperBoundStart);
+        return !(start > getUpperBoundEnd() || end < getUpperBoundStart());
     }
     public boolean isWithinRange(int start, int end) {
+        if(isBitSetDomainEngine()) return VentDomain.intersects(getDomainLowBits(), getDomainHighBits(), start, end);
         if(isLowerBoundWithinRange(start, end)) return true;
         if(isTwoSeperateValues()) {
             return isUpperBoundWithinRange(start, end);
@@ -365,12 +453,12 @@ public class VentStatus {
         return new int[]{maxStart, minEnd};
     }
     public int[] getOutsideLowerBoundRange(int start, int end) {
-        int newStart = lowerBoundStart, newEnd = lowerBoundEnd;
+        int newStart = getLowerBoundStart(), newEnd = getLowerBoundEnd();
         if(!isLowerBoundWithinRange(start, end)) return new int[]{newStart, newEnd};
         //Check if start is within the passed bounds
-        if(lowerBoundStart >= start && lowerBoundStart <= end) newStart = end+1;
+        if(getLowerBoundStart() >= start && getLowerBoundStart() <= end) newStart = end+1;
         //Check if end is within the passed bounds
-        if(lowerBoundEnd >= start && lowerBoundEnd <= end) newEnd = start-1;
+        if(getLowerBoundEnd() >= start && getLowerBoundEnd() <= end) newEnd = start-1;
         //return invalid range if both are within the passed bounds
         if(newStart > newEnd) return new int[]{-1, -1};
         return new int[]{newStart, newEnd};
@@ -382,12 +470,12 @@ public class VentStatus {
         return new int[]{maxStart, minEnd};
     }
     public int[] getOutsideUpperBoundRange(int start, int end) {
-        int newStart = upperBoundStart, newEnd = upperBoundEnd;
+        int newStart = getUpperBoundStart(), newEnd = getUpperBoundEnd();
         if(!isUpperBoundWithinRange(start, end)) return new int[]{newStart, newEnd};
         //Check if start is within the passed bounds
-        if(upperBoundStart >= start && upperBoundStart <= end) newStart = end+1;
+        if(getUpperBoundStart() >= start && getUpperBoundStart() <= end) newStart = end+1;
         //Check if end is within the passed bounds
-        if(upperBoundEnd >= start && upperBoundEnd <= end) newEnd = start-1;
+        if(getUpperBoundEnd() >= start && getUpperBoundEnd() <= end) newEnd = start-1;
         //return invalid range if both are within the passed bounds
         if(newStart > newEnd) return new int[]{-1, -1};
         return new int[]{newStart, newEnd};
@@ -425,7 +513,7 @@ public class VentStatus {
     public int getReversedInfluence(int outsideVentInfluence) {
         //We know the value is the same as before so we can exit safely
         if(outsideVentInfluence < -1)
-            return isIdentified() ? getMovementInfluenceOfValue(capVentValue(actualValue)) : 0;
+            return isIdentified() ? getMovementInfluenceOfValue(capVentValue(getActualValue())) : 0;
         //Cannot reverse a blank value
         if(!isRangeDefined()) return STARTING_VENT_VALUE;
 
@@ -433,14 +521,14 @@ public class VentStatus {
             //Our ranges are estimated
             if(!isTwoSeperateValues()) {
                 //Exit on huge single ranges that border on freeze non-freeze
-                if(lowerBoundStart < 41 && lowerBoundEnd > 59) return STARTING_VENT_VALUE;
+                if(getLowerBoundStart() < 41 && getLowerBoundEnd() > 59) return STARTING_VENT_VALUE;
 
-                int lowerStartInf = determineReversedInfluence(outsideVentInfluence, lowerBoundStart);
+                int lowerStartInf = determineReversedInfluence(outsideVentInfluence, getLowerBoundStart());
                 if(lowerStartInf == STARTING_VENT_VALUE) return STARTING_VENT_VALUE;
                 //Can simply exit since this is a single estimated value
                 if(isLowerBoundSingleValue()) return lowerStartInf;
 
-                int lowerEndInf = determineReversedInfluence(outsideVentInfluence, lowerBoundEnd);
+                int lowerEndInf = determineReversedInfluence(outsideVentInfluence, getLowerBoundEnd());
                 if(lowerEndInf == STARTING_VENT_VALUE) return STARTING_VENT_VALUE;
                 //Exit on influence mismatch
                 if(lowerStartInf != lowerEndInf) return STARTING_VENT_VALUE;
@@ -448,23 +536,23 @@ public class VentStatus {
             }
 
             //We have two seperate estimated ranges
-            int lowerStartInf = determineReversedInfluence(outsideVentInfluence, lowerBoundStart);
+            int lowerStartInf = determineReversedInfluence(outsideVentInfluence, getLowerBoundStart());
             if(lowerStartInf == STARTING_VENT_VALUE) return STARTING_VENT_VALUE;
 
             if(!isLowerBoundSingleValue()) {
-                int lowerEndInf = determineReversedInfluence(outsideVentInfluence, lowerBoundEnd);
+                int lowerEndInf = determineReversedInfluence(outsideVentInfluence, getLowerBoundEnd());
                 if(lowerEndInf == STARTING_VENT_VALUE) return STARTING_VENT_VALUE;
                 //Exit on influence mismatch
                 if(lowerStartInf != lowerEndInf) return STARTING_VENT_VALUE;
             }
 
-            int upperStartInf = determineReversedInfluence(outsideVentInfluence, upperBoundStart);
+            int upperStartInf = determineReversedInfluence(outsideVentInfluence, getUpperBoundStart());
             if(upperStartInf == STARTING_VENT_VALUE) return STARTING_VENT_VALUE;
             //Exit on influence mismatch
             if(lowerStartInf != upperStartInf) return STARTING_VENT_VALUE;
 
             if(!isUpperBoundSingleValue()) {
-                int upperEndInf = determineReversedInfluence(outsideVentInfluence, upperBoundEnd);
+                int upperEndInf = determineReversedInfluence(outsideVentInfluence, getUpperBoundEnd());
                 if(upperEndInf == STARTING_VENT_VALUE) return STARTING_VENT_VALUE;
                 //Exit on influence mismatch
                 if(upperStartInf != upperEndInf) return STARTING_VENT_VALUE;
@@ -476,47 +564,141 @@ public class VentStatus {
         //We cannot reverse bounded values; dont know how long they been bounded
         if(isBounded()) return STARTING_VENT_VALUE;
         //Attempt to reverse this value and determine influence
-        int value = isFreezeClipAccurate() ? getLowerBoundStart() : actualValue;
+        int value = isFreezeClipAccurate() ? getLowerBoundStart() : getActualValue();
         return determineReversedInfluence(outsideVentInfluence, value);
     }
     public void doReversedMovement(int outsideVentInfluence) {
         if(!isRangeDefined()) return;
-        int currentMoveRate = Math.max(0, BASE_MOVE_RATE + outsideVentInfluence) * movementDirection;
+        int currentMoveRate = Math.max(0, BASE_MOVE_RATE + outsideVentInfluence) * getDirection();
         if(!isIdentified() && !isFreezeClipAccurate()) {
-            if(!isBounded(lowerBoundStart)) lowerBoundStart = capVentValue(getLowerBoundStart() - currentMoveRate);
-            if(!isBounded(lowerBoundEnd)) lowerBoundEnd = capVentValue(getLowerBoundEnd() - currentMoveRate);
-            if(!isBounded(upperBoundStart)) upperBoundStart = capVentValue(getUpperBoundStart() - currentMoveRate);
-            if(!isBounded(upperBoundEnd)) upperBoundEnd = capVentValue(getUpperBoundEnd() - currentMoveRate);
+            if(isBitSetDomainEngine()) {
+                //Every value is moved back on its own so gaps survive the reversal
+                VentDomain domain = getDomain();
+                domain.reverseMove(currentMoveRate);
+                applyDomainToRanges(domain);
+                return;
+            }
+            if(!isBounded(getLowerBoundStart())) setLowerBoundStart(capVentValue(getLowerBoundStart() - currentMoveRate));
+            if(!isBounded(getLowerBoundEnd())) setLowerBoundEnd(capVentValue(getLowerBoundEnd() - currentMoveRate));
+            if(!isBounded(getUpperBoundStart())) setUpperBoundStart(capVentValue(getUpperBoundStart() - currentMoveRate));
+            if(!isBounded(getUpperBoundEnd())) setUpperBoundEnd(capVentValue(getUpperBoundEnd() - currentMoveRate));
             return;
         }
-        if(isIdentified()) actualValue = capVentValue(actualValue - currentMoveRate);
-        int value = isFreezeClipAccurate() ? capVentValue(getLowerBoundStart() - currentMoveRate) : actualValue;
-        lowerBoundStart = lowerBoundEnd = value;
-        upperBoundStart = upperBoundEnd = value;
+        if(isIdentified()) setActualValue(capVentValue(getActualValue() - currentMoveRate));
+        int value = isFreezeClipAccurate() ? capVentValue(getLowerBoundStart() - currentMoveRate) : getActualValue();
+        setLowerBoundStart(value);
+        setLowerBoundEnd(value);
+        setUpperBoundStart(value);
+        setUpperBoundEnd(value);
+        if(isBitSetDomainEngine()) syncDomainToRanges();
     }
 
     public int getStabilityInfluence() {
-        if(isFreezeClipAccurate()) return getStabilityInfluence(lowerBoundStart);
+        if(isFreezeClipAccurate()) return getStabilityInfluence(getLowerBoundStart());
         if(!isIdentified()) return 0;
-        return getStabilityInfluence(actualValue);
+        return getStabilityInfluence(getActualValue());
     }
     public boolean isBounded() {
-        return isBounded(actualValue);
+        return isBounded(getActualValue());
     }
     public void makeFreezeClipAccurate() {
         if(ventName != 'A') return;
         if(getLowerBoundStart() != 40 && getLowerBoundStart() != 60) return;
         if(!canBeFreezeClipAccurate()) return;
-        isFreezeClipAccurate = true;
+        setFreezeClipAccurate(true);
     }
 
     //Helpers
     private int capVentValue(int value) { return Math.min(MAX_VENT_VALUE, Math.max(MIN_VENT_VALUE, value));}
     private void setStartingRanges() {
-        isFreezeClipAccurate = false;
+        setFreezeClipAccurate(false);
         clearRanges();
-        setLowerBoundRange(totalBoundStart, totalBoundEnd);
-        setUpperBoundRange(totalBoundStart, totalBoundEnd);
+        setLowerBoundRange(getTotalBoundStart(), getTotalBoundEnd());
+        setUpperBoundRange(getTotalBoundStart(), getTotalBoundEnd());
+    }
+    private VentDomain getDomain() {
+        if(scratchDomain == null) scratchDomain = new VentDomain();
+        return readDomainInto(scratchDomain);
+    }
+    private VentDomain getSourceDomain() {
+        if(sourceDomain == null) sourceDomain = new VentDomain();
+        return sourceDomain;
+    }
+    VentDomain readDomainInto(VentDomain domain) {
+        //Reading never writes to our slab so shared states can be read from any thread
+        domain.setBits(getDomainLowBits(), getDomainHighBits());
+        return domain;
+    }
+    private long getDomainLowBits() {
+        if(slab[offset + DOMAIN_SYNCED] != 0) return readLong(offset + DOMAIN_BITS);
+        //Vents made under the interval engine start from their ranges
+        long bits = 0;
+        if(getLowerBoundStart() != STARTING_VENT_VALUE && getLowerBoundEnd() != STARTING_VENT_VALUE)
+            bits |= VentDomain.getRangeLowBits(getLowerBoundStart(), getLowerBoundEnd());
+        if(getUpperBoundStart() != STARTING_VENT_VALUE && getUpperBoundEnd() != STARTING_VENT_VALUE)
+            bits |= VentDomain.getRangeLowBits(getUpperBoundStart(), getUpperBoundEnd());
+        return bits;
+    }
+    private long getDomainHighBits() {
+        if(slab[offset + DOMAIN_SYNCED] != 0) return readLong(offset + DOMAIN_BITS + 2);
+        long bits = 0;
+        if(getLowerBoundStart() != STARTING_VENT_VALUE && getLowerBoundEnd() != STARTING_VENT_VALUE)
+            bits |= VentDomain.getRangeHighBits(getLowerBoundStart(), getLowerBoundEnd());
+        if(getUpperBoundStart() != STARTING_VENT_VALUE && getUpperBoundEnd() != STARTING_VENT_VALUE)
+            bits |= VentDomain.getRangeHighBits(getUpperBoundStart(), getUpperBoundEnd());
+        return bits;
+    }
+    private void addDomainRange(int start, int end) {
+        VentDomain domain = getDomain();
+        domain.addRange(capVentValue(start), capVentValue(end));
+        applyDomainToRanges(domain);
+    }
+    private void storeDomain(VentDomain domain) {
+        //Interval vents always read their domain back from their ranges
+        if(!isBitSetDomainEngine()) return;
+        int bits = offset + DOMAIN_BITS;
+        writeLong(bits, domain.getLowBits());
+        writeLong(bits + 2, domain.getHighBits());
+        slab[offset + DOMAIN_SYNCED] = 1;
+    }
+    private void syncDomainToRanges() {
+        //Ranges only stand in for the domain when they are exact or all we have
+        if(scratchDomain == null) scratchDomain = new VentDomain();
+        VentDomain domain = scratchDomain;
+        domain.clear();
+        if(getLowerBoundStart() != STARTING_VENT_VALUE && getLowerBoundEnd() != STARTING_VENT_VALUE)
+            domain.addRange(getLowerBoundStart(), getLowerBoundEnd());
+        if(getUpperBoundStart() != STARTING_VENT_VALUE && getUpperBoundEnd() != STARTING_VENT_VALUE)
+            domain.addRange(getUpperBoundStart(), getUpperBoundEnd());
+        storeDomain(domain);
+    }
+    private void applyDomainToRanges(VentDomain domain) {
+        //Ranges become the domain split at its widest gap
+        storeDomain(domain);
+        int first = domain.getFirstValue();
+        if(first == VentDomain.NO_VALUE) {
+            setLowerBoundStart(STARTING_VENT_VALUE);
+            setLowerBoundEnd(STARTING_VENT_VALUE);
+            setUpperBoundStart(STARTING_VENT_VALUE);
+            setUpperBoundEnd(STARTING_VENT_VALUE);
+            return;
+        }
+        int last = domain.getLastValue();
+        int widestGap = 0, gapStart = last, gapEnd = first;
+        int runEnd = domain.getNextMissingValue(first) - 1;
+        while(runEnd < last) {
+            int nextRunStart = domain.getNextValue(runEnd + 1);
+            if(nextRunStart - runEnd > widestGap) {
+                widestGap = nextRunStart - runEnd;
+                gapStart = runEnd;
+                gapEnd = nextRunStart;
+            }
+            runEnd = domain.getNextMissingValue(nextRunStart) - 1;
+        }
+        setLowerBoundStart(first);
+        setLowerBoundEnd((widestGap == 0) ? last : gapStart);
+        setUpperBoundStart((widestGap == 0) ? first : gapEnd);
+        setUpperBoundEnd(last);
     }
     private boolean isBounded(int value) {
         return value == 100 || value == 0;
@@ -524,34 +706,52 @@ public class VentStatus {
     private int determineReversedInfluence(int outsideVentInfluence, int value) {
         int[] infPossibilities = new int[BASE_MOVE_RATE];
         for(int i = 0; i < BASE_MOVE_RATE; ++i) {
-            int move = (outsideVentInfluence + (BASE_MOVE_RATE - i)) * movementDirection;
+            int move = (outsideVentInfluence + (BASE_MOVE_RATE - i)) * getDirection();
             infPossibilities[i] = getMovementInfluenceOfValue(capVentValue(value - move));
         }
         //Exit on freeze, non-freeze mismatch cannot reverse reliably
         //eg blocked 41 or unblocked 59
         if(infPossibilities[0] != infPossibilities[1]) return STARTING_VENT_VALUE;
-        int move = Math.max(0, (outsideVentInfluence + BASE_MOVE_RATE)) * movementDirection;
+        int move = Math.max(0, (outsideVentInfluence + BASE_MOVE_RATE)) * getDirection();
         return getMovementInfluenceOfValue(capVentValue(value - move));
     }
 
 
     //Getters
     public char getName() { return ventName; }
-    public int getActualValue() { return actualValue; }
-    public int getDirection() { return movementDirection; }
-    public int getLowerBoundStart() { return lowerBoundStart; }
-    public int getLowerBoundEnd() { return lowerBoundEnd; }
-    public int getUpperBoundStart() { return upperBoundStart; }
-    public int getUpperBoundEnd() { return upperBoundEnd; }
-    public int getTotalBoundStart() { return totalBoundStart; }
-    public int getTotalBoundEnd() { return totalBoundEnd; }
+    public int getActualValue() { return slab[offset + ACTUAL_VALUE]; }
+    public int getDirection() { return slab[offset + MOVEMENT_DIRECTION]; }
+    public int getLowerBoundStart() { return slab[offset + LOWER_BOUND_START]; }
+    public int getLowerBoundEnd() { return slab[offset + LOWER_BOUND_END]; }
+    public int getUpperBoundStart() { return slab[offset + UPPER_BOUND_START]; }
+    public int getUpperBoundEnd() { return slab[offset + UPPER_BOUND_END]; }
+    public int getTotalBoundStart() { return slab[offset + TOTAL_BOUND_START]; }
+    public int getTotalBoundEnd() { return slab[offset + TOTAL_BOUND_END]; }
     public boolean canBeFreezeClipAccurate() {
         if(isIdentified()) return false;
         if(isTwoSeperateValues()) return false;
         return (isLowerBoundSingleValue() || isUpperBoundSingleValue());
     }
+    public boolean isBitSetDomainEngine() { return slab[offset + BIT_SET_ENGINE] != 0; }
     public boolean isFreezeClipAccurate() {
         if(!canBeFreezeClipAccurate()) return false;
-        return isFreezeClipAccurate;
+        return isFreezeClipFlagSet();
+    }
+
+    //Setters
+    private void setActualValue(int value) { slab[offset + ACTUAL_VALUE] = value; }
+    private void setDirection(int direction) { slab[offset + MOVEMENT_DIRECTION] = direction; }
+    private void setLowerBoundStart(int value) { slab[offset + LOWER_BOUND_START] = value; }
+    private void setLowerBoundEnd(int value) { slab[offset + LOWER_BOUND_END] = value; }
+    private void setUpperBoundStart(int value) { slab[offset + UPPER_BOUND_START] = value; }
+    private void setUpperBoundEnd(int value) { slab[offset + UPPER_BOUND_END] = value; }
+    private void setTotalBoundStart(int value) { slab[offset + TOTAL_BOUND_START] = value; }
+    private void setTotalBoundEnd(int value) { slab[offset + TOTAL_BOUND_END] = value; }
+    private void setFreezeClipAccurate(boolean isAccurate) { slab[offset + FREEZE_CLIP_ACCURATE] = isAccurate ? 1 : 0; }
+    private boolean isFreezeClipFlagSet() { return slab[offset + FREEZE_CLIP_ACCURATE] != 0; }
+    private long readLong(int index) { return ((long)slab[index+1] << 32) | (slab[index] & 0xFFFFFFFFL); }
+    private void writeLong(int index, long value) {
+        slab[index] = (int)value;
+        slab[index+1] = (int)(value >>> 32);
     }
 }
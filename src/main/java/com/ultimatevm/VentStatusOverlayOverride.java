@@ -1,8 +1,6 @@
 package com.ultimatevm;
 
-import net.runelite.api.Client;
 import net.runelite.api.widgets.ComponentID;
-import net.runelite.api.widgets.Widget;
 import net.runelite.client.util.Text;
 
 public class VentStatusOverlayOverride
@@ -18,26 +16,70 @@ public class VentStatusOverlayOverride
 		UNKNOWN
 	}
 
-	private final Client client;
-	private final VentStatusPredicter ventStatusPredicter;
+	private enum DisplayedSide
+	{
+		BELOW,
+		ABOVE,
+		UNKNOWN
+	}
+
+	private static final class VentModel
+	{
+		//What the HUD text is built from - the version moves whenever any of it changes
+		private int ventValue = -1;
+		private boolean hasPrediction;
+		private int lowerBoundStart, lowerBoundEnd, upperBoundStart, upperBoundEnd;
+		private int version;
+
+		//Percentage widget: the last game text parsed and the text this override last built
+		private String gamePercentageText;
+		private String ventPrefix;
+		private int gameVentValue;
+		private DisplayedSide gameSide = DisplayedSide.UNKNOWN;
+		private String renderedPercentageText;
+		private int renderedVersion = -1;
+		private DisplayedSide displayedSide = DisplayedSide.UNKNOWN;
+
+		//Chamber status widget: the last game text parsed and the text this override last built
+		private String gameStatusText;
+		private String statusPrefix;
+		private String statusWord;
+		private Boolean isBlocked;
+		private String statusColor;
+		private String renderedStatusText;
+	}
+
+	private final VentPredictionPipeline ventPredictionPipeline;
+	private final VarbitSnapshot varbits;
+	private final WidgetTextWriter widgetWriter;
 	private final int ventStatusVarbitA;
 	private final int ventStatusVarbitB;
 	private final int ventStatusVarbitC;
+	//Handlers only ask for an update; the widgets are rebuilt once before the next frame
+	private boolean isUpdateRequested;
+	private final VentModel[] ventModels = {new VentModel(), new VentModel(), new VentModel()};
 	private static final int[] VENT_PERCENTAGE_WIDGET_COMPONENTS = {
 		ComponentID.VOLCANIC_MINE_VENT_A_PERCENTAGE + 1,
 		ComponentID.VOLCANIC_MINE_VENT_B_PERCENTAGE + 1,
 		ComponentID.VOLCANIC_MINE_VENT_C_PERCENTAGE + 1
 	};
+	private static final int[] CHAMBER_STATUS_WIDGET_COMPONENTS = {
+		ComponentID.VOLCANIC_MINE_VENT_A_STATUS + 1,
+		ComponentID.VOLCANIC_MINE_VENT_B_STATUS + 1,
+		ComponentID.VOLCANIC_MINE_VENT_C_STATUS + 1
+	};
 
 	public VentStatusOverlayOverride(
-		Client client,
-		VentStatusPredicter ventStatusPredicter,
+		VentPredictionPipeline ventPredictionPipeline,
+		VarbitSnapshot varbits,
+		WidgetTextWriter widgetWriter,
 		int ventStatusVarbitA,
 		int ventStatusVarbitB,
 		int ventStatusVarbitC)
 	{
-		this.client = client;
-		this.ventStatusPredicter = ventStatusPredicter;
+		this.ventPredictionPipeline = ventPredictionPipeline;
+		this.varbits = varbits;
+		this.widgetWriter = widgetWriter;
 		this.ventStatusVarbitA = ventStatusVarbitA;
 		this.ventStatusVarbitB = ventStatusVarbitB;
 		this.ventStatusVarbitC = ventStatusVarbitC;
@@ -50,59 +92,138 @@ public class VentStatusOverlayOverride
 			|| varbitId == ventStatusVarbitC;
 	}
 
-	public void overrideVentStatusWidgetsFromVarbits()
+	public void requestUpdate()
 	{
-		overrideVentWidgetText(ComponentID.VOLCANIC_MINE_VENT_A_PERCENTAGE + 1, 0, client.getVarbitValue(ventStatusVarbitA));
-		overrideVentWidgetText(ComponentID.VOLCANIC_MINE_VENT_B_PERCENTAGE + 1, 1, client.getVarbitValue(ventStatusVarbitB));
-		overrideVentWidgetText(ComponentID.VOLCANIC_MINE_VENT_C_PERCENTAGE + 1, 2, client.getVarbitValue(ventStatusVarbitC));
+		isUpdateRequested = true;
 	}
 
-	public void updateChamberStatusWidgetColors(boolean predictionColorsEnabled)
+	public void applyUpdate(boolean ventStatusPrediction, boolean predictionColorsEnabled)
 	{
-		updateChamberStatusWidgetColor(ComponentID.VOLCANIC_MINE_VENT_A_STATUS + 1, 0, predictionColorsEnabled);
-		updateChamberStatusWidgetColor(ComponentID.VOLCANIC_MINE_VENT_B_STATUS + 1, 1, predictionColorsEnabled);
-		updateChamberStatusWidgetColor(ComponentID.VOLCANIC_MINE_VENT_C_STATUS + 1, 2, predictionColorsEnabled);
+		if (!isUpdateRequested)
+		{
+			return;
+		}
+		isUpdateRequested = false;
+
+		//Vent text is handled first since the chamber colours depend on what it shows
+		updateVentWidgetText(0, varbits.get(ventStatusVarbitA), ventStatusPrediction);
+		updateVentWidgetText(1, varbits.get(ventStatusVarbitB), ventStatusPrediction);
+		updateVentWidgetText(2, varbits.get(ventStatusVarbitC), ventStatusPrediction);
+		for (int i = 0; i < ventModels.length; ++i)
+		{
+			updateChamberStatusWidgetColor(i, predictionColorsEnabled);
+		}
 	}
 
-	private void overrideVentWidgetText(int widgetComponentId, int ventIndex, int varbitValue)
+	private void updateVentWidgetText(int ventIndex, int varbitValue, boolean ventStatusPrediction)
 	{
-		Widget widget = client.getWidget(widgetComponentId);
-		if (widget == null)
+		VentModel model = ventModels[ventIndex];
+		int widgetComponentId = VENT_PERCENTAGE_WIDGET_COMPONENTS[ventIndex];
+		String currentText = widgetWriter.getText(widgetComponentId);
+		if (currentText == null)
 		{
 			return;
 		}
 
-		String currentText = widget.getText();
-		if (currentText == null)
+		//Our own text coming back needs no work; anything else was written by the game
+		boolean isGameText = !currentText.equals(model.renderedPercentageText);
+		if (isGameText)
+		{
+			readGamePercentageText(model, currentText);
+		}
+		updateVentModel(model, ventIndex, varbitValue);
+		if (!ventStatusPrediction || (!isGameText && model.renderedVersion == model.version))
+		{
+			return;
+		}
+
+		if (model.renderedVersion != model.version)
+		{
+			model.renderedVersion = model.version;
+			model.renderedPercentageText = buildVentText(model, ventIndex, currentText);
+		}
+		if (model.renderedPercentageText != null)
+		{
+			widgetWriter.setText(widgetComponentId, model.renderedPercentageText);
+			model.displayedSide = getModelSide(model);
+		}
+	}
+
+	private void readGamePercentageText(VentModel model, String widgetText)
+	{
+		model.displayedSide = model.gameSide;
+		if (widgetText.equals(model.gamePercentageText))
 		{
+			//The game rewrites the same text every script run so it is only parsed when it changes
 			return;
 		}
 
-		String text = ventStatusPredicter.getVentStatusText(ventIndex, currentText);
-		if (varbitValue != VentStatus.STARTING_VENT_VALUE)
+		model.gamePercentageText = widgetText;
+		model.ventPrefix = extractVentPrefix(widgetText);
+		model.gameVentValue = -1;
+		model.gameSide = DisplayedSide.UNKNOWN;
+		//A new prefix means the text has to be built again
+		model.renderedVersion = -1;
+
+		String rawText = Text.removeTags(widgetText);
+		int separatorIndex = rawText.indexOf(':');
+		if (separatorIndex >= 0)
 		{
-			if (isWidgetShowingExactVentValue(currentText, varbitValue))
+			String valuePortion = rawText.substring(separatorIndex + 1).trim();
+			int[] exactBounds = parseDisplayedBounds(valuePortion);
+			if (exactBounds != null && exactBounds[0] == exactBounds[1] && valuePortion.endsWith("%"))
 			{
-				return;
+				model.gameVentValue = exactBounds[0];
 			}
+			model.gameSide = getDisplayedSide(valuePortion.split("\\s+"));
+		}
+		model.displayedSide = model.gameSide;
+	}
 
-			text = extractVentPrefix(currentText) + varbitValue + "%";
+	private void updateVentModel(VentModel model, int ventIndex, int varbitValue)
+	{
+		VentStatus vent = ventPredictionPipeline.getDisplayedVent(ventIndex);
+		boolean hasPrediction = !vent.isIdentified() && vent.isRangeDefined();
+		if (model.ventValue == varbitValue
+			&& model.hasPrediction == hasPrediction
+			&& model.lowerBoundStart == vent.getLowerBoundStart()
+			&& model.lowerBoundEnd == vent.getLowerBoundEnd()
+			&& model.upperBoundStart == vent.getUpperBoundStart()
+			&& model.upperBoundEnd == vent.getUpperBoundEnd())
+		{
+			return;
 		}
 
-		widget.setText(text);
+		model.ventValue = varbitValue;
+		model.hasPrediction = hasPrediction;
+		model.lowerBoundStart = vent.getLowerBoundStart();
+		model.lowerBoundEnd = vent.getLowerBoundEnd();
+		model.upperBoundStart = vent.getUpperBoundStart();
+		model.upperBoundEnd = vent.getUpperBoundEnd();
+		++model.version;
 	}
 
-	private boolean isWidgetShowingExactVentValue(String widgetText, int ventValue)
+	private String buildVentText(VentModel model, int ventIndex, String currentText)
 	{
-		String rawText = Text.removeTags(widgetText);
-		int separatorIndex = rawText.indexOf(':');
-		if (separatorIndex < 0)
+		//Null leaves the game's text in place
+		if (model.ventValue != VentStatus.STARTING_VENT_VALUE)
+		{
+			return model.gameVentValue == model.ventValue ? null : model.ventPrefix + model.ventValue + "%";
+		}
+		if (!model.hasPrediction)
 		{
-			return false;
+			return null;
 		}
+		return ventPredictionPipeline.getVentStatusText(ventIndex, currentText);
+	}
 
-		String valuePortion = rawText.substring(separatorIndex + 1).trim();
-		return valuePortion.equals(ventValue + "%");
+	private DisplayedSide getModelSide(VentModel model)
+	{
+		if (model.ventValue != VentStatus.STARTING_VENT_VALUE)
+		{
+			return getDisplayedSide(model.ventValue, model.ventValue, model.ventValue, model.ventValue);
+		}
+		return getDisplayedSide(model.lowerBoundStart, model.lowerBoundEnd, model.upperBoundStart, model.upperBoundEnd);
 	}
 
 	private String extractVentPrefix(String widgetText)
@@ -122,53 +243,73 @@ public class VentStatusOverlayOverride
 		return widgetText.substring(0, endIndex);
 	}
 
-	private void updateChamberStatusWidgetColor(int widgetComponentId, int ventIndex, boolean predictionColorsEnabled)
+	private void updateChamberStatusWidgetColor(int ventIndex, boolean predictionColorsEnabled)
 	{
-		Widget widget = client.getWidget(widgetComponentId);
-		if (widget == null)
+		VentModel model = ventModels[ventIndex];
+		int widgetComponentId = CHAMBER_STATUS_WIDGET_COMPONENTS[ventIndex];
+		String widgetText = widgetWriter.getText(widgetComponentId);
+		if (widgetText == null)
 		{
 			return;
 		}
 
-		String widgetText = widget.getText();
-		if (widgetText == null)
+		boolean isGameText = !widgetText.equals(model.renderedStatusText);
+		if (isGameText)
+		{
+			readGameStatusText(model, widgetText);
+		}
+		if (model.isBlocked == null)
 		{
 			return;
 		}
 
-		Boolean isBlocked = getBlockedState(widgetText);
-		if (isBlocked == null)
+		boolean isBlocked = model.isBlocked;
+		String color = predictionColorsEnabled
+			? getPredictionColor(getVentState(model.displayedSide, isBlocked))
+			: getDefaultChamberColor(isBlocked);
+		if (!isGameText && color.equals(model.statusColor))
 		{
 			return;
 		}
 
-		VentState ventState = getVentState(ventIndex, isBlocked);
-		String color = predictionColorsEnabled ? getPredictionColor(ventState) : getDefaultChamberColor(isBlocked);
-		String recoloredText = applyStatusWordColor(widgetText, color);
-		if (!widgetText.equals(recoloredText))
+		if (model.renderedStatusText == null || !color.equals(model.statusColor))
+		{
+			model.statusColor = color;
+			model.renderedStatusText = model.statusPrefix + "<col=" + color + ">" + model.statusWord + "</col>";
+		}
+		if (!widgetText.equals(model.renderedStatusText))
 		{
-			widget.setText(recoloredText);
+			widgetWriter.setText(widgetComponentId, model.renderedStatusText);
 		}
 	}
 
-	private Boolean getBlockedState(String widgetText)
+	private void readGameStatusText(VentModel model, String widgetText)
 	{
-		if (widgetText == null)
+		if (widgetText.equals(model.gameStatusText))
 		{
-			return null;
+			return;
 		}
 
-		String rawText = Text.removeTags(widgetText).toLowerCase();
-		if (rawText.contains("unblocked"))
+		model.gameStatusText = widgetText;
+		model.renderedStatusText = null;
+		model.isBlocked = null;
+
+		String rawText = Text.removeTags(widgetText);
+		String lowerText = rawText.toLowerCase();
+		int unblockedIndex = lowerText.indexOf("unblocked");
+		int blockedIndex = lowerText.indexOf("blocked");
+		if (unblockedIndex >= 0)
 		{
-			return false;
+			model.isBlocked = false;
+			model.statusWord = "Unblocked";
+			model.statusPrefix = rawText.substring(0, unblockedIndex);
 		}
-		if (rawText.contains("blocked"))
+		else if (blockedIndex >= 0)
 		{
-			return true;
+			model.isBlocked = true;
+			model.statusWord = "Blocked";
+			model.statusPrefix = rawText.substring(0, blockedIndex);
 		}
-
-		return null;
 	}
 
 	private String getPredictionColor(VentState ventState)
@@ -189,97 +330,66 @@ public class VentStatusOverlayOverride
 		return isBlocked ? COLOR_RED : COLOR_GREEN;
 	}
 
-	private String getVentPercentageWidgetText(int ventIndex)
+	private VentState getVentState(DisplayedSide displayedSide, boolean isBlocked)
 	{
-		Widget ventPercentageWidget = client.getWidget(VENT_PERCENTAGE_WIDGET_COMPONENTS[ventIndex]);
-		if (ventPercentageWidget == null)
+		switch (displayedSide)
 		{
-			return null;
-		}
-
-		return ventPercentageWidget.getText();
-	}
-
-	private String applyStatusWordColor(String widgetText, String color)
-	{
-		String rawText = Text.removeTags(widgetText);
-		int blockedIndex = rawText.toLowerCase().indexOf("blocked");
-		int unblockedIndex = rawText.toLowerCase().indexOf("unblocked");
-
-		int startIndex = unblockedIndex >= 0 ? unblockedIndex : blockedIndex;
-		if (startIndex < 0)
-		{
-			return widgetText;
+			case BELOW:
+				return isBlocked ? VentState.CORRECT : VentState.WRONG;
+			case ABOVE:
+				return isBlocked ? VentState.WRONG : VentState.CORRECT;
+			default:
+				return VentState.UNKNOWN;
 		}
-
-		String statusWord = unblockedIndex >= 0 ? "Unblocked" : "Blocked";
-		String prefix = rawText.substring(0, startIndex);
-		return prefix + "<col=" + color + ">" + statusWord + "</col>";
 	}
 
-	private VentState getVentState(int ventIndex, boolean isBlocked)
+	private DisplayedSide getDisplayedSide(String[] segments)
 	{
-		String widgetText = getVentPercentageWidgetText(ventIndex);
-		if (widgetText == null)
-		{
-			return VentState.UNKNOWN;
-		}
-
-		String rawText = Text.removeTags(widgetText);
-		int separatorIndex = rawText.indexOf(':');
-		if (separatorIndex < 0)
-		{
-			return VentState.UNKNOWN;
-		}
-
-		String[] segments = rawText.substring(separatorIndex + 1).trim().split("\\s+");
 		boolean canBeBelow = false;
 		boolean canBeAbove = false;
 		boolean canBePerfect = false;
 
 		for (String segment : segments)
 		{
-			if (segment.isEmpty())
-			{
-				continue;
-			}
-
 			int[] bounds = parseDisplayedBounds(segment);
 			if (bounds == null)
 			{
 				continue;
 			}
 
-			if (bounds[0] <= VentStatus.PERFECT_VENT_VALUE - 1)
-			{
-				canBeBelow = true;
-			}
-			if (bounds[1] >= VentStatus.PERFECT_VENT_VALUE + 1)
-			{
-				canBeAbove = true;
-			}
-			if (bounds[0] <= VentStatus.PERFECT_VENT_VALUE && bounds[1] >= VentStatus.PERFECT_VENT_VALUE)
-			{
-				canBePerfect = true;
-			}
+			canBeBelow |= bounds[0] <= VentStatus.PERFECT_VENT_VALUE - 1;
+			canBeAbove |= bounds[1] >= VentStatus.PERFECT_VENT_VALUE + 1;
+			canBePerfect |= bounds[0] <= VentStatus.PERFECT_VENT_VALUE && bounds[1] >= VentStatus.PERFECT_VENT_VALUE;
 		}
 
+		return getDisplayedSide(canBeBelow, canBeAbove, canBePerfect);
+	}
+
+	private DisplayedSide getDisplayedSide(int lowerBoundStart, int lowerBoundEnd, int upperBoundStart, int upperBoundEnd)
+	{
+		//Same answer parsing the text built from these bounds would give
+		boolean canBeBelow = lowerBoundStart <= VentStatus.PERFECT_VENT_VALUE - 1 || upperBoundStart <= VentStatus.PERFECT_VENT_VALUE - 1;
+		boolean canBeAbove = lowerBoundEnd >= VentStatus.PERFECT_VENT_VALUE + 1 || upperBoundEnd >= VentStatus.PERFECT_VENT_VALUE + 1;
+		boolean canBePerfect = (lowerBoundStart <= VentStatus.PERFECT_VENT_VALUE && lowerBoundEnd >= VentStatus.PERFECT_VENT_VALUE)
+			|| (upperBoundStart <= VentStatus.PERFECT_VENT_VALUE && upperBoundEnd >= VentStatus.PERFECT_VENT_VALUE);
+		return getDisplayedSide(canBeBelow, canBeAbove, canBePerfect);
+	}
+
+	private DisplayedSide getDisplayedSide(boolean canBeBelow, boolean canBeAbove, boolean canBePerfect)
+	{
 		if (canBePerfect || (canBeBelow && canBeAbove))
 		{
-			return VentState.UNKNOWN;
+			return DisplayedSide.UNKNOWN;
 		}
-
 		if (canBeBelow)
 		{
-			return isBlocked ? VentState.CORRECT : VentState.WRONG;
+			return DisplayedSide.BELOW;
 		}
-
 		if (canBeAbove)
 		{
-			return isBlocked ? VentState.WRONG : VentState.CORRECT;
+			return DisplayedSide.ABOVE;
 		}
-
-		return VentState.UNKNOWN;
+		return DisplayedSide.UNKNOWN;
 	}
 
 	private int[] parseDisplayedBounds(String segment)
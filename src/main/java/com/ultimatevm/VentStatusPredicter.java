@@ -7,66 +7,132 @@ public class VentStatusPredicter {
     public static final int SLOWEST_VENT_UPDATE_TICK = VentStatusTimeline.VENT_MOVE_TICK_TIME-1;
     public static final int HIGHEST_STABLE_RNG_PLAYER_COUNT = 8;
 
+    public enum Phase {
+        //Parts of a tick allocations are attributed to
+        STATUS_UPDATE,
+        TIMELINE_ADD,
+        REPLAY,
+        DISPLAY_UPDATE
+    }
+    public static final int NUM_PHASES = Phase.values().length;
+
     private VentStatusTimeline timeline;
     private StatusState displayState;
     private int numTicksNoMove;
+    //Team size outlives the timeline since it is set before the game starts
+    private final GameContext context = new GameContext();
+    private final StabilityForecaster forecaster = new StabilityForecaster(context);
+    //Only kept when predicting from every possible vent triple
+    private VentCandidateSet candidateSet;
+    private VentDomain possibleValues;
+    //Every state this predicter builds is copied from the display state so they all share its engine
+    private UltimateVolcanicMineConfig.VentDomainEngine domainEngine = UltimateVolcanicMineConfig.VentDomainEngine.INTERVAL;
+    //Only set while allocation accounting is on
+    private AllocationCounter phaseAllocations;
 
 
     public VentStatusPredicter() {
         initialize();
     }
     public void initialize() {
-        timeline = new VentStatusTimeline();
+        timeline = new VentStatusTimeline(context);
         displayState = new StatusState();
+        displayState.setDomainEngine(domainEngine);
+        forecaster.clear();
+        if(candidateSet != null) candidateSet.clear();
+    }
+    public void setDomainEngine(UltimateVolcanicMineConfig.VentDomainEngine engine) {
+        domainEngine = engine;
+        displayState.setDomainEngine(engine);
+    }
+    public void setPredictionMode(UltimateVolcanicMineConfig.VentPredictionMode mode) {
+        if(mode != UltimateVolcanicMineConfig.VentPredictionMode.CANDIDATE_SET) {
+            candidateSet = null;
+            return;
+        }
+        if(candidateSet != null) return;
+        candidateSet = new VentCandidateSet(context);
+        possibleValues = new VentDomain();
     }
     public void reset() {
-        if(!timeline.isHasReset()) displayState.forceReset();
+        if(!timeline.isHasReset()) displayState.forceReset(context);
         timeline.reset();
     }
+    public void setPhaseAllocations(AllocationCounter phaseAllocations) {
+        this.phaseAllocations = phaseAllocations;
+    }
     public void updateVentStatus(int[] ventStatus, int chambers) {
+        long startBytes = startPhase();
         processVentChangeState(displayState.updateVentStatus(ventStatus, chambers));
+        endPhase(Phase.STATUS_UPDATE, startBytes);
     }
     public void makeStatusState(int change) {
+        long startBytes = startPhase();
         timeline.addStabilityUpdateTick(displayState, change);
+        if(candidateSet != null) candidateSet.addStabilityChange(change);
+        endPhase(Phase.TIMELINE_ADD, startBytes);
     }
     public String getVentStatusText(int index, String startingText) {
-        VentStatus[] vents = displayState.getVents();
-        if(vents[index].isIdentified() || !vents[index].isRangeDefined()) return startingText;
+        return getVentStatusText(displayState.getVents()[index], startingText);
+    }
+    public static String getVentStatusText(VentStatus vent, String startingText) {
+        if(vent.isIdentified() || !vent.isRangeDefined()) return startingText;
         return startingText.substring(0, 3) +
                 "<col=00ffff>" +
-                getVentPercentText(vents[index]) +
+                getVentPercentText(vent) +
                 "</col>";
     }
     public void markEarthquakeEvent() {
+        long startBytes = startPhase();
         timeline.addEarthquakeEventTick();
+        endPhase(Phase.TIMELINE_ADD, startBytes);
+    }
+    public void updateForecast(int stability) {
+        long startBytes = startPhase();
+        playForecast(stability);
+        endPhase(Phase.DISPLAY_UPDATE, startBytes);
+    }
+    public void finishTick() {
+        //Moving to the next tick is when the timeline is rebuilt for the second half
+        long startBytes = startPhase();
+        timeline.updateTick();
+        if(getCurrentTick() > VentStatusTimeline.VM_GAME_RESET_TIME) reset();
+        endPhase(Phase.TIMELINE_ADD, startBytes);
     }
 
     //Helpers
-    private String getVentPercentText(VentStatus vent) {
-        StringBuilder builder = new StringBuilder();
-        if(vent.isTwoSeperateValues()) {
-            if(vent.isLowerBoundSingleValue())
-                builder.append(vent.getLowerBoundStart()).append("%");
-            else {
-                builder.append(vent.getLowerBoundStart()).append("-");
-                builder.append(vent.getLowerBoundEnd());
-            }
-            builder.append(" ");
-            if(vent.isUpperBoundSingleValue())
-                builder.append(vent.getUpperBoundStart()).append("%");
-            else {
-                builder.append(vent.getUpperBoundStart()).append("-");
-                builder.append(vent.getUpperBoundEnd());
-            }
-        } else {
-            if(vent.isLowerBoundSingleValue())
-                builder.append(vent.getLowerBoundStart()).append("%");
-            else {
-                builder.append(vent.getLowerBoundStart()).append("-");
-                builder.append(vent.getLowerBoundEnd()).append("%");
-            }
+    private long startPhase() {
+        return phaseAllocations == null ? AllocationCounter.NOT_MEASURED : AllocationCounter.getAllocatedBytes();
+    }
+    private void endPhase(Phase phase, long startBytes) {
+        if(phaseAllocations != null) phaseAllocations.record(phase.ordinal(), startBytes);
+    }
+    private void playForecast(int stability) {
+        //Needs the stability update cadence before anything can be played forward
+        int tick = getCurrentTick(), firstUpdateTick = timeline.getFirstStabilityUpdateTick();
+        if(firstUpdateTick > tick) {
+            forecaster.clear();
+            return;
         }
-        return builder.toString();
+        int updateTime = VentStatusTimeline.STABILITY_UPDATE_TICK_TIME, moveTime = VentStatusTimeline.VENT_MOVE_TICK_TIME;
+        int nextUpdateTick = tick + updateTime - ((tick - firstUpdateTick) % updateTime);
+        //Use the newest movement seen otherwise assume the slowest vent update tick
+        int movementTick = timeline.getCurrentMovementTick();
+        if(movementTick == timeline.getCurrentStartingTick()) movementTick = SLOWEST_VENT_UPDATE_TICK;
+        int nextMovementTick = tick + moveTime - Math.floorMod(tick - movementTick, moveTime);
+        int endTick = timeline.isHasReset() ? VentStatusTimeline.VM_GAME_FULL_TIME : VentStatusTimeline.VM_GAME_RESET_TIME;
+        forecaster.update(displayState, stability, tick, nextMovementTick, nextUpdateTick, endTick);
+    }
+    private static String getVentPercentText(VentStatus vent) {
+        //Composed from the startup label tables rather than formatted
+        if(!vent.isTwoSeperateValues()) return getBoundText(vent.getLowerBoundStart(), vent.getLowerBoundEnd(), true);
+        return getBoundText(vent.getLowerBoundStart(), vent.getLowerBoundEnd(), false) + " " +
+                getBoundText(vent.getUpperBoundStart(), vent.getUpperBoundEnd(), false);
+    }
+    private static String getBoundText(int start, int end, boolean isRangePercent) {
+        if(start == end) return HudLabels.getVentPercent(start);
+        return HudLabels.getVentValue(start) + "-" +
+                (isRangePercent ? HudLabels.getVentPercent(end) : HudLabels.getVentValue(end));
     }
     private void processVentChangeState(int[] changeStates) {
         int bitState = 0, movementBitState = 0;
@@ -105,44 +171,74 @@ public class VentStatusPredicter {
 
         //Reset when all vents are set to unidentified
         if((bitState & 512) != 0) {
-            displayState.doVMReset();
+            displayState.doVMReset(context);
         }
-        timeline.addInitialState(displayState);
+        boolean isInitialState = timeline.addInitialState(displayState);
+        if(candidateSet != null && (isInitialState || (bitState & 512) != 0))
+            candidateSet.initialize(displayState);
 
         if((bitState & VentStatusTimeline.DIRECTION_CHANGED_BIT_MASK) != 0) timeline.addDirectionChangeTick(bitState);
 
         //Do an estimated move if a movement update was skips for whatever reason
         if((bitState & 128) == 0) {
             if(++numTicksNoMove == VentStatusTimeline.VENT_MOVE_TICK_TIME) {
-                timeline.addEstimatedMovementTick();
+                boolean isMoveEstimated = timeline.addEstimatedMovementTick();
+                if(candidateSet != null && isMoveEstimated) candidateSet.addPossibleMovement(displayState);
                 numTicksNoMove = 0;
             }
         }
         if((bitState & 128) != 0) {
             timeline.addMovementTick(displayState, (movementBitState << 6));
+            if(candidateSet != null) candidateSet.doMovement(displayState, movementBitState);
             numTicksNoMove = 0;
         }
         if((bitState & VentStatusTimeline.IDENTIFIED_BIT_MASK) != 0) {
             timeline.addIdentifiedVentTick(displayState, bitState);
         }
+        if(candidateSet != null) candidateSet.updateVentStatus(displayState);
     }
     public void updateDisplayState() {
-        if(StabilityUpdateInfo.getNumPlayers() > HIGHEST_STABLE_RNG_PLAYER_COUNT) return;
+        if(context.getNumPlayers() > HIGHEST_STABLE_RNG_PLAYER_COUNT) return;
         if(displayState.isAllVentsIdentified()) return;
+        long startBytes = startPhase();
         StatusState predictedState = timeline.getCurrentPredictionState();
+        endPhase(Phase.REPLAY, startBytes);
         if(predictedState == null) return;
+        startBytes = startPhase();
         for(int i = 0; i < NUM_VENTS; ++i) {
             VentStatus vent = displayState.getVents()[i];
             if(vent.isIdentified()) continue;
             vent.setEqualTo(predictedState.getVents()[i]);
+            //Predictions made before an engine change still carry the old one
+            vent.setDomainEngine(domainEngine);
+        }
+        overlapDisplayStateWithCandidates();
+        endPhase(Phase.DISPLAY_UPDATE, startBytes);
+    }
+
+    private void overlapDisplayStateWithCandidates() {
+        //Timeline ranges are narrowed to values some remaining triple still allows
+        if(candidateSet == null || !candidateSet.isInitialized()) return;
+        if(candidateSet.isEmpty()) return;
+        for(int i = 0; i < NUM_VENTS; ++i) {
+            VentStatus vent = displayState.getVents()[i];
+            if(vent.isIdentified()) continue;
+            candidateSet.getPossibleValues(i, possibleValues);
+            vent.overlapPossibleValues(possibleValues);
         }
     }
 
     public int getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario scenario) {
-        return displayState.getFutureStabilityChange(scenario);
+        return displayState.getFutureStabilityChange(scenario, context);
     }
     public final StatusState getDisplayState() { return displayState; }
+    public final GameContext getContext() { return context; }
+    public final StabilityForecast getStabilityForecast() { return forecaster.getForecast(); }
     public final VentStatusTimeline getTimeline() { return timeline; }
+    public final VentCandidateSet getCandidateSet() { return candidateSet; }
     public final int getCurrentTick() { return timeline.getCurrentTick(); }
-    public boolean isMovementUpdateTick() { return getCurrentTick() % VentStatusTimeline.VENT_MOVE_TICK_TIME == SLOWEST_VENT_UPDATE_TICK;}
+    public int getNumReplayedTicks() { return timeline.getNumReplayedTicks(); }
+    public int getNumPossibleStates() { return timeline.getNumPossibleStates(); }
+    public boolean isMovementUpdateTick() { return isMovementUpdateTick(getCurrentTick()); }
+    public static boolean isMovementUpdateTick(int tick) { return tick % VentStatusTimeline.VENT_MOVE_TICK_TIME == SLOWEST_VENT_UPDATE_TICK;}
 }
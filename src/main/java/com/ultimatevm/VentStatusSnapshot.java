@@ -0,0 +1,35 @@
+package com.ultimatevm;
+
+public final class VentStatusSnapshot {
+    //Published by the prediction worker - the state is a private copy that is never written again
+    private final int tick;
+    private final StatusState displayState;
+    private final StabilityForecast forecast;
+    private final GameContext context;
+    private final int numReplayedTicks, numPossibleStates;
+
+    VentStatusSnapshot(int tick, StatusState displayState, StabilityForecast forecast, GameContext context) {
+        this(tick, displayState, forecast, context, 0, 0);
+    }
+    VentStatusSnapshot(int tick, StatusState displayState, StabilityForecast forecast, GameContext context,
+                       int numReplayedTicks, int numPossibleStates) {
+        this.tick = tick;
+        this.numReplayedTicks = numReplayedTicks;
+        this.numPossibleStates = numPossibleStates;
+        this.context = new GameContext(context.getNumPlayers());
+        this.displayState = new StatusState(displayState);
+        this.forecast = new StabilityForecast(forecast);
+    }
+
+    public String getVentStatusText(int index, String startingText) {
+        return VentStatusPredicter.getVentStatusText(displayState.getVents()[index], startingText);
+    }
+    public VentStatus getVent(int index) { return displayState.getVents()[index]; }
+    public int getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario scenario) {
+        return displayState.getFutureStabilityChange(scenario, context);
+    }
+    public final StabilityForecast getStabilityForecast() { return forecast; }
+    public int getTick() { return tick; }
+    public int getNumReplayedTicks() { return numReplayedTicks; }
+    public int getNumPossibleStates() { return numPossibleStates; }
+}
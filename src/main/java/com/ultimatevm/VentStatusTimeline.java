@@ -1,10 +1,21 @@
 package com.ultimatevm;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class VentStatusTimeline {
+    private static final Logger log = LoggerFactory.getLogger(VentStatusTimeline.class);
+
     //Constants
     public static final int VENT_MOVE_TICK_TIME = 10;
     public static final int STABILITY_UPDATE_TICK_TIME = 25;
@@ -33,33 +44,67 @@ public class VentStatusTimeline {
     //clip |vents| space completed?
     //0 0 0 0 0 0  0
 
+    //Earthquakes alone do not change any predicted state
+    public static final int REPLAY_EVENT_MASK = (1 << DIRECTION_CHANGED_FLAG) | (1 << IDENTIFIED_VENT_FLAG) |
+            (1 << MOVEMENT_UPDATE_FLAG) | (1 << STABILITY_UPDATE_FLAG) | (1 << ESTIMATED_MOVEMENT_FLAG);
+    //Rng mod hypotheses are replayed on a small shared pool
+    private static final int MAX_HYPOTHESIS_THREADS = 4;
+    private static ForkJoinPool hypothesisPool = null;
+
     private int currentTick, startingTick;
     private int currentMovementTick, firstStabilityUpdateTick;
     private int[] timeline;
+    //Answers movement and direction change counts over tick ranges for half space clipping
+    private TimelineMovementIndex movementIndex;
+    private final int[] halfSpacePointChange = new int[StatusState.NUM_VENTS];
+    private final int[] halfSpaceMoveChange = new int[StatusState.NUM_VENTS+1];
+    private BitSet replayEventTicks;
     private int[] identifiedVentTick;
     private StatusState[] identifiedVentStates;
     private TimelineCache[] timelineCaches;
+    private TimelineCache[] speculativeCaches;
+    //Bumped on every added event, retroactive edit or change to shared state that replaying reads
+    private int version, speculativeVersion;
     private int numIdentifiedVents;
     private boolean hasReset = false;
+    private final GameContext context;
+    //Every state the timeline keeps for a half-game comes from here and is reused after the next reset
+    private final StatusStateArena arena = new StatusStateArena();
+    //One arena per rng cache slot for the live caches and another for their speculative copies
+    private StatusStateArena[] cacheArenas = new StatusStateArena[0], speculativeArenas = new StatusStateArena[0];
+    //Scratch state for backtracking vent values
+    private final StatusState backtrackState = new StatusState();
+    //Stability update ticks waiting on an earlier movement update while backtracking, oldest first
+    private final int[] pendingStabilityTicks = new int[VM_GAME_FULL_TIME];
     StatusState initialState;
     StabilityUpdateInfo initialStabInfo;
-    HashMap<Integer, StatusState> tickToMovementVentState;
-    HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState;
+    //Indexed by tick - null where no movement or stability update was recorded
+    StatusState[] tickToMovementVentState;
+    StabilityUpdateInfo[] tickToStabilityUpdateState;
 
-    public VentStatusTimeline() {
+    public VentStatusTimeline(GameContext context) {
+        this.context = context;
         initialize();
     }
     public void initialize() {
         currentTick = 0;
         timeline = new int[VM_GAME_FULL_TIME];
-        tickToMovementVentState = new HashMap<>();
-        tickToStabilityUpdateState = new HashMap<>();
+        movementIndex = new TimelineMovementIndex(timeline);
+        replayEventTicks = new BitSet(VM_GAME_FULL_TIME);
+        tickToMovementVentState = new StatusState[VM_GAME_FULL_TIME];
+        tickToStabilityUpdateState = new StabilityUpdateInfo[VM_GAME_FULL_TIME];
+        //Reset skips itself once it has run so clear the flag first when reused for a new game
+        hasReset = false;
         reset();
         hasReset = false;
     }
     public void reset() {
         if(hasReset) return;
         hasReset = true;
+        //Everything from before the reset came from the arena so drop it before its states are handed out again
+        arena.rewind();
+        Arrays.fill(tickToMovementVentState, null);
+        Arrays.fill(tickToStabilityUpdateState, null);
         firstStabilityUpdateTick = Integer.MAX_VALUE;
         currentMovementTick = startingTick = currentTick;
         numIdentifiedVents = 0;
@@ -74,18 +119,39 @@ public class VentStatusTimeline {
         }
     }
     public void clearCache() {
-        timelineCaches = new TimelineCache[StabilityUpdateInfo.getMaxRNGPossibleSize()];
+        ++version;
+        clearSpeculation();
+        timelineCaches = new TimelineCache[context.getMaxRNGPossibleSize()];
+        if(cacheArenas.length < timelineCaches.length) {
+            cacheArenas = growArenas(cacheArenas, timelineCaches.length);
+            speculativeArenas = growArenas(speculativeArenas, timelineCaches.length);
+        }
         for(int i = 0; i < timelineCaches.length; ++i)
-            timelineCaches[i] = new TimelineCache();
+            timelineCaches[i] = new TimelineCache(1 - i, cacheArenas[i]);
     }
     public void initalizeCache() {
+        ++version;
         for(int i = 0; i < timelineCaches.length; ++i)
             timelineCaches[i].initalize(initialState, startingTick);
     }
+    public void invalidateCache(int tick) {
+        ++version;
+        //The number of rng caches depends on the team size so rebuild if it changed
+        if(timelineCaches.length != context.getMaxRNGPossibleSize()) {
+            clearCache();
+            initalizeCache();
+            return;
+        }
+        //Otherwise only replay from the newest checkpoint before the changed tick
+        for(int i = 0; i < timelineCaches.length; ++i) {
+            if(!timelineCaches[i].isInitialized()) timelineCaches[i].initalize(initialState, startingTick);
+            else timelineCaches[i].rollback(tick, initialState);
+        }
+    }
     public boolean addInitialState(StatusState startingState) {
         //Only add initial state once for pre reset and post reset
         if(initialState != null) return false;
-        initialState = new StatusState(startingState);
+        initialState = arena.acquireCopy(startingState);
         initalizeCache();
         return true;
     }
@@ -94,10 +160,10 @@ public class VentStatusTimeline {
         for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
             if(identifiedVentTick[i] != -1) continue;
             if ((bitState & (1 << i)) != 0) {
-                timeline[currentTick] |= (1 << IDENTIFIED_VENT_FLAG);
+                setEventFlag(currentTick, IDENTIFIED_VENT_FLAG);
                 timeline[currentTick] |= bitState & IDENTIFIED_BIT_MASK;
                 ++numIdentifiedVents;
-                identifiedVentStates[i] = new StatusState(currentState);
+                identifiedVentStates[i] = arena.acquireCopy(currentState);
                 identifiedVentTick[i] = currentTick;
                 ventIndex = i;
             }
@@ -110,44 +176,46 @@ public class VentStatusTimeline {
     private void backtrackFreezeClipAccurateA(StatusState currentState) {
         //Exit if we already reversed this value
         if(identifiedVentTick[3] != -1) return;
-        identifiedVentStates[3] = new StatusState(currentState);
+        ++version;
+        identifiedVentStates[3] = arena.acquireCopy(currentState);
         identifiedVentTick[3] = currentTick;
         //Don't backtrack if the other two vents are already identified
         if(numIdentifiedVents+1 >= 3) return;
         updatePreviousVentValues(identifiedVentStates[3], currentTick);
     }
     private void updatePreviousVentValues(StatusState startingState, int tick) {
-        clearCache();
-        StatusState curState = new StatusState(startingState);
-        LinkedList<Integer> stabilityUpdateTicks = new LinkedList<>();
+        StatusState curState = backtrackState;
+        curState.setEqualTo(startingState);
+        int pendingStart = 0, pendingEnd = 0;
         int numTicksNoMovement = 0, futureMovementTick = Integer.MAX_VALUE;
+        int earliestChangedTick = tick;
         for(int i = tick; i > startingTick; --i) {
             //Exit when there is a chain of missing movement updates
             if(numTicksNoMovement > (VENT_MOVE_TICK_TIME * 2)) break;
+            earliestChangedTick = i;
 
             if((timeline[i] & (1 << STABILITY_UPDATE_FLAG)) != 0) {
                 //If future movement occured within 10 ticks we can process this now
                 if(futureMovementTick - i <= VENT_MOVE_TICK_TIME) {
-                    StabilityUpdateInfo stabilityInfo = tickToStabilityUpdateState.get(i);
+                    StabilityUpdateInfo stabilityInfo = tickToStabilityUpdateState[i];
                     stabilityInfo.updateVentValues(curState);
                     setInitialStabilityUpdateInfo(stabilityInfo);
                 }
                 //otherwise we have to process this during the previous movement update
-                else stabilityUpdateTicks.addLast(i);
+                else pendingStabilityTicks[pendingEnd++] = i;
             }
 
             if((timeline[i] & (1 << MOVEMENT_UPDATE_FLAG)) != 0) {
                 numTicksNoMovement = 0;
                 futureMovementTick = i;
                 //update the future stability state
-                if(!stabilityUpdateTicks.isEmpty()) {
-                    StabilityUpdateInfo stabilityInfo = tickToStabilityUpdateState.get(stabilityUpdateTicks.getFirst());
+                if(pendingStart != pendingEnd) {
+                    StabilityUpdateInfo stabilityInfo = tickToStabilityUpdateState[pendingStabilityTicks[pendingStart++]];
                     stabilityInfo.updateVentValues(curState);
                     setInitialStabilityUpdateInfo(stabilityInfo);
-                    stabilityUpdateTicks.removeFirst();
                 }
                 //update the movement state
-                StatusState movementState = tickToMovementVentState.get(i);
+                StatusState movementState = tickToMovementVentState[i];
                 movementState.setVentsEqualTo(curState);
                 //exit if we can longer reverse the movement
                 int bitMoveState = (timeline[i] & MOVEMENT_BIT_MASK) >> 6;
@@ -165,7 +233,7 @@ public class VentStatusTimeline {
                 changeStateDirection(curState, i);
             }
         }
-        initalizeCache();
+        invalidateCache(earliestChangedTick);
     }
     private void clearMoveSkipEstimatedMove() {
         int minTick = Math.max(startingTick, currentTick - (int)(VENT_MOVE_TICK_TIME * 2.5f));
@@ -187,28 +255,28 @@ public class VentStatusTimeline {
         //Exit if the previous movement tick is after the estimated one
         if(prevMoveTick > prevEstMoveTick) return;
         //remove estimated movement tick was added since a movement tick was skipped
-        timeline[prevEstMoveTick] &= ~(1 << ESTIMATED_MOVEMENT_FLAG);
+        clearEventFlag(prevEstMoveTick, ESTIMATED_MOVEMENT_FLAG);
+        invalidateCache(prevEstMoveTick);
     }
     private void fixPreviousEstimatedMoves() {
-        clearCache();
         int updateTick = currentTick % VENT_MOVE_TICK_TIME;
         for(int i = currentTick-1; i >= currentMovementTick; --i) {
             //Clear estimated movement flag
-            timeline[i] &= ~(1 << ESTIMATED_MOVEMENT_FLAG);
+            clearEventFlag(i, ESTIMATED_MOVEMENT_FLAG);
             if(i % VENT_MOVE_TICK_TIME == updateTick)
                 addEstimatedMovementTick(i);
         }
-        initalizeCache();
+        invalidateCache(currentMovementTick);
     }
 
     public void addDirectionChangeTick(int bitState) {
         timeline[currentTick] |= (bitState & DIRECTION_CHANGED_BIT_MASK);
-        timeline[currentTick] |= (1 << DIRECTION_CHANGED_FLAG);
+        setEventFlag(currentTick, DIRECTION_CHANGED_FLAG);
     }
     public void addEarthquakeEventTick() {
-        timeline[currentTick] |= (1 << EARTHQUAKE_EVENT_FLAG);
+        setEventFlag(currentTick, EARTHQUAKE_EVENT_FLAG);
         //Clear estimated movement flag
-        timeline[currentTick] &= ~(1 << ESTIMATED_MOVEMENT_FLAG);
+        clearEventFlag(currentTick, ESTIMATED_MOVEMENT_FLAG);
     }
     public void addMovementTick(StatusState currentState, int movementBitState) {
         //A movement tick cannot occur on or before a starting tick
@@ -234,181 +302,332 @@ public class VentStatusTimeline {
         //Estimated movements cannot occur same tick as an earthquake
         if((timeline[tick] & (1 << EARTHQUAKE_EVENT_FLAG)) != 0)
             return false;
-        timeline[tick] |= (1 << ESTIMATED_MOVEMENT_FLAG);
+        setEventFlag(tick, ESTIMATED_MOVEMENT_FLAG);
         return true;
     }
     private void checkHalfSpace(int tick) {
-        if(!tickToStabilityUpdateState.containsKey(tick)) return;
+        if(tickToStabilityUpdateState[tick] == null) return;
         //Do this only if one vent is known
-        int numKnownVents = tickToStabilityUpdateState.get(tick).getStabilityUpdateState().getNumIdentifiedVents();
+        int numKnownVents = tickToStabilityUpdateState[tick].getStabilityUpdateState().getNumIdentifiedVents();
         if(numKnownVents != 1) return;
 
         //Find a valid previous change
-        int currentChange = tickToStabilityUpdateState.get(tick).getInitialChange();
+        int currentChange = tickToStabilityUpdateState[tick].getInitialChange();
         int endingTick = Math.max(tick - (STABILITY_UPDATE_TICK_TIME*2),startingTick);
         for(int i = tick - STABILITY_UPDATE_TICK_TIME; i >= endingTick; i -= STABILITY_UPDATE_TICK_TIME) {
-            if(!tickToStabilityUpdateState.containsKey(i)) continue;
+            if(tickToStabilityUpdateState[i] == null) continue;
 
-            int change = tickToStabilityUpdateState.get(i).getInitialChange();
-            int prevKnownVents = tickToStabilityUpdateState.get(i).getStabilityUpdateState().getNumIdentifiedVents();
+            int change = tickToStabilityUpdateState[i].getInitialChange();
+            int prevKnownVents = tickToStabilityUpdateState[i].getStabilityUpdateState().getNumIdentifiedVents();
 
             //Ensure these two updates have the same number of known vents
             if(numKnownVents != prevKnownVents)
                 continue;
 
             //Determine each vents contribution and direction changes
-            int[] pointChange = new int[StatusState.NUM_VENTS];
-            int[] moveChange = new int[StatusState.NUM_VENTS+1];
-            if(!getPointContribution(i, tick, pointChange, moveChange))
+            Arrays.fill(halfSpaceMoveChange, 0);
+            if(!getPointContribution(i, tick, halfSpacePointChange, halfSpaceMoveChange))
                 break;
 
-            int timeframeSize = (tick - i) / STABILITY_UPDATE_TICK_TIME;
-            if(completeHalfSpace(tick, timeframeSize,currentChange - change, pointChange, moveChange))
+            if(completeHalfSpace(tick, currentChange - change, halfSpacePointChange, halfSpaceMoveChange))
                 break;
         }
     }
     public StatusState getTimelinePredictionState() {
+        if(initialStabInfo == null) return getTimelinePredictionState(context.getMinRNGVariation());
+        return getTimelinePredictionState(initialStabInfo.getRNGUpdateMod());
+    }
+    public StatusState getTimelinePredictionState(int rngMod) {
+        //A larger team has more rng mods than the caches were built for
+        if(timelineCaches.length != context.getMaxRNGPossibleSize()) invalidateCache(startingTick);
         //Get the current cache to use
-        TimelineCache cache;
-        if(initialStabInfo == null) {
-            cache = timelineCaches[(-StabilityUpdateInfo.getMinRNGVariation())+1];
-        }
-        else cache = timelineCaches[(-initialStabInfo.getRNGUpdateMod())+1];
-
-        for(; cache.i <= currentTick; ++cache.i) {
-            if((timeline[cache.i] & (1 << IDENTIFIED_VENT_FLAG)) != 0) {
-                int idFlags = timeline[cache.i] & IDENTIFIED_BIT_MASK;
-                Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
-                cache.mostRecentIdentifyTick = cache.i;
-                while (iterator.hasNext()) {
-                    StatusState curState = iterator.next();
-                    if ((idFlags & 1) != 0) {
-                        curState.setVentEqualTo(identifiedVentStates[0], 0);
-                    }
-                    if ((idFlags & 2) != 0) {
-                        curState.setVentEqualTo(identifiedVentStates[1], 1);
-                    }
-                    if ((idFlags & 4) != 0) {
-                        curState.setVentEqualTo(identifiedVentStates[2], 2);
-                    }
-                }
+        TimelineCache cache = timelineCaches[1 - rngMod];
+        //Take over a speculative replay if nothing it read has changed since
+        if(speculativeCaches != null && speculativeCaches[1 - rngMod] != null) {
+            TimelineCache speculativeCache = speculativeCaches[1 - rngMod];
+            speculativeCaches[1 - rngMod] = null;
+            if(!speculativeCache.isBlocked && speculativeVersion == version) {
+                speculativeCache.acceptSpeculation();
+                cache = timelineCaches[1 - rngMod] = speculativeCache;
+                //The replaced cache's arena is free for the next speculative copy
+                StatusStateArena cacheArena = cacheArenas[1 - rngMod];
+                cacheArenas[1 - rngMod] = speculativeArenas[1 - rngMod];
+                speculativeArenas[1 - rngMod] = cacheArena;
             }
-            if((timeline[cache.i] & (1 << ESTIMATED_MOVEMENT_FLAG)) != 0) {
-                int mostRecentEvent = Math.max(cache.mostRecentIdentifyTick, cache.previousMovementTick);
-                boolean isValueClipped = false, isConsecMoveSkip = (cache.i - mostRecentEvent > VENT_MOVE_TICK_TIME);
-                StatusState newPossibility = new StatusState(cache.possibleStates.getLast());
-
-                //Don't do any freeze clipping unless two movements were skipped
-                if(isConsecMoveSkip) isValueClipped = newPossibility.doFreezeClipping(0);
-
-                //Only set if value wasnt freeze clipped
-                if(!isValueClipped) {
-                    handleSameTickDirectionChangeMovement(newPossibility, cache.i);
-                    cache.possibleStates.addLast(newPossibility);
+        }
+
+        //Quiet ticks cannot change a settled prediction so skip replaying them
+        if(!isCacheCurrent(cache)) {
+            advanceCache(cache);
+            cache.settle(version, context);
+        }
+        //Backtracking can roll the cache back and reuse its states so hold onto a copy of the current prediction
+        StatusState predictedState = cache.predictedState;
+        if(predictedState.getVents()[0].isFreezeClipAccurate() && identifiedVentTick[3] == -1) {
+            predictedState = arena.acquireCopy(predictedState);
+            backtrackFreezeClipAccurateA(predictedState);
+        }
+        return predictedState;
+    }
+    public StatusState getCurrentPredictionState() {
+        return StabilityUpdateInfo.getPredictionState(initialStabInfo, this);
+    }
+    public void speculatePredictionStates(int[] rngMods) {
+        clearSpeculation();
+        ForkJoinPool pool = getHypothesisPool();
+        if(pool == null) return;
+
+        //Replay copies of every cache that is behind so the real caches stay untouched
+        List<Callable<TimelineCache>> replays = new ArrayList<>();
+        for(int rngMod : rngMods) {
+            TimelineCache cache = timelineCaches[1 - rngMod];
+            if(!cache.isInitialized() || isCacheCurrent(cache)) continue;
+            TimelineCache copy = cache.makeSpeculativeCopy(speculativeArenas[1 - rngMod]);
+            replays.add(() -> {
+                advanceCache(copy);
+                return copy;
+            });
+        }
+        //A single replay is no faster off the main thread
+        if(replays.size() < 2) return;
+
+        //Workers only read shared state so build anything lazy beforehand
+        if(initialStabInfo != null) initialStabInfo.prepareHypothesisStates();
+        TimelineCache[] caches = new TimelineCache[timelineCaches.length];
+        try {
+            for(Future<TimelineCache> result : pool.invokeAll(replays)) {
+                try {
+                    TimelineCache copy = result.get();
+                    caches[1 - copy.rngMod] = copy;
+                } catch(ExecutionException e) {
+                    //This mod will be replayed on the main thread instead
+                    log.warn("Speculative timeline replay failed", e.getCause());
                 }
-                //Set predicted state to the new up to date possibility
-                //If two consecutive movements are skipped just update the predicted state
-                if(isConsecMoveSkip) cache.predictedState = cache.possibleStates.getLast();
             }
-            if((timeline[cache.i] & (1 << MOVEMENT_UPDATE_FLAG)) != 0) {
-                cache.previousMovementTick = cache.i;
-                int moveBitState = timeline[cache.i] & MOVEMENT_BIT_MASK;
-                moveBitState >>= 6;
-                Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
-                while (iterator.hasNext()) {
-                    StatusState curState = iterator.next();
-                    //Remove possibility if a value was clipped
-                    boolean isValueClipped = curState.doFreezeClipping(moveBitState);
-                    if(cache.possibleStates.size() > 1 && isValueClipped) {
-                        iterator.remove();
-                        continue;
-                    }
-
-                    //Update our estimated vent values
-                    handleSameTickDirectionChangeMovement(curState, cache.i);
-                    syncWithMovementState(curState, cache.i);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        speculativeCaches = caches;
+        speculativeVersion = version;
+    }
+    public void clearSpeculation() { speculativeCaches = null; }
+    public int getNumReplayedTicks() {
+        //How far every rng cache has replayed since the timeline last started
+        int ticks = 0;
+        for(TimelineCache cache : timelineCaches) {
+            if(cache.isInitialized()) ticks += cache.i - cache.startingTick;
+        }
+        return ticks;
+    }
+    public int getNumPossibleStates() {
+        int size = 0;
+        for(TimelineCache cache : timelineCaches) {
+            if(cache.isInitialized()) size += cache.possibleStates.size();
+        }
+        return size;
+    }
+
+    //Helpers
+    private static synchronized ForkJoinPool getHypothesisPool() {
+        int parallelism = Math.min(MAX_HYPOTHESIS_THREADS, Runtime.getRuntime().availableProcessors());
+        if(parallelism < 2) return null;
+        if(hypothesisPool == null) hypothesisPool = new ForkJoinPool(parallelism);
+        return hypothesisPool;
+    }
+    private static StatusStateArena[] growArenas(StatusStateArena[] arenas, int size) {
+        StatusStateArena[] grown = Arrays.copyOf(arenas, size);
+        for(int i = arenas.length; i < size; ++i) grown[i] = new StatusStateArena();
+        return grown;
+    }
+    private boolean isCacheCurrent(TimelineCache cache) {
+        if(cache.i > currentTick) return true;
+        return cache.isSettled(version, context.getNumPlayers());
+    }
+    private void advanceCache(TimelineCache cache) {
+        while(cache.i <= currentTick && !cache.isBlocked) {
+            cache.saveCheckpoint();
+            if(!replayEventTicks.get(cache.i)) {
+                //Jump straight to the next event or checkpoint tick
+                int endTick = Math.min(currentTick + 1, cache.getNextCheckpointTick());
+                int nextEventTick = replayEventTicks.nextSetBit(cache.i);
+                if(nextEventTick != -1) endTick = Math.min(endTick, nextEventTick);
+                skipEmptyTicks(cache, endTick);
+                continue;
+            }
+            replayEventTick(cache);
+            updatePredictedStability(cache);
+            ++cache.i;
+        }
+    }
+    private void replayEventTick(TimelineCache cache) {
+        if((timeline[cache.i] & (1 << IDENTIFIED_VENT_FLAG)) != 0) {
+            int idFlags = timeline[cache.i] & IDENTIFIED_BIT_MASK;
+            Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
+            cache.mostRecentIdentifyTick = cache.i;
+            while (iterator.hasNext()) {
+                StatusState curState = iterator.next();
+                if ((idFlags & 1) != 0) {
+                    curState.setVentEqualTo(identifiedVentStates[0], 0);
+                }
+                if ((idFlags & 2) != 0) {
+                    curState.setVentEqualTo(identifiedVentStates[1], 1);
                 }
-                cache.predictedState = cache.possibleStates.getLast();
+                if ((idFlags & 4) != 0) {
+                    curState.setVentEqualTo(identifiedVentStates[2], 2);
+                }
+            }
+        }
+        if((timeline[cache.i] & (1 << ESTIMATED_MOVEMENT_FLAG)) != 0) {
+            int mostRecentEvent = Math.max(cache.mostRecentIdentifyTick, cache.previousMovementTick);
+            boolean isValueClipped = false, isConsecMoveSkip = (cache.i - mostRecentEvent > VENT_MOVE_TICK_TIME);
+            StatusState newPossibility = cache.arena.acquireCopy(cache.possibleStates.getLast());
+
+            //Don't do any freeze clipping unless two movements were skipped
+            if(isConsecMoveSkip) isValueClipped = newPossibility.doFreezeClipping(0);
+
+            //Only set if value wasnt freeze clipped
+            if(!isValueClipped) {
+                handleSameTickDirectionChangeMovement(newPossibility, cache.i, cache.arena);
+                cache.possibleStates.addLast(newPossibility);
             }
-            if((timeline[cache.i] & (1 << STABILITY_UPDATE_FLAG)) != 0) {
-                Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
-                StabilityUpdateInfo stabilityInfo = tickToStabilityUpdateState.get(cache.i);
-                int initalRNGMod = initialStabInfo == null ?
-                        StabilityUpdateInfo.getMinRNGVariation()
-                        : initialStabInfo.getRNGUpdateMod();
-                while (iterator.hasNext()) {
-                    StatusState curState = iterator.next();
-                    if(stabilityInfo.isValid()) {
-                        //Use stability updates to set/narrow our possible values
-                        if (stabilityInfo == initialStabInfo) {
-                            if(curState.getVents()[0].isFreezeClipAccurate()) initialStabInfo.updateVentValues(curState);
-                            curState.alignPredictedRangesWith(initialStabInfo.getStabilityUpdateState());
-                        } else stabilityInfo.updatePredictedState(curState, cache.prevStabInfo, initalRNGMod);
-                    }
-
-                    if((timeline[cache.i] & (1 << HALF_SPACE_COMPLETED_FLAG)) != 0) {
-                        int ventsToClip = (timeline[cache.i] & HALF_SPACE_VENTS_BIT_MASK) >> (HALF_SPACE_COMPLETED_FLAG+1);
-                        int clipInfo = (timeline[cache.i] & HALF_SPACE_CLIP_BIT_MASK) >> (HALF_SPACE_COMPLETED_FLAG+4);
-                        curState.doHalfSpaceClipping(ventsToClip, clipInfo);
-                    }
+            //Set predicted state to the new up to date possibility
+            //If two consecutive movements are skipped just update the predicted state
+            if(isConsecMoveSkip) cache.predictedState = cache.possibleStates.getLast();
+        }
+        if((timeline[cache.i] & (1 << MOVEMENT_UPDATE_FLAG)) != 0) {
+            cache.previousMovementTick = cache.i;
+            int moveBitState = timeline[cache.i] & MOVEMENT_BIT_MASK;
+            moveBitState >>= 6;
+            Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
+            while (iterator.hasNext()) {
+                StatusState curState = iterator.next();
+                //Remove possibility if a value was clipped
+                boolean isValueClipped = curState.doFreezeClipping(moveBitState);
+                if(cache.possibleStates.size() > 1 && isValueClipped) {
+                    iterator.remove();
+                    continue;
                 }
 
-                removeInvalidPossibilities(cache.possibleStates);
-                cache.predictedState = cache.possibleStates.getLast();
-                cache.prevStabInfo = stabilityInfo;
-                cache.numTicksNegativePredictedStability = 0;
+                //Update our estimated vent values
+                handleSameTickDirectionChangeMovement(curState, cache.i, cache.arena);
+                syncWithMovementState(curState, cache.i);
             }
-            if((timeline[cache.i] & (1 << DIRECTION_CHANGED_FLAG)) != 0) {
-                //Change our direction if it occured this tick
-                Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
-                while (iterator.hasNext()) {
-                    changeStateDirection(iterator.next(), cache.i);
+            cache.predictedState = cache.possibleStates.getLast();
+        }
+        if((timeline[cache.i] & (1 << STABILITY_UPDATE_FLAG)) != 0) {
+            Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
+            StabilityUpdateInfo stabilityInfo = tickToStabilityUpdateState[cache.i];
+            if(stabilityInfo.isValid() && isFreezeClipAccurateA(cache.possibleStates)) {
+                //Accurate values are written back to the shared stability info
+                if(cache.isSpeculative) {
+                    cache.isBlocked = true;
+                    return;
                 }
+                ++version;
             }
+            while (iterator.hasNext()) {
+                StatusState curState = iterator.next();
+                if(stabilityInfo.isValid()) {
+                    //Use stability updates to set/narrow our possible values
+                    if (stabilityInfo == initialStabInfo) {
+                        if(curState.getVents()[0].isFreezeClipAccurate()) initialStabInfo.updateVentValues(curState);
+                        curState.alignPredictedRangesWith(initialStabInfo.getHypothesisState(cache.rngMod));
+                    } else stabilityInfo.updatePredictedState(curState, cache.prevStabInfo, cache.rngMod, cache.arena);
+                }
 
-            int predictedChange = cache.predictedState.getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario.WORST_CASE);
-            if(predictedChange < StabilityUpdateInfo.getMinRNGVariation()-1)
-                ++cache.numTicksNegativePredictedStability;
-            else cache.numTicksNegativePredictedStability = 0;
+                if((timeline[cache.i] & (1 << HALF_SPACE_COMPLETED_FLAG)) != 0) {
+                    int ventsToClip = (timeline[cache.i] & HALF_SPACE_VENTS_BIT_MASK) >> (HALF_SPACE_COMPLETED_FLAG+1);
+                    int clipInfo = (timeline[cache.i] & HALF_SPACE_CLIP_BIT_MASK) >> (HALF_SPACE_COMPLETED_FLAG+4);
+                    curState.doHalfSpaceClipping(ventsToClip, clipInfo);
+                }
+            }
 
-            //Attempt to clip invalid predicted ranges
-            //This scenario occurs when stability stays 100% for extended time
-            if(cache.prevStabInfo != null) {
-                if (cache.numTicksNegativePredictedStability < STABILITY_UPDATE_TICK_TIME * 2) continue;
+            removeInvalidPossibilities(cache.possibleStates);
+            cache.predictedState = cache.possibleStates.getLast();
+            cache.prevStabInfo = stabilityInfo;
+            cache.numTicksNegativePredictedStability = 0;
+        }
+        if((timeline[cache.i] & (1 << DIRECTION_CHANGED_FLAG)) != 0) {
+            //Change our direction if it occured this tick
+            Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
+            while (iterator.hasNext()) {
+                changeStateDirection(iterator.next(), cache.i);
+            }
+        }
+    }
+    private void updatePredictedStability(TimelineCache cache) {
+        int predictedChange = cache.predictedState.getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario.WORST_CASE, context);
+        if(predictedChange < context.getMinRNGVariation()-1)
+            ++cache.numTicksNegativePredictedStability;
+        else cache.numTicksNegativePredictedStability = 0;
+
+        //Attempt to clip invalid predicted ranges
+        //This scenario occurs when stability stays 100% for extended time
+        if(cache.prevStabInfo == null) return;
+        if(cache.numTicksNegativePredictedStability < STABILITY_UPDATE_TICK_TIME * 2) return;
+        int ticksSinceLastUpdate = cache.i - cache.prevStabInfo.getTickTimeStamp();
+        if(ticksSinceLastUpdate < STABILITY_UPDATE_TICK_TIME * 2) return;
+        clipPredictedStabilityMismatch(cache);
+    }
+    private void skipEmptyTicks(TimelineCache cache, int endTick) {
+        //Predicted states only change on event ticks or when a stability mismatch is clipped
+        while(cache.i < endTick) {
+            int predictedChange = cache.predictedState.getFutureStabilityChange(UltimateVolcanicMineConfig.PredictionScenario.WORST_CASE, context);
+            if(predictedChange >= context.getMinRNGVariation()-1) {
+                cache.numTicksNegativePredictedStability = 0;
+                cache.i = endTick;
+                return;
+            }
 
-                int ticksSinceLastUpdate = cache.i - cache.prevStabInfo.getTickTimeStamp();
-                if (ticksSinceLastUpdate < STABILITY_UPDATE_TICK_TIME * 2) continue;
+            //Find the first tick that meets the requirements to clip
+            int clipTick = endTick;
+            if(cache.prevStabInfo != null) {
+                int negativeStabilityTick = cache.i + (STABILITY_UPDATE_TICK_TIME * 2) - cache.numTicksNegativePredictedStability - 1;
+                int stabilityUpdateTick = cache.prevStabInfo.getTickTimeStamp() + (STABILITY_UPDATE_TICK_TIME * 2);
+                clipTick = Math.max(cache.i, Math.max(negativeStabilityTick, stabilityUpdateTick));
+            }
+            if(clipTick >= endTick) {
+                cache.numTicksNegativePredictedStability += endTick - cache.i;
+                cache.i = endTick;
+                return;
+            }
 
-                //Check and see if we meet requirements to display
-                //a predicted stability change
-                Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
-                while (iterator.hasNext()) {
-                    StatusState curState = iterator.next();
-                    curState.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation() - 1);
-                }
+            cache.numTicksNegativePredictedStability += clipTick - cache.i + 1;
+            cache.i = clipTick;
+            boolean isValueClipped = clipPredictedStabilityMismatch(cache);
+            ++cache.i;
+            //Nothing will be clipped on the remaining ticks if nothing changed on this one
+            if(!isValueClipped) {
+                cache.numTicksNegativePredictedStability += endTick - cache.i;
+                cache.i = endTick;
             }
         }
-        if(cache.predictedState.getVents()[0].isFreezeClipAccurate())
-            backtrackFreezeClipAccurateA(cache.predictedState);
-        return cache.predictedState;
     }
-    public StatusState getCurrentPredictionState() {
-        return StabilityUpdateInfo.getPredictionState(initialStabInfo, this);
+    private boolean clipPredictedStabilityMismatch(TimelineCache cache) {
+        //Check and see if we meet requirements to display
+        //a predicted stability change
+        boolean isValueClipped = false;
+        Iterator<StatusState> iterator = cache.possibleStates.descendingIterator();
+        while (iterator.hasNext()) {
+            StatusState curState = iterator.next();
+            isValueClipped |= curState.clipPredictedStabilityMismatch(context.getMinRNGVariation() - 1);
+        }
+        return isValueClipped;
     }
-
-    //Helpers
     private void addNewMovementTickState(int tick, StatusState currentState, int moveState) {
-        StatusState newState = new StatusState(currentState);
-        tickToMovementVentState.put(tick, newState);
-        timeline[tick] |= (1 << MOVEMENT_UPDATE_FLAG);
+        StatusState newState = arena.acquireCopy(currentState);
+        tickToMovementVentState[tick] = newState;
+        setEventFlag(tick, MOVEMENT_UPDATE_FLAG);
         timeline[tick] |= moveState;
     }
     private void addNewStabilityUpdateTickState(int tick, StatusState currentState, int change) {
-        StabilityUpdateInfo newInfo = new StabilityUpdateInfo(currentState, tick, change);
-        tickToStabilityUpdateState.put(currentTick, newInfo);
-        timeline[tick] |= (1 << STABILITY_UPDATE_FLAG);
+        StabilityUpdateInfo newInfo = new StabilityUpdateInfo(currentState, tick, change, context, arena);
+        tickToStabilityUpdateState[currentTick] = newInfo;
+        setEventFlag(tick, STABILITY_UPDATE_FLAG);
         setInitialStabilityUpdateInfo(newInfo);
-//        checkHalfSpace(currentTick);
+        //Cheap enough to run every update now that movements are indexed
+        checkHalfSpace(currentTick);
     }
     private void setInitialStabilityUpdateInfo(StabilityUpdateInfo info) {
         firstStabilityUpdateTick = Math.min(firstStabilityUpdateTick, currentTick);
@@ -419,6 +638,18 @@ public class VentStatusTimeline {
         else if (initialStabInfo.getTickTimeStamp() > info.getTickTimeStamp())
             initialStabInfo = info;
     }
+    private void setEventFlag(int tick, int flag) {
+        ++version;
+        if(flag == MOVEMENT_UPDATE_FLAG || flag == DIRECTION_CHANGED_FLAG) movementIndex.invalidate(tick);
+        timeline[tick] |= (1 << flag);
+        if(((1 << flag) & REPLAY_EVENT_MASK) != 0) replayEventTicks.set(tick);
+    }
+    private void clearEventFlag(int tick, int flag) {
+        ++version;
+        if(flag == MOVEMENT_UPDATE_FLAG || flag == DIRECTION_CHANGED_FLAG) movementIndex.invalidate(tick);
+        timeline[tick] &= ~(1 << flag);
+        if((timeline[tick] & REPLAY_EVENT_MASK) == 0) replayEventTicks.clear(tick);
+    }
     private void changeStateDirection(StatusState state, int tick) {
         int directionFlags = timeline[tick] & DIRECTION_CHANGED_BIT_MASK;
         directionFlags >>= 3;
@@ -426,20 +657,22 @@ public class VentStatusTimeline {
         if((directionFlags & 2) != 0) state.getVents()[1].flipDirection();
         if((directionFlags & 4) != 0) state.getVents()[2].flipDirection();
     }
-    private void handleSameTickDirectionChangeMovement(StatusState curState, int tick) {
+    private void handleSameTickDirectionChangeMovement(StatusState curState, int tick, StatusStateArena tempArena) {
         if((timeline[tick] & (1 << DIRECTION_CHANGED_FLAG)) != 0) {
             //It's possible for the directional change to occur both
             //before and after this movement update; assume both possibilities
-            StatusState newDirState = new StatusState(curState);
+            int mark = tempArena.mark();
+            StatusState newDirState = tempArena.acquireCopy(curState);
             changeStateDirection(newDirState, tick);
             newDirState.updateVentMovement();
             curState.updateVentMovement();
             curState.mergePredictedRangesWith(newDirState);
+            tempArena.release(mark);
         }
         else curState.updateVentMovement();
     }
     private void syncWithMovementState(StatusState state, int tick) {
-        StatusState moveState = tickToMovementVentState.get(tick);
+        StatusState moveState = tickToMovementVentState[tick];
         //Check and see if we can sync with an accurate freeze clipped value
         boolean accurateFreezeClipSync = (identifiedVentTick[3] != -1 && identifiedVentTick[3] >= tick);
         for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
@@ -464,6 +697,12 @@ public class VentStatusTimeline {
         }
         return false;
     }
+    private boolean isFreezeClipAccurateA(LinkedList<StatusState> possibleStates) {
+        for(StatusState state : possibleStates) {
+            if(state.getVents()[0].isFreezeClipAccurate()) return true;
+        }
+        return false;
+    }
     private void removeInvalidPossibilities(LinkedList<StatusState> possibleStates) {
         //Remove all invalid possibilities - always keep 1 state even if invalid
         Iterator<StatusState> iterator = possibleStates.descendingIterator();
@@ -475,54 +714,39 @@ public class VentStatusTimeline {
     }
     private boolean getPointContribution(int startTick, int endTick, int[] pointChange, int[] moveChange) {
         //Exit if starting stability update doesnt exist
-        if(!tickToStabilityUpdateState.containsKey(startTick)) return false;
+        if(tickToStabilityUpdateState[startTick] == null) return false;
 
-        //Get our starting points
-        StatusState startState = tickToStabilityUpdateState.get(startTick).getStabilityUpdateState();
-        int[] startingPoints = new int[StatusState.NUM_VENTS], endingPoints = new int[StatusState.NUM_VENTS];
-        for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
-            if(!startState.getVents()[i].isIdentified())
-                endingPoints[i] = startingPoints[i] = Integer.MAX_VALUE;
-            else endingPoints[i] = startingPoints[i] = VentStatus.getStabilityInfluence(startState.getVents()[i].getActualValue());
-        }
-
-        int directionState = 0, numMovementUpdates = 0;
-        for(int i = startTick; i <= endTick; ++i) {
-            //Keep track of directional state to ensure proper half space clipping
-            if((timeline[i] & (1 << DIRECTION_CHANGED_FLAG)) != 0) {
-                int directionFlags = timeline[i] & DIRECTION_CHANGED_BIT_MASK;
-                directionFlags >>= 3;
-                if((directionFlags & 1) != 0) directionState |= 1;
-                if((directionFlags & 2) != 0) directionState |= 2;
-                if((directionFlags & 4) != 0) directionState |= 4;
-            }
-
-            //Update ending points
-            if((timeline[i] & (1 << MOVEMENT_UPDATE_FLAG)) != 0) {
-                StatusState moveState = tickToMovementVentState.get(i);
-                for(int j = 0; j < StatusState.NUM_VENTS; ++j) {
-                    if(!moveState.getVents()[j].isIdentified())
-                        endingPoints[j] = Integer.MAX_VALUE;
-                    else endingPoints[j] = VentStatus.getStabilityInfluence(moveState.getVents()[j].getActualValue());
-                }
-                //Keep track of how long each vent have been facing a specific direction
-                moveChange[0] = ++numMovementUpdates;
-            }
-        }
+        //Points only depend on the newest movement update in the range
+        StatusState startState = tickToStabilityUpdateState[startTick].getStabilityUpdateState();
+        int endMovementTick = movementIndex.getLastMovementTick(startTick, endTick);
+        StatusState endState = endMovementTick == -1 ? startState : tickToMovementVentState[endMovementTick];
+        //Keep track of how long each vent have been facing a specific direction
+        moveChange[0] = movementIndex.getNumMovements(startTick, endTick);
 
+        boolean isDirectionChanged = false;
         for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
-            if(startingPoints[i] == Integer.MAX_VALUE)
+            if(!startState.getVents()[i].isIdentified()) {
                 pointChange[i] = Integer.MAX_VALUE;
-            else {
-                pointChange[i] = endingPoints[i] - startingPoints[i];
-                directionState &= ~(1 << i);
+                //Keep track of directional state to ensure proper half space clipping
+                isDirectionChanged |= movementIndex.hasDirectionChanged(i, startTick, endTick);
+                continue;
             }
+            int startingPoints = VentStatus.getStabilityInfluence(startState.getVents()[i].getActualValue());
+            int endingPoints = Integer.MAX_VALUE;
+            if(endState.getVents()[i].isIdentified())
+                endingPoints = VentStatus.getStabilityInfluence(endState.getVents()[i].getActualValue());
+            pointChange[i] = endingPoints - startingPoints;
         }
-        return directionState == 0;
+        return !isDirectionChanged;
+    }
+    private int getMaxSingleVentPointChange(int numMovementUpdates) {
+        //A vent moves at most the base rate each movement update and the two rng rolls can differ by the rest
+        int maxPointsPerMove = (int)Math.ceil(VentStatus.BASE_MOVE_RATE * VentStatus.VENT_STABILITY_WEIGHT / VentStatus.PERFECT_VENT_VALUE);
+        return numMovementUpdates * maxPointsPerMove + context.getMaxRNGPossibleSize() - 1;
     }
-    private boolean completeHalfSpace(int tick, int timeframeSize, int changeDiff, int[] pointChange, int[] moveChange) {
+    private boolean completeHalfSpace(int tick, int changeDiff, int[] pointChange, int[] moveChange) {
         //Make sure change cannot be influenced by rng
-        if(Math.abs(changeDiff) < StabilityUpdateInfo.getMaxRNGPossibleSize())
+        if(Math.abs(changeDiff) < context.getMaxRNGPossibleSize())
             return false;
 
         //Get influence of the two missing vents
@@ -554,7 +778,7 @@ public class VentStatusTimeline {
             return false;
         } else {
             //Both missing vents must have increased or decreased change
-            if(Math.abs(changeDiff) <= timeframeSize) return false;
+            if(Math.abs(changeDiff) <= getMaxSingleVentPointChange(moveChange[0])) return false;
 
             if(changeDiff < 0) {
                 //1 placed for downward clipping trend
@@ -571,14 +795,27 @@ public class VentStatusTimeline {
     public boolean isHasReset() { return hasReset; }
     public int getCurrentTick() { return currentTick; }
     public int getCurrentStartingTick() {return startingTick;}
+    public int getCurrentMovementTick() { return currentMovementTick; }
+    public int getFirstStabilityUpdateTick() { return firstStabilityUpdateTick; }
     public int getNumIdentifiedVents() { return numIdentifiedVents; }
+    public int getVersion() { return version; }
     public boolean hasEventOccuredThisTick() { return timeline[currentTick] != 0; }
     public final int[] getTimeline() { return timeline; }
+    public int getNextEventTick(int flag, int fromTick) {
+        //Replay only walks the combined replay ticks so single flags are looked up from the timeline itself
+        for(int tick = fromTick; tick < VM_GAME_FULL_TIME; ++tick) {
+            if((timeline[tick] & (1 << flag)) != 0) return tick;
+        }
+        return -1;
+    }
     public final int[] getIdentifiedVentTicks() { return identifiedVentTick; }
     public final StatusState[] getIdentifiedVentStates() { return identifiedVentStates; }
     public final StatusState getInitialState() { return initialState; }
-    public final HashMap<Integer, StatusState> getMovementVentStates() { return tickToMovementVentState; }
-    public final HashMap<Integer, StabilityUpdateInfo> getStabilityUpdateStates() { return tickToStabilityUpdateState; }
+    public final StatusState[] getMovementVentStates() { return tickToMovementVentState; }
+    public final StabilityUpdateInfo[] getStabilityUpdateStates() { return tickToStabilityUpdateState; }
+    public final StatusState getMovementVentState(int tick) { return tickToMovementVentState[tick]; }
+    public final StabilityUpdateInfo getStabilityUpdateInfo(int tick) { return tickToStabilityUpdateState[tick]; }
+    public final GameContext getContext() { return context; }
 
     //Modifiers
     public void updateTick() { ++currentTick; }
@@ -0,0 +1,37 @@
+package com.ultimatevm;
+
+import static com.ultimatevm.StatusState.NUM_VENTS;
+
+public class VentTextCache {
+    //Composed HUD text for each vent - only rebuilt when the shown ranges or the widget prefix change
+    private static final int PREFIX_LENGTH = 3;
+
+    private final String[] texts = new String[NUM_VENTS];
+    private final int[][] bounds = new int[NUM_VENTS][4];
+
+    public String getVentStatusText(int index, VentStatus vent, String startingText) {
+        if(vent.isIdentified() || !vent.isRangeDefined()) return startingText;
+        String text = texts[index];
+        if(text == null || !startingText.regionMatches(0, text, 0, PREFIX_LENGTH) || !isSameRange(bounds[index], vent)) {
+            text = VentStatusPredicter.getVentStatusText(vent, startingText);
+            setRange(bounds[index], vent);
+            texts[index] = text;
+        }
+        return text;
+    }
+    public void clear() {
+        for(int i = 0; i < NUM_VENTS; ++i) texts[i] = null;
+    }
+
+    //Helpers
+    private static boolean isSameRange(int[] range, VentStatus vent) {
+        return range[0] == vent.getLowerBoundStart() && range[1] == vent.getLowerBoundEnd() &&
+                range[2] == vent.getUpperBoundStart() && range[3] == vent.getUpperBoundEnd();
+    }
+    private static void setRange(int[] range, VentStatus vent) {
+        range[0] = vent.getLowerBoundStart();
+        range[1] = vent.getLowerBoundEnd();
+        range[2] = vent.getUpperBoundStart();
+        range[3] = vent.getUpperBoundEnd();
+    }
+}
@@ -0,0 +1,87 @@
+package com.ultimatevm;
+
+import net.runelite.api.Client;
+import net.runelite.api.widgets.Widget;
+
+public class WidgetTextWriter
+{
+	//Desired text for each HUD widget is collected from every handler and written at most once per frame
+	private static final int MAX_PENDING_WIDGETS = 8;
+
+	private final Client client;
+	private final int[] componentIds = new int[MAX_PENDING_WIDGETS];
+	private final String[] pendingTexts = new String[MAX_PENDING_WIDGETS];
+	private int numPending;
+
+	public WidgetTextWriter(Client client)
+	{
+		this.client = client;
+	}
+
+	public String getText(int componentId)
+	{
+		//Pending text wins so later writers build on what will be shown
+		int index = indexOf(componentId);
+		if (index >= 0)
+		{
+			return pendingTexts[index];
+		}
+
+		Widget widget = client.getWidget(componentId);
+		return widget == null ? null : widget.getText();
+	}
+
+	public void setText(int componentId, String text)
+	{
+		int index = indexOf(componentId);
+		if (index < 0)
+		{
+			if (numPending == MAX_PENDING_WIDGETS)
+			{
+				flush();
+			}
+			index = numPending++;
+			componentIds[index] = componentId;
+		}
+		pendingTexts[index] = text;
+	}
+
+	public int flush()
+	{
+		//Widgets already showing the text are left alone
+		int numWritten = 0;
+		for (int i = 0; i < numPending; ++i)
+		{
+			Widget widget = client.getWidget(componentIds[i]);
+			if (widget != null && !pendingTexts[i].equals(widget.getText()))
+			{
+				widget.setText(pendingTexts[i]);
+				++numWritten;
+			}
+			pendingTexts[i] = null;
+		}
+		numPending = 0;
+		return numWritten;
+	}
+
+	public void clear()
+	{
+		for (int i = 0; i < numPending; ++i)
+		{
+			pendingTexts[i] = null;
+		}
+		numPending = 0;
+	}
+
+	private int indexOf(int componentId)
+	{
+		for (int i = 0; i < numPending; ++i)
+		{
+			if (componentIds[i] == componentId)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+}
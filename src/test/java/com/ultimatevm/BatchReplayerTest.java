@@ -0,0 +1,77 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+@Test()
+public class BatchReplayerTest {
+    private File recordGames() throws IOException {
+        //Solo and three player games so both team sizes get their own rng mods
+        File directory = SessionReplayerTest.makeDirectory();
+        SessionReplayerTest.recordGame(directory, new int[]{50, 30, 40}, 1, 80, -1, 1);
+        SessionReplayerTest.recordGame(directory, new int[]{35, 65, 45}, 6, 60, -1, 3);
+        SessionReplayerTest.recordGame(directory, new int[]{50, 30, 40}, 1, 80, 45, 3);
+        SessionReplayerTest.recordGame(directory, new int[]{60, 40, 55}, 3, 70, -1, 1);
+        SessionReplayerTest.recordGame(directory, new int[]{45, 55, 35}, 2, 50, 30, 3);
+        SessionReplayerTest.recordGame(directory, new int[]{35, 65, 45}, 6, 60, -1, 1);
+        return directory;
+    }
+    private void assertSameResult(ReplayResult actual, ReplayResult expected) {
+        Assert.assertEquals(actual.getName(), expected.getName());
+        Assert.assertEquals(actual.getNumPlayers(), expected.getNumPlayers());
+        Assert.assertEquals(actual.getNumTicks(), expected.getNumTicks());
+        Assert.assertEquals(actual.getNumIdentified(), expected.getNumIdentified());
+        Assert.assertEquals(actual.getNumGraded(), expected.getNumGraded());
+        Assert.assertEquals(actual.getNumCorrect(), expected.getNumCorrect());
+        Assert.assertEquals(actual.getMeanError(), expected.getMeanError());
+        for(VMNotifier.NotificationEvents event : VMNotifier.NotificationEvents.values())
+            Assert.assertEquals(actual.getNotificationTick(event), expected.getNotificationTick(event));
+    }
+
+    public void parallelMatchesSequentialTest() throws IOException, InterruptedException {
+        List<File> sessions = SessionReplayer.listSessions(new String[]{recordGames().getPath()});
+        Assert.assertEquals(sessions.size(), 6);
+        SessionReplayer replayer = new SessionReplayer(new UltimateVolcanicMineConfig() {});
+        ReplayResult[] expected = new ReplayResult[sessions.size()];
+        for(int i = 0; i < sessions.size(); ++i) expected[i] = replayer.replay(sessions.get(i));
+
+        //Games running side by side must not see each other's team size
+        BatchReplayResult batch = new BatchReplayer(new UltimateVolcanicMineConfig() {}, 4).replay(sessions);
+        Assert.assertEquals(batch.getResults().size(), sessions.size());
+        for(int i = 0; i < sessions.size(); ++i) assertSameResult(batch.getResults().get(i), expected[i]);
+        Assert.assertEquals(batch.getNumTicks(), sessions.size() * 100);
+        Assert.assertTrue(batch.getTicksPerSecond() > 0);
+    }
+
+    public void teamSizeTest() throws IOException, InterruptedException {
+        List<File> sessions = SessionReplayer.listSessions(new String[]{recordGames().getPath()});
+        BatchReplayResult batch = new BatchReplayer(new UltimateVolcanicMineConfig() {}, 2).replay(sessions);
+        Assert.assertEquals(batch.getTeamSizes().size(), 2);
+        Assert.assertEquals(batch.getNumTeamSessions(1), 3);
+        Assert.assertEquals(batch.getNumTeamSessions(3), 3);
+        Assert.assertEquals(batch.getNumTeamSessions(2), 0);
+        Assert.assertNull(batch.getTeamResult(2));
+
+        int graded = 0, correct = 0;
+        for(int players : batch.getTeamSizes()) {
+            ReplayResult team = batch.getTeamResult(players);
+            Assert.assertEquals(team.getNumPlayers(), players);
+            Assert.assertEquals(team.getNumTicks(), 300);
+            Assert.assertTrue(team.getLatencyPercentile(50) <= team.getLatencyPercentile(99));
+            graded += team.getNumGraded();
+            correct += team.getNumCorrect();
+        }
+        int expectedGraded = 0, expectedCorrect = 0;
+        for(ReplayResult result : batch.getResults()) {
+            expectedGraded += result.getNumGraded();
+            expectedCorrect += result.getNumCorrect();
+        }
+        Assert.assertEquals(graded, expectedGraded);
+        Assert.assertEquals(correct, expectedCorrect);
+        Assert.assertTrue(batch.toString().contains("players=3"));
+    }
+}
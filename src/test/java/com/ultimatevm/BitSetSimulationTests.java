@@ -0,0 +1,31 @@
+package com.ultimatevm;
+
+import org.junit.Assert;
+import org.testng.annotations.Test;
+
+//Runs every simulation with the bit set vent domains
+@Test()
+public class BitSetSimulationTests extends SimulationTests {
+    @Override
+    protected UltimateVolcanicMineConfig.VentDomainEngine getDomainEngine() {
+        return UltimateVolcanicMineConfig.VentDomainEngine.BIT_SET;
+    }
+    @Override
+    public void simulateCBSoloStart() {
+        StatusState predictedState = playCBSoloStart();
+        //Exact domains know 61 is unreachable
+        Assert.assertEquals(predictedState.getVents()[0].getLowerBoundStart(), 60);
+        Assert.assertEquals(predictedState.getVents()[0].getLowerBoundEnd(), 60);
+        Assert.assertEquals(predictedState.getVents()[0].getUpperBoundStart(), 62);
+        Assert.assertEquals(predictedState.getVents()[0].getUpperBoundEnd(), 62);
+    }
+    @Override
+    public void simulateIncorrectPostResetDoubleVentC() {
+        StatusState predictedState = playIncorrectPostResetDoubleVentC();
+        //Exact domains know 1-4 are unreachable
+        Assert.assertEquals(predictedState.getVents()[1].getLowerBoundStart(), 0);
+        Assert.assertEquals(predictedState.getVents()[1].getLowerBoundEnd(), 0);
+        Assert.assertEquals(predictedState.getVents()[1].getUpperBoundStart(), 38);
+        Assert.assertEquals(predictedState.getVents()[1].getUpperBoundEnd(), 38);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ultimatevm;
+
+import org.junit.Assert;
+import org.testng.annotations.Test;
+
+//Runs every simulation predicting from all possible vent triples
+@Test()
+public class CandidateSetSimulationTests extends SimulationTests {
+    @Override
+    protected UltimateVolcanicMineConfig.VentPredictionMode getPredictionMode() {
+        return UltimateVolcanicMineConfig.VentPredictionMode.CANDIDATE_SET;
+    }
+    @Override
+    public void simulateIncorrectPostResetDoubleVentC() {
+        StatusState predictedState = playIncorrectPostResetDoubleVentC();
+        //Candidate triples rule out every other value of B
+        Assert.assertEquals(predictedState.getVents()[1].getLowerBoundStart(), 38);
+        Assert.assertEquals(predictedState.getVents()[1].getLowerBoundEnd(), 38);
+        Assert.assertEquals(predictedState.getVents()[1].getUpperBoundStart(), 38);
+        Assert.assertEquals(predictedState.getVents()[1].getUpperBoundEnd(), 38);
+    }
+}
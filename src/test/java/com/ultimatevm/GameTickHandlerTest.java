@@ -0,0 +1,78 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ultimatevm.GameTickHandler.*;
+
+@Test()
+public class GameTickHandlerTest {
+    private final VarbitSnapshot varbits = new VarbitSnapshot();
+    private final List<VMNotifier.NotificationEvents> events = new ArrayList<>();
+
+    //Helpers
+    private GameTickHandler makeHandler(VentPredictionPipeline pipeline) {
+        varbits.clear();
+        events.clear();
+        return new GameTickHandler(new UltimateVolcanicMineConfig() {}, pipeline, varbits::get, events::add);
+    }
+
+    public void timeRemainingTest() {
+        GameTickHandler handler = makeHandler(new VentPredictionPipeline());
+        varbits.update(VARBIT_TIME_REMAINING, VM_LOBBY_TIME);
+        handler.startTick();
+        Assert.assertFalse(handler.hasGameStarted());
+
+        //The server only sends the time now and then so it counts down in between
+        varbits.update(VARBIT_TIME_REMAINING, 1000);
+        handler.startTick();
+        handler.startTick();
+        Assert.assertEquals(handler.getEstimatedTimeRemaining(), 999);
+        Assert.assertTrue(handler.hasGameStarted());
+        handler.reset();
+        Assert.assertFalse(handler.hasGameStarted());
+        handler.setGameState(VM_GAME_STATE_IN_GAME);
+        Assert.assertTrue(handler.hasGameStarted());
+    }
+
+    public void playerCountTest() {
+        GameTickHandler handler = makeHandler(new VentPredictionPipeline());
+        //Players joining in the lobby never count as leaving
+        handler.onVarbitChanged(VARBIT_PLAYER_COUNT, 2);
+        Assert.assertTrue(events.isEmpty());
+        handler.startTick();
+        Assert.assertEquals(events.get(0), VMNotifier.NotificationEvents.VM_EXTRA_PLAYER);
+
+        varbits.update(VARBIT_TIME_REMAINING, 1000);
+        handler.startTick();
+        handler.onVarbitChanged(VARBIT_PLAYER_COUNT, 1);
+        Assert.assertEquals(events.get(events.size() - 1), VMNotifier.NotificationEvents.VM_PLAYER_LEAVE);
+    }
+
+    public void gameTickTest() {
+        VentPredictionPipeline pipeline = new VentPredictionPipeline();
+        GameTickHandler handler = makeHandler(pipeline);
+        varbits.update(VARBIT_TIME_REMAINING, 1000);
+        varbits.update(VARBIT_PLAYER_COUNT, 1);
+        varbits.update(VARBIT_VENT_STATUS_A, 40);
+        varbits.update(VARBIT_VENT_STATUS_B, VentStatus.STARTING_VENT_VALUE);
+        varbits.update(VARBIT_VENT_STATUS_C, VentStatus.STARTING_VENT_VALUE);
+        varbits.update(VARBIT_STABILITY, StabilityTracker.STARTING_STABILITY);
+        handler.startTick();
+        handler.updateVentStatus();
+        Assert.assertFalse(handler.updateStability());
+        handler.finishTick();
+        Assert.assertEquals(pipeline.getCurrentTick(), 1);
+        Assert.assertTrue(pipeline.getDisplayedVent(0).isIdentified());
+
+        varbits.update(VARBIT_STABILITY, StabilityTracker.STARTING_STABILITY - 5);
+        handler.startTick();
+        handler.updateVentStatus();
+        Assert.assertTrue(handler.updateStability());
+        Assert.assertEquals(handler.getStabilityTracker().getCurrentChange(), -5);
+        handler.finishTick();
+    }
+}
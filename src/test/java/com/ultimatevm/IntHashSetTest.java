@@ -0,0 +1,47 @@
+package com.ultimatevm;
+
+import java.util.HashSet;
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test()
+public class IntHashSetTest {
+    private static int positionCode(int x, int y) { return (x << 16) | y; }
+
+    public void addRemoveTest() {
+        IntHashSet set = new IntHashSet();
+        Assert.assertTrue(set.add(positionCode(3800, 10200)));
+        Assert.assertFalse(set.add(positionCode(3800, 10200)));
+        Assert.assertTrue(set.contains(positionCode(3800, 10200)));
+        Assert.assertFalse(set.contains(positionCode(3801, 10200)));
+        Assert.assertEquals(set.size(), 1);
+
+        Assert.assertTrue(set.remove(positionCode(3800, 10200)));
+        Assert.assertFalse(set.remove(positionCode(3800, 10200)));
+        Assert.assertEquals(set.size(), 0);
+        Assert.assertThrows(IllegalArgumentException.class, () -> set.add(IntHashSet.EMPTY));
+    }
+
+    public void matchesHashSetTest() {
+        //Removals in the middle of probe runs must never hide keys placed after them
+        IntHashSet set = new IntHashSet();
+        HashSet<Integer> expected = new HashSet<>();
+        Random random = new Random(7);
+        for(int i = 0; i < 20000; ++i) {
+            int key = positionCode(3780 + random.nextInt(40), 10230 + random.nextInt(40));
+            if(random.nextBoolean()) Assert.assertEquals(set.add(key), expected.add(key));
+            else Assert.assertEquals(set.remove(key), expected.remove(key));
+            Assert.assertEquals(set.size(), expected.size());
+        }
+        for(int x = 3780; x < 3820; ++x) {
+            for(int y = 10230; y < 10270; ++y) {
+                Assert.assertEquals(set.contains(positionCode(x, y)), expected.contains(positionCode(x, y)));
+            }
+        }
+
+        set.clear();
+        Assert.assertEquals(set.size(), 0);
+        Assert.assertFalse(set.contains(positionCode(3780, 10230)));
+    }
+}
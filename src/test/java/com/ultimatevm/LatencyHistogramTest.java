@@ -0,0 +1,87 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Test()
+public class LatencyHistogramTest {
+    public void bucketBoundsTest() {
+        //Every value must land in a bucket whose upper bound covers it and is at most 25% too large
+        long[] values = {0, 1, 3, 4, 5, 7, 8, 15, 16, 999, 1000, 1024, 123456789L, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for(long value : values) {
+            int bucket = LatencyHistogram.getBucket(value);
+            long upperBound = LatencyHistogram.getBucketUpperBound(bucket);
+            Assert.assertTrue(upperBound >= value, "value " + value);
+            Assert.assertTrue(upperBound - value <= value / 4, "value " + value);
+            if(bucket > 0) Assert.assertTrue(LatencyHistogram.getBucketUpperBound(bucket - 1) < value, "value " + value);
+        }
+        Assert.assertEquals(LatencyHistogram.getBucketUpperBound(LatencyHistogram.getBucket(Long.MAX_VALUE)), Long.MAX_VALUE);
+    }
+
+    public void percentileTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getPercentile(50), 0);
+        Assert.assertEquals(histogram.getMaxNanos(), 0);
+        for(int i = 1; i <= 100; ++i) histogram.record(i * 1000);
+        Assert.assertEquals(histogram.getNumSamples(), 100);
+        Assert.assertEquals(histogram.getMaxNanos(), 100000);
+        Assert.assertEquals(histogram.getMeanNanos(), 50500);
+        long p50 = histogram.getPercentile(50);
+        Assert.assertTrue(p50 >= 50000 && p50 <= 50000 * 5 / 4, "p50 " + p50);
+        long p99 = histogram.getPercentile(99);
+        Assert.assertTrue(p99 >= 99000 && p99 <= 100000, "p99 " + p99);
+        //The slowest sample caps the top bucket
+        Assert.assertEquals(histogram.getPercentile(100), 100000);
+
+        histogram.record(-5);
+        Assert.assertEquals(histogram.getPercentile(0), 0);
+        histogram.reset();
+        Assert.assertEquals(histogram.getNumSamples(), 0);
+        Assert.assertEquals(histogram.getMaxNanos(), 0);
+        Assert.assertEquals(histogram.getPercentile(99), 0);
+    }
+
+    public void concurrentRecordTest() throws InterruptedException {
+        //Lock free recording must not lose samples or the max
+        LatencyHistogram histogram = new LatencyHistogram();
+        int numThreads = 4, samplesPerThread = 100000;
+        List<Thread> threads = new ArrayList<>();
+        for(int t = 0; t < numThreads; ++t) {
+            final long offset = t;
+            threads.add(new Thread(() -> {
+                for(int i = 0; i < samplesPerThread; ++i) histogram.record(i * numThreads + offset);
+            }));
+        }
+        for(Thread thread : threads) thread.start();
+        for(Thread thread : threads) thread.join();
+        Assert.assertEquals(histogram.getNumSamples(), (long)numThreads * samplesPerThread);
+        Assert.assertEquals(histogram.getMaxNanos(), (long)numThreads * samplesPerThread - 1);
+    }
+
+    public void allocationCounterTest() {
+        AllocationCounter counter = new AllocationCounter(2);
+        counter.record(0, AllocationCounter.NOT_MEASURED);
+        Assert.assertEquals(counter.getNumSamples(0), 0);
+        if(!AllocationCounter.isSupported()) return;
+        long startBytes = AllocationCounter.getAllocatedBytes();
+        long[] garbage = new long[1024];
+        counter.record(1, startBytes);
+        Assert.assertEquals(counter.getNumSamples(1), 1);
+        Assert.assertTrue(counter.getTotalBytes(1) >= garbage.length * Long.BYTES);
+        Assert.assertEquals(counter.getMaxBytes(1), counter.getTotalBytes(1));
+        counter.reset();
+        Assert.assertEquals(counter.getTotalBytes(1), 0);
+    }
+
+    public void handlerLatenciesTest() {
+        HandlerLatencies latencies = new HandlerLatencies();
+        latencies.record(HandlerLatencies.Handler.GAME_TICK, System.nanoTime());
+        Assert.assertEquals(latencies.getHistogram(HandlerLatencies.Handler.GAME_TICK).getNumSamples(), 1);
+        Assert.assertEquals(latencies.getHistogram(HandlerLatencies.Handler.NPC_SPAWNED).getNumSamples(), 0);
+        latencies.reset();
+        Assert.assertEquals(latencies.getHistogram(HandlerLatencies.Handler.GAME_TICK).getNumSamples(), 0);
+    }
+}
@@ -0,0 +1,143 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+@Test()
+public class SessionRecorderTest {
+    private File makeDirectory() throws IOException {
+        File directory = Files.createTempDirectory("uvm-sessions").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+    private void assertRecord(SessionReader reader, int tick, SessionRecorder.RecordType type, int id, int value, int extra) {
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(reader.getTick(), tick);
+        Assert.assertEquals(reader.getType(), type);
+        Assert.assertEquals(reader.getId(), id);
+        Assert.assertEquals(reader.getValue(), value);
+        Assert.assertEquals(reader.getExtra(), extra);
+    }
+
+    public void roundTripTest() throws IOException {
+        SessionRecorder recorder = new SessionRecorder();
+        Assert.assertFalse(recorder.isRecording());
+        //Nothing is written before the recorder is started
+        recorder.recordEarthquake();
+        recorder.start(makeDirectory());
+        File file = recorder.getFile();
+        file.deleteOnExit();
+
+        recorder.recordTick();
+        recorder.recordVarbitRead(5938, 50);
+        recorder.recordPlayerPosition(3812, 10256, 1);
+        recorder.recordTick();
+        //Unchanged reads and positions are skipped
+        recorder.recordVarbitRead(5938, 50);
+        recorder.recordPlayerPosition(3812, 10256, 1);
+        recorder.recordVarbitChanged(5939, 1042);
+        recorder.recordEarthquake();
+        recorder.recordObjectSpawned(31044, 3821, 10270, 1);
+        recorder.recordObjectDespawned(31045, 3800, 10260, 1);
+        recorder.recordVarbitRead(5939, 1042);
+        recorder.stop();
+        Assert.assertFalse(recorder.isRecording());
+        Assert.assertEquals(recorder.getNumRecords(), 8);
+
+        //Short games only take a single chunk
+        Assert.assertEquals(file.length(), (long)SessionRecorder.RECORDS_PER_CHUNK * SessionRecorder.RECORD_SIZE);
+
+        SessionReader reader = SessionReader.open(file);
+        Assert.assertEquals(reader.getNumRecords(), 8);
+        Assert.assertEquals(reader.getNumDropped(), 0);
+        assertRecord(reader, 1, SessionRecorder.RecordType.TICK, 0, 1, 0);
+        assertRecord(reader, 1, SessionRecorder.RecordType.VARBIT_READ, 5938, 50, 0);
+        assertRecord(reader, 1, SessionRecorder.RecordType.PLAYER_MOVED, 0, SessionRecorder.packPosition(3812, 10256), 1);
+        Assert.assertEquals(reader.getX(), 3812);
+        Assert.assertEquals(reader.getY(), 10256);
+        assertRecord(reader, 2, SessionRecorder.RecordType.TICK, 0, 2, 0);
+        assertRecord(reader, 2, SessionRecorder.RecordType.VARBIT_CHANGED, 5939, 1042, 0);
+        assertRecord(reader, 2, SessionRecorder.RecordType.EARTHQUAKE, 0, 0, 0);
+        assertRecord(reader, 2, SessionRecorder.RecordType.OBJECT_SPAWNED, 31044, SessionRecorder.packPosition(3821, 10270), 1);
+        assertRecord(reader, 2, SessionRecorder.RecordType.OBJECT_DESPAWNED, 31045, SessionRecorder.packPosition(3800, 10260), 1);
+        Assert.assertFalse(reader.next());
+
+        reader.rewind();
+        assertRecord(reader, 1, SessionRecorder.RecordType.TICK, 0, 1, 0);
+    }
+
+    public void overflowTest() throws IOException {
+        SessionRecorder recorder = new SessionRecorder(4, SessionRecorder.DEFAULT_MAX_SESSIONS);
+        recorder.start(makeDirectory());
+        File file = recorder.getFile();
+        file.deleteOnExit();
+        for(int i = 0; i < 10; ++i) recorder.recordTick();
+        Assert.assertEquals(recorder.getNumRecords(), 4);
+        Assert.assertEquals(recorder.getNumDropped(), 6);
+        recorder.stop();
+
+        SessionReader reader = SessionReader.open(file);
+        Assert.assertEquals(reader.getNumRecords(), 4);
+        Assert.assertEquals(reader.getNumDropped(), 6);
+        int records = 0;
+        while(reader.next()) Assert.assertEquals(reader.getValue(), ++records);
+        Assert.assertEquals(records, 4);
+    }
+
+    public void maxSessionsTest() throws IOException {
+        File directory = makeDirectory();
+        SessionRecorder recorder = new SessionRecorder(4, 2);
+        File[] files = new File[3];
+        for(int i = 0; i < files.length; ++i) {
+            SessionRecorder.Session session = recorder.open(directory);
+            files[i] = session.getFile();
+            files[i].deleteOnExit();
+            recorder.start(session);
+            recorder.recordTick();
+            recorder.stop();
+            //Sessions stopped in the same millisecond still sort oldest first
+            Assert.assertTrue(files[i].setLastModified(1000L * (i + 1)));
+        }
+        Assert.assertFalse(files[0].exists());
+        Assert.assertTrue(files[1].exists());
+        Assert.assertTrue(files[2].exists());
+
+        //A session that never started is left as an empty recording
+        SessionRecorder.Session session = recorder.open(directory);
+        session.getFile().deleteOnExit();
+        Assert.assertFalse(files[1].exists());
+        session.discard();
+        Assert.assertFalse(recorder.isRecording());
+        Assert.assertEquals(SessionReader.open(session.getFile()).getNumRecords(), 0);
+    }
+
+    public void chunkGrowthTest() throws IOException {
+        SessionRecorder recorder = new SessionRecorder();
+        recorder.start(makeDirectory());
+        File file = recorder.getFile();
+        file.deleteOnExit();
+        //The header shares the first chunk so this spills into a third
+        int numTicks = SessionRecorder.RECORDS_PER_CHUNK * 2;
+        for(int i = 0; i < numTicks; ++i) recorder.recordTick();
+        recorder.stop();
+        Assert.assertEquals(file.length(), 3L * SessionRecorder.RECORDS_PER_CHUNK * SessionRecorder.RECORD_SIZE);
+
+        SessionReader reader = SessionReader.open(file);
+        Assert.assertEquals(reader.getNumRecords(), numTicks);
+        int records = 0;
+        while(reader.next()) Assert.assertEquals(reader.getValue(), ++records);
+        Assert.assertEquals(records, numTicks);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void invalidFileTest() throws IOException {
+        File file = File.createTempFile("uvm-invalid", SessionRecorder.FILE_EXTENSION);
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[SessionRecorder.RECORD_SIZE]);
+        SessionReader.open(file);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static com.ultimatevm.GameTickHandler.*;
+
+@Test()
+public class SessionReplayerTest {
+    private static final int NUM_LOBBY_TICKS = 3;
+    private static final int NUM_GAME_TICKS = 100;
+    private static final long SEED = 11;
+
+    //Helpers
+    static File makeDirectory() throws IOException {
+        File directory = Files.createTempDirectory("uvm-replay").toFile();
+        directory.deleteOnExit();
+        return directory;
+    }
+    static File recordGame(File directory, int[] values, int chambers, int identifyTickC, int earthquakeTick, int numPlayers) throws IOException {
+        //Played the same way the plugin reads a game of this team size
+        int[] earthquakeTicks = earthquakeTick < 0 ? new int[0] : new int[]{earthquakeTick};
+        SyntheticGame game = SyntheticGame.generate(SEED, numPlayers,
+                new SyntheticGame.Script(values, chambers, new int[]{0, 0, identifyTickC}, earthquakeTicks));
+        SessionRecorder recorder = new SessionRecorder();
+        recorder.start(directory);
+        File file = recorder.getFile();
+        file.deleteOnExit();
+        for(int tick = 0; tick < NUM_LOBBY_TICKS; ++tick) {
+            recorder.recordTick();
+            recorder.recordVarbitRead(VARBIT_TIME_REMAINING, 40);
+        }
+        int[] visibleValues = new int[StatusState.NUM_VENTS];
+        for(int tick = 0; tick < NUM_GAME_TICKS; ++tick) {
+            game.getVisibleValues(tick, visibleValues);
+            recorder.recordTick();
+            recorder.recordVarbitRead(VARBIT_TIME_REMAINING, 1000);
+            recorder.recordVarbitRead(VARBIT_PLAYER_COUNT, numPlayers);
+            recorder.recordVarbitRead(VARBIT_VENT_STATUS_A, visibleValues[0]);
+            recorder.recordVarbitRead(VARBIT_VENT_STATUS_B, visibleValues[1]);
+            recorder.recordVarbitRead(VARBIT_VENT_STATUS_C, visibleValues[2]);
+            recorder.recordVarbitRead(VARBIT_CHAMBER_STATUS, game.getChambers(tick));
+            recorder.recordVarbitRead(VARBIT_STABILITY, game.getStability(tick));
+            if(game.isEarthquakeTick(tick)) recorder.recordEarthquake();
+        }
+        recorder.stop();
+        return file;
+    }
+
+    public void replayTest() throws IOException {
+        File file = recordGame(makeDirectory(), new int[]{50, 30, 40}, 1, 80, -1, 1);
+        SessionReplayer replayer = new SessionReplayer(new UltimateVolcanicMineConfig() {});
+        ReplayResult result = replayer.replay(file);
+        //Lobby ticks never reach the prediction core
+        Assert.assertEquals(result.getNumTicks(), NUM_GAME_TICKS);
+        Assert.assertEquals(result.getNumPlayers(), 1);
+        Assert.assertTrue(result.getLatencyPercentile(50) <= result.getLatencyPercentile(99));
+        Assert.assertTrue(result.getLatencyPercentile(99) <= result.getLatencyPercentile(100));
+        //A and B are graded against the starting range while C is predicted from three stability updates
+        Assert.assertEquals(result.getNumIdentified(), 3);
+        Assert.assertEquals(result.getNumGraded(), 3);
+        Assert.assertEquals(result.getNumCorrect(), 3);
+        Assert.assertEquals(result.getAccuracy(), 1.0);
+        Assert.assertEquals(result.getNotificationTick(VMNotifier.NotificationEvents.VM_ERUPTION), ReplayResult.NOT_NOTIFIED);
+        Assert.assertTrue(result.toString().startsWith(file.getName()));
+    }
+
+    public void allocationTest() throws IOException {
+        File file = recordGame(makeDirectory(), new int[]{50, 30, 40}, 1, 80, 45, 1);
+        SessionReplayer replayer = new SessionReplayer(new UltimateVolcanicMineConfig() {});
+        Assert.assertFalse(replayer.replay(file).hasAllocations());
+        replayer.setAllocationAccounting(true);
+        ReplayResult result = replayer.replay(file);
+        if(!AllocationCounter.isSupported()) {
+            Assert.assertFalse(result.hasAllocations());
+            return;
+        }
+        //Phases never overlap so together they can only account for part of the tick
+        Assert.assertTrue(result.hasAllocations());
+        long phaseBytes = 0;
+        for(VentStatusPredicter.Phase phase : VentStatusPredicter.Phase.values())
+            phaseBytes += result.getAllocatedBytesPerTick(phase.ordinal());
+        Assert.assertTrue(result.getAllocatedBytesPerTick(ReplayResult.ALLOCATION_TICK) > 0);
+        Assert.assertTrue(phaseBytes <= result.getAllocatedBytesPerTick(ReplayResult.ALLOCATION_TICK) + VentStatusPredicter.NUM_PHASES);
+        Assert.assertTrue(result.toString().contains("alloc="));
+    }
+
+    public void deterministicTest() throws IOException {
+        File directory = makeDirectory();
+        recordGame(directory, new int[]{50, 30, 40}, 1, 80, 45, 1);
+        recordGame(directory, new int[]{35, 65, 45}, 6, 60, -1, 1);
+        List<File> sessions = SessionReplayer.listSessions(new String[]{directory.getPath()});
+        Assert.assertEquals(sessions.size(), 2);
+
+        SessionReplayer replayer = new SessionReplayer(new UltimateVolcanicMineConfig() {});
+        for(File session : sessions) {
+            ReplayResult first = replayer.replay(session), second = replayer.replay(session);
+            Assert.assertEquals(second.getNumTicks(), first.getNumTicks());
+            Assert.assertEquals(second.getNumGraded(), first.getNumGraded());
+            Assert.assertEquals(second.getNumCorrect(), first.getNumCorrect());
+            Assert.assertEquals(second.getMeanError(), first.getMeanError());
+            for(VMNotifier.NotificationEvents event : VMNotifier.NotificationEvents.values())
+                Assert.assertEquals(second.getNotificationTick(event), first.getNotificationTick(event));
+        }
+    }
+}
@@ -10,9 +10,17 @@ public class SimulationTests {
     int directionBitState, currentTick;
 
     //Helpers
+    protected UltimateVolcanicMineConfig.VentDomainEngine getDomainEngine() {
+        return UltimateVolcanicMineConfig.VentDomainEngine.INTERVAL;
+    }
+    protected UltimateVolcanicMineConfig.VentPredictionMode getPredictionMode() {
+        return UltimateVolcanicMineConfig.VentPredictionMode.TIMELINE;
+    }
     private void createPredicter(int dir, int tick, int size) {
-        StabilityUpdateInfo.setNumPlayers(size);
         predicter = new VentStatusPredicter();
+        predicter.setDomainEngine(getDomainEngine());
+        predicter.getContext().setNumPlayers(size);
+        predicter.setPredictionMode(getPredictionMode());
         ventValues = new int[]{u,u,u};
         ventDirection = new int[]{0,0,0};
         currentTick = tick+1;
@@ -211,15 +219,17 @@ public class SimulationTests {
         Assert.assertTrue(predictedState.getVents()[0].isRangeDefined());
     }
 
-    public void simulateCBSoloStart() {
+    protected StatusState playCBSoloStart() {
         createPredicter(3, 0, 1);
         doEarthquake(24);
         doIdentifyVent(44, u, u, 57);
         doStabilityUpdate(49, 15);
         doIdentifyVent(69, u, 37, u);
         doStabilityUpdate(74, 14);
-
-        StatusState predictedState = predicter.getDisplayState();
+        return predicter.getDisplayState();
+    }
+    public void simulateCBSoloStart() {
+        StatusState predictedState = playCBSoloStart();
         //Ensure freeze setting + stability clipping works properly
         Assert.assertEquals(predictedState.getVents()[0].getLowerBoundStart(), 60);
         Assert.assertEquals(predictedState.getVents()[0].getLowerBoundEnd(), 62);
@@ -643,7 +653,7 @@ public class SimulationTests {
         Assert.assertEquals(predictedState.getVents()[2].getUpperBoundEnd(), 9);
     }
 
-    public void simulateIncorrectPostResetDoubleVentC() {
+    protected StatusState playIncorrectPostResetDoubleVentC() {
         createPredicter(1, 0, 2);
         doReset();
         StatusState predictedState = predicter.getDisplayState();
@@ -674,7 +684,10 @@ public class SimulationTests {
         doStabilityUpdate(250, 3);
         doStabilityUpdate(275, 2);
         doMovementUpdateByValue(280, u, u, 42);
-
+        return predictedState;
+    }
+    public void simulateIncorrectPostResetDoubleVentC() {
+        StatusState predictedState = playIncorrectPostResetDoubleVentC();
         //B was in fact 38% (identified last minute)
         Assert.assertEquals(predictedState.getVents()[1].getLowerBoundStart(), 0);
         Assert.assertEquals(predictedState.getVents()[1].getLowerBoundEnd(), 4);
@@ -800,6 +813,23 @@ public class SimulationTests {
         Assert.assertTrue(predictedState.getVents()[0].isFreezeClipAccurate());
     }
 
+    public void simulateHalfSpaceClippingOneKnownVent() {
+        createPredicter(4, 0, 1);
+        doIdentifyVent(3, u, u, 12);
+        doMovementUpdateByValue(9, u, u, 14);
+        doMovementUpdateByValue(19, u, u, 16);
+        doStabilityUpdate(24, -2);
+        doMovementUpdateByValue(29, u, u, 18);
+        doMovementUpdateByValue(39, u, u, 20);
+        doSameTickMovementStabilityUpdate(49, u, u, 22, -6);
+
+        //C only explains +2 so A and B must both have moved away from 50 over the 3 movement updates
+        VentStatusTimeline timeline = predicter.getTimeline();
+        int events = timeline.getTimeline()[timeline.getCurrentTick() - 1];
+        Assert.assertTrue((events & (1 << VentStatusTimeline.HALF_SPACE_COMPLETED_FLAG)) != 0);
+        Assert.assertEquals(3 << (VentStatusTimeline.HALF_SPACE_COMPLETED_FLAG+1), events & VentStatusTimeline.HALF_SPACE_VENTS_BIT_MASK);
+        Assert.assertEquals(3 << (VentStatusTimeline.HALF_SPACE_COMPLETED_FLAG+4), events & VentStatusTimeline.HALF_SPACE_CLIP_BIT_MASK);
+    }
 
     //Abandoned half-space tests
     public void simulateIncorrectHalfSpaceClipping() {
@@ -816,6 +846,8 @@ public class SimulationTests {
         doStabilityUpdate(74, -5);
 
 //        //Half space clipping should not occur here
+        for(int events : predicter.getTimeline().getTimeline())
+            Assert.assertEquals(0, events & (1 << VentStatusTimeline.HALF_SPACE_COMPLETED_FLAG));
         StatusState predictedState = predicter.getDisplayState();
 //        Assert.assertEquals(predictedState.getVents()[1].getLowerBoundStart(), 0);
 //        Assert.assertEquals(predictedState.getVents()[1].getLowerBoundEnd(), 4);
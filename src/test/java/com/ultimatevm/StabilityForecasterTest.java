@@ -0,0 +1,136 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test()
+public class StabilityForecasterTest {
+    private final int u = VentStatus.STARTING_VENT_VALUE;
+    private final GameContext context = new GameContext();
+    private final UltimateVolcanicMineConfig.PredictionScenario worst = UltimateVolcanicMineConfig.PredictionScenario.WORST_CASE;
+    private final UltimateVolcanicMineConfig.PredictionScenario best = UltimateVolcanicMineConfig.PredictionScenario.BEST_CASE;
+
+    private StatusState makeState(int a, int b, int c, int chambers) {
+        StatusState state = new StatusState();
+        state.updateVentStatus(new int[]{a, b, c}, chambers);
+        return state;
+    }
+    private void setUnknownRange(StatusState state, int index, int start, int end) {
+        VentStatus vent = state.getVents()[index];
+        vent.clearRanges();
+        vent.setLowerBoundRange(start, end);
+        vent.setUpperBoundRange(start, end);
+    }
+    private void assertSameAsFresh(StabilityForecaster forecaster, StatusState state, int stability,
+                                   int currentTick, int nextMovementTick, int nextUpdateTick) {
+        StabilityForecaster fresh = new StabilityForecaster(context);
+        fresh.update(state, stability, currentTick, nextMovementTick, nextUpdateTick, VentStatusTimeline.VM_GAME_RESET_TIME);
+        Assert.assertEquals(forecaster.getNumCombinations(), fresh.getNumCombinations());
+        assertForecastEquals(forecaster.getForecast(), fresh.getForecast());
+    }
+    private void assertForecastEquals(StabilityForecast actual, StabilityForecast expected) {
+        Assert.assertEquals(actual.isAvailable(), expected.isAvailable());
+        Assert.assertEquals(actual.getNumUpdates(), expected.getNumUpdates());
+        for(int i = 0; i < expected.getNumUpdates(); ++i) {
+            Assert.assertEquals(actual.getUpdateTick(i), expected.getUpdateTick(i));
+            for(UltimateVolcanicMineConfig.PredictionScenario scenario : UltimateVolcanicMineConfig.PredictionScenario.values()) {
+                Assert.assertEquals(actual.getStability(scenario, i), expected.getStability(scenario, i));
+                Assert.assertEquals(actual.getStabilityChange(scenario, i), expected.getStabilityChange(scenario, i));
+            }
+        }
+    }
+
+    public void unavailableTest() {
+        StabilityForecaster forecaster = new StabilityForecaster(context);
+        //Starting ranges allow far too many combinations
+        forecaster.update(new StatusState(), 50, 0, 9, 24, VentStatusTimeline.VM_GAME_RESET_TIME);
+        Assert.assertFalse(forecaster.getForecast().isAvailable());
+        Assert.assertEquals(forecaster.getForecast().getLowestStability(worst, Integer.MAX_VALUE), StabilityForecast.NO_FORECAST);
+
+        StatusState state = makeState(20, 80, u, 5);
+        state.getVents()[2].clearRanges();
+        forecaster.update(state, 50, 0, 9, 24, VentStatusTimeline.VM_GAME_RESET_TIME);
+        Assert.assertFalse(forecaster.getForecast().isAvailable());
+    }
+
+    public void eruptionTest() {
+        StabilityForecaster forecaster = new StabilityForecaster(context);
+        //Vents stuck at 0 give no points so every update is -25 plus the rng mod
+        forecaster.update(makeState(0, 0, 0, 0), 50, 0, 9, 24, 100);
+        StabilityForecast forecast = forecaster.getForecast();
+        Assert.assertTrue(forecast.isAvailable());
+        Assert.assertEquals(forecast.getNumUpdates(), 4);
+        Assert.assertEquals(forecast.getUpdateTick(0), 24);
+        Assert.assertEquals(forecast.getUpdateTick(3), 99);
+        Assert.assertEquals(forecast.getStabilityChange(worst, 0), -25);
+        Assert.assertEquals(forecast.getStabilityChange(best, 0), -24);
+        Assert.assertEquals(forecast.getStability(worst, 0), 25);
+        Assert.assertEquals(forecast.getStability(best, 0), 26);
+        Assert.assertEquals(forecast.getStability(worst, 1), 0);
+        Assert.assertEquals(forecast.getStability(best, 1), 2);
+        //Stability stays at zero once the mine erupts
+        Assert.assertEquals(forecast.getStability(best, 2), 0);
+        Assert.assertEquals(forecast.getStability(best, 3), 0);
+        Assert.assertEquals(forecast.getLowestStability(best, 49), 2);
+        Assert.assertEquals(forecast.getLowestStability(worst, 23), StabilityForecast.NO_FORECAST);
+    }
+
+    public void movementInfluenceTest() {
+        StabilityForecaster forecaster = new StabilityForecaster(context);
+        //Vents between 41-59 slow themselves and every vent below them
+        forecaster.update(makeState(45, 45, 45, 7), 50, 0, 9, 24, 25);
+        StabilityForecast forecast = forecaster.getForecast();
+        Assert.assertEquals(forecast.getNumUpdates(), 1);
+        //A moves to 47 while B and C cannot move - 16 + 15 + 15 points
+        Assert.assertEquals(forecast.getStabilityChange(worst, 0), 21);
+        Assert.assertEquals(forecast.getStabilityChange(best, 0), 22);
+        Assert.assertEquals(forecast.getStability(worst, 0), 71);
+        Assert.assertEquals(forecast.getStability(best, 0), 72);
+    }
+
+    public void unknownVentTest() {
+        StabilityForecaster forecaster = new StabilityForecaster(context);
+        StatusState state = makeState(20, 80, u, 5);
+        setUnknownRange(state, 2, 10, 12);
+        forecaster.update(state, 50, 0, 9, 24, VentStatusTimeline.VM_GAME_RESET_TIME);
+        StabilityForecast forecast = forecaster.getForecast();
+        Assert.assertEquals(forecaster.getNumCombinations(), 3);
+        //C is at 14-16 on the first update - A gives 8 and B gives 8
+        Assert.assertEquals(forecast.getStabilityChange(worst, 0), -25 + 8 + 8 + 5);
+        Assert.assertEquals(forecast.getStabilityChange(best, 0), -25 + 8 + 8 + 6 + 1);
+        Assert.assertTrue(forecast.getStability(worst, 0) <= forecast.getStability(best, 0));
+    }
+
+    public void incrementalTest() {
+        StabilityForecaster incremental = new StabilityForecaster(context);
+        StatusState state = makeState(20, 80, u, 5);
+        setUnknownRange(state, 2, 10, 12);
+        incremental.update(state, 50, 0, 9, 24, VentStatusTimeline.VM_GAME_RESET_TIME);
+
+        //One movement later with nothing new learned
+        StatusState movedState = makeState(22, 78, u, 5);
+        setUnknownRange(movedState, 2, 12, 14);
+        incremental.update(movedState, 50, 9, 19, 24, VentStatusTimeline.VM_GAME_RESET_TIME);
+        Assert.assertEquals(incremental.getNumCombinations(), 3);
+        assertSameAsFresh(incremental, movedState, 50, 9, 19, 24);
+
+        //Ruled out values are dropped from the projection
+        setUnknownRange(movedState, 2, 13, 14);
+        incremental.update(movedState, 50, 9, 19, 24, VentStatusTimeline.VM_GAME_RESET_TIME);
+        Assert.assertEquals(incremental.getNumCombinations(), 2);
+        assertSameAsFresh(incremental, movedState, 50, 9, 19, 24);
+
+        //Passed updates are dropped and the curves follow the real stability
+        StatusState updatedState = makeState(26, 74, u, 5);
+        setUnknownRange(updatedState, 2, 17, 18);
+        incremental.update(updatedState, 41, 29, 39, 49, VentStatusTimeline.VM_GAME_RESET_TIME);
+        Assert.assertEquals(incremental.getForecast().getUpdateTick(0), 49);
+        assertSameAsFresh(incremental, updatedState, 41, 29, 39, 49);
+
+        //A direction change is new information so everything is played forward again
+        StatusState flippedState = makeState(26, 74, u, 1);
+        setUnknownRange(flippedState, 2, 17, 18);
+        incremental.update(flippedState, 41, 29, 39, 49, VentStatusTimeline.VM_GAME_RESET_TIME);
+        assertSameAsFresh(incremental, flippedState, 41, 29, 39, 49);
+    }
+}
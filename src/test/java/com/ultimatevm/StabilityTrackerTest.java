@@ -0,0 +1,39 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test()
+public class StabilityTrackerTest {
+    public void stabilityTextTest() {
+        StabilityTracker tracker = new StabilityTracker();
+        Assert.assertEquals(tracker.getStabilityText(), "");
+        tracker.addChange(-5);
+        tracker.addChange(12);
+        Assert.assertEquals(tracker.getStabilityText(), " (<col=00ff00>12</col>,<col=ff0000>5</col>)");
+        tracker.setDisplayCount(1);
+        Assert.assertEquals(tracker.getStabilityText(), " (<col=00ff00>12</col>)");
+        //Forecast changes outside a real update are still shown
+        tracker.addChange(-40);
+        Assert.assertEquals(tracker.getStabilityText(), " (<col=ff0000>40</col>)");
+    }
+
+    public void cachedTextTest() {
+        StabilityTracker tracker = new StabilityTracker();
+        tracker.addChange(3);
+        String text = tracker.getStabilityText();
+        String label = tracker.getStabilityText("Stab.");
+        Assert.assertEquals(label, "Stab." + text);
+        //Nothing is composed again until the history, display count or prefix changes
+        Assert.assertSame(tracker.getStabilityText(), text);
+        Assert.assertSame(tracker.getStabilityText("Stab."), label);
+        tracker.setDisplayCount(3);
+        Assert.assertSame(tracker.getStabilityText(), text);
+        Assert.assertNotSame(tracker.getStabilityText("Stability"), label);
+
+        tracker.addChange(3);
+        Assert.assertNotSame(tracker.getStabilityText(), text);
+        tracker.resetStabilityHistory();
+        Assert.assertEquals(tracker.getStabilityText("Stab."), "Stab.");
+    }
+}
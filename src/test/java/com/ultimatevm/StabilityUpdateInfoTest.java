@@ -5,12 +5,13 @@ import org.testng.Assert;
 
 @Test()
 public class StabilityUpdateInfoTest {
+    private final GameContext context = new GameContext();
 
     public void constructorTest() {
         StatusState state = new StatusState();
         int u = VentStatus.STARTING_VENT_VALUE;
         state.updateVentStatus(new int[]{50, 50, u}, 20);
-        StabilityUpdateInfo stabInfo = new StabilityUpdateInfo(state, 0, 20);
+        StabilityUpdateInfo stabInfo = new StabilityUpdateInfo(state, 0, 20, context);
 
         Assert.assertFalse(stabInfo.isVerified());
         Assert.assertNotEquals(stabInfo.getStabilityUpdateState(), state);
@@ -25,7 +26,7 @@ public class StabilityUpdateInfoTest {
         StatusState state = new StatusState();
         int u = VentStatus.STARTING_VENT_VALUE;
         state.updateVentStatus(new int[]{50, 50, u}, 0);
-        StabilityUpdateInfo stabInfo = new StabilityUpdateInfo(state, 0, 24);
+        StabilityUpdateInfo stabInfo = new StabilityUpdateInfo(state, 0, 24, context);
         stabInfo.verifyByInvalidPoints();
 
         Assert.assertEquals(stabInfo.getRNGUpdateMod(), 1);
@@ -38,7 +39,7 @@ public class StabilityUpdateInfoTest {
         state.updateVentStatus(new int[]{50, 50, u}, 0);
 
         //One huge range should be set here
-        StabilityUpdateInfo stabInfo = new StabilityUpdateInfo(state, 0, 23);
+        StabilityUpdateInfo stabInfo = new StabilityUpdateInfo(state, 0, 23, context);
         StatusState possibleValues = stabInfo.getAllPossiblePredictedValuesState();
 
         Assert.assertEquals(possibleValues.getVents()[2].getLowerBoundStart(), 44);
@@ -48,7 +49,7 @@ public class StabilityUpdateInfoTest {
 
 
         //Two huge ranges should be set here
-        stabInfo = new StabilityUpdateInfo(state, 0, 22);
+        stabInfo = new StabilityUpdateInfo(state, 0, 22, context);
         possibleValues = stabInfo.getAllPossiblePredictedValuesState();
 
         Assert.assertEquals(possibleValues.getVents()[2].getLowerBoundStart(), 41);
@@ -56,4 +57,29 @@ public class StabilityUpdateInfoTest {
         Assert.assertEquals(possibleValues.getVents()[2].getUpperBoundStart(), 54);
         Assert.assertEquals(possibleValues.getVents()[2].getUpperBoundEnd(), 59);
     }
+
+    public void getHypothesisStateTest() {
+        StatusState state = new StatusState();
+        int u = VentStatus.STARTING_VENT_VALUE;
+        state.updateVentStatus(new int[]{50, 50, u}, 0);
+        StabilityUpdateInfo stabInfo = new StabilityUpdateInfo(state, 0, 23, context);
+        int startingRNGMod = stabInfo.getRNGUpdateMod();
+        VentStatus startingVent = new VentStatus(stabInfo.getStabilityUpdateState().getVents()[2]);
+
+        //Each mod sees its own predicted values
+        for(int rngMod = 0; rngMod <= 1; ++rngMod) {
+            VentStatus expected = stabInfo.getPossiblePredictedValuesState(rngMod).getVents()[2];
+            VentStatus hypothesis = stabInfo.getHypothesisState(rngMod).getVents()[2];
+            Assert.assertEquals(hypothesis.getLowerBoundStart(), expected.getLowerBoundStart());
+            Assert.assertEquals(hypothesis.getLowerBoundEnd(), expected.getLowerBoundEnd());
+            Assert.assertEquals(hypothesis.getUpperBoundStart(), expected.getUpperBoundStart());
+            Assert.assertEquals(hypothesis.getUpperBoundEnd(), expected.getUpperBoundEnd());
+        }
+
+        //Building hypotheses leaves the stored mod and state alone
+        Assert.assertEquals(stabInfo.getRNGUpdateMod(), startingRNGMod);
+        VentStatus storedVent = stabInfo.getStabilityUpdateState().getVents()[2];
+        Assert.assertEquals(storedVent.getLowerBoundStart(), startingVent.getLowerBoundStart());
+        Assert.assertEquals(storedVent.getUpperBoundEnd(), startingVent.getUpperBoundEnd());
+    }
 }
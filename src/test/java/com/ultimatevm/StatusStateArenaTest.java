@@ -0,0 +1,38 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test()
+public class StatusStateArenaTest {
+    public void rewindReusesStatesTest() {
+        StatusStateArena arena = new StatusStateArena();
+        StatusState first = arena.acquire();
+        first.updateVentStatus(new int[]{VentStatus.STARTING_VENT_VALUE, 40, 50}, 7);
+        Assert.assertEquals(arena.getSize(), 1);
+
+        //A rewound state comes back looking newly built
+        arena.rewind();
+        StatusState reused = arena.acquire();
+        Assert.assertSame(reused, first);
+        Assert.assertEquals(arena.getNumCreated(), 1);
+        int[] reusedPacked = new int[StatusState.PACKED_SIZE], newPacked = new int[StatusState.PACKED_SIZE];
+        reused.writeTo(reusedPacked, 0);
+        new StatusState().writeTo(newPacked, 0);
+        Assert.assertEquals(reusedPacked, newPacked);
+    }
+
+    public void markReleaseTest() {
+        StatusStateArena arena = new StatusStateArena();
+        StatusState kept = arena.acquire();
+        int mark = arena.mark();
+        for(int i = 0; i < 40; ++i) arena.acquireCopy(kept);
+        Assert.assertEquals(arena.getSize(), 41);
+        arena.release(mark);
+        Assert.assertEquals(arena.getSize(), 1);
+        //Released temporaries are handed out again instead of built
+        arena.acquire();
+        Assert.assertEquals(arena.getNumCreated(), 41);
+        Assert.assertThrows(IllegalArgumentException.class, () -> arena.release(5));
+    }
+}
@@ -6,6 +6,7 @@ import org.testng.Assert;
 @Test()
 public class StatusStateTest {
     private final int u = VentStatus.STARTING_VENT_VALUE;
+    private final GameContext context = new GameContext();
     private int makeMoveBitState(int aMove, int bMove, int cMove) {
         return aMove | (bMove << 2) | (cMove << 4);
     }
@@ -22,7 +23,7 @@ public class StatusStateTest {
 
     public void copyConstructorTest() {
         StatusState originalState = new StatusState();
-        originalState.doVMReset();
+        originalState.doVMReset(context);
         originalState.updateVentStatus(new int[]{0,0,0},0);
         StatusState state = new StatusState(originalState);
 
@@ -49,10 +50,36 @@ public class StatusStateTest {
         Assert.assertTrue(state.isEnoughVentsIdentified());
     }
 
+    public void packedStateTest() {
+        StatusState originalState = new StatusState();
+        originalState.doVMReset(context);
+        originalState.updateVentStatus(new int[]{40, u, 60}, 0);
+        originalState.getVents()[1].clearRanges();
+        originalState.getVents()[1].setLowerBoundRange(10, 20);
+        originalState.getVents()[1].setUpperBoundRange(30, 40);
+
+        //Second state in the array keeps every field
+        int[] packedStates = new int[StatusState.PACKED_SIZE * 2];
+        originalState.writeTo(packedStates, StatusState.PACKED_SIZE);
+        StatusState state = new StatusState();
+        state.readFrom(packedStates, StatusState.PACKED_SIZE);
+        Assert.assertEquals(state.getNumIdentifiedVents(), 2);
+        Assert.assertTrue(state.hasDoneVMReset());
+        Assert.assertEquals(state.getVents()[0].getActualValue(), 40);
+        Assert.assertEquals(state.getVents()[1].getLowerBoundStart(), 10);
+        Assert.assertEquals(state.getVents()[1].getLowerBoundEnd(), 20);
+        Assert.assertEquals(state.getVents()[1].getUpperBoundStart(), 30);
+        Assert.assertEquals(state.getVents()[2].getActualValue(), 60);
+
+        //Copies do not share their vents
+        state.getVents()[1].setLowerBoundRange(15, 18);
+        Assert.assertEquals(originalState.getVents()[1].getLowerBoundStart(), 10);
+    }
+
     public void setEqualToTest() {
         StatusState state = new StatusState();
         StatusState originalState = new StatusState();
-        originalState.doVMReset();
+        originalState.doVMReset(context);
         originalState.updateVentStatus(new int[]{0,0,0},0);
         state.setEqualTo(originalState);
 
@@ -445,7 +472,7 @@ public class StatusStateTest {
         StatusState state = new StatusState();
         final VentStatus[] vents = state.getVents();
         state.updateVentStatus(new int[]{0,0,0}, 7);
-        state.doVMReset();
+        state.doVMReset(context);
         //All values should be clear
         for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
             Assert.assertEquals(vents[i].getActualValue(), VentStatus.STARTING_VENT_VALUE);
@@ -453,7 +480,7 @@ public class StatusStateTest {
         Assert.assertTrue(state.hasDoneVMReset());
         //Should fail if called a second time
         state.updateVentStatus(new int[]{0,0,0}, 7);
-        state.doVMReset();
+        state.doVMReset(context);
         for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
             Assert.assertEquals(vents[i].getActualValue(), 0);
         }
@@ -541,6 +568,23 @@ public class StatusStateTest {
         Assert.assertEquals(vents[0].getUpperBoundEnd(), 100);
     }
 
+    public void calcSingleVentValueSamePointsTest() {
+        //Ranges only depend on the points the unknown vent must provide
+        StatusState state = new StatusState();
+        state.updateVentStatus(new int[]{u, 50, 50}, 7);
+        Assert.assertTrue(state.calcPredictedVentValues(22));
+        StatusState lowerState = new StatusState();
+        lowerState.updateVentStatus(new int[]{u, 50, 25}, 7);
+        Assert.assertTrue(lowerState.calcPredictedVentValues(22 - 8));
+
+        VentStatus vent = state.getVents()[0], lowerVent = lowerState.getVents()[0];
+        Assert.assertEquals(lowerVent.getLowerBoundStart(), vent.getLowerBoundStart());
+        Assert.assertEquals(lowerVent.getLowerBoundEnd(), vent.getLowerBoundEnd());
+        Assert.assertEquals(lowerVent.getUpperBoundStart(), vent.getUpperBoundStart());
+        Assert.assertEquals(lowerVent.getUpperBoundEnd(), vent.getUpperBoundEnd());
+        Assert.assertEquals(lowerState.getStabilityChange(), 14);
+    }
+
     public void calcSingleVentValueInvalidTest() {
         //Max calc test
         StatusState state = new StatusState();
@@ -1244,7 +1288,7 @@ public class StatusStateTest {
         //Single value range do nothing
         ventC.setUpperBoundRange(79, 79);
         ventC.setLowerBoundRange(79, 79);
-        state.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation()-1);
+        state.clipPredictedStabilityMismatch(context.getMinRNGVariation()-1);
         Assert.assertEquals(ventC.getLowerBoundStart(), 79);
         Assert.assertEquals(ventC.getLowerBoundEnd(), 79);
         Assert.assertEquals(ventC.getUpperBoundStart(), 79);
@@ -1253,7 +1297,7 @@ public class StatusStateTest {
         //Both changes are above stability amount do nothing
         ventC.setUpperBoundRange(53, 53);
         ventC.setLowerBoundRange(47, 47);
-        state.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation()-1);
+        state.clipPredictedStabilityMismatch(context.getMinRNGVariation()-1);
         Assert.assertEquals(ventC.getLowerBoundStart(), 47);
         Assert.assertEquals(ventC.getLowerBoundEnd(), 47);
         Assert.assertEquals(ventC.getUpperBoundStart(), 53);
@@ -1262,7 +1306,7 @@ public class StatusStateTest {
         //Both changes are negative but match no clipping
         ventC.setUpperBoundRange(79, 79);
         ventC.setLowerBoundRange(21, 21);
-        state.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation()-1);
+        state.clipPredictedStabilityMismatch(context.getMinRNGVariation()-1);
         Assert.assertEquals(ventC.getLowerBoundStart(), 21);
         Assert.assertEquals(ventC.getLowerBoundEnd(), 21);
         Assert.assertEquals(ventC.getUpperBoundStart(), 79);
@@ -1277,7 +1321,7 @@ public class StatusStateTest {
         //Upper bound partial clipping
         ventC.setUpperBoundRange(77, 79);
         ventC.setLowerBoundRange(47, 49);
-        state.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation()-1);
+        state.clipPredictedStabilityMismatch(context.getMinRNGVariation()-1);
         Assert.assertEquals(ventC.getLowerBoundStart(), 47);
         Assert.assertEquals(ventC.getLowerBoundEnd(), 49);
         Assert.assertEquals(ventC.getUpperBoundStart(), 77);
@@ -1286,7 +1330,7 @@ public class StatusStateTest {
         //Upper bound full clipping
         ventC.setUpperBoundRange(79, 79);
         ventC.setLowerBoundRange(47, 49);
-        state.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation()-1);
+        state.clipPredictedStabilityMismatch(context.getMinRNGVariation()-1);
         Assert.assertEquals(ventC.getLowerBoundStart(), 47);
         Assert.assertEquals(ventC.getLowerBoundEnd(), 49);
         Assert.assertEquals(ventC.getUpperBoundStart(), 47);
@@ -1295,7 +1339,7 @@ public class StatusStateTest {
         //Lower bound partial clipping
         ventC.setUpperBoundRange(51, 53);
         ventC.setLowerBoundRange(21, 23);
-        state.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation()-1);
+        state.clipPredictedStabilityMismatch(context.getMinRNGVariation()-1);
         Assert.assertEquals(ventC.getLowerBoundStart(), 22);
         Assert.assertEquals(ventC.getLowerBoundEnd(), 23);
         Assert.assertEquals(ventC.getUpperBoundStart(), 51);
@@ -1304,7 +1348,7 @@ public class StatusStateTest {
         //Lower bound full clipping
         ventC.setUpperBoundRange(51, 53);
         ventC.setLowerBoundRange(21, 21);
-        state.clipPredictedStabilityMismatch(StabilityUpdateInfo.getMinRNGVariation()-1);
+        state.clipPredictedStabilityMismatch(context.getMinRNGVariation()-1);
         Assert.assertEquals(ventC.getLowerBoundStart(), 51);
         Assert.assertEquals(ventC.getLowerBoundEnd(), 53);
         Assert.assertEquals(ventC.getUpperBoundStart(), 51);
@@ -1852,32 +1896,32 @@ public class StatusStateTest {
 
         //No vents known shouldnt have a change
         state.updateVentStatus(new int[]{u, u, u}, 0);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
 
         //1 vent tests
         //should fail due to undefined ranges
         state.updateVentStatus(new int[]{u, 50, u}, 0);
         state.clearAllRanges();
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.getVents()[0].setLowerBoundRange(50, 50);
         state.getVents()[0].setUpperBoundRange(50, 50);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.clearAllRanges();
         state.getVents()[2].setLowerBoundRange(50, 50);
         state.getVents()[2].setUpperBoundRange(50, 50);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //should fail due to huge single range
         state.getVents()[0].setLowerBoundRange(40, 60);
         state.getVents()[0].setUpperBoundRange(40, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.clearAllRanges();
         state.getVents()[0].setLowerBoundRange(50, 50);
         state.getVents()[0].setUpperBoundRange(50, 50);
         state.getVents()[2].setLowerBoundRange(40, 60);
         state.getVents()[2].setUpperBoundRange(40, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //should fail due to huge double range
         state.clearAllRanges();
@@ -1885,21 +1929,21 @@ public class StatusStateTest {
         state.getVents()[2].setUpperBoundRange(50, 50);
         state.getVents()[0].setLowerBoundRange(40, 40);
         state.getVents()[0].setUpperBoundRange(50, 57);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.getVents()[0].clearRanges();
         state.getVents()[0].setLowerBoundRange(43, 50);
         state.getVents()[0].setUpperBoundRange(60, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.clearAllRanges();
         state.getVents()[0].setLowerBoundRange(50, 50);
         state.getVents()[0].setUpperBoundRange(50, 50);
         state.getVents()[2].setLowerBoundRange(40, 40);
         state.getVents()[2].setUpperBoundRange(50, 57);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(43, 50);
         state.getVents()[2].setUpperBoundRange(60, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //should fail due to two double ranges
         state.clearAllRanges();
@@ -1907,7 +1951,7 @@ public class StatusStateTest {
         state.getVents()[2].setUpperBoundRange(60, 60);
         state.getVents()[0].setLowerBoundRange(40, 40);
         state.getVents()[0].setUpperBoundRange(60, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //will pass with a single range and one small double range
         state.clearAllRanges();
@@ -1915,15 +1959,15 @@ public class StatusStateTest {
         state.getVents()[0].setUpperBoundRange(47, 53);
         state.getVents()[2].setLowerBoundRange(38, 40);
         state.getVents()[2].setUpperBoundRange(57, 59);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 20);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 21);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 20);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 21);
         state.clearAllRanges();
         state.getVents()[2].setLowerBoundRange(47, 53);
         state.getVents()[2].setUpperBoundRange(47, 53);
         state.getVents()[0].setLowerBoundRange(38, 40);
         state.getVents()[0].setUpperBoundRange(57, 59);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 20);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 21);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 20);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 21);
 
         //will pass with two single ranges
         state.clearAllRanges();
@@ -1931,8 +1975,8 @@ public class StatusStateTest {
         state.getVents()[2].setUpperBoundRange(47, 53);
         state.getVents()[0].setLowerBoundRange(47, 53);
         state.getVents()[0].setUpperBoundRange(47, 53);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 23);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 23);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 23);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 23);
 
 
         //1 vent + freeze clip accurate tests
@@ -1941,79 +1985,79 @@ public class StatusStateTest {
         state.getVents()[0].setLowerBoundRange(40, 40);
         state.getVents()[0].setUpperBoundRange(40, 40);
         state.getVents()[0].makeFreezeClipAccurate();
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //should fail due to huge single range
         state.getVents()[2].setLowerBoundRange(40, 60);
         state.getVents()[2].setUpperBoundRange(40, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //should fail due to huge double range
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(40, 40);
         state.getVents()[2].setUpperBoundRange(50, 57);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(43, 50);
         state.getVents()[2].setUpperBoundRange(60, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //will pass with one small double range
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(38, 40);
         state.getVents()[2].setUpperBoundRange(57, 59);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 17);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 18);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 17);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 18);
 
         //will pass with one larger single range
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(47, 53);
         state.getVents()[2].setUpperBoundRange(47, 53);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 20);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 20);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 20);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 20);
 
 
         //2 vents tests
         //should fail due to undefined ranges
         state.clearAllRanges();
         state.updateVentStatus(new int[]{50, 50, u}, 0);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //should fail due to huge single range
         state.getVents()[2].setLowerBoundRange(40, 60);
         state.getVents()[2].setUpperBoundRange(40, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //should fail due to huge double range
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(40, 40);
         state.getVents()[2].setUpperBoundRange(50, 57);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(43, 50);
         state.getVents()[2].setUpperBoundRange(60, 60);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), u);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), u);
 
         //will pass with one small double range
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(38, 40);
         state.getVents()[2].setUpperBoundRange(57, 59);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 20);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 21);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 20);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 21);
 
         //will pass with one larger single range
         state.getVents()[2].clearRanges();
         state.getVents()[2].setLowerBoundRange(47, 53);
         state.getVents()[2].setUpperBoundRange(47, 53);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 23);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 23);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 23);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 23);
 
 
         //3 vents tests
         //will always pass
         state.updateVentStatus(new int[]{50, 50, 50}, 0);
-        Assert.assertEquals(state.getFutureStabilityChange(worstCase), 23);
-        Assert.assertEquals(state.getFutureStabilityChange(bestCase), 23);
+        Assert.assertEquals(state.getFutureStabilityChange(worstCase, context), 23);
+        Assert.assertEquals(state.getFutureStabilityChange(bestCase, context), 23);
     }
 
     public float getPercent(int value) {
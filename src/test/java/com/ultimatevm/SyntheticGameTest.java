@@ -0,0 +1,126 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test()
+public class SyntheticGameTest {
+    private final int u = VentStatus.STARTING_VENT_VALUE;
+
+    public void deterministicTest() {
+        SyntheticGame first = SyntheticGame.generate(42, 1), second = SyntheticGame.generate(42, 1);
+        for(int tick = 0; tick < SyntheticGame.NUM_TICKS; ++tick) {
+            for(int i = 0; i < StatusState.NUM_VENTS; ++i)
+                Assert.assertEquals(second.getTrueValue(tick, i), first.getTrueValue(tick, i));
+            Assert.assertEquals(second.getChambers(tick), first.getChambers(tick));
+            Assert.assertEquals(second.getStabilityChange(tick), first.getStabilityChange(tick));
+            Assert.assertEquals(second.isEarthquakeTick(tick), first.isEarthquakeTick(tick));
+        }
+        Assert.assertEquals(second.play(new VentStatusPredicter()), first.play(new VentStatusPredicter()));
+    }
+
+    public void movementTest() {
+        int[] expected = new int[StatusState.NUM_VENTS], directions = new int[StatusState.NUM_VENTS];
+        for(long seed = 0; seed < 20; ++seed) {
+            SyntheticGame game = SyntheticGame.generate(seed, 1);
+            for(int tick = 1; tick < SyntheticGame.NUM_TICKS; ++tick) {
+                if(tick == SyntheticGame.RESET_TICK) continue;
+                //Vents only move on movement ticks that were not held by an earthquake
+                boolean isMovement = VentStatusPredicter.isMovementUpdateTick(tick) && !game.isEarthquakeTick(tick);
+                Assert.assertEquals(game.isMovementTick(tick), isMovement);
+                for(int i = 0; i < StatusState.NUM_VENTS; ++i) expected[i] = game.getTrueValue(tick - 1, i);
+                if(isMovement) VentDomain.moveValues(expected, VentDomain.getChamberDirections(game.getChambers(tick), directions));
+                for(int i = 0; i < StatusState.NUM_VENTS; ++i) Assert.assertEquals(game.getTrueValue(tick, i), expected[i]);
+            }
+        }
+    }
+
+    public void stabilityTest() {
+        for(int players = 1; players <= SyntheticGameFuzzer.MAX_FUZZ_PLAYERS; ++players) {
+            GameContext context = new GameContext(players);
+            SyntheticGame game = SyntheticGame.generate(players, players);
+            Assert.assertEquals(game.getNumPlayers(), players);
+            int stability = StabilityTracker.STARTING_STABILITY;
+            for(int tick = 0; tick < SyntheticGame.NUM_TICKS; ++tick) {
+                boolean isUpdate = tick % VentStatusTimeline.STABILITY_UPDATE_TICK_TIME == VentStatusTimeline.STABILITY_UPDATE_TICK_TIME - 1;
+                Assert.assertEquals(game.getStabilityChange(tick) != SyntheticGame.NO_CHANGE, isUpdate);
+                if(isUpdate) {
+                    //Whatever is left after the vents is the rng mod
+                    int points = 0;
+                    for(int i = 0; i < StatusState.NUM_VENTS; ++i) points += VentStatus.getStabilityInfluence(game.getTrueValue(tick, i));
+                    int rngMod = game.getStabilityChange(tick) - StatusState.calcStabilityChange(points);
+                    Assert.assertTrue(rngMod >= context.getMinRNGVariation() && rngMod <= context.getMaxRNGVariation());
+                    stability = Math.max(0, Math.min(StabilityTracker.MAX_STABILITY, stability + game.getStabilityChange(tick)));
+                }
+                Assert.assertEquals(game.getStability(tick), stability);
+            }
+        }
+    }
+
+    public void resetTest() {
+        for(long seed = 0; seed < 50; ++seed) {
+            //Solo resets stay within 25-75 while teams can land anywhere
+            SyntheticGame game = SyntheticGame.generate(seed, 1);
+            for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+                int value = game.getTrueValue(SyntheticGame.RESET_TICK, i);
+                Assert.assertTrue(value >= VentStatus.MIN_RESET_SOLO_VENT_VALUE && value <= VentStatus.MAX_RESET_SOLO_VENT_VALUE);
+                value = game.getTrueValue(0, i);
+                Assert.assertTrue(value >= VentStatus.MIN_STARTING_VENT_VALUE && value <= VentStatus.MAX_STARTING_VENT_VALUE);
+            }
+        }
+    }
+
+    public void identificationTest() {
+        SyntheticGame game = SyntheticGame.generate(7, 2);
+        int[] values = new int[StatusState.NUM_VENTS];
+        for(int tick = 0; tick < SyntheticGame.NUM_TICKS; ++tick) {
+            boolean isPostReset = tick >= SyntheticGame.RESET_TICK;
+            game.getVisibleValues(tick, values);
+            for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+                int identifyTick = game.getIdentifyTick(i, isPostReset);
+                //Every vent is hidden again once the game resets
+                Assert.assertEquals(values[i], tick >= identifyTick ? game.getTrueValue(tick, i) : u);
+                if(identifyTick != SyntheticGame.NOT_IDENTIFIED)
+                    Assert.assertEquals(identifyTick >= SyntheticGame.RESET_TICK, isPostReset);
+            }
+        }
+    }
+
+    public void scriptTest() {
+        //Scripted games keep their directions and only shake or identify where told to
+        SyntheticGame.Script script = new SyntheticGame.Script(new int[]{40, 50, 60}, 5, new int[]{0, 30, SyntheticGame.NOT_IDENTIFIED}, new int[]{20, 50});
+        SyntheticGame game = SyntheticGame.generate(9, 1, script);
+        Assert.assertEquals(game.getTrueValue(0, 1), 50);
+        for(int tick = 0; tick < SyntheticGame.NUM_TICKS; ++tick) {
+            Assert.assertEquals(game.getChambers(tick), 5);
+            Assert.assertEquals(game.isEarthquakeTick(tick), tick == 20 || tick == 50);
+        }
+        Assert.assertEquals(game.getIdentifyTick(1, false), 30);
+        Assert.assertEquals(game.getIdentifyTick(2, false), SyntheticGame.NOT_IDENTIFIED);
+        Assert.assertEquals(game.getIdentifyTick(0, true), SyntheticGame.NOT_IDENTIFIED);
+    }
+
+    public void teamGameTest() {
+        //Caches are built before the team size is known so they must grow with it
+        for(int players = 1; players <= SyntheticGameFuzzer.MAX_FUZZ_PLAYERS; ++players) {
+            VentStatusPredicter predicter = new VentStatusPredicter();
+            Assert.assertTrue(SyntheticGame.generate(3, players).play(predicter) >= 0);
+            Assert.assertEquals(predicter.getContext().getNumPlayers(), players);
+            Assert.assertEquals(predicter.getCurrentTick(), SyntheticGame.NUM_TICKS);
+        }
+    }
+
+    public void fuzzTest() throws InterruptedException {
+        SyntheticGameFuzzer fuzzer = new SyntheticGameFuzzer(UltimateVolcanicMineConfig.VentPredictionMode.TIMELINE, 2);
+        SyntheticGameFuzzer.TeamStats[] stats = fuzzer.fuzz(2 * SyntheticGameFuzzer.MAX_FUZZ_PLAYERS, 0);
+        Assert.assertEquals(stats.length, SyntheticGameFuzzer.MAX_FUZZ_PLAYERS);
+        for(SyntheticGameFuzzer.TeamStats team : stats) {
+            Assert.assertEquals(team.getNumGames(), 2);
+            Assert.assertTrue(team.getWorstTickNanos() >= 0);
+            Assert.assertTrue(team.getMissedSeeds().size() == team.getNumMissedGames());
+            //The seed of every game missing a value can be played again on its own
+            for(long seed : team.getMissedSeeds())
+                Assert.assertTrue(SyntheticGame.generate(seed, team.getNumPlayers()).play(new VentStatusPredicter()) > 0);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ultimatevm;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test()
+public class TimelineMovementIndexTest {
+    private static final int MOVEMENT = 1 << VentStatusTimeline.MOVEMENT_UPDATE_FLAG;
+    private static final int DIRECTION = 1 << VentStatusTimeline.DIRECTION_CHANGED_FLAG;
+
+    public void rangeQueryTest() {
+        int[] timeline = new int[VentStatusTimeline.VM_GAME_FULL_TIME];
+        TimelineMovementIndex index = new TimelineMovementIndex(timeline);
+        timeline[9] = MOVEMENT;
+        timeline[19] = MOVEMENT;
+        //B changes direction
+        timeline[13] = DIRECTION | (2 << 3);
+
+        Assert.assertEquals(index.getNumMovements(0, 8), 0);
+        Assert.assertEquals(index.getNumMovements(0, 9), 1);
+        Assert.assertEquals(index.getNumMovements(9, 19), 2);
+        Assert.assertEquals(index.getNumMovements(10, 25), 1);
+        Assert.assertEquals(index.getLastMovementTick(0, 25), 19);
+        Assert.assertEquals(index.getLastMovementTick(0, 18), 9);
+        Assert.assertEquals(index.getLastMovementTick(10, 18), -1);
+        Assert.assertFalse(index.hasDirectionChanged(0, 0, 25));
+        Assert.assertTrue(index.hasDirectionChanged(1, 0, 25));
+        Assert.assertFalse(index.hasDirectionChanged(1, 14, 25));
+    }
+
+    public void retroactiveEditTest() {
+        int[] timeline = new int[VentStatusTimeline.VM_GAME_FULL_TIME];
+        TimelineMovementIndex index = new TimelineMovementIndex(timeline);
+        timeline[9] = MOVEMENT;
+        Assert.assertEquals(index.getNumMovements(0, 50), 1);
+
+        //Edits before the indexed ticks are only seen once invalidated
+        timeline[9] = 0;
+        timeline[29] = MOVEMENT | DIRECTION | (4 << 3);
+        index.invalidate(9);
+        Assert.assertEquals(index.getNumMovements(0, 50), 1);
+        Assert.assertEquals(index.getLastMovementTick(0, 50), 29);
+        Assert.assertTrue(index.hasDirectionChanged(2, 20, 30));
+    }
+}
@@ -0,0 +1,116 @@
+package com.ultimatevm;
+
+import org.testng.annotations.Test;
+import org.testng.Assert;
+
+@Test()
+public class VentCandidateSetTest {
+
+    int u = VentStatus.STARTING_VENT_VALUE;
+
+    public void initializeTest() {
+        VentCandidateSet candidateSet = new VentCandidateSet(new GameContext());
+        Assert.assertFalse(candidateSet.isInitialized());
+        Assert.assertTrue(candidateSet.isEmpty());
+
+        //Every starting vent is somewhere within 30-70
+        StatusState state = new StatusState();
+        candidateSet.initialize(state);
+        Assert.assertTrue(candidateSet.isInitialized());
+        Assert.assertEquals(candidateSet.getSize(), 41 * 41 * 41);
+
+        VentDomain possibleValues = new VentDomain();
+        candidateSet.getPossibleValues(0, possibleValues);
+        Assert.assertEquals(possibleValues.getFirstValue(), VentStatus.MIN_STARTING_VENT_VALUE);
+        Assert.assertEquals(possibleValues.getLastValue(), VentStatus.MAX_STARTING_VENT_VALUE);
+
+        candidateSet.clear();
+        Assert.assertFalse(candidateSet.isInitialized());
+        Assert.assertTrue(candidateSet.isEmpty());
+    }
+
+    public void stabilityChangeTest() {
+        VentCandidateSet candidateSet = new VentCandidateSet(new GameContext());
+        StatusState state = new StatusState();
+        candidateSet.initialize(state);
+
+        //Identified vents pin every candidate
+        state.updateVentStatus(new int[]{50, 50, u}, 7);
+        candidateSet.updateVentStatus(state);
+        Assert.assertEquals(candidateSet.getSize(), 41);
+
+        //A and B give 32 points so C must give 15-16 points
+        candidateSet.addStabilityChange(23);
+        VentDomain possibleValues = new VentDomain();
+        candidateSet.getPossibleValues(2, possibleValues);
+        Assert.assertEquals(possibleValues.getFirstValue(), 44);
+        Assert.assertEquals(possibleValues.getLastValue(), 56);
+        Assert.assertEquals(candidateSet.getSize(), 13);
+
+        //No triple can give this change
+        candidateSet.addStabilityChange(-25);
+        Assert.assertTrue(candidateSet.isEmpty());
+    }
+
+    public void movementTest() {
+        VentCandidateSet candidateSet = new VentCandidateSet(new GameContext());
+        StatusState state = new StatusState();
+        state.updateVentStatus(new int[]{50, 50, u}, 7);
+        candidateSet.initialize(state);
+        candidateSet.addStabilityChange(23);
+
+        //A slows B to a stop and both slow C to a stop
+        candidateSet.doMovement(state);
+        VentDomain possibleValues = new VentDomain();
+        candidateSet.getPossibleValues(0, possibleValues);
+        Assert.assertEquals(possibleValues.getSize(), 1);
+        Assert.assertTrue(possibleValues.contains(50 + state.getVents()[0].getDirection()));
+        candidateSet.getPossibleValues(1, possibleValues);
+        Assert.assertTrue(possibleValues.contains(50));
+        candidateSet.getPossibleValues(2, possibleValues);
+        Assert.assertEquals(possibleValues.getSize(), 13);
+
+        //A skipped movement keeps both the moved and unmoved triples
+        candidateSet.addPossibleMovement(state);
+        candidateSet.getPossibleValues(0, possibleValues);
+        Assert.assertEquals(possibleValues.getSize(), 2);
+        Assert.assertEquals(candidateSet.getSize(), 26);
+    }
+
+    public void freezeClipMovementTest() {
+        VentCandidateSet candidateSet = new VentCandidateSet(new GameContext());
+        StatusState state = new StatusState();
+        state.updateVentStatus(new int[]{60, u, 40}, 7);
+        candidateSet.initialize(state);
+
+        //C only moving one means B was 41-59 and moved up by one
+        int moveBitState = 2 | (3 << 2) | (1 << 4);
+        candidateSet.doMovement(state, moveBitState);
+        VentDomain possibleValues = new VentDomain();
+        candidateSet.getPossibleValues(1, possibleValues);
+        Assert.assertEquals(possibleValues.getFirstValue(), 42);
+        Assert.assertEquals(possibleValues.getLastValue(), 60);
+        Assert.assertEquals(possibleValues.getSize(), 19);
+    }
+
+    public void repeatedMovementTest() {
+        VentCandidateSet candidateSet = new VentCandidateSet(new GameContext());
+        StatusState state = new StatusState();
+        state.updateVentStatus(new int[]{50, 50, 50}, 7);
+        candidateSet.initialize(state);
+        Assert.assertEquals(candidateSet.getSize(), 1);
+
+        //Slices left behind by earlier moves never come back
+        for(int i = 0; i < 5; ++i) {
+            candidateSet.doMovement(state);
+            Assert.assertEquals(candidateSet.getSize(), 1);
+        }
+        candidateSet.addPossibleMovement(state);
+        Assert.assertEquals(candidateSet.getSize(), 2);
+        candidateSet.doMovement(state);
+        Assert.assertEquals(candidateSet.getSize(), 2);
+        candidateSet.updateVentStatus(state);
+        Assert.assertEquals(candidateSet.getSize(), 0);
+        Assert.assertTrue(candidateSet.isEmpty());
+    }
+}
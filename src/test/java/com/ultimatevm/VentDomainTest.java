@@ -0,0 +1,202 @@
+package com.ultimatevm;
+
+import org.testng.annotations.Test;
+import org.testng.Assert;
+
+@Test()
+public class VentDomainTest {
+    @Test()
+    public void addRangeTest() {
+        VentDomain domain = new VentDomain();
+        Assert.assertTrue(domain.isEmpty());
+        Assert.assertEquals(domain.getFirstValue(), VentDomain.NO_VALUE);
+        Assert.assertEquals(domain.getLastValue(), VentDomain.NO_VALUE);
+
+        //Range crossing both longs
+        domain.addRange(60, 70);
+        Assert.assertEquals(domain.getSize(), 11);
+        Assert.assertEquals(domain.getFirstValue(), 60);
+        Assert.assertEquals(domain.getLastValue(), 70);
+        Assert.assertTrue(domain.contains(63));
+        Assert.assertTrue(domain.contains(64));
+        Assert.assertFalse(domain.contains(71));
+        Assert.assertEquals(domain.getNextMissingValue(60), 71);
+
+        //Ranges are capped to vent values
+        domain.clear();
+        domain.addRange(-5, 2);
+        domain.addRange(98, 120);
+        Assert.assertEquals(domain.getSize(), 6);
+        Assert.assertEquals(domain.getLastValue(), 100);
+        Assert.assertEquals(domain.getNextValue(3), 98);
+        Assert.assertEquals(domain.getPreviousValue(97), 2);
+        Assert.assertEquals(domain.getPreviousValue(150), 100);
+        Assert.assertEquals(domain.getPreviousValue(-1), VentDomain.NO_VALUE);
+        Assert.assertEquals(domain.getNextMissingValue(98), 101);
+    }
+
+    public void mergeOverlapTest() {
+        VentDomain domain = new VentDomain();
+        domain.addRange(10, 20);
+        VentDomain other = new VentDomain();
+        other.addRange(15, 30);
+        other.addRange(80, 90);
+
+        VentDomain merged = new VentDomain(domain);
+        merged.merge(other);
+        Assert.assertEquals(merged.getSize(), 32);
+        Assert.assertTrue(merged.intersects(85, 85));
+        Assert.assertFalse(merged.intersects(31, 79));
+
+        domain.overlap(other);
+        Assert.assertEquals(domain.getFirstValue(), 15);
+        Assert.assertEquals(domain.getLastValue(), 20);
+        Assert.assertFalse(domain.intersects(other.getLastValue(), 100));
+    }
+
+    public void clippingTest() {
+        VentDomain domain = new VentDomain();
+        domain.addRange(30, 70);
+        domain.removeRange(41, 59);
+        Assert.assertEquals(domain.getSize(), 22);
+        Assert.assertFalse(domain.intersects(41, 59));
+        Assert.assertEquals(domain.getNextMissingValue(30), 41);
+        Assert.assertEquals(domain.getNextValue(41), 60);
+
+        domain.keepRange(0, 53);
+        Assert.assertEquals(domain.getFirstValue(), 30);
+        Assert.assertEquals(domain.getLastValue(), 40);
+    }
+
+    public void moveTest() {
+        //Values inside the freeze range move one less
+        VentDomain domain = new VentDomain();
+        domain.add(39);
+        domain.add(41);
+        domain.move(1, VentStatus.BASE_MOVE_RATE, VentStatus.BASE_MOVE_RATE);
+        Assert.assertEquals(domain.getSize(), 2);
+        Assert.assertTrue(domain.contains(41));
+        Assert.assertTrue(domain.contains(42));
+
+        //Every possible rate is kept without filling the gaps between values
+        domain.clear();
+        domain.add(10);
+        domain.add(20);
+        domain.move(-1, VentStatus.BASE_MOVE_RATE - 2, VentStatus.BASE_MOVE_RATE);
+        Assert.assertEquals(domain.getSize(), 6);
+        Assert.assertTrue(domain.contains(8));
+        Assert.assertTrue(domain.contains(10));
+        Assert.assertFalse(domain.intersects(11, 17));
+
+        //Values are bounded by 0 and 100
+        domain.clear();
+        domain.addRange(99, 100);
+        domain.move(1, VentStatus.BASE_MOVE_RATE, VentStatus.BASE_MOVE_RATE);
+        Assert.assertEquals(domain.getSize(), 1);
+        Assert.assertTrue(domain.contains(100));
+    }
+
+    public void moveValuesTest() {
+        //A vent in 41-59 slows itself and every vent below it
+        int[] values = {50, 30, 40};
+        int[] directions = VentDomain.getChamberDirections(3, new int[StatusState.NUM_VENTS]);
+        Assert.assertEquals(directions, new int[]{1, 1, -1});
+        VentDomain.moveValues(values, directions);
+        Assert.assertEquals(values, new int[]{51, 31, 39});
+
+        //Outside the freeze range every vent moves the full rate
+        values = new int[]{20, 30, 70};
+        VentDomain.moveValues(values, directions);
+        Assert.assertEquals(values, new int[]{22, 32, 68});
+    }
+
+    public void trimTest() {
+        //Only 50% gives 16 points so both vents must be 50%
+        VentDomain toTrim = new VentDomain();
+        toTrim.addRange(0, 100);
+        VentDomain trimSource = new VentDomain();
+        trimSource.addRange(45, 55);
+        toTrim.trimBasedOn(32, trimSource);
+        Assert.assertEquals(toTrim.getFirstValue(), 47);
+        Assert.assertEquals(toTrim.getLastValue(), 53);
+
+        //No source value can reach the points needed
+        trimSource.clear();
+        trimSource.add(0);
+        toTrim.trimBasedOn(20, trimSource);
+        Assert.assertTrue(toTrim.isEmpty());
+    }
+
+    public void ventStatusEngineTest() {
+        VentStatus vent = new VentStatus('B');
+        vent.setDomainEngine(UltimateVolcanicMineConfig.VentDomainEngine.BIT_SET);
+        vent.update(VentStatus.STARTING_VENT_VALUE, 1);
+        vent.clearRanges();
+        vent.setLowerBoundRange(30, 70);
+        vent.setUpperBoundRange(30, 70);
+
+        //Clipping the middle keeps two separate ranges
+        vent.doOuterBoundsClipping(45, 55);
+        Assert.assertEquals(vent.getLowerBoundStart(), 30);
+        Assert.assertEquals(vent.getLowerBoundEnd(), 44);
+        Assert.assertEquals(vent.getUpperBoundStart(), 56);
+        Assert.assertEquals(vent.getUpperBoundEnd(), 70);
+
+        //Interior gaps are still known after a second clip
+        vent.doOuterBoundsClipping(35, 40);
+        Assert.assertFalse(vent.isWithinRange(35, 40));
+        Assert.assertTrue(vent.isWithinRange(41, 44));
+        Assert.assertEquals(vent.getLowerBoundStart(), 30);
+        Assert.assertEquals(vent.getUpperBoundEnd(), 70);
+
+        VentStatus copiedVent = new VentStatus(vent);
+        Assert.assertTrue(copiedVent.isRangeEqualTo(vent));
+    }
+    public void reverseMoveTest() {
+        VentDomain domain = new VentDomain();
+        domain.add(0);
+        domain.add(10);
+        domain.add(99);
+        domain.add(100);
+        //Bound values stay put and the rest are capped
+        domain.reverseMove(-2);
+        Assert.assertTrue(domain.contains(0));
+        Assert.assertTrue(domain.contains(12));
+        Assert.assertTrue(domain.contains(100));
+        Assert.assertEquals(domain.getSize(), 3);
+    }
+    public void ventStatusMovementKeepsGapsTest() {
+        VentStatus vent = new VentStatus('B');
+        vent.setDomainEngine(UltimateVolcanicMineConfig.VentDomainEngine.BIT_SET);
+        vent.update(VentStatus.STARTING_VENT_VALUE, 1);
+        vent.clearRanges();
+        vent.setLowerBoundRange(30, 70);
+        vent.setUpperBoundRange(30, 70);
+        vent.doOuterBoundsClipping(35, 40);
+
+        //Values below 41 move by two and values from 41 move by one
+        vent.updateMovement(new int[]{0, 0});
+        Assert.assertFalse(vent.isWithinRange(37, 41));
+        Assert.assertTrue(vent.isWithinRange(42, 42));
+        Assert.assertEquals(vent.getLowerBoundStart(), 32);
+        Assert.assertEquals(vent.getUpperBoundEnd(), 72);
+
+        vent.doReversedMovement(0);
+        Assert.assertFalse(vent.isWithinRange(35, 39));
+        Assert.assertEquals(vent.getLowerBoundStart(), 30);
+        Assert.assertEquals(vent.getLowerBoundEnd(), 34);
+    }
+    public void domainEnginePerPredicterTest() {
+        VentStatusPredicter bitSetPredicter = new VentStatusPredicter();
+        bitSetPredicter.setDomainEngine(UltimateVolcanicMineConfig.VentDomainEngine.BIT_SET);
+        VentStatusPredicter intervalPredicter = new VentStatusPredicter();
+        Assert.assertTrue(bitSetPredicter.getDisplayState().getVents()[0].isBitSetDomainEngine());
+        Assert.assertFalse(intervalPredicter.getDisplayState().getVents()[0].isBitSetDomainEngine());
+
+        //Copies and new games keep the predicter's engine
+        StatusState copiedState = new StatusState(bitSetPredicter.getDisplayState());
+        Assert.assertTrue(copiedState.getVents()[2].isBitSetDomainEngine());
+        bitSetPredicter.initialize();
+        Assert.assertTrue(bitSetPredicter.getDisplayState().getVents()[1].isBitSetDomainEngine());
+    }
+}
@@ -0,0 +1,83 @@
+package com.ultimatevm;
+
+import org.testng.annotations.Test;
+import org.testng.Assert;
+
+@Test()
+public class VentPredictionPipelineTest {
+
+    int u = VentStatus.STARTING_VENT_VALUE;
+
+    private void configure(VentPredictionPipeline pipeline, boolean isAsync) {
+        pipeline.configure(UltimateVolcanicMineConfig.VentDomainEngine.INTERVAL,
+                UltimateVolcanicMineConfig.VentPredictionMode.TIMELINE, isAsync);
+        pipeline.initialize();
+    }
+    private void playTicks(VentPredictionPipeline pipeline) {
+        for(int tick = 0; tick < 30; ++tick) {
+            //A and B are identified early and one stability update lands afterwards
+            int[] vents = tick < 3 ? new int[]{u, u, u} : new int[]{50, 50, u};
+            pipeline.updateVentStatus(vents, 7);
+            if(tick == 5) pipeline.makeStatusState(23);
+            pipeline.finishTick();
+        }
+    }
+
+    public void inlineTest() {
+        VentPredictionPipeline pipeline = new VentPredictionPipeline();
+        configure(pipeline, false);
+        Assert.assertFalse(pipeline.isAsync());
+        Assert.assertNull(pipeline.getSnapshot());
+
+        playTicks(pipeline);
+        Assert.assertEquals(pipeline.getCurrentTick(), 30);
+        Assert.assertEquals(pipeline.getVentStatusText(2, "C: ?%"),
+                pipeline.getVentStatusPredicter().getVentStatusText(2, "C: ?%"));
+        Assert.assertSame(pipeline.getDisplayedVent(2), pipeline.getVentStatusPredicter().getDisplayState().getVents()[2]);
+    }
+
+    public void asyncTest() {
+        VentPredictionPipeline inline = new VentPredictionPipeline();
+        configure(inline, false);
+        playTicks(inline);
+
+        VentPredictionPipeline async = new VentPredictionPipeline();
+        configure(async, true);
+        Assert.assertTrue(async.isAsync());
+        Assert.assertEquals(async.getSnapshot().getTick(), 0);
+
+        //The client side tick never waits on the worker
+        playTicks(async);
+        Assert.assertEquals(async.getCurrentTick(), 30);
+        Assert.assertTrue(async.isMovementUpdateTick() == inline.isMovementUpdateTick());
+
+        //Once the worker catches up it shows what running inline shows
+        async.flush();
+        Assert.assertEquals(async.getSnapshot().getTick(), 29);
+        Assert.assertEquals(async.getVentStatusText(2, "C: ?%"), inline.getVentStatusText(2, "C: ?%"));
+        Assert.assertNotEquals(async.getVentStatusText(2, "C: ?%"), "C: ?%");
+        //Unchanged ranges hand back the text already composed
+        Assert.assertSame(async.getVentStatusText(2, "C: ?%"), async.getVentStatusText(2, "C: ?%"));
+        Assert.assertTrue(async.getDisplayedVent(2).isRangeEqualTo(inline.getDisplayedVent(2)));
+        UltimateVolcanicMineConfig.PredictionScenario scenario = UltimateVolcanicMineConfig.PredictionScenario.WORST_CASE;
+        Assert.assertEquals(async.getFutureStabilityChange(scenario), inline.getFutureStabilityChange(scenario));
+
+        //Going back inline hands the predicter back to the caller
+        async.shutdown();
+        Assert.assertFalse(async.isAsync());
+        Assert.assertEquals(async.getCurrentTick(), 30);
+    }
+
+    public void shutdownWaitsForWorkerTest() {
+        VentPredictionPipeline pipeline = new VentPredictionPipeline();
+        configure(pipeline, true);
+        playTicks(pipeline);
+
+        //An interrupt never cuts the wait short so every queued tick lands before going inline
+        Thread.currentThread().interrupt();
+        pipeline.shutdown();
+        Assert.assertTrue(Thread.interrupted());
+        Assert.assertFalse(pipeline.isAsync());
+        Assert.assertEquals(pipeline.getVentStatusPredicter().getCurrentTick(), 30);
+    }
+}
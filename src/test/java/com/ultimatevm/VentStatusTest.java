@@ -6,6 +6,8 @@ import org.testng.Assert;
 @Test()
 public class VentStatusTest {
     int u = VentStatus.STARTING_VENT_VALUE;
+    private final GameContext soloContext = new GameContext();
+    private final GameContext teamContext = new GameContext(2);
     @Test()
     public void constructorTest() {
         VentStatus vent = new VentStatus('A');
@@ -22,9 +24,8 @@ public class VentStatusTest {
     }
 
     public void copyConstructorTest() {
-        StabilityUpdateInfo.resetPlayers();
         VentStatus vent = new VentStatus('A');
-        vent.doVMReset();
+        vent.doVMReset(soloContext);
         vent.update(VentStatus.STARTING_VENT_VALUE, 1);
         vent.clearRanges();
         vent.setLowerBoundRange(60, 60);
@@ -45,13 +46,11 @@ public class VentStatusTest {
         //For solo reset total bounds are 25-75%
         Assert.assertEquals(vent.getTotalBoundStart(), VentStatus.MIN_RESET_SOLO_VENT_VALUE+VentStatus.BASE_MOVE_RATE);
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_RESET_SOLO_VENT_VALUE+VentStatus.BASE_MOVE_RATE);
-        StabilityUpdateInfo.setNumPlayers(2);
     }
 
     public void setEqualToTest() {
-        StabilityUpdateInfo.resetPlayers();
         VentStatus vent = new VentStatus('A');
-        vent.doVMReset();
+        vent.doVMReset(soloContext);
         vent.update(VentStatus.STARTING_VENT_VALUE, 1);
         vent.clearRanges();
         vent.setLowerBoundRange(60, 60);
@@ -72,18 +71,16 @@ public class VentStatusTest {
         //For solo reset total bounds are 25-75%
         Assert.assertEquals(vent.getTotalBoundStart(), VentStatus.MIN_RESET_SOLO_VENT_VALUE+VentStatus.BASE_MOVE_RATE);
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_RESET_SOLO_VENT_VALUE+VentStatus.BASE_MOVE_RATE);
-        StabilityUpdateInfo.setNumPlayers(2);
     }
 
     public void doVMResetTest() {
-        StabilityUpdateInfo.setNumPlayers(2);
         VentStatus vent = new VentStatus('A');
         Assert.assertEquals(vent.getTotalBoundStart(), VentStatus.MIN_STARTING_VENT_VALUE);
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_STARTING_VENT_VALUE);
         vent.update(VentStatus.PERFECT_VENT_VALUE, 1);
         vent.updateMovement(new int[]{0, 0});
 
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         Assert.assertEquals(vent.getName(), 'A');
         Assert.assertEquals(vent.getDirection(), 1);
         Assert.assertEquals(vent.getActualValue(), VentStatus.STARTING_VENT_VALUE);
@@ -97,14 +94,13 @@ public class VentStatusTest {
     }
 
     public void doVMSoloResetTest() {
-        StabilityUpdateInfo.resetPlayers();
         VentStatus vent = new VentStatus('A');
         Assert.assertEquals(vent.getTotalBoundStart(), VentStatus.MIN_STARTING_VENT_VALUE);
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_STARTING_VENT_VALUE);
         vent.update(VentStatus.PERFECT_VENT_VALUE, 1);
         vent.updateMovement(new int[]{0, 0});
 
-        vent.doVMReset();
+        vent.doVMReset(soloContext);
         Assert.assertEquals(vent.getName(), 'A');
         Assert.assertEquals(vent.getDirection(), 1);
         Assert.assertEquals(vent.getActualValue(), VentStatus.STARTING_VENT_VALUE);
@@ -115,7 +111,6 @@ public class VentStatusTest {
         //For solo reset total bounds are 25-75%
         Assert.assertEquals(vent.getTotalBoundStart(), VentStatus.MIN_RESET_SOLO_VENT_VALUE);
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_RESET_SOLO_VENT_VALUE);
-        StabilityUpdateInfo.setNumPlayers(2);
     }
 
     public void doVMResetFreezeClipAccurateTest() {
@@ -127,7 +122,7 @@ public class VentStatusTest {
         vent.makeFreezeClipAccurate();
 
         Assert.assertTrue(vent.isFreezeClipAccurate());
-        vent.doVMReset();
+        vent.doVMReset(soloContext);
         Assert.assertFalse(vent.isFreezeClipAccurate());
     }
 
@@ -327,7 +322,7 @@ public class VentStatusTest {
     public void updateMovementRangeTest() {
         //Ranges should be updated and capped at 100%
         VentStatus vent = new VentStatus('A');
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.update(VentStatus.STARTING_VENT_VALUE, 1);
         vent.clearRanges();
         vent.setLowerBoundRange(VentStatus.MIN_VENT_VALUE, 3);
@@ -341,7 +336,7 @@ public class VentStatusTest {
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_VENT_VALUE);
 
         //Ranges should be updated and capped at 0%
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.update(VentStatus.STARTING_VENT_VALUE, -1);
         vent.clearRanges();
         vent.setLowerBoundRange(VentStatus.MIN_VENT_VALUE, 3);
@@ -355,7 +350,7 @@ public class VentStatusTest {
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_VENT_VALUE-1);
 
         //Ranges should merge and move properly
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.clearRanges();
         vent.setLowerBoundRange(47, VentStatus.PERFECT_VENT_VALUE);
         vent.setUpperBoundRange(VentStatus.PERFECT_VENT_VALUE, 53);
@@ -368,7 +363,7 @@ public class VentStatusTest {
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_VENT_VALUE-VentStatus.BASE_MOVE_RATE);
 
         //Ranges should merge and move properly even max ranges
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.clearRanges();
         vent.setLowerBoundRange(VentStatus.MIN_VENT_VALUE, VentStatus.PERFECT_VENT_VALUE);
         vent.setUpperBoundRange(VentStatus.PERFECT_VENT_VALUE, VentStatus.MAX_VENT_VALUE);
@@ -384,7 +379,7 @@ public class VentStatusTest {
     public void updateMovementRangeFrozenTest() {
         //Ranges should not be updated if frozen
         VentStatus vent = new VentStatus('C');
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.update(VentStatus.STARTING_VENT_VALUE, 1);
         vent.clearRanges();
         vent.setLowerBoundRange(VentStatus.MIN_VENT_VALUE, 3);
@@ -399,7 +394,7 @@ public class VentStatusTest {
 
         //Since ranges are within 41-59% there is an additional influence
         //making this -2
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.clearRanges();
         vent.setLowerBoundRange(41, 45);
         vent.setUpperBoundRange(55, 59);
@@ -412,7 +407,7 @@ public class VentStatusTest {
         Assert.assertEquals(vent.getTotalBoundEnd(), VentStatus.MAX_VENT_VALUE);
 
         //Test for -3 influence it should still be 0 movement
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.clearRanges();
         vent.setLowerBoundRange(41, 45);
         vent.setUpperBoundRange(55, 59);
@@ -1575,6 +1570,33 @@ public class VentStatusTest {
         Assert.assertEquals(vent.getReversedInfluence(0), -1);
     }
 
+    public void overlapPossibleValuesTest() {
+        VentStatus vent = new VentStatus('B');
+        VentDomain values = new VentDomain();
+        values.add(35);
+        values.add(65);
+        //Overlapping values narrow our ranges
+        vent.overlapPossibleValues(values);
+        Assert.assertEquals(vent.getLowerBoundStart(), 35);
+        Assert.assertEquals(vent.getLowerBoundEnd(), 35);
+        Assert.assertEquals(vent.getUpperBoundStart(), 65);
+        Assert.assertEquals(vent.getUpperBoundEnd(), 65);
+
+        //Values that contradict our ranges replace them
+        values.clear();
+        values.addRange(80, 82);
+        vent.overlapPossibleValues(values);
+        Assert.assertEquals(vent.getLowerBoundStart(), 80);
+        Assert.assertEquals(vent.getUpperBoundEnd(), 82);
+
+        //Undefined ranges are filled in
+        vent.clearRanges();
+        vent.overlapPossibleValues(values);
+        Assert.assertTrue(vent.isRangeDefined());
+        Assert.assertEquals(vent.getLowerBoundStart(), 80);
+        Assert.assertEquals(vent.getUpperBoundEnd(), 82);
+    }
+
     public void doReversedMovementInvalidTest() {
         VentStatus vent = new VentStatus('A');
         vent.clearRanges();
@@ -1610,16 +1632,14 @@ public class VentStatusTest {
     }
 
     public void doReversedMovementBoundedTest() {
-        StabilityUpdateInfo.setNumPlayers(2);
         VentStatus vent = new VentStatus('A');
-        vent.doVMReset();
+        vent.doVMReset(teamContext);
         vent.doReversedMovement(0);
         Assert.assertEquals(vent.getActualValue(), u);
         Assert.assertEquals(vent.getLowerBoundStart(), 0);
         Assert.assertEquals(vent.getUpperBoundStart(), 0);
         Assert.assertEquals(vent.getLowerBoundEnd(), 100);
         Assert.assertEquals(vent.getUpperBoundEnd(), 100);
-        StabilityUpdateInfo.resetPlayers();
     }
 
     public void doReversedMovementIdentifiedTest() {
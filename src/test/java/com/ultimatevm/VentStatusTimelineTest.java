@@ -3,11 +3,12 @@ package com.ultimatevm;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
-import java.util.HashMap;
 
 @Test()
 public class VentStatusTimelineTest {
     int u = VentStatus.STARTING_VENT_VALUE;
+    private final GameContext context = new GameContext();
+    private final GameContext teamContext = new GameContext(2);
 
     private void advanceTicks(VentStatusTimeline timeline, int numTicks) {
         for(int i = 0; i < numTicks; ++i) timeline.updateTick();
@@ -17,7 +18,7 @@ public class VentStatusTimelineTest {
         return bitState << 6;
     }
     public void constructorTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         Assert.assertEquals(timeline.getCurrentTick(), 0);
         Assert.assertEquals(timeline.getCurrentStartingTick(), 0);
         Assert.assertEquals(timeline.getNumIdentifiedVents(), 0);
@@ -34,10 +35,10 @@ public class VentStatusTimelineTest {
     }
 
     public void initializeTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
 
         timeline.addInitialState(new StatusState());
         timeline.addIdentifiedVentTick(new StatusState(), 1);
@@ -61,17 +62,18 @@ public class VentStatusTimelineTest {
     }
 
     public void resetTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
 
         timeline.addInitialState(new StatusState());
         timeline.addIdentifiedVentTick(new StatusState(), 1);
-        timeline.addMovementTick(new StatusState(), makeMoveBitState(0,0,0));
         timeline.updateTick();
+        timeline.addMovementTick(new StatusState(), makeMoveBitState(0,0,0));
+        Assert.assertNotNull(timeline.getMovementVentState(1));
 
-        //Stored states, events and ticks should remain the same
+        //Stored events and ticks should remain the same
         Assert.assertFalse(timeline.isHasReset());
         timeline.reset();
         Assert.assertTrue(timeline.isHasReset());
@@ -81,6 +83,8 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(timelineEvents, timeline.getTimeline());
         Assert.assertEquals(tickToMovementVentState, timeline.getMovementVentStates());
         Assert.assertEquals(tickToStabilityUpdateState, timeline.getStabilityUpdateStates());
+        //Pre-reset states go back to the arena so they must not stay reachable
+        Assert.assertNull(timeline.getMovementVentState(1));
         //Identified vents and states should be cleared
         Assert.assertEquals(timeline.getNumIdentifiedVents(), 0);
         for(int i = 0; i < StatusState.NUM_VENTS+1; ++i) {
@@ -90,7 +94,7 @@ public class VentStatusTimelineTest {
     }
 
     public void addInitialStateTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state1 = new StatusState();
 
         //Should successfully be added
@@ -104,7 +108,7 @@ public class VentStatusTimelineTest {
     }
 
     public void addIdentifiedVentTickTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         timeline.addInitialState(new StatusState());
         int[] timelineEvents = timeline.getTimeline();
         int[] identifiedVentTicks = timeline.getIdentifiedVentTicks();
@@ -136,7 +140,7 @@ public class VentStatusTimelineTest {
     }
 
     public void addIdentifiedVentTickInvalidTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
         int[] identifiedVentTicks = timeline.getIdentifiedVentTicks();
         StatusState[] identifiedVentStates = timeline.getIdentifiedVentStates();
@@ -152,7 +156,7 @@ public class VentStatusTimelineTest {
     }
 
     public void addIdentifiedVentTickReassignTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         timeline.addInitialState(new StatusState());
         int[] timelineEvents = timeline.getTimeline();
         int[] identifiedVentTicks = timeline.getIdentifiedVentTicks();
@@ -172,7 +176,7 @@ public class VentStatusTimelineTest {
     }
 
     public void addDirectionChangeTickTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
         int onFlag = (1 << VentStatusTimeline.DIRECTION_CHANGED_FLAG);
 
@@ -184,24 +188,26 @@ public class VentStatusTimelineTest {
     }
 
     public void addMovementTickTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         timeline.addInitialState(new StatusState());
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
         StatusState state1 = new StatusState();
         int onFlag = (1 << VentStatusTimeline.MOVEMENT_UPDATE_FLAG);
 
         //This should fail to be added since 0 tick move is impossible
         timeline.addMovementTick(state1, makeMoveBitState(3,3,3));
-        StatusState addedState = tickToMovementVentState.get(0);
+        StatusState addedState = tickToMovementVentState[0];
         Assert.assertNull(addedState);
 
         //Should successfully be added
         advanceTicks(timeline, 10);
         int moveBitState = makeMoveBitState(3,3,3);
         timeline.addMovementTick(state1, moveBitState);
-        addedState = tickToMovementVentState.get(10);
+        addedState = tickToMovementVentState[10];
         Assert.assertNotNull(addedState);
+        Assert.assertSame(timeline.getMovementVentState(10), addedState);
+        Assert.assertNull(timeline.getMovementVentState(9));
         Assert.assertEquals(timelineEvents[10], onFlag | moveBitState);
         //New copied instance should be added
         Assert.assertNotEquals(addedState, state1);
@@ -214,37 +220,38 @@ public class VentStatusTimelineTest {
     }
 
     public void addStabilityUpdateTickTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
         StatusState state1 = new StatusState();
         int onFlag = (1 << VentStatusTimeline.STABILITY_UPDATE_FLAG);
 
         timeline.addStabilityUpdateTick(state1, 0);
         //Should successfully be added
-        StabilityUpdateInfo addedInfo = tickToStabilityUpdateState.get(0);
+        StabilityUpdateInfo addedInfo = tickToStabilityUpdateState[0];
         Assert.assertNotNull(addedInfo);
+        Assert.assertSame(timeline.getStabilityUpdateInfo(0), addedInfo);
         Assert.assertEquals(timelineEvents[0], onFlag);
         //New copied instance should be added
         Assert.assertNotEquals(addedInfo.getStabilityUpdateState(), state1);
     }
 
     public void addStabilityUpdateTickCalcTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
         StatusState state1 = new StatusState();
         state1.updateVentStatus(new int[]{VentStatus.STARTING_VENT_VALUE,50, 50}, 0);
         timeline.addStabilityUpdateTick(state1, 10);
 
         //The added state should have a calculated estimated value
-        StabilityUpdateInfo addedInfo = tickToStabilityUpdateState.get(0);
+        StabilityUpdateInfo addedInfo = tickToStabilityUpdateState[0];
         StatusState addedState = addedInfo.getStabilityUpdateState();
         Assert.assertTrue(addedState.getVents()[0].isRangeDefined());
     }
 
     public void addEarthquakeEventTickTest() {
         //Earthquake event should be added and remove est move
-        VentStatusTimeline MoveStartTimeline = new VentStatusTimeline();
+        VentStatusTimeline MoveStartTimeline = new VentStatusTimeline(context);
         MoveStartTimeline.addInitialState(new StatusState());
         advanceTicks(MoveStartTimeline, 10);
         MoveStartTimeline.addMovementTick(new StatusState(), 0);
@@ -255,7 +262,7 @@ public class VentStatusTimelineTest {
     }
 
     public void addEstimatedMovementTickTest() {
-        VentStatusTimeline MoveStartTimeline = new VentStatusTimeline();
+        VentStatusTimeline MoveStartTimeline = new VentStatusTimeline(context);
         MoveStartTimeline.addInitialState(new StatusState());
         int addedEstMoveFlag = (1 << VentStatusTimeline.ESTIMATED_MOVEMENT_FLAG);
 
@@ -275,7 +282,7 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(MoveStartTimeline.getTimeline()[30], addedEstMoveFlag);
 
         //Should pass even though no movement update
-        VentStatusTimeline StabStartTimeline = new VentStatusTimeline();
+        VentStatusTimeline StabStartTimeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u, 50, 50}, 0);
         advanceTicks(StabStartTimeline, 10);
@@ -294,7 +301,7 @@ public class VentStatusTimelineTest {
         int addedEstMoveFlag = (1 << VentStatusTimeline.ESTIMATED_MOVEMENT_FLAG);
 
         //Movement was skipped here remove the est move
-        VentStatusTimeline MoveStartTimeline1 = new VentStatusTimeline();
+        VentStatusTimeline MoveStartTimeline1 = new VentStatusTimeline(context);
         MoveStartTimeline1.addInitialState(new StatusState());
         advanceTicks(MoveStartTimeline1, 10);
         MoveStartTimeline1.addMovementTick(new StatusState(), 0);
@@ -306,7 +313,7 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(MoveStartTimeline1.getTimeline()[20], 0);
 
         //Movement was not skipped keep all est moves
-        VentStatusTimeline MoveStartTimeline2 = new VentStatusTimeline();
+        VentStatusTimeline MoveStartTimeline2 = new VentStatusTimeline(context);
         MoveStartTimeline2.addInitialState(new StatusState());
         advanceTicks(MoveStartTimeline2, 10);
         MoveStartTimeline2.addMovementTick(new StatusState(), 0);
@@ -339,7 +346,7 @@ public class VentStatusTimelineTest {
         int addedEstMoveFlag = (1 << VentStatusTimeline.ESTIMATED_MOVEMENT_FLAG);
 
         //Positioning of the est moves should be corrected
-        VentStatusTimeline StabStartTimeline = new VentStatusTimeline();
+        VentStatusTimeline StabStartTimeline = new VentStatusTimeline(context);
         StabStartTimeline.addInitialState(new StatusState());
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u, 50, 50}, 0);
@@ -360,8 +367,38 @@ public class VentStatusTimelineTest {
         }
     }
 
+    public void getEventTicksTest() {
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
+        StatusState state = new StatusState();
+        timeline.addInitialState(state);
+        advanceTicks(timeline, 5);
+        timeline.addDirectionChangeTick(1 << 3);
+        advanceTicks(timeline, 5);
+        timeline.addMovementTick(state, makeMoveBitState(3, 3, 3));
+        advanceTicks(timeline, 10);
+        Assert.assertTrue(timeline.addEstimatedMovementTick());
+        advanceTicks(timeline, 5);
+        timeline.addStabilityUpdateTick(state, 20);
+
+        //Each flag keeps track of the ticks it occured on
+        Assert.assertEquals(timeline.getNextEventTick(VentStatusTimeline.DIRECTION_CHANGED_FLAG, 0), 5);
+        Assert.assertEquals(timeline.getNextEventTick(VentStatusTimeline.MOVEMENT_UPDATE_FLAG, 0), 10);
+        Assert.assertEquals(timeline.getNextEventTick(VentStatusTimeline.ESTIMATED_MOVEMENT_FLAG, 0), 20);
+        Assert.assertEquals(timeline.getNextEventTick(VentStatusTimeline.STABILITY_UPDATE_FLAG, 0), 25);
+        Assert.assertEquals(timeline.getNextEventTick(VentStatusTimeline.STABILITY_UPDATE_FLAG, 26), -1);
+
+        //Earthquakes should clear the estimated movement tick
+        VentStatusTimeline earthquakeTimeline = new VentStatusTimeline(context);
+        earthquakeTimeline.addInitialState(state);
+        advanceTicks(earthquakeTimeline, 10);
+        Assert.assertTrue(earthquakeTimeline.addEstimatedMovementTick());
+        earthquakeTimeline.addEarthquakeEventTick();
+        Assert.assertEquals(earthquakeTimeline.getNextEventTick(VentStatusTimeline.EARTHQUAKE_EVENT_FLAG, 0), 10);
+        Assert.assertEquals(earthquakeTimeline.getNextEventTick(VentStatusTimeline.ESTIMATED_MOVEMENT_FLAG, 0), -1);
+    }
+
     public void getTimelinePredictionStateIdentifyTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
@@ -397,8 +434,35 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(resultState.getVents()[2].getActualValue(), 50);
     }
 
+    public void getTimelinePredictionStateVersionTest() {
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
+        StatusState state = new StatusState();
+        state.updateVentStatus(new int[]{u,u,u}, 0);
+        timeline.addInitialState(state);
+        advanceTicks(timeline, 10);
+        state.updateVentStatus(new int[]{u,50,u}, 0);
+        int version = timeline.getVersion();
+        timeline.addIdentifiedVentTick(state, 2);
+        Assert.assertNotEquals(timeline.getVersion(), version);
+
+        //Quiet ticks keep the version and the settled prediction
+        version = timeline.getVersion();
+        StatusState resultState = timeline.getTimelinePredictionState();
+        advanceTicks(timeline, 5);
+        Assert.assertEquals(timeline.getVersion(), version);
+        Assert.assertSame(timeline.getTimelinePredictionState(), resultState);
+
+        //Events replay the ticks that were skipped
+        state.updateVentStatus(new int[]{50,50,u}, 0);
+        timeline.addIdentifiedVentTick(state, 1);
+        Assert.assertNotEquals(timeline.getVersion(), version);
+        resultState = timeline.getTimelinePredictionState();
+        Assert.assertEquals(resultState.getVents()[0].getActualValue(), 50);
+        Assert.assertEquals(resultState.getVents()[1].getActualValue(), 50);
+    }
+
     public void getTimelinePredictionStateDirectionTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
@@ -437,7 +501,7 @@ public class VentStatusTimelineTest {
     }
 
     public void getTimelinePredictionStateMovementTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{50,u,u}, 0);
         timeline.addInitialState(state);
@@ -455,7 +519,7 @@ public class VentStatusTimelineTest {
     }
 
     public void getTimelinePredictionStateStabilityTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,75,75}, 0);
         timeline.addInitialState(state);
@@ -473,7 +537,7 @@ public class VentStatusTimelineTest {
     }
 
     public void updatePreviousVentValuesTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
@@ -509,26 +573,26 @@ public class VentStatusTimelineTest {
         timeline.addIdentifiedVentTick(state, 1);
 
         //Verify results
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
         //Early Stability update should remain unchanged
-        StatusState tick20StabState = tickToStabilityUpdateState.get(20).getStabilityUpdateState();
+        StatusState tick20StabState = tickToStabilityUpdateState[20].getStabilityUpdateState();
         Assert.assertEquals(tick20StabState.getVents()[0].getActualValue(), u);
         //Movement ticks should have the correct values
         int validMovementBit = makeMoveBitState(1, 1, 3);
-        Assert.assertEquals(tickToMovementVentState.get(41).getVents()[0].getActualValue(), 49);
+        Assert.assertEquals(tickToMovementVentState[41].getVents()[0].getActualValue(), 49);
         Assert.assertEquals(timelineEvents[41] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(51).getVents()[0].getActualValue(), 50);
+        Assert.assertEquals(tickToMovementVentState[51].getVents()[0].getActualValue(), 50);
         Assert.assertEquals(timelineEvents[51] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
         //Second stability update will have a value
-        StatusState tick41StabState = tickToStabilityUpdateState.get(41).getStabilityUpdateState();
+        StatusState tick41StabState = tickToStabilityUpdateState[41].getStabilityUpdateState();
         Assert.assertEquals(tick41StabState.getVents()[0].getActualValue(), 49);
         //it should also have a new estimated value
         Assert.assertTrue(tick41StabState.getVents()[2].isRangeDefined());
     }
 
     public void updatePreviousVentValuesOnMovementTickTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
@@ -542,8 +606,8 @@ public class VentStatusTimelineTest {
         timeline.addIdentifiedVentTick(state, 3);
 
         //Stability update will not update since there are no movement ticks
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        StatusState tick20StabState = tickToStabilityUpdateState.get(20).getStabilityUpdateState();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState tick20StabState = tickToStabilityUpdateState[20].getStabilityUpdateState();
         Assert.assertEquals(tick20StabState.getVents()[0].getActualValue(), u);
         Assert.assertEquals(tick20StabState.getVents()[1].getActualValue(), u);
         Assert.assertEquals(tick20StabState.getVents()[2].getActualValue(), u);
@@ -560,7 +624,7 @@ public class VentStatusTimelineTest {
     }
 
     public void updatePreviousVentValuesMissingMovementTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
@@ -578,8 +642,8 @@ public class VentStatusTimelineTest {
         timeline.addMovementTick(state, makeMoveBitState(3, 1, 3));
 
         //1st Stability update should be changed
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        StatusState tick20StabState = tickToStabilityUpdateState.get(20).getStabilityUpdateState();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState tick20StabState = tickToStabilityUpdateState[20].getStabilityUpdateState();
         Assert.assertEquals(tick20StabState.getVents()[0].getActualValue(), u);
         Assert.assertEquals(tick20StabState.getVents()[1].getActualValue(), 60);
         Assert.assertEquals(tick20StabState.getVents()[2].getActualValue(), u);
@@ -601,7 +665,7 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(tick20StabState.getVents()[1].getActualValue(), 60);
         Assert.assertEquals(tick20StabState.getVents()[2].getActualValue(), u);
         //2nd Stability update should be changed
-        StatusState tick69StabState = tickToStabilityUpdateState.get(69).getStabilityUpdateState();
+        StatusState tick69StabState = tickToStabilityUpdateState[69].getStabilityUpdateState();
         Assert.assertEquals(tick69StabState.getVents()[0].getActualValue(), 55);
         Assert.assertEquals(tick69StabState.getVents()[1].getActualValue(), 58);
         Assert.assertEquals(tick69StabState.getVents()[2].getActualValue(), u);
@@ -609,7 +673,7 @@ public class VentStatusTimelineTest {
     }
 
     public void updatePreviousVentValuesReverseFailTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 7);
@@ -637,23 +701,23 @@ public class VentStatusTimelineTest {
 
 
         //1st Stability update should remain the same due to reverse move fail
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        StatusState tick50StabState = tickToStabilityUpdateState.get(50).getStabilityUpdateState();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState tick50StabState = tickToStabilityUpdateState[50].getStabilityUpdateState();
         Assert.assertEquals(tick50StabState.getVents()[0].getActualValue(), 55);
         Assert.assertEquals(tick50StabState.getVents()[1].getActualValue(), u);
         Assert.assertEquals(tick50StabState.getVents()[2].getActualValue(), u);
         //Movement ticks should also remain the same
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
-        Assert.assertEquals(tickToMovementVentState.get(40).getVents()[1].getActualValue(), u);
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
+        Assert.assertEquals(tickToMovementVentState[40].getVents()[1].getActualValue(), u);
         Assert.assertEquals(timelineEvents[40] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMoveBitState);
-        Assert.assertEquals(tickToMovementVentState.get(50).getVents()[1].getActualValue(), u);
+        Assert.assertEquals(tickToMovementVentState[50].getVents()[1].getActualValue(), u);
         Assert.assertEquals(timelineEvents[50] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMoveBitState);
-        Assert.assertEquals(tickToMovementVentState.get(60).getVents()[1].getActualValue(), 41);
+        Assert.assertEquals(tickToMovementVentState[60].getVents()[1].getActualValue(), 41);
         Assert.assertEquals(timelineEvents[60] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMoveBitState);
     }
 
     public void getCurrentPredictionStateTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
@@ -835,8 +899,66 @@ public class VentStatusTimelineTest {
         Assert.assertTrue(predictedState.getVents()[2].isRangeDefined());
     }
 
+    private void advanceTicksWithPrediction(VentStatusTimeline timeline, int numTicks) {
+        for(int i = 0; i < numTicks; ++i) {
+            timeline.getCurrentPredictionState();
+            timeline.updateTick();
+        }
+    }
+    private VentStatusTimeline makeLateIdentifyTimeline(boolean predictEveryTick) {
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
+        StatusState state = new StatusState();
+        state.updateVentStatus(new int[]{u,u,u}, 0);
+        timeline.addInitialState(state);
+
+        //22: Early Stability update of 18
+        if(predictEveryTick) advanceTicksWithPrediction(timeline, 22);
+        else advanceTicks(timeline, 22);
+        timeline.addStabilityUpdateTick(state, 18);
+        //34: A Vent was identified to be 58
+        if(predictEveryTick) advanceTicksWithPrediction(timeline, 12);
+        else advanceTicks(timeline, 12);
+        state.updateVentStatus(new int[]{58,u,u}, 0);
+        timeline.addIdentifiedVentTick(state, 1);
+        //37-97: Movement updates with stability updates every 25 ticks
+        int aValue = 57;
+        for(int tick = 37; tick <= 97; tick += 10) {
+            if(predictEveryTick) advanceTicksWithPrediction(timeline, tick == 37 ? 3 : 10);
+            else advanceTicks(timeline, tick == 37 ? 3 : 10);
+            state.updateVentStatus(new int[]{aValue--,u,u}, 0);
+            timeline.addMovementTick(state, makeMoveBitState(1, 0, 0));
+            if(tick == 47 || tick == 77) timeline.addStabilityUpdateTick(state, 19);
+        }
+        //102: Late B identification backtracks through several checkpoints
+        if(predictEveryTick) advanceTicksWithPrediction(timeline, 5);
+        else advanceTicks(timeline, 5);
+        state.updateVentStatus(new int[]{51,43,u}, 0);
+        timeline.addIdentifiedVentTick(state, 2);
+        return timeline;
+    }
+    public void checkpointReplayTest() {
+        //A timeline replayed every tick rolls back to a checkpoint on identification
+        VentStatusTimeline checkpointedTimeline = makeLateIdentifyTimeline(true);
+        //A timeline replayed once does a full replay
+        VentStatusTimeline fullTimeline = makeLateIdentifyTimeline(false);
+
+        StatusState checkpointedState = checkpointedTimeline.getCurrentPredictionState();
+        StatusState fullState = fullTimeline.getCurrentPredictionState();
+        for(int i = 0; i < StatusState.NUM_VENTS; ++i) {
+            VentStatus checkpointedVent = checkpointedState.getVents()[i];
+            VentStatus fullVent = fullState.getVents()[i];
+            Assert.assertEquals(checkpointedVent.getActualValue(), fullVent.getActualValue());
+            Assert.assertEquals(checkpointedVent.getLowerBoundStart(), fullVent.getLowerBoundStart());
+            Assert.assertEquals(checkpointedVent.getLowerBoundEnd(), fullVent.getLowerBoundEnd());
+            Assert.assertEquals(checkpointedVent.getUpperBoundStart(), fullVent.getUpperBoundStart());
+            Assert.assertEquals(checkpointedVent.getUpperBoundEnd(), fullVent.getUpperBoundEnd());
+        }
+        //C should have a prediction from the stability updates
+        Assert.assertTrue(checkpointedState.getVents()[2].isRangeDefined());
+    }
+
     public void freezeClippingTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
@@ -868,12 +990,12 @@ public class VentStatusTimelineTest {
 
     //Safe - reverse movement tests
     public void reverseMovementATest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
         StatusState state = new StatusState();
-        state.doVMReset();
+        state.doVMReset(teamContext);
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
 
@@ -925,28 +1047,28 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(state.getVents()[1].getUpperBoundEnd(), 12);
         //Check that all values reversed to movement states correctly
         int validMovementBit = makeMoveBitState(2, 3, 2);
-        Assert.assertEquals(tickToMovementVentState.get(8).getVents()[0].getActualValue(), 22);
+        Assert.assertEquals(tickToMovementVentState[8].getVents()[0].getActualValue(), 22);
         Assert.assertEquals(timelineEvents[8] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(18).getVents()[0].getActualValue(), 20);
+        Assert.assertEquals(tickToMovementVentState[18].getVents()[0].getActualValue(), 20);
         Assert.assertEquals(timelineEvents[18] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(28).getVents()[0].getActualValue(), 18);
+        Assert.assertEquals(tickToMovementVentState[28].getVents()[0].getActualValue(), 18);
         Assert.assertEquals(timelineEvents[28] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(38).getVents()[0].getActualValue(), 16);
+        Assert.assertEquals(tickToMovementVentState[38].getVents()[0].getActualValue(), 16);
         Assert.assertEquals(timelineEvents[38] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(48).getVents()[0].getActualValue(), 14);
+        Assert.assertEquals(tickToMovementVentState[48].getVents()[0].getActualValue(), 14);
         Assert.assertEquals(timelineEvents[48] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
         //Check that all values revered to stability update states correctly
-        Assert.assertEquals(tickToStabilityUpdateState.get(23).getStabilityUpdateState().getVents()[0].getActualValue(), 20);
-        Assert.assertEquals(tickToStabilityUpdateState.get(48).getStabilityUpdateState().getVents()[0].getActualValue(), 14);
+        Assert.assertEquals(tickToStabilityUpdateState[23].getStabilityUpdateState().getVents()[0].getActualValue(), 20);
+        Assert.assertEquals(tickToStabilityUpdateState[48].getStabilityUpdateState().getVents()[0].getActualValue(), 14);
     }
 
     public void reverseMovementBTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
         StatusState state = new StatusState();
-        state.doVMReset();
+        state.doVMReset(teamContext);
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
 
@@ -998,28 +1120,28 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(state.getVents()[0].getUpperBoundEnd(), 12);
         //Check that all values reversed to movement states correctly
         int validMovementBit = makeMoveBitState(3, 2, 2);
-        Assert.assertEquals(tickToMovementVentState.get(8).getVents()[1].getActualValue(), 22);
+        Assert.assertEquals(tickToMovementVentState[8].getVents()[1].getActualValue(), 22);
         Assert.assertEquals(timelineEvents[8] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(18).getVents()[1].getActualValue(), 20);
+        Assert.assertEquals(tickToMovementVentState[18].getVents()[1].getActualValue(), 20);
         Assert.assertEquals(timelineEvents[18] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(28).getVents()[1].getActualValue(), 18);
+        Assert.assertEquals(tickToMovementVentState[28].getVents()[1].getActualValue(), 18);
         Assert.assertEquals(timelineEvents[28] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(38).getVents()[1].getActualValue(), 16);
+        Assert.assertEquals(tickToMovementVentState[38].getVents()[1].getActualValue(), 16);
         Assert.assertEquals(timelineEvents[38] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(48).getVents()[1].getActualValue(), 14);
+        Assert.assertEquals(tickToMovementVentState[48].getVents()[1].getActualValue(), 14);
         Assert.assertEquals(timelineEvents[48] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
         //Check that all values revered to stability update states correctly
-        Assert.assertEquals(tickToStabilityUpdateState.get(23).getStabilityUpdateState().getVents()[1].getActualValue(), 20);
-        Assert.assertEquals(tickToStabilityUpdateState.get(48).getStabilityUpdateState().getVents()[1].getActualValue(), 14);
+        Assert.assertEquals(tickToStabilityUpdateState[23].getStabilityUpdateState().getVents()[1].getActualValue(), 20);
+        Assert.assertEquals(tickToStabilityUpdateState[48].getStabilityUpdateState().getVents()[1].getActualValue(), 14);
     }
 
     public void reverseMovementCTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
         StatusState state = new StatusState();
-        state.doVMReset();
+        state.doVMReset(teamContext);
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
 
@@ -1071,28 +1193,28 @@ public class VentStatusTimelineTest {
         Assert.assertEquals(state.getVents()[0].getUpperBoundEnd(), 12);
         //Check that all values reversed to movement states correctly
         int validMovementBit = makeMoveBitState(3, 2, 2);
-        Assert.assertEquals(tickToMovementVentState.get(8).getVents()[2].getActualValue(), 22);
+        Assert.assertEquals(tickToMovementVentState[8].getVents()[2].getActualValue(), 22);
         Assert.assertEquals(timelineEvents[8] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(18).getVents()[2].getActualValue(), 20);
+        Assert.assertEquals(tickToMovementVentState[18].getVents()[2].getActualValue(), 20);
         Assert.assertEquals(timelineEvents[18] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(28).getVents()[2].getActualValue(), 18);
+        Assert.assertEquals(tickToMovementVentState[28].getVents()[2].getActualValue(), 18);
         Assert.assertEquals(timelineEvents[28] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(38).getVents()[2].getActualValue(), 16);
+        Assert.assertEquals(tickToMovementVentState[38].getVents()[2].getActualValue(), 16);
         Assert.assertEquals(timelineEvents[38] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertEquals(tickToMovementVentState.get(48).getVents()[2].getActualValue(), 14);
+        Assert.assertEquals(tickToMovementVentState[48].getVents()[2].getActualValue(), 14);
         Assert.assertEquals(timelineEvents[48] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
         //Check that all values revered to stability update states correctly
-        Assert.assertEquals(tickToStabilityUpdateState.get(23).getStabilityUpdateState().getVents()[2].getActualValue(), 20);
-        Assert.assertEquals(tickToStabilityUpdateState.get(48).getStabilityUpdateState().getVents()[2].getActualValue(), 14);
+        Assert.assertEquals(tickToStabilityUpdateState[23].getStabilityUpdateState().getVents()[2].getActualValue(), 20);
+        Assert.assertEquals(tickToStabilityUpdateState[48].getStabilityUpdateState().getVents()[2].getActualValue(), 14);
     }
 
     public void reverseMovementFreezeClipAccurateATest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         int[] timelineEvents = timeline.getTimeline();
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
         StatusState state = new StatusState();
-        state.doVMReset();
+        state.doVMReset(teamContext);
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
 
@@ -1151,34 +1273,34 @@ public class VentStatusTimelineTest {
 
         //Check that all values reversed to movement states correctly
         int validMovementBit = makeMoveBitState(3, 1, 3);
-        Assert.assertTrue(tickToMovementVentState.get(8).getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToMovementVentState.get(8).getVents()[0].getLowerBoundStart(), 44);
+        Assert.assertTrue(tickToMovementVentState[8].getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToMovementVentState[8].getVents()[0].getLowerBoundStart(), 44);
         Assert.assertEquals(timelineEvents[8] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertTrue(tickToMovementVentState.get(18).getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToMovementVentState.get(18).getVents()[0].getLowerBoundStart(), 43);
+        Assert.assertTrue(tickToMovementVentState[18].getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToMovementVentState[18].getVents()[0].getLowerBoundStart(), 43);
         Assert.assertEquals(timelineEvents[18] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertTrue(tickToMovementVentState.get(28).getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToMovementVentState.get(28).getVents()[0].getLowerBoundStart(), 42);
+        Assert.assertTrue(tickToMovementVentState[28].getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToMovementVentState[28].getVents()[0].getLowerBoundStart(), 42);
         Assert.assertEquals(timelineEvents[28] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertTrue(tickToMovementVentState.get(38).getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToMovementVentState.get(38).getVents()[0].getLowerBoundStart(), 41);
+        Assert.assertTrue(tickToMovementVentState[38].getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToMovementVentState[38].getVents()[0].getLowerBoundStart(), 41);
         Assert.assertEquals(timelineEvents[38] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertTrue(tickToMovementVentState.get(48).getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToMovementVentState.get(48).getVents()[0].getLowerBoundStart(), 40);
+        Assert.assertTrue(tickToMovementVentState[48].getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToMovementVentState[48].getVents()[0].getLowerBoundStart(), 40);
         Assert.assertEquals(timelineEvents[48] & VentStatusTimeline.MOVEMENT_BIT_MASK, validMovementBit);
-        Assert.assertTrue(tickToMovementVentState.get(58).getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToMovementVentState.get(58).getVents()[0].getLowerBoundStart(), 38);
+        Assert.assertTrue(tickToMovementVentState[58].getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToMovementVentState[58].getVents()[0].getLowerBoundStart(), 38);
         Assert.assertEquals(timelineEvents[58] & VentStatusTimeline.MOVEMENT_BIT_MASK, makeMoveBitState(3, 2, 3));
         //Check that all values reversed to stability update states correctly
-        Assert.assertTrue(tickToStabilityUpdateState.get(23).getStabilityUpdateState().getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToStabilityUpdateState.get(23).getStabilityUpdateState().getVents()[0].getLowerBoundStart(), 43);
-        Assert.assertTrue(tickToStabilityUpdateState.get(48).getStabilityUpdateState().getVents()[0].isFreezeClipAccurate());
-        Assert.assertEquals(tickToStabilityUpdateState.get(48).getStabilityUpdateState().getVents()[0].getLowerBoundStart(), 40);
+        Assert.assertTrue(tickToStabilityUpdateState[23].getStabilityUpdateState().getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToStabilityUpdateState[23].getStabilityUpdateState().getVents()[0].getLowerBoundStart(), 43);
+        Assert.assertTrue(tickToStabilityUpdateState[48].getStabilityUpdateState().getVents()[0].isFreezeClipAccurate());
+        Assert.assertEquals(tickToStabilityUpdateState[48].getStabilityUpdateState().getVents()[0].getLowerBoundStart(), 40);
     }
 
     public void checkHalfSpaceInvalidKnownVentsTest() {
         //1-0 known vents mismatch - Half space should not be done
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 0);
         timeline.addInitialState(state);
@@ -1196,7 +1318,7 @@ public class VentStatusTimelineTest {
 
     public void getPointContributionInvalidDirectionChangeTest() {
         //A direction check
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,51,u}, 0);
         timeline.addInitialState(state);
@@ -1214,7 +1336,7 @@ public class VentStatusTimelineTest {
 
 
         //C direction test
-        VentStatusTimeline timeline2 = new VentStatusTimeline();
+        VentStatusTimeline timeline2 = new VentStatusTimeline(context);
         timeline2.addInitialState(state);
         advanceTicks(timeline2, 25);
         timeline2.addStabilityUpdateTick(state, 21);
@@ -1230,7 +1352,7 @@ public class VentStatusTimelineTest {
     }
 
     public void completeHalfSpaceInvalidStabilityChangeDiffTest() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,51,u}, 0);
         timeline.addInitialState(state);
@@ -1245,7 +1367,7 @@ public class VentStatusTimelineTest {
     }
 
     public void completeHalfSpaceTest() {
-//        VentStatusTimeline timeline = new VentStatusTimeline();
+//        VentStatusTimeline timeline = new VentStatusTimeline(context);
 //        StatusState state = new StatusState();
 //        state.updateVentStatus(new int[]{u,51,u}, 0);
 //        timeline.addInitialState(state);
@@ -1271,7 +1393,7 @@ public class VentStatusTimelineTest {
     }
 
     public void halfSpaceClippingTest() {
-//        VentStatusTimeline timeline = new VentStatusTimeline();
+//        VentStatusTimeline timeline = new VentStatusTimeline(context);
 //        StatusState startingState = new StatusState();
 //        startingState.updateVentStatus(new int[]{0,u,u}, 1);
 //
@@ -1380,7 +1502,7 @@ public class VentStatusTimelineTest {
 
 
     public void sandbox() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 3);
         timeline.addInitialState(state);
@@ -1425,9 +1547,9 @@ public class VentStatusTimelineTest {
         timeline.addIdentifiedVentTick(state, 2);
 
         //Verify results - lowerbound 30s was right answer
-        HashMap<Integer, StabilityUpdateInfo> tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
-        HashMap<Integer, StatusState> tickToMovementVentState = timeline.getMovementVentStates();
-        StatusState tick74StabState = tickToStabilityUpdateState.get(74).getStabilityUpdateState();
+        StabilityUpdateInfo[] tickToStabilityUpdateState = timeline.getStabilityUpdateStates();
+        StatusState[] tickToMovementVentState = timeline.getMovementVentStates();
+        StatusState tick74StabState = tickToStabilityUpdateState[74].getStabilityUpdateState();
         StatusState predictedState = timeline.getCurrentPredictionState();
 
         //89: Movement update
@@ -1448,7 +1570,7 @@ public class VentStatusTimelineTest {
     }
 
     public void sandbox2() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 4);
         timeline.addInitialState(state);
@@ -1662,7 +1784,7 @@ public class VentStatusTimelineTest {
     }
 
     public void sandbox3() {
-        VentStatusTimeline timeline = new VentStatusTimeline();
+        VentStatusTimeline timeline = new VentStatusTimeline(context);
         StatusState state = new StatusState();
         state.updateVentStatus(new int[]{u,u,u}, 5);
         timeline.addInitialState(state);